@@ -64,12 +64,16 @@ public abstract class AbstractAlgorithm<Observer> {
     /**
      * Run the algorithm and return the solution. This methods internally time the call
      * to doRun() and update the result of the call with the computed solving time.
+     * doRun() is not called if doPreCheck() already gives a solution.
      *
      * @return The solution found by the algorithm (may not be a feasible solution).
      */
     public AbstractSolution run() {
         Instant start = Instant.now();
-        AbstractSolution solution = this.doRun();
+        AbstractSolution solution = this.doPreCheck();
+        if (solution == null) {
+            solution = this.doRun();
+        }
         solution.setSolvingTime(Duration.between(start, Instant.now()));
         solution.setNodeVisited(this.getNodeVisited());
         return solution;
@@ -83,5 +87,15 @@ public abstract class AbstractAlgorithm<Observer> {
      */
     protected abstract AbstractSolution doRun();
 
+    /**
+     * Method that child classes can override to give a solution without running the
+     * algorithm, e.g. when the input data are known to have no feasible solution.
+     *
+     * @return A solution, or null if the algorithm has to be run (default).
+     */
+    protected AbstractSolution doPreCheck() {
+        return null;
+    }
+
     protected abstract int getNodeVisited();
 }
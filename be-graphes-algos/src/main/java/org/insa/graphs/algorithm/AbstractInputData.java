@@ -26,6 +26,13 @@ public abstract class AbstractInputData {
     // Arc filter.
     protected final ArcInspector arcInspector;
 
+    // Arc filter compiled for the CSR representation of the graph (created when first
+    // needed).
+    private CompiledArcInspector compiledArcInspector;
+
+    // Graph restricted to the allowed arcs (retrieved when first needed).
+    private FilteredGraph filteredGraph;
+
     /**
      * Create a new AbstractInputData instance for the given graph, mode and filter.
      *
@@ -44,6 +51,39 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input, e.g. to identify the costs used
+     *         by precomputed data.
+     */
+    public ArcInspector getArcInspector() {
+        return this.arcInspector;
+    }
+
+    /**
+     * @return Arc inspector associated with this input, compiled for the arc indices of
+     *         the CSR representation of the graph.
+     * @see CompiledArcInspector
+     */
+    public CompiledArcInspector getCompiledArcInspector() {
+        if (this.compiledArcInspector == null) {
+            this.compiledArcInspector = CompiledArcInspector
+                    .get(this.graph.getCsrGraph(), this.arcInspector);
+        }
+        return this.compiledArcInspector;
+    }
+
+    /**
+     * @return Graph associated with this input, restricted to the arcs allowed by the
+     *         arc inspector of this input.
+     * @see FilteredGraph
+     */
+    public FilteredGraph getFilteredGraph() {
+        if (this.filteredGraph == null) {
+            this.filteredGraph = FilteredGraph.get(this.graph, this.arcInspector);
+        }
+        return this.filteredGraph;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying arc
      * inspector.
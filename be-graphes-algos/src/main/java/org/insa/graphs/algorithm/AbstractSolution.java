@@ -88,8 +88,9 @@ public abstract class AbstractSolution {
 
     /**
      * Set the number of nodes visited during the algorithm execution.
+     *
      * @param nodeVisited Number of nodes visited.
-     * */
+     */
     protected void setNodeVisited(int nodeVisited) {
         this.nodeVisited = nodeVisited;
     }
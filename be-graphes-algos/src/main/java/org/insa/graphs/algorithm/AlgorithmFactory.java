@@ -7,10 +7,20 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.AStarEquirectangularAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalAStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DeltaSteppingAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.PrimitiveDijkstraAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.strongconnectivity.StronglyConnectedComponentsAlgorithm;
+import org.insa.graphs.algorithm.weakconnectivity.UnionFindWeaklyConnectedComponentsAlgorithm;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
 /**
@@ -27,6 +37,16 @@ public class AlgorithmFactory {
         // Register weakly-connected components algorithm:
         registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC basic",
                 WeaklyConnectedComponentsAlgorithm.class);
+        registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC union-find",
+                UnionFindWeaklyConnectedComponentsAlgorithm.class);
+
+        // Register strongly-connected components algorithm:
+        registerAlgorithm(StronglyConnectedComponentsAlgorithm.class, "SCC Tarjan",
+                StronglyConnectedComponentsAlgorithm.class);
+
+        // Register distance matrix algorithm:
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "Dijkstra (one-to-many)",
+                DistanceMatrixAlgorithm.class);
 
         // Register shortest path algorithm:
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford",
@@ -34,6 +54,20 @@ public class AlgorithmFactory {
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra",
                 DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (equirectangular)",
+                AStarEquirectangularAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (primitive)",
+                PrimitiveDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (bidirectional)",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (bidirectional)",
+                BidirectionalAStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (landmarks)",
+                ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction hierarchies",
+                ContractionHierarchyAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Delta-stepping",
+                DeltaSteppingAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
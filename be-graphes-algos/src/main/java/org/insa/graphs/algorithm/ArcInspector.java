@@ -7,6 +7,12 @@ import org.insa.graphs.model.GraphStatistics;
 /**
  * This class can be used to indicate to an algorithm which arcs can be used and the
  * costs of the usable arcs.
+ * <p>
+ * Data derived from a graph for an inspector (filtered graphs, preprocessing, ...) are
+ * shared between equal inspectors (see {@link Object#equals(Object)}), so inspectors
+ * only compare equal if they allow the same arcs with the same costs. By default,
+ * inspectors are only equal to themselves.
+ * </p>
  */
 public interface ArcInspector {
 
@@ -5,13 +5,26 @@ import java.util.EnumSet;
 import java.util.List;
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.AccessRestrictions;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.RoadInformation;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
 import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
 
 public class ArcInspectorFactory {
 
+    // Mask of the restrictions allowing a transport mode (computed once, not for every
+    // arc).
+    private static final int ALLOWED_RESTRICTIONS =
+            AccessRestrictions.getRestrictionMask(EnumSet.complementOf(EnumSet
+                    .of(AccessRestriction.FORBIDDEN, AccessRestriction.PRIVATE)));
+
+    /*
+     * Inspectors extending this one may override isAllowed(Arc) and getCost(Arc), so it
+     * is not compilable: only the final inspectors below implement
+     * CompilableArcInspector, consistently with these methods.
+     */
     private static class NoFilterByLengthArcInspector implements ArcInspector {
 
         @Override
@@ -38,17 +51,50 @@ public class ArcInspectorFactory {
         public String toString() {
             return "Shortest path, all roads allowed";
         }
+
+        @Override
+        public boolean equals(Object other) {
+            // Inspectors of this class have no state.
+            return other != null && other.getClass() == getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
     };
 
-    private static class OnlyCarsByLengthArcInspector
-            extends NoFilterByLengthArcInspector {
+    private static final class AllRoadsByLengthArcInspector
+            extends NoFilterByLengthArcInspector implements CompilableArcInspector {
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            return true;
+        }
+
+        @Override
+        public double getSpeed(RoadInformation roadInformation) {
+            return roadInformation.getMaximumSpeed();
+        }
+    };
+
+    private static final class OnlyCarsByLengthArcInspector
+            extends NoFilterByLengthArcInspector implements CompilableArcInspector {
 
         @Override
         public boolean isAllowed(Arc arc) {
-            return arc.getRoadInformation().getAccessRestrictions().isAllowedForAny(
-                    AccessMode.MOTORCAR,
-                    EnumSet.complementOf(EnumSet.of(AccessRestriction.FORBIDDEN,
-                            AccessRestriction.PRIVATE)));
+            return isAllowed(arc.getRoadInformation());
+        }
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            return roadInformation.getAccessRestrictions()
+                    .isAllowedForAny(AccessMode.MOTORCAR, ALLOWED_RESTRICTIONS);
+        }
+
+        @Override
+        public double getSpeed(RoadInformation roadInformation) {
+            return roadInformation.getMaximumSpeed();
         }
 
         @Override
@@ -57,8 +103,18 @@ public class ArcInspectorFactory {
         }
     };
 
-    private static class OnlyCarsByTimeArcInspector
-            extends NoFilterByLengthArcInspector {
+    private static final class OnlyCarsByTimeArcInspector
+            extends NoFilterByLengthArcInspector implements CompilableArcInspector {
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            return true;
+        }
+
+        @Override
+        public double getSpeed(RoadInformation roadInformation) {
+            return roadInformation.getMaximumSpeed();
+        }
 
         @Override
         public double getCost(Arc arc) {
@@ -76,22 +132,29 @@ public class ArcInspectorFactory {
         }
     };
 
-    private static class OnlyPedestrianByTime implements ArcInspector {
+    private static final class OnlyPedestrianByTime implements CompilableArcInspector {
 
         static final int maxPedestrianSpeed = 5;
 
         @Override
         public boolean isAllowed(Arc arc) {
-            return arc.getRoadInformation().getAccessRestrictions().isAllowedForAny(
-                    AccessMode.FOOT,
-                    EnumSet.complementOf(EnumSet.of(AccessRestriction.FORBIDDEN,
-                            AccessRestriction.PRIVATE)));
+            return isAllowed(arc.getRoadInformation());
+        }
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            return roadInformation.getAccessRestrictions()
+                    .isAllowedForAny(AccessMode.FOOT, ALLOWED_RESTRICTIONS);
         }
 
         @Override
         public double getCost(Arc arc) {
-            return arc.getTravelTime(Math.min(maxPedestrianSpeed,
-                    arc.getRoadInformation().getMaximumSpeed()));
+            return arc.getTravelTime(getSpeed(arc.getRoadInformation()));
+        }
+
+        @Override
+        public double getSpeed(RoadInformation roadInformation) {
+            return Math.min(maxPedestrianSpeed, roadInformation.getMaximumSpeed());
         }
 
         @Override
@@ -99,6 +162,17 @@ public class ArcInspectorFactory {
             return "Fastest path for pedestrian";
         }
 
+        @Override
+        public boolean equals(Object other) {
+            // Inspectors of this class have no state.
+            return other != null && other.getClass() == getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+
         @Override
         public int getMaximumSpeed() {
             return 5;
@@ -116,7 +190,7 @@ public class ArcInspectorFactory {
     public static List<ArcInspector> getAllFilters() {
         // Add your own filters here (do not forget to implement toString()
         // to get an understandable output!):
-        return Arrays.asList(new NoFilterByLengthArcInspector(),
+        return Arrays.asList(new AllRoadsByLengthArcInspector(),
                 new OnlyCarsByLengthArcInspector(), new OnlyCarsByTimeArcInspector(),
                 new OnlyPedestrianByTime());
     }
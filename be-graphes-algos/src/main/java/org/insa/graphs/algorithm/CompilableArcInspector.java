@@ -0,0 +1,43 @@
+package org.insa.graphs.algorithm;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * Arc inspector whose decisions only depend on the road information of the arcs (and on
+ * their length for the costs), so that it can be turned into lookup tables indexed by
+ * descriptor (see {@link CompiledArcInspector}).
+ * <p>
+ * Implementations must be consistent with {@link ArcInspector}: an arc is allowed if
+ * and only if {@link #isAllowed(RoadInformation)} returns true for its road
+ * information, and the cost of an arc is its length in {@link Mode#LENGTH} mode, or
+ * {@link Arc#getTravelTime(double)} at the speed returned by
+ * {@link #getSpeed(RoadInformation)} in {@link Mode#TIME} mode.
+ * </p>
+ * <p>
+ * A subclass overriding {@link #isAllowed(Arc)} or {@link #getCost(Arc)} but not the
+ * methods above is not compiled, and is called on each arc instead (see
+ * {@link CompiledArcInspector#isCompilable(ArcInspector)}).
+ * </p>
+ */
+public interface CompilableArcInspector extends ArcInspector {
+
+    /**
+     * Check if the arcs with the given road information can be used.
+     *
+     * @param roadInformation Road information to check.
+     * @return true if the arcs with this road information are allowed.
+     */
+    public boolean isAllowed(RoadInformation roadInformation);
+
+    /**
+     * Find the speed used to compute the cost of the arcs with the given road
+     * information, in {@link Mode#TIME} mode (not used in {@link Mode#LENGTH} mode).
+     *
+     * @param roadInformation Road information of the arcs.
+     * @return Speed on these arcs, in kilometers per hour.
+     */
+    public double getSpeed(RoadInformation roadInformation);
+
+}
@@ -0,0 +1,171 @@
+package org.insa.graphs.algorithm;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Arc inspector working on the arc indices of a {@link CsrGraph}. If the inspector is a
+ * {@link CompilableArcInspector} (see {@link #isCompilable(ArcInspector)}), it is
+ * compiled into two tables indexed by descriptor (whether the arcs are allowed, and
+ * their speed), so that checking an arc and computing its cost only read arrays. Other
+ * inspectors are called on the {@link Arc} objects, as without compilation.
+ * </p>
+ * <p>
+ * The tables of each CSR graph and inspector are kept in memory as long as the graph
+ * and the inspector are, as {@link DerivedData}, see
+ * {@link #get(CsrGraph, ArcInspector)}.
+ * </p>
+ */
+public final class CompiledArcInspector {
+
+    /**
+     * Lookup tables of a compiled inspector, indexed by descriptor (without reference
+     * to the graph or the inspector, so that they can be kept as derived data).
+     */
+    private static final class Tables {
+
+        // Tables indexed by descriptor, null if the inspector is not compilable.
+        private final boolean[] allowed;
+        private final double[] speeds;
+
+        Tables(CsrGraph csr, ArcInspector inspector) {
+            if (isCompilable(inspector)) {
+                final CompilableArcInspector compilable =
+                        (CompilableArcInspector) inspector;
+                this.allowed = new boolean[csr.getNumberOfDescriptors()];
+                this.speeds = new double[csr.getNumberOfDescriptors()];
+                for (int d = 0; d < this.allowed.length; ++d) {
+                    final RoadInformation descriptor = csr.getDescriptor(d);
+                    this.allowed[d] = compilable.isAllowed(descriptor);
+                    this.speeds[d] = compilable.getSpeed(descriptor);
+                }
+            }
+            else {
+                this.allowed = null;
+                this.speeds = null;
+            }
+        }
+
+    }
+
+    // Graph and original inspector.
+    private final CsrGraph csr;
+    private final ArcInspector inspector;
+
+    // Tables indexed by descriptor, null if the inspector is not compilable.
+    private final boolean[] allowed;
+    private final double[] speeds;
+
+    // true if costs are travel times, false if costs are lengths.
+    private final boolean byTime;
+
+    private CompiledArcInspector(CsrGraph csr, ArcInspector inspector, Tables tables) {
+        this.csr = csr;
+        this.inspector = inspector;
+        this.allowed = tables.allowed;
+        this.speeds = tables.speeds;
+        this.byTime = inspector.getMode() == Mode.TIME;
+    }
+
+    /**
+     * Check if the given inspector can be compiled: it must be a
+     * {@link CompilableArcInspector}, and its {@link ArcInspector#isAllowed(Arc)} and
+     * {@link ArcInspector#getCost(Arc)} methods must not be overridden by a subclass of
+     * the classes implementing
+     * {@link CompilableArcInspector#isAllowed(RoadInformation)} and
+     * {@link CompilableArcInspector#getSpeed(RoadInformation)}, since the lookup tables
+     * would then ignore them.
+     *
+     * @param inspector An arc inspector.
+     * @return true if the inspector can be compiled.
+     */
+    public static boolean isCompilable(ArcInspector inspector) {
+        if (!(inspector instanceof CompilableArcInspector)) {
+            return false;
+        }
+        try {
+            final Class<?> type = inspector.getClass();
+            final Class<?> allowedByArc =
+                    getDeclaringClass(type, "isAllowed", Arc.class);
+            final Class<?> costByArc = getDeclaringClass(type, "getCost", Arc.class);
+            for (Class<?> byDescriptor : new Class<?>[] {
+                    getDeclaringClass(type, "isAllowed", RoadInformation.class),
+                    getDeclaringClass(type, "getSpeed", RoadInformation.class) }) {
+                if (!allowedByArc.isAssignableFrom(byDescriptor)
+                        || !costByArc.isAssignableFrom(byDescriptor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        catch (NoSuchMethodException | SecurityException exception) {
+            return false;
+        }
+    }
+
+    private static Class<?> getDeclaringClass(Class<?> type, String name,
+            Class<?> parameter) throws NoSuchMethodException {
+        return type.getMethod(name, parameter).getDeclaringClass();
+    }
+
+    /**
+     * Retrieve the compiled version of the given inspector for the given graph,
+     * compiling it if its tables are not in memory yet.
+     *
+     * @param csr Graph of the arcs to inspect.
+     * @param inspector Arc inspector to compile.
+     * @return Compiled inspector.
+     */
+    public static CompiledArcInspector get(CsrGraph csr, ArcInspector inspector) {
+        final Tables tables = DerivedData.get(csr, inspector, "compiled-inspector",
+                name -> new Tables(csr, inspector));
+        return new CompiledArcInspector(csr, inspector, tables);
+    }
+
+    /**
+     * @return Original arc inspector.
+     */
+    public ArcInspector getInspector() {
+        return this.inspector;
+    }
+
+    /**
+     * @return true if the inspector was compiled into lookup tables, false if it is
+     *         called on each arc.
+     */
+    public boolean isCompiled() {
+        return this.allowed != null;
+    }
+
+    /**
+     * @param arc Index of an arc of the graph.
+     * @return true if the arc is allowed.
+     * @see ArcInspector#isAllowed(Arc)
+     */
+    public boolean isAllowed(int arc) {
+        if (this.allowed != null) {
+            return this.allowed[this.csr.getDescriptorIndex(arc)];
+        }
+        return this.inspector.isAllowed(this.csr.getArc(arc));
+    }
+
+    /**
+     * @param arc Index of an arc of the graph.
+     * @return Cost of the arc.
+     * @see ArcInspector#getCost(Arc)
+     */
+    public double getCost(int arc) {
+        if (this.speeds != null) {
+            // Same formula as Arc.getTravelTime(double), for identical costs.
+            return this.byTime
+                    ? this.csr.getLength(arc) * 3600.0
+                            / (this.speeds[this.csr.getDescriptorIndex(arc)] * 1000.0)
+                    : this.csr.getLength(arc);
+        }
+        return this.inspector.getCost(this.csr.getArc(arc));
+    }
+
+}
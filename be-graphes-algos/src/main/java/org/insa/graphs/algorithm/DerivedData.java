@@ -0,0 +1,182 @@
+package org.insa.graphs.algorithm;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+import org.insa.graphs.model.CsrGraph;
+
+/**
+ * <p>
+ * Data derived from a graph by algorithms for a given arc inspector, computed once and
+ * kept in memory as long as the graph and the inspector are. Data are identified by
+ * their graph, their inspector (compared with {@link Object#equals(Object)}, see
+ * {@link ArcInspector}) and their name. Graphs and inspectors are referenced weakly, so
+ * derived data never keep a graph or an inspector in memory.
+ * </p>
+ * <p>
+ * Derived data must not reference their graph (neither the {@link CsrGraph} nor its
+ * {@link org.insa.graphs.model.Graph}) or their inspector, otherwise the graph or the
+ * inspector, and thus the data, would never be dropped.
+ * </p>
+ */
+public final class DerivedData {
+
+    /**
+     * Computation of derived data, stored while the data are being computed.
+     */
+    private static final class PendingData extends FutureTask<Object> {
+
+        PendingData(Callable<Object> computation) {
+            super(computation);
+        }
+
+    }
+
+    // Data derived from each graph for each inspector, by name (data being computed are
+    // stored as a PendingData). The map of a graph and an inspector is retrieved under
+    // the lock of DATA, its content is read without locking.
+    private static final Map<CsrGraph, Map<ArcInspector, ConcurrentHashMap<String, Object>>> DATA =
+            new WeakHashMap<>();
+
+    private DerivedData() {}
+
+    /*
+     * Function to retrieve the data derived from the given graph for the given
+     * inspector
+     *
+     * @param csr the graph
+     *
+     * @param inspector the arc inspector
+     *
+     * @param create true to create the map if the graph has no derived data for the
+     * inspector yet
+     *
+     * @return the data derived from the graph for the inspector, by name (null if
+     * create is false and the graph has no derived data for the inspector)
+     */
+    private static ConcurrentHashMap<String, Object> getData(CsrGraph csr,
+            ArcInspector inspector, boolean create) {
+        synchronized (DATA) {
+            Map<ArcInspector, ConcurrentHashMap<String, Object>> byInspector =
+                    DATA.get(csr);
+            if (byInspector == null) {
+                if (!create) {
+                    return null;
+                }
+                byInspector = new WeakHashMap<>();
+                DATA.put(csr, byInspector);
+            }
+            ConcurrentHashMap<String, Object> data = byInspector.get(inspector);
+            if (data == null && create) {
+                data = new ConcurrentHashMap<>();
+                byInspector.put(inspector, data);
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Retrieve data derived from the given graph for the given inspector, computing
+     * them if they are not in memory yet.
+     * <p>
+     * Data are computed at most once: other threads asking for the same data wait for
+     * their computation, which may itself retrieve other data derived from the graph.
+     * </p>
+     *
+     * @param csr Graph the data are derived from.
+     * @param inspector Arc inspector the data are derived for.
+     * @param name Name of the data, which must always be used for the same type.
+     * @param function Function computing the data (not null, without reference to the
+     *        graph or the inspector) from their name.
+     * @param <T> Type of the data.
+     * @return Data derived from the graph for the inspector with the given name.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(CsrGraph csr, ArcInspector inspector, String name,
+            Function<String, ? extends T> function) {
+        final ConcurrentHashMap<String, Object> data = getData(csr, inspector, true);
+        Object result = data.get(name);
+        if (result == null) {
+            final PendingData pending = new PendingData(() -> function.apply(name));
+            result = data.putIfAbsent(name, pending);
+            if (result == null) {
+                pending.run();
+                result = pending;
+            }
+        }
+        if (result instanceof PendingData) {
+            result = await(data, name, (PendingData) result);
+        }
+        return (T) result;
+    }
+
+    /**
+     * Drop data derived from the given graph for the given inspector, which are then
+     * computed again by the next call to
+     * {@link #get(CsrGraph, ArcInspector, String, Function)} with the same name.
+     *
+     * @param csr Graph the data are derived from.
+     * @param inspector Arc inspector the data are derived for.
+     * @param name Name of the data.
+     * @param value Data to drop (nothing is dropped if the data with this name are not
+     *        these ones anymore).
+     */
+    public static void remove(CsrGraph csr, ArcInspector inspector, String name,
+            Object value) {
+        final ConcurrentHashMap<String, Object> data = getData(csr, inspector, false);
+        if (data != null) {
+            data.remove(name, value);
+        }
+    }
+
+    /*
+     * Function to wait for the computation of derived data, and to replace them in the
+     * map once computed (or to remove them if the computation failed)
+     *
+     * @param data the data derived from the graph for an inspector, by name
+     *
+     * @param name the name of the data
+     *
+     * @param pending the computation of the data
+     *
+     * @return the data
+     */
+    private static Object await(ConcurrentHashMap<String, Object> data, String name,
+            PendingData pending) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    final Object result = pending.get();
+                    data.replace(name, pending, result);
+                    return result;
+                }
+                catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        catch (ExecutionException exception) {
+            data.remove(name, pending);
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,410 @@
+package org.insa.graphs.algorithm;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Adjacency of a graph restricted to the arcs allowed by an arc inspector, in the same
+ * compact (CSR) layout as {@link CsrGraph}: the allowed outgoing arcs of node u are the
+ * arcs {@code getFirstArc(u) <= e < getEndArc(u)}, with their target and their cost
+ * stored in arrays. Searches iterate only over the arcs they can use, without calling
+ * the inspector.
+ * </p>
+ * <p>
+ * Each arc keeps the index of the arc of the {@link CsrGraph} it comes from (see
+ * {@link #getOriginalArc(int)}), so the corresponding {@link Arc} object can still be
+ * retrieved from the CSR graph to build paths. The allowed incoming arcs of each node
+ * are indexed on first use, for backward searches (see
+ * {@link #getFirstIncomingArc(int)}).
+ * </p>
+ * <p>
+ * Filtered graphs are kept in memory for each graph and inspector as
+ * {@link DerivedData}, and do not reference their graph or their inspector, so they
+ * never keep them in memory. The least recently used ones are dropped once their total
+ * size exceeds {@link #getMaximumMemory()}, see {@link #get(Graph, ArcInspector)}.
+ * </p>
+ */
+public final class FilteredGraph {
+
+    // Default maximum size of the filtered graphs kept in memory (in bytes).
+    public static final long DEFAULT_MAXIMUM_MEMORY = 256L << 20;
+
+    /**
+     * Filtered graph in memory, referenced weakly so that it is dropped along with its
+     * graph or its inspector.
+     */
+    private static final class Entry extends WeakReference<FilteredGraph> {
+
+        // Graph and inspector of the filtered graph, and size of the filtered graph
+        // when
+        // last counted.
+        private final WeakReference<CsrGraph> csr;
+        private final WeakReference<ArcInspector> inspector;
+        private long memorySize;
+
+        // Time of last use of the filtered graph when entries were last sorted.
+        private long lastUse;
+
+        Entry(CsrGraph csr, ArcInspector inspector, FilteredGraph filtered) {
+            super(filtered);
+            this.csr = new WeakReference<>(csr);
+            this.inspector = new WeakReference<>(inspector);
+            this.memorySize = filtered.getMemorySize();
+        }
+
+    }
+
+    // Name of the filtered graphs in the derived data.
+    private static final String NAME = "filtered-graph";
+
+    // Filtered graphs in memory (LOCK must be held).
+    private static final List<Entry> ENTRIES = new ArrayList<>();
+
+    // Lock of the entries and of the sizes below.
+    private static final Object LOCK = new Object();
+
+    // Maximum and current size of the filtered graphs in memory (in bytes).
+    private static long maximumMemory = DEFAULT_MAXIMUM_MEMORY;
+    private static long usedMemory = 0;
+
+    // Counter giving the time of the last use of each filtered graph.
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    // Allowed outgoing arcs of node u are the arcs offsets[u] <= e < offsets[u + 1].
+    private final int[] offsets;
+
+    // Target node, cost and arc of the CSR graph of each allowed arc.
+    private final int[] targets;
+    private final float[] costs;
+    private final int[] originalArcs;
+
+    // Allowed incoming arcs of node v are the arcs incomingArcs[i] for
+    // incomingOffsets[v] <= i < incomingOffsets[v + 1], with their origin in
+    // incomingOrigins[i] (created on demand).
+    private volatile int[] incomingOffsets;
+    private volatile int[] incomingArcs;
+    private volatile int[] incomingOrigins;
+
+    // Entry of this filtered graph in the memory used, once counted (LOCK must be
+    // held).
+    private Entry entry;
+
+    // Time of the last use of this filtered graph, to drop the least recently used.
+    private volatile long lastUse;
+
+    // true once this filtered graph is counted in the memory used.
+    private volatile boolean registered;
+
+    private FilteredGraph(CsrGraph csr, ArcInspector inspector) {
+        final CompiledArcInspector compiled = CompiledArcInspector.get(csr, inspector);
+        final int nbNodes = csr.size();
+
+        this.offsets = new int[nbNodes + 1];
+        int nbArcs = 0;
+        for (int e = 0; e < csr.getNumberOfArcs(); ++e) {
+            if (compiled.isAllowed(e)) {
+                nbArcs++;
+            }
+        }
+
+        this.targets = new int[nbArcs];
+        this.costs = new float[nbArcs];
+        this.originalArcs = new int[nbArcs];
+        int arc = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            this.offsets[node] = arc;
+            for (int e = csr.getFirstArc(node),
+                    end = csr.getEndArc(node); e < end; ++e) {
+                if (compiled.isAllowed(e)) {
+                    this.targets[arc] = csr.getTarget(e);
+                    this.costs[arc] = (float) compiled.getCost(e);
+                    this.originalArcs[arc] = e;
+                    arc++;
+                }
+            }
+        }
+        this.offsets[nbNodes] = arc;
+    }
+
+    /**
+     * Retrieve the filtered version of the given graph for the given inspector,
+     * building it if it is not in memory yet. The least recently used filtered graphs
+     * are then dropped if the filtered graphs in memory are too large (the most
+     * recently used one is always kept). Filtered graphs in memory are read without
+     * locking.
+     *
+     * @param graph Graph to filter.
+     * @param inspector Arc inspector giving the allowed arcs and their costs.
+     * @return Filtered graph.
+     */
+    public static FilteredGraph get(Graph graph, ArcInspector inspector) {
+        final CsrGraph csr = graph.getCsrGraph();
+        final FilteredGraph result = DerivedData.get(csr, inspector, NAME,
+                name -> new FilteredGraph(csr, inspector));
+        result.lastUse = CLOCK.incrementAndGet();
+        if (!result.registered) {
+            register(csr, inspector, result);
+        }
+        return result;
+    }
+
+    /*
+     * Function to count a new filtered graph in the memory used, and to drop the least
+     * recently used ones if needed
+     *
+     * @param csr the graph of the filtered graph
+     *
+     * @param inspector the inspector of the filtered graph
+     *
+     * @param filtered the new filtered graph
+     */
+    private static void register(CsrGraph csr, ArcInspector inspector,
+            FilteredGraph filtered) {
+        synchronized (LOCK) {
+            if (filtered.registered) {
+                return;
+            }
+            filtered.registered = true;
+            filtered.entry = new Entry(csr, inspector, filtered);
+            ENTRIES.add(filtered.entry);
+            usedMemory += filtered.entry.memorySize;
+            evict();
+        }
+    }
+
+    /*
+     * Function to count the new size of a filtered graph in the memory used (e.g. once
+     * its incoming arcs are indexed), and to drop the least recently used filtered
+     * graphs if needed
+     *
+     * @param filtered the filtered graph
+     */
+    private static void resize(FilteredGraph filtered) {
+        synchronized (LOCK) {
+            final Entry entry = filtered.entry;
+            if (entry == null || !ENTRIES.contains(entry)) {
+                return;
+            }
+            final long memorySize = filtered.getMemorySize();
+            usedMemory += memorySize - entry.memorySize;
+            entry.memorySize = memorySize;
+            evict();
+        }
+    }
+
+    /**
+     * @return Maximum size (in bytes) of the filtered graphs kept in memory.
+     */
+    public static long getMaximumMemory() {
+        synchronized (LOCK) {
+            return maximumMemory;
+        }
+    }
+
+    /**
+     * Set the maximum size of the filtered graphs kept in memory, dropping the least
+     * recently used ones if needed.
+     *
+     * @param bytes Maximum size (in bytes) of the filtered graphs kept in memory.
+     */
+    public static void setMaximumMemory(long bytes) {
+        synchronized (LOCK) {
+            maximumMemory = bytes;
+            evict();
+        }
+    }
+
+    /*
+     * Function to drop the least recently used filtered graphs until they fit in the
+     * maximum memory, the most recently used one being always kept (LOCK must be held)
+     */
+    private static void evict() {
+        // Filtered graphs dropped along with their graph or their inspector.
+        ENTRIES.removeIf(entry -> {
+            if (entry.get() == null) {
+                usedMemory -= entry.memorySize;
+                return true;
+            }
+            return false;
+        });
+        if (usedMemory <= maximumMemory) {
+            return;
+        }
+
+        // Times of last use are read once, since they can change during the sort.
+        for (Entry entry : ENTRIES) {
+            final FilteredGraph filtered = entry.get();
+            entry.lastUse = filtered == null ? Long.MIN_VALUE : filtered.lastUse;
+        }
+        ENTRIES.sort(Comparator.comparingLong(entry -> entry.lastUse));
+        while (usedMemory > maximumMemory && ENTRIES.size() > 1) {
+            final Entry entry = ENTRIES.remove(0);
+            final FilteredGraph filtered = entry.get();
+            final CsrGraph csr = entry.csr.get();
+            final ArcInspector inspector = entry.inspector.get();
+            if (filtered != null && csr != null && inspector != null) {
+                DerivedData.remove(csr, inspector, NAME, filtered);
+            }
+            usedMemory -= entry.memorySize;
+        }
+    }
+
+    /**
+     * @return Number of nodes (the same as in the original graph).
+     */
+    public int size() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * @return Number of allowed arcs.
+     */
+    public int getNumberOfArcs() {
+        return this.targets.length;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index of the first allowed outgoing arc of the node.
+     */
+    public int getFirstArc(int node) {
+        return this.offsets[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index after the last allowed outgoing arc of the node.
+     */
+    public int getEndArc(int node) {
+        return this.offsets[node + 1];
+    }
+
+    /**
+     * @param arc Index of an allowed arc.
+     * @return ID of the destination of the arc.
+     */
+    public int getTarget(int arc) {
+        return this.targets[arc];
+    }
+
+    /**
+     * @param arc Index of an allowed arc.
+     * @return Cost of the arc for the inspector.
+     */
+    public float getCost(int arc) {
+        return this.costs[arc];
+    }
+
+    /**
+     * @param arc Index of an allowed arc.
+     * @return Index of the arc in the CSR graph, e.g. to retrieve its {@link Arc}
+     *         object with {@link CsrGraph#getArc(int)}.
+     */
+    public int getOriginalArc(int arc) {
+        return this.originalArcs[arc];
+    }
+
+    /**
+     * Index the allowed incoming arcs of each node, if not done yet.
+     */
+    private void ensureIncomingArcs() {
+        if (this.incomingOrigins != null) {
+            return;
+        }
+        synchronized (this) {
+            if (this.incomingOrigins != null) {
+                return;
+            }
+            final int nbNodes = size();
+            final int[] offsets = new int[nbNodes + 1];
+            for (int arc = 0; arc < this.targets.length; ++arc) {
+                offsets[this.targets[arc] + 1]++;
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                offsets[node + 1] += offsets[node];
+            }
+            final int[] arcs = new int[this.targets.length];
+            final int[] origins = new int[this.targets.length];
+            final int[] next = Arrays.copyOf(offsets, nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int arc =
+                        this.offsets[node]; arc < this.offsets[node + 1]; ++arc) {
+                    final int i = next[this.targets[arc]]++;
+                    arcs[i] = arc;
+                    origins[i] = node;
+                }
+            }
+            this.incomingOffsets = offsets;
+            this.incomingArcs = arcs;
+            this.incomingOrigins = origins;
+        }
+        resize(this);
+    }
+
+    /**
+     * Retrieve the position of the first allowed incoming arc of the given node in the
+     * index of incoming arcs: the allowed incoming arcs of node v are the arcs
+     * {@code getIncomingArc(i)}, from {@code getIncomingOrigin(i)}, for
+     * {@code getFirstIncomingArc(v) <= i < getEndIncomingArc(v)}. The index is built on
+     * first use.
+     *
+     * @param node ID of a node.
+     * @return Position of the first allowed incoming arc of the node.
+     */
+    public int getFirstIncomingArc(int node) {
+        ensureIncomingArcs();
+        return this.incomingOffsets[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position after the last allowed incoming arc of the node.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getEndIncomingArc(int node) {
+        ensureIncomingArcs();
+        return this.incomingOffsets[node + 1];
+    }
+
+    /**
+     * @param i Position in the index of incoming arcs.
+     * @return Index of the allowed arc at the given position.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingArc(int i) {
+        ensureIncomingArcs();
+        return this.incomingArcs[i];
+    }
+
+    /**
+     * @param i Position in the index of incoming arcs.
+     * @return ID of the origin of the allowed arc at the given position.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingOrigin(int i) {
+        ensureIncomingArcs();
+        return this.incomingOrigins[i];
+    }
+
+    /**
+     * @return Approximate size of this filtered graph in memory (in bytes), including
+     *         its index of incoming arcs if it was built.
+     */
+    public long getMemorySize() {
+        long size = 4L * this.offsets.length + 12L * this.targets.length;
+        if (this.incomingOrigins != null) {
+            size += 4L * this.incomingOffsets.length + 8L * this.incomingArcs.length;
+        }
+        return size;
+    }
+
+}
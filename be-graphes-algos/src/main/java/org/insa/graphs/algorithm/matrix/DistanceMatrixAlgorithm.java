@@ -0,0 +1,225 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.algorithm.shortestpath.SearchWorkspace;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.algorithm.utils.ParallelLoop;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Many-to-many shortest path costs: one Dijkstra search is run from each origin, and
+ * stops as soon as all the targets have been settled instead of exploring the whole
+ * graph.
+ * </p>
+ * <p>
+ * Searches are independent, and are run in parallel in a fork-join pool (the common
+ * pool unless another one is given). Each thread uses its own {@link SearchWorkspace},
+ * so no array of the size of the graph is allocated per search.
+ * </p>
+ */
+public class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    // Pool running the searches.
+    private final ForkJoinPool pool;
+
+    // Counter for the number of nodes visited (all searches).
+    private final LongAdder nodeVisited = new LongAdder();
+
+    public DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    public DistanceMatrixAlgorithm(DistanceMatrixData data, ForkJoinPool pool) {
+        super(data);
+        this.pool = pool;
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the row of an origin has been computed. This method is
+     * called by the threads of the pool running the searches, possibly at the same time
+     * for different rows.
+     *
+     * @param index Index of the origin.
+     * @param origin Origin.
+     */
+    public void notifyRowComputed(int index, Node origin) {
+        for (DistanceMatrixObserver obs : getObservers()) {
+            obs.notifyRowComputed(index, origin);
+        }
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final DistanceMatrixData data = getInputData();
+        final List<Node> origins = data.getOrigins();
+        final List<Node> targets = data.getTargets();
+        final float[] costs = new float[origins.size() * targets.size()];
+        final Path[] paths = data.isWithPaths() ? new Path[costs.length] : null;
+
+        // Targets are shared by all the searches (a node may appear several times).
+        final boolean[] isTarget = new boolean[data.getGraph().size()];
+        int nbDistinctTargets = 0;
+        for (Node target : targets) {
+            if (!isTarget[target.getId()]) {
+                isTarget[target.getId()] = true;
+                nbDistinctTargets++;
+            }
+        }
+        final int nbTargets = nbDistinctTargets;
+
+        // One origin per chunk, searches being long enough to be run separately.
+        try {
+            ParallelLoop.run(this.pool, origins.size(), 1, (from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    computeRow(i, isTarget, nbTargets, costs, paths);
+                }
+            });
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return new DistanceMatrixSolution(data, Status.UNKNOWN);
+        }
+
+        Status status = Status.OPTIMAL;
+        if (costs.length > 0) {
+            status = Status.INFEASIBLE;
+            for (float cost : costs) {
+                if (cost < Float.POSITIVE_INFINITY) {
+                    status = Status.OPTIMAL;
+                    break;
+                }
+            }
+        }
+        return new DistanceMatrixSolution(data, status, costs, paths);
+    }
+
+    /*
+     * Function to compute the row of an origin with a one-to-many Dijkstra
+     *
+     * @param index the index of the origin
+     *
+     * @param isTarget true for the IDs of the target nodes
+     *
+     * @param nbTargets the number of distinct targets
+     *
+     * @param costs the costs of the matrix (row by row)
+     *
+     * @param paths the paths of the matrix (row by row), null if not computed
+     */
+    private void computeRow(int index, boolean[] isTarget, int nbTargets, float[] costs,
+            Path[] paths) {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final FilteredGraph filtered = data.getFilteredGraph();
+        final Node origin = data.getOrigins().get(index);
+        final List<Node> targets = data.getTargets();
+
+        final SearchWorkspace workspace = SearchWorkspace.acquire(graph);
+        try {
+            final IndexedDaryHeap heap =
+                    workspace.getHeap(IndexedDaryHeap.DEFAULT_ARITY);
+            workspace.update(origin.getId(), 0, -1);
+            heap.insert(origin.getId(), 0);
+
+            // Stops when all the targets are settled (or no more node can be reached).
+            int remaining = nbTargets;
+            int visited = 0;
+            while (!heap.isEmpty() && remaining > 0) {
+                final int current = heap.deleteMin();
+                workspace.mark(current);
+                visited++;
+                if (isTarget[current]) {
+                    remaining--;
+                }
+                final float currentCost = workspace.getCost(current);
+                for (int e = filtered.getFirstArc(current),
+                        end = filtered.getEndArc(current); e < end; ++e) {
+                    final int successor = filtered.getTarget(e);
+                    if (workspace.isMarked(successor)) {
+                        continue;
+                    }
+                    final float newCost = currentCost + filtered.getCost(e);
+                    if (newCost < workspace.getCost(successor)) {
+                        workspace.update(successor, newCost,
+                                filtered.getOriginalArc(e));
+                        heap.insertOrDecreaseKey(successor, newCost);
+                    }
+                }
+            }
+            this.nodeVisited.add(visited);
+
+            // Targets not settled cannot be reached.
+            final int offset = index * targets.size();
+            for (int j = 0; j < targets.size(); ++j) {
+                final Node target = targets.get(j);
+                final boolean found = workspace.isMarked(target.getId());
+                costs[offset + j] = found ? workspace.getCost(target.getId())
+                        : Float.POSITIVE_INFINITY;
+                if (paths != null && found) {
+                    paths[offset + j] = buildPath(workspace, graph, origin, target);
+                }
+            }
+        }
+        finally {
+            workspace.release();
+        }
+        notifyRowComputed(index, origin);
+    }
+
+    /*
+     * Function to rebuild the path to a target from the fathers of the search (arc
+     * indices in the CSR graph, Arc objects are only created for the arcs of the path)
+     *
+     * @param workspace the workspace of the search
+     *
+     * @param graph the graph
+     *
+     * @param origin the origin of the search
+     *
+     * @param target the target, settled by the search
+     *
+     * @return the path from the origin to the target
+     */
+    private static Path buildPath(SearchWorkspace workspace, Graph graph, Node origin,
+            Node target) {
+        final CsrGraph csr = graph.getCsrGraph();
+        final List<Arc> arcs = new ArrayList<>();
+        for (int e = workspace.getFatherIndex(target.getId()); e != -1; e =
+                workspace.getFatherIndex(csr.getOrigin(e))) {
+            arcs.add(csr.getArc(e));
+        }
+        if (arcs.isEmpty()) {
+            return new Path(graph, origin);
+        }
+        Collections.reverse(arcs);
+        return new Path(graph, arcs);
+    }
+
+    @Override
+    protected int getNodeVisited() {
+        return (int) Math.min(this.nodeVisited.sum(), Integer.MAX_VALUE);
+    }
+}
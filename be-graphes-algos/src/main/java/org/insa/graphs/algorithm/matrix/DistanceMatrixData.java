@@ -0,0 +1,79 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Origin and target nodes (rows and columns of the matrix).
+    private final List<Node> origins, targets;
+
+    // true if the paths must be computed along with the costs.
+    private final boolean withPaths;
+
+    /**
+     * Construct a new instance of DistanceMatrixData, for costs only.
+     *
+     * @param graph Graph in which the paths should be looked for.
+     * @param origins Origin nodes (one row of the matrix for each).
+     * @param targets Target nodes (one column of the matrix for each).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of arcs in
+     *        the graph to be used).
+     */
+    public DistanceMatrixData(Graph graph, List<Node> origins, List<Node> targets,
+            ArcInspector arcInspector) {
+        this(graph, origins, targets, arcInspector, false);
+    }
+
+    /**
+     * Construct a new instance of DistanceMatrixData.
+     *
+     * @param graph Graph in which the paths should be looked for.
+     * @param origins Origin nodes (one row of the matrix for each).
+     * @param targets Target nodes (one column of the matrix for each).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of arcs in
+     *        the graph to be used).
+     * @param withPaths true to compute the paths along with the costs.
+     */
+    public DistanceMatrixData(Graph graph, List<Node> origins, List<Node> targets,
+            ArcInspector arcInspector, boolean withPaths) {
+        super(graph, arcInspector);
+        this.origins = Collections.unmodifiableList(new ArrayList<>(origins));
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        this.withPaths = withPaths;
+    }
+
+    /**
+     * @return Origin nodes, in the order of the rows of the matrix.
+     */
+    public List<Node> getOrigins() {
+        return origins;
+    }
+
+    /**
+     * @return Target nodes, in the order of the columns of the matrix.
+     */
+    public List<Node> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return true if the paths must be computed along with the costs.
+     */
+    public boolean isWithPaths() {
+        return withPaths;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + origins.size() + " origins to "
+                + targets.size() + " targets ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify the observer that the row of an origin has been computed. Rows are
+     * computed in parallel, so this method may be called from several threads at the
+     * same time.
+     *
+     * @param index Index of the origin (row of the matrix).
+     * @param origin Origin.
+     */
+    public void notifyRowComputed(int index, Node origin);
+
+}
@@ -0,0 +1,100 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Path;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Number of columns of the matrix.
+    private final int nbTargets;
+
+    // Costs of the matrix, row by row (infinite if there is no path).
+    private final float[] costs;
+
+    // Paths of the matrix, row by row (null if not computed).
+    private final Path[] paths;
+
+    /**
+     * Create a new solution without any cost, e.g. for an interrupted computation.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (UNKNOWN / INFEASIBLE).
+     */
+    protected DistanceMatrixSolution(DistanceMatrixData data, Status status) {
+        super(data, status);
+        this.nbTargets = data.getTargets().size();
+        this.costs = null;
+        this.paths = null;
+    }
+
+    /**
+     * Create a new solution.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param costs Costs of the matrix, row by row.
+     * @param paths Paths of the matrix, row by row, or null if they were not computed.
+     */
+    protected DistanceMatrixSolution(DistanceMatrixData data, Status status,
+            float[] costs, Path[] paths) {
+        super(data, status);
+        this.nbTargets = data.getTargets().size();
+        this.costs = costs;
+        this.paths = paths;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @param origin Index of an origin (row).
+     * @param target Index of a target (column).
+     * @return Cost of the shortest path from the origin to the target, or infinity if
+     *         there is none.
+     */
+    public double getCost(int origin, int target) {
+        return this.costs[origin * this.nbTargets + target];
+    }
+
+    /**
+     * @param origin Index of an origin (row).
+     * @return Costs of the shortest paths from the origin to each target.
+     */
+    public double[] getCosts(int origin) {
+        final double[] row = new double[this.nbTargets];
+        for (int target = 0; target < this.nbTargets; ++target) {
+            row[target] = getCost(origin, target);
+        }
+        return row;
+    }
+
+    /**
+     * @param origin Index of an origin (row).
+     * @param target Index of a target (column).
+     * @return Shortest path from the origin to the target, or null if there is none or
+     *         if paths were not computed.
+     * @see DistanceMatrixData#isWithPaths()
+     */
+    public Path getPath(int origin, int target) {
+        return this.paths == null ? null : this.paths[origin * this.nbTargets + target];
+    }
+
+    @Override
+    public String toString() {
+        if (this.costs == null) {
+            return "No distance matrix computed.";
+        }
+        int nbMissing = 0;
+        for (float cost : this.costs) {
+            if (cost == Float.POSITIVE_INFINITY) {
+                nbMissing++;
+            }
+        }
+        return "Computed a " + getInputData().getOrigins().size() + "x" + this.nbTargets
+                + " distance matrix (" + nbMissing + " pairs without path) in "
+                + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
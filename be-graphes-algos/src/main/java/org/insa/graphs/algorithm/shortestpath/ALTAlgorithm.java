@@ -0,0 +1,74 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * ALT algorithm (A*, landmarks and triangle inequality): A* whose heuristic is the best
+ * of the distance to the destination and of the lower bounds given by the landmarks of
+ * the graph (see {@link Landmarks}).
+ * </p>
+ * <p>
+ * Landmarks are retrieved from a {@link LandmarkStore} (the default one unless another
+ * one is given), so they are only computed the first time the algorithm is used on a
+ * graph with a given arc inspector.
+ * </p>
+ */
+public class ALTAlgorithm extends AStarAlgorithm {
+
+    private final LandmarkStore store; // store providing the landmarks of the graph
+    private Landmarks landmarks; // landmarks of the graph for the current inspector
+
+    public ALTAlgorithm(ShortestPathData data) {
+        this(data, LandmarkStore.getDefault());
+    }
+
+    public ALTAlgorithm(ShortestPathData data, LandmarkStore store) {
+        super(data);
+        this.store = store;
+    }
+
+    /*
+     * Function called before the search Queries whose destination is known to be
+     * unreachable are rejected without exploring everything reachable from their origin
+     *
+     * @return an infeasible solution for these queries, null otherwise
+     */
+    @Override
+    protected ShortestPathSolution doPreCheck() {
+        return rejectUnreachable();
+    }
+
+    /*
+     * Function called at the beginning of each search Landmarks are retrieved (or
+     * computed) here, potentials are kept in the workspace as long as the landmarks and
+     * the destination are the same
+     *
+     * @param workspace the workspace of the current search
+     */
+    @Override
+    protected void initSearch(SearchWorkspace workspace) {
+        ShortestPathData data = getInputData();
+        this.landmarks = this.store.get(data.getGraph(), data.getArcInspector());
+        workspace.usePotentials(Arrays.asList(getClass(), this.landmarks,
+                data.getMode(), data.getDestination().getId()));
+    }
+
+    /*
+     * Function to compute the heuristic of a node
+     *
+     * @param node the node
+     *
+     * @return the best lower bound of the cost from the node to the destination, given
+     * by the distance or by the landmarks (infinite if the landmarks prove there is no
+     * path)
+     */
+    @Override
+    protected float heuristic(Node node) {
+        float bound = this.landmarks.lowerBound(node.getId(),
+                getInputData().getDestination().getId());
+        return Math.max(super.heuristic(node), bound);
+    }
+}
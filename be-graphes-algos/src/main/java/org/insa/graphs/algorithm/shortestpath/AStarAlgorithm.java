@@ -1,48 +1,97 @@
 package org.insa.graphs.algorithm.shortestpath;
 
+import java.util.Arrays;
+
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
-import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Point;
 
 public class AStarAlgorithm extends DijkstraAlgorithm {
 
+    /**
+     * Distance used by the heuristic of A*.
+     */
+    public enum Heuristic {
+        // Exact great-circle distance (Point.distance)
+        GREAT_CIRCLE,
+        // Cheaper equirectangular lower bound of the great-circle distance
+        // (Point.lowerBoundDistance)
+        EQUIRECTANGULAR
+    }
+
+    private final Heuristic heuristic; // distance used by the heuristic
+    private final Point destinationPoint; // position of the destination node
+    private final float speed; // divisor turning a distance into a cost (1 in length
+                               // mode)
+
     public AStarAlgorithm(ShortestPathData data) {
+        this(data, Heuristic.GREAT_CIRCLE);
+    }
+
+    public AStarAlgorithm(ShortestPathData data, Heuristic heuristic) {
         super(data);
+        this.heuristic = heuristic;
+        this.destinationPoint = data.getDestination().getPoint();
+        // time mode: distances are divided by the max possible speed on the graph in
+        // m/s
+        this.speed = data.getMode() == Mode.TIME
+                ? data.getGraph().getGraphInformation().getMaximumSpeed() / 3.6f
+                : 1;
+    }
+
+    /*
+     * Function called at the beginning of each search Heuristics are cached in the
+     * workspace: they are kept from one search to the next as long as the destination,
+     * the mode and the heuristic are the same
+     *
+     * @param workspace the workspace of the current search
+     */
+    @Override
+    protected void initSearch(SearchWorkspace workspace) {
+        ShortestPathData data = getInputData();
+        workspace.usePotentials(Arrays.asList(getClass(), this.heuristic,
+                data.getMode(), data.getDestination().getId()));
     }
-     /* Function to initialize all the labels
-     * @param data the data of the shortest path problem
-     * @return an array of labels
-    */
-    public LabelStar[] initLabel(ShortestPathData data) {
-        Graph graph = data.getGraph();
-        Node destinationNode=data.getDestination();
-        Node originNode=data.getOrigin();
-        final int nbNodes = graph.size();
-        LabelStar[] labels = new LabelStar[nbNodes];
-        Mode mode= data.getMode();
-        float maxSpeed = (graph.getGraphInformation().getMaximumSpeed())/3.6f; // Retrieve maximum speed from graph information in m/s
-
-        // Initialize labels for each node in the graph
-        // Set the cost to infinity, fathers to null, and marked to false the label of the origin node is set to 0
-        for (int i = 0; i < nbNodes; i++) {
-            float Distanceheuristic = (float) Point.distance(graph.get(i).getPoint(), destinationNode.getPoint());// IN METERS! 
-            if(mode==Mode.LENGTH){
-            // length mode: the heuristic is : the straightforward distance between the current node and the destination node units: meters
-            labels[i] = new LabelStar(graph.get(i), false, Float.POSITIVE_INFINITY,Distanceheuristic);
-            }else if (mode==Mode.TIME){
-            //time mode: the heuristic is: the straightforward distance between the current node and the destination node, divided by the max possible speed on the graph units:seconds
-                labels[i] = new LabelStar(graph.get(i), false, Float.POSITIVE_INFINITY, Distanceheuristic /maxSpeed);
 
+    /*
+     * Function to retrieve the label of a node for the current search The heuristic of
+     * a label is only computed the first time the node is reached, instead of being
+     * computed for every node of the graph before the search
+     *
+     * @param workspace the workspace of the current search
+     *
+     * @param node the node whose label is retrieved
+     *
+     * @return the label of the node
+     */
+    @Override
+    protected LabelStar getLabel(SearchWorkspace workspace, Node node) {
+        LabelStar label = workspace.getStarLabel(node.getId());
+        if (Float.isNaN(label.getDestinationCost())) {
+            float potential = workspace.getPotential(node.getId());
+            if (Float.isNaN(potential)) {
+                potential = heuristic(node);
+                workspace.setPotential(node.getId(), potential);
             }
+            label.setDestinationCost(potential);
         }
-        // set the cost of the node at the origin, to 0
-        if(mode==Mode.LENGTH){
-        labels[data.getOrigin().getId()] = new LabelStar(data.getOrigin(), false, (float)0,(float) Point.distance(originNode.getPoint(), destinationNode.getPoint()));
-            }else if (mode==Mode.TIME){
-        labels[data.getOrigin().getId()] = new LabelStar(data.getOrigin(), false, (float)0,(float) (Point.distance(originNode.getPoint(), destinationNode.getPoint()))/maxSpeed);
+        return label;
+    }
 
-            }
-        return labels;
+    /*
+     * Function to compute the heuristic of a node
+     *
+     * @param node the node
+     *
+     * @return a lower bound of the cost from the node to the destination
+     */
+    protected float heuristic(Node node) {
+        // straightforward distance between the current node and the destination node,
+        // IN METERS!
+        double distance = this.heuristic == Heuristic.EQUIRECTANGULAR
+                ? Point.lowerBoundDistance(node.getPoint(), this.destinationPoint)
+                : Point.distance(node.getPoint(), this.destinationPoint);
+        // length mode: units: meters, time mode: units: seconds
+        return (float) distance / this.speed;
     }
 }
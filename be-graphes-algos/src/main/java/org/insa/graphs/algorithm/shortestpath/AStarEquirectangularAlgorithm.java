@@ -0,0 +1,12 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * A* using the equirectangular lower bound of the distance to the destination as its
+ * heuristic, which is cheaper to compute than the great-circle distance.
+ */
+public class AStarEquirectangularAlgorithm extends AStarAlgorithm {
+
+    public AStarEquirectangularAlgorithm(ShortestPathData data) {
+        super(data, Heuristic.EQUIRECTANGULAR);
+    }
+}
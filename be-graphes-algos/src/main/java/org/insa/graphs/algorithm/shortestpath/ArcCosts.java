@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * Costs of the arcs of a graph for an arc inspector, indexed as the arcs of the CSR
+ * representation of the graph, as used by preprocessing algorithms (see
+ * {@link Landmarks} and {@link ContractionHierarchy}).
+ */
+final class ArcCosts {
+
+    final CsrGraph csr;
+
+    // Cost of each arc (infinite if the arc is not allowed), and origin of each arc.
+    final float[] costs;
+    final int[] origins;
+
+    // Fingerprint of the costs.
+    final long fingerprint;
+
+    ArcCosts(Graph graph, ArcInspector inspector) {
+        this.csr = graph.getCsrGraph();
+        final int nbArcs = this.csr.getNumberOfArcs();
+        this.costs = new float[nbArcs];
+        this.origins = new int[nbArcs];
+        final CompiledArcInspector compiled =
+                CompiledArcInspector.get(this.csr, inspector);
+        long hash = this.csr.size();
+        for (int node = 0; node < this.csr.size(); ++node) {
+            for (int e = this.csr.getFirstArc(node),
+                    end = this.csr.getEndArc(node); e < end; ++e) {
+                this.origins[e] = node;
+                this.costs[e] = compiled.isAllowed(e) ? (float) compiled.getCost(e)
+                        : Float.POSITIVE_INFINITY;
+                hash = 31 * hash + this.csr.getTarget(e);
+                hash = 31 * hash + Float.floatToIntBits(this.costs[e]);
+            }
+        }
+        this.fingerprint = hash;
+    }
+
+    /**
+     * Compute the fingerprint of the costs of the given graph for the given inspector,
+     * which can be compared with {@link PreprocessedData#getFingerprint()} to check
+     * that precomputed data are still valid.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @return Fingerprint of the costs.
+     */
+    static long fingerprint(Graph graph, ArcInspector inspector) {
+        return new ArcCosts(graph, inspector).fingerprint;
+    }
+
+    int size() {
+        return this.csr.size();
+    }
+
+    /**
+     * Compute the costs of the shortest paths from (or to) the given node.
+     *
+     * @param source Source of the search.
+     * @param backward true to compute the costs to the source instead of the costs from
+     *        the source.
+     * @param parents If not null, filled with the parent of each node in the shortest
+     *        path tree (-1 for the source and unreachable nodes).
+     * @param order If not null, filled with the nodes in the order they are settled
+     *        (followed by -1 for unreachable nodes).
+     * @return Cost of the shortest path from (or to) the source for each node.
+     */
+    float[] distances(int source, boolean backward, int[] parents, int[] order) {
+        final float[] distances = new float[size()];
+        Arrays.fill(distances, Float.POSITIVE_INFINITY);
+        if (parents != null) {
+            Arrays.fill(parents, -1);
+        }
+        if (order != null) {
+            Arrays.fill(order, -1);
+        }
+        final IndexedDaryHeap heap = new IndexedDaryHeap(size());
+        distances[source] = 0;
+        heap.insert(source, 0);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            if (order != null) {
+                order[settled++] = current;
+            }
+            final int first = backward ? this.csr.getFirstIncomingArc(current)
+                    : this.csr.getFirstArc(current);
+            final int end = backward ? this.csr.getEndIncomingArc(current)
+                    : this.csr.getEndArc(current);
+            for (int i = first; i < end; ++i) {
+                final int e = backward ? this.csr.getIncomingArc(i) : i;
+                final int next = backward ? this.origins[e] : this.csr.getTarget(e);
+                final float cost = distances[current] + this.costs[e];
+                if (cost < distances[next]) {
+                    distances[next] = cost;
+                    heap.insertOrDecreaseKey(next, cost);
+                    if (parents != null) {
+                        parents[next] = current;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+}
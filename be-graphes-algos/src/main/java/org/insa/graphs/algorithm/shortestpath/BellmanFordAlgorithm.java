@@ -98,7 +98,8 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
             Collections.reverse(arcs);
 
             // Create the final solution.
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs), totalCost);
+            solution = new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, arcs), totalCost);
         }
 
         return solution;
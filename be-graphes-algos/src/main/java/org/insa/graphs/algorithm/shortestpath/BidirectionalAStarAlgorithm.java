@@ -0,0 +1,111 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Bidirectional A* algorithm, using averaged potentials to keep both searches
+ * consistent with each other.
+ * </p>
+ * <p>
+ * With {@code h_t(v)} a lower bound of the cost from {@code v} to the destination and
+ * {@code h_s(v)} a lower bound of the cost from the origin to {@code v} (both computed
+ * from {@link Point#distance(Point, Point)} and the maximum speed of the inspector or
+ * of the graph), the forward search uses the potential {@code (h_t(v) - h_s(v)) / 2}
+ * and the backward search its opposite. Both potentials are consistent, so the stopping
+ * criterion of {@link BidirectionalDijkstraAlgorithm} remains correct in both length
+ * and time modes.
+ * </p>
+ */
+public class BidirectionalAStarAlgorithm extends BidirectionalDijkstraAlgorithm {
+
+    private final Point originPoint; // position of the origin node
+    private final Point destinationPoint; // position of the destination node
+    private final float speed; // divisor turning a distance into a cost (1 in length
+                               // mode)
+
+    private SearchWorkspace workspace; // workspace of the current search (cached
+                                       // potentials)
+
+    public BidirectionalAStarAlgorithm(ShortestPathData data) {
+        super(data);
+        this.originPoint = data.getOrigin().getPoint();
+        this.destinationPoint = data.getDestination().getPoint();
+        // time mode: distances are divided by the max possible speed in m/s, both the
+        // speed of the inspector (e.g. for pedestrians) and the one of the graph bound
+        // the
+        // speed on any arc, so the smallest known one is used
+        // without any maximum speed, there is no bound on the time and potentials are 0
+        final int maximumSpeed =
+                getMaximumSpeed(data.getArcInspector().getMaximumSpeed(),
+                        data.getGraph().getGraphInformation().getMaximumSpeed());
+        if (data.getMode() != Mode.TIME) {
+            this.speed = 1;
+        }
+        else if (maximumSpeed != GraphStatistics.NO_MAXIMUM_SPEED) {
+            this.speed = maximumSpeed / 3.6f;
+        }
+        else {
+            this.speed = Float.POSITIVE_INFINITY;
+        }
+    }
+
+    /*
+     * Function to combine two maximum speeds
+     *
+     * @param first a maximum speed in km/h, or NO_MAXIMUM_SPEED if it is not known
+     *
+     * @param second another maximum speed in km/h, or NO_MAXIMUM_SPEED if it is not
+     * known
+     *
+     * @return the smallest known speed, or NO_MAXIMUM_SPEED if none is known
+     */
+    private static int getMaximumSpeed(int first, int second) {
+        if (first <= 0) {
+            return second > 0 ? second : GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+        return second > 0 ? Math.min(first, second) : first;
+    }
+
+    /*
+     * Function called at the beginning of each search Potentials are cached in the
+     * workspace: they are kept from one search to the next as long as the origin, the
+     * destination, the mode and the speed are the same
+     *
+     * @param workspace the workspace of the forward search
+     */
+    @Override
+    protected void initSearch(SearchWorkspace workspace) {
+        ShortestPathData data = getInputData();
+        this.workspace = workspace;
+        workspace.usePotentials(Arrays.asList(getClass(), data.getMode(), this.speed,
+                data.getOrigin().getId(), data.getDestination().getId()));
+    }
+
+    /*
+     * Function to retrieve the (forward) potential of a node The potential is only
+     * computed the first time the node is reached by any search
+     *
+     * @param node the ID of the node
+     *
+     * @return the averaged potential of the node
+     */
+    @Override
+    protected float getPotential(int node) {
+        float potential = this.workspace.getPotential(node);
+        if (Float.isNaN(potential)) {
+            Point point = getInputData().getGraph().get(node).getPoint();
+            // lower bounds of the costs to the destination and from the origin
+            double toDestination =
+                    Point.distance(point, this.destinationPoint) / this.speed;
+            double fromOrigin = Point.distance(this.originPoint, point) / this.speed;
+            potential = (float) ((toDestination - fromOrigin) / 2);
+            this.workspace.setPotential(node, potential);
+        }
+        return potential;
+    }
+}
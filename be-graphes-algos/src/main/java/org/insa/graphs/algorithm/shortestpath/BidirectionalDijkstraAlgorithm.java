@@ -0,0 +1,285 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Bidirectional Dijkstra algorithm: a forward search from the origin and a backward
+ * search from the destination (over the incoming arcs of the nodes, see
+ * {@link CsrGraph#getFirstIncomingArc(int)}) are run alternately, each one settling one
+ * node at a time.
+ * </p>
+ * <p>
+ * Whenever an arc reaches a node already reached by the other search, the cost of the
+ * corresponding path is compared with the best path found so far. The algorithm stops
+ * when the sum of the minimum keys of both queues is not smaller than the cost of the
+ * best path, since no path found later could be shorter.
+ * </p>
+ * <p>
+ * Keys can be shifted by a potential (0 here): the forward search uses
+ * {@code cost + getPotential(node)} and the backward search
+ * {@code cost - getPotential(node)}. As long as the potential is consistent, this is
+ * the same as running a bidirectional Dijkstra with reduced costs, and the stopping
+ * criterion above remains correct.
+ * </p>
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    private int nodeVisited = 0; // Counter for the number of nodes visited (both sides)
+
+    // Arity of the heaps used by this algorithm.
+    private final int arity;
+
+    // Cost of the best path found so far, and node where both searches meet on it.
+    private float best;
+    private int meeting;
+
+    /**
+     * Create a new bidirectional Dijkstra algorithm with heaps of default arity.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        this(data, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * Create a new bidirectional Dijkstra algorithm with heaps of the given arity.
+     *
+     * @param data Input data for this algorithm.
+     * @param arity Arity of the heaps (2, 4 or 8).
+     */
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data, int arity) {
+        super(data);
+        this.arity = arity;
+    }
+
+    /*
+     * Function called once at the beginning of each search, before any potential is
+     * retrieved Does nothing here, subclasses can use it to prepare the workspace
+     *
+     * @param workspace the workspace of the forward search
+     */
+    protected void initSearch(SearchWorkspace workspace) {}
+
+    /*
+     * Function to retrieve the potential of a node, added to the keys of the forward
+     * search and subtracted from the keys of the backward search Always 0 here (plain
+     * bidirectional Dijkstra)
+     *
+     * @param node the ID of the node
+     *
+     * @return the potential of the node
+     */
+    protected float getPotential(int node) {
+        return 0;
+    }
+
+    /*
+     * Function called before the search Queries whose destination is known to be
+     * unreachable are rejected without exploring everything reachable from their origin
+     *
+     * @return an infeasible solution for these queries, null otherwise
+     */
+    @Override
+    protected ShortestPathSolution doPreCheck() {
+        return rejectUnreachable();
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        // Arrays and heaps are borrowed from the workspace of the thread, the backward
+        // search uses its backward workspace.
+        final SearchWorkspace workspace =
+                SearchWorkspace.acquire(getInputData().getGraph());
+        try {
+            return doRun(workspace, workspace.getBackward());
+        }
+        finally {
+            workspace.release();
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace forward,
+            SearchWorkspace backward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final Node origin = data.getOrigin();
+        final Node destination = data.getDestination();
+        final CsrGraph csr = graph.getCsrGraph();
+        final FilteredGraph filtered = data.getFilteredGraph();
+        initSearch(forward);
+
+        final IndexedDaryHeap forwardHeap = forward.getHeap(this.arity);
+        final IndexedDaryHeap backwardHeap = backward.getHeap(this.arity);
+        forward.update(origin.getId(), 0, -1);
+        forwardHeap.insert(origin.getId(), getPotential(origin.getId()));
+        backward.update(destination.getId(), 0, -1);
+        backwardHeap.insert(destination.getId(), -getPotential(destination.getId()));
+
+        // Both searches already meet if the origin is the destination.
+        this.best = origin == destination ? 0 : Float.POSITIVE_INFINITY;
+        this.meeting = origin == destination ? origin.getId() : -1;
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(origin);
+
+        // Searches are run alternately until no better path can be found.
+        boolean forwardTurn = true;
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()
+                && forwardHeap.findMinKey() + backwardHeap.findMinKey() < this.best) {
+            if (forwardTurn) {
+                scanForward(filtered, forward, backward, forwardHeap);
+            }
+            else {
+                scanBackward(filtered, forward, backward, backwardHeap);
+            }
+            forwardTurn = !forwardTurn;
+        }
+
+        if (this.meeting == -1) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        notifyDestinationReached(destination);
+
+        // Reconstruct the path from the meeting node to the origin, then to the
+        // destination (fathers are arc indices, Arc objects are only created for the
+        // arcs of the path).
+        final List<Arc> arcs = new ArrayList<>();
+        int e = forward.getFatherIndex(this.meeting);
+        while (e != -1) {
+            final Arc arc = csr.getArc(e);
+            arcs.add(arc);
+            e = forward.getFatherIndex(arc.getOrigin().getId());
+        }
+        Collections.reverse(arcs);
+        e = backward.getFatherIndex(this.meeting);
+        while (e != -1) {
+            arcs.add(csr.getArc(e));
+            e = backward.getFatherIndex(csr.getTarget(e));
+        }
+
+        final Path path =
+                arcs.isEmpty() ? new Path(graph, origin) : new Path(graph, arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, path,
+                forward.getCost(this.meeting) + backward.getCost(this.meeting));
+    }
+
+    /*
+     * Function to settle the next node of the forward search and relax its outgoing
+     * arcs
+     *
+     * @param filtered the graph restricted to the allowed arcs
+     *
+     * @param forward the workspace of the forward search
+     *
+     * @param backward the workspace of the backward search
+     *
+     * @param heap the heap of the forward search
+     */
+    private void scanForward(FilteredGraph filtered, SearchWorkspace forward,
+            SearchWorkspace backward, IndexedDaryHeap heap) {
+        final ShortestPathData data = getInputData();
+        final int current = heap.deleteMin();
+        forward.mark(current);
+        nodeVisited++;
+        notifyNodeMarked(data.getGraph().get(current));
+
+        final float currentCost = forward.getCost(current);
+        for (int e = filtered.getFirstArc(current),
+                end = filtered.getEndArc(current); e < end; ++e) {
+            final int successor = filtered.getTarget(e);
+            if (forward.isMarked(successor)) {
+                continue;
+            }
+            final float newCost = currentCost + filtered.getCost(e);
+            if (newCost < forward.getCost(successor)) {
+                forward.update(successor, newCost, filtered.getOriginalArc(e));
+                heap.insertOrDecreaseKey(successor, newCost + getPotential(successor));
+                notifyNodeReached(data.getGraph().get(successor));
+
+                // The successor may link both searches.
+                if (backward.isReached(successor)) {
+                    updateBest(successor, newCost + backward.getCost(successor));
+                }
+            }
+        }
+    }
+
+    /*
+     * Function to settle the next node of the backward search and relax its incoming
+     * arcs
+     *
+     * @param filtered the graph restricted to the allowed arcs
+     *
+     * @param forward the workspace of the forward search
+     *
+     * @param backward the workspace of the backward search
+     *
+     * @param heap the heap of the backward search
+     */
+    private void scanBackward(FilteredGraph filtered, SearchWorkspace forward,
+            SearchWorkspace backward, IndexedDaryHeap heap) {
+        final ShortestPathData data = getInputData();
+        final int current = heap.deleteMin();
+        backward.mark(current);
+        nodeVisited++;
+        notifyNodeMarked(data.getGraph().get(current));
+
+        // Fathers of the backward search are the arcs leaving the nodes (towards the
+        // destination), with their original direction, stored as arcs of the CSR graph.
+        final float currentCost = backward.getCost(current);
+        for (int i = filtered.getFirstIncomingArc(current),
+                end = filtered.getEndIncomingArc(current); i < end; ++i) {
+            final int e = filtered.getIncomingArc(i);
+            final int predecessor = filtered.getIncomingOrigin(i);
+            if (backward.isMarked(predecessor)) {
+                continue;
+            }
+            final float newCost = currentCost + filtered.getCost(e);
+            if (newCost < backward.getCost(predecessor)) {
+                backward.update(predecessor, newCost, filtered.getOriginalArc(e));
+                heap.insertOrDecreaseKey(predecessor,
+                        newCost - getPotential(predecessor));
+                notifyNodeReached(data.getGraph().get(predecessor));
+
+                // The predecessor may link both searches.
+                if (forward.isReached(predecessor)) {
+                    updateBest(predecessor, newCost + forward.getCost(predecessor));
+                }
+            }
+        }
+    }
+
+    /*
+     * Function to keep the path through the given node if it is better than the best
+     * one
+     *
+     * @param node the node where both searches meet
+     *
+     * @param cost the cost of the path through this node
+     */
+    private void updateBest(int node, float cost) {
+        if (cost < this.best) {
+            this.best = cost;
+            this.meeting = node;
+        }
+    }
+
+    @Override
+    public int getNodeVisited() {
+        return this.nodeVisited;
+    }
+}
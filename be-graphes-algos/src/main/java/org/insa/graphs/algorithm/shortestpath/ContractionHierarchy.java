@@ -0,0 +1,752 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given arc inspector, as used by
+ * {@link ContractionHierarchyAlgorithm}.
+ * </p>
+ * <p>
+ * Nodes are contracted one after the other: contracting a node removes it from the
+ * graph, and adds a shortcut between two of its neighbours whenever the path through
+ * the node is the only shortest path between them (checked by a limited "witness"
+ * search). The order of contraction gives the rank of the nodes. Nodes are ordered by
+ * their edge difference (number of shortcuts added minus number of edges removed), and
+ * each round contracts a set of nodes whose priority is lower than the one of all the
+ * nodes within two hops, using shortcuts computed in parallel before the round. Two
+ * such nodes have no common neighbour, so neither of them can be the only witness of a
+ * shortcut of the other (e.g. two nodes between the same neighbours, with paths of
+ * equal costs through them).
+ * </p>
+ * <p>
+ * The hierarchy contains edges (original arcs and shortcuts) between nodes. Each edge
+ * is stored once, as an upward edge of its origin if its destination has a higher rank,
+ * or as a downward edge of its destination otherwise, so that a forward search from the
+ * origin over upward edges and a backward search from the destination over downward
+ * edges meet at the highest node of a shortest path. A shortcut is made of two edges,
+ * so it can be unpacked to the original arcs with {@link #unpack(int, CsrGraph, List)}.
+ * </p>
+ */
+public class ContractionHierarchy implements PreprocessedData {
+
+    // Magic number and version of hierarchy files.
+    static final int MAGIC_NUMBER = 0x43484945;
+    static final int VERSION = 1;
+
+    // Maximum number of nodes settled by a witness search.
+    private static final int WITNESS_SEARCH_LIMIT = 500;
+
+    // Map, inspector and fingerprint of the costs this hierarchy was computed for.
+    private final String mapId;
+    private final String inspector;
+    private final long fingerprint;
+
+    // Rank of each node in the order of contraction.
+    private final int[] ranks;
+
+    // Origin, destination and cost of each edge. An original arc has the index of the
+    // arc (in the CSR graph) as first half and -1 as second half, a shortcut has the
+    // indices of its two halves.
+    private final int[] origins;
+    private final int[] destinations;
+    private final float[] costs;
+    private final int[] firstHalves;
+    private final int[] secondHalves;
+
+    // Upward edges of each node, and downward edges to each node.
+    private final int[] upwardOffsets;
+    private final int[] upwardEdges;
+    private final int[] downwardOffsets;
+    private final int[] downwardEdges;
+
+    private ContractionHierarchy(String mapId, String inspector, long fingerprint,
+            int[] ranks, int[] origins, int[] destinations, float[] costs,
+            int[] firstHalves, int[] secondHalves, int[] upwardOffsets,
+            int[] upwardEdges, int[] downwardOffsets, int[] downwardEdges) {
+        this.mapId = mapId;
+        this.inspector = inspector;
+        this.fingerprint = fingerprint;
+        this.ranks = ranks;
+        this.origins = origins;
+        this.destinations = destinations;
+        this.costs = costs;
+        this.firstHalves = firstHalves;
+        this.secondHalves = secondHalves;
+        this.upwardOffsets = upwardOffsets;
+        this.upwardEdges = upwardEdges;
+        this.downwardOffsets = downwardOffsets;
+        this.downwardEdges = downwardEdges;
+    }
+
+    /**
+     * State of the contraction of a graph.
+     */
+    private static final class Contraction {
+
+        // Number of nodes.
+        final int size;
+
+        // Edges created so far.
+        int nbEdges;
+        int[] origins, destinations, firstHalves, secondHalves;
+        float[] costs;
+
+        // true for the edges that belong to the hierarchy (edges that were still in
+        // the graph when one of their ends was contracted).
+        boolean[] kept;
+
+        // Edges leaving and entering each node not contracted yet.
+        final int[][] outgoing, incoming;
+        final int[] nbOutgoing, nbIncoming;
+
+        // Rank of each node (-1 if not contracted yet).
+        final int[] ranks;
+
+        // Priority of each node, shortcuts that its contraction would add (pairs of
+        // edges), number of contracted neighbours, and depth in the hierarchy.
+        final int[] priorities;
+        final int[][] shortcuts;
+        final int[] contractedNeighbours;
+        final int[] levels;
+
+        // Workspaces of the witness searches, each one borrowed by one thread at a time
+        // (they are dropped with the contraction).
+        final ConcurrentLinkedQueue<WitnessSearch> witnessSearches =
+                new ConcurrentLinkedQueue<>();
+
+        Contraction(ArcCosts arcCosts) {
+            final CsrGraph csr = arcCosts.csr;
+            this.size = csr.size();
+            final int capacity = Math.max(csr.getNumberOfArcs(), 16);
+            this.origins = new int[capacity];
+            this.destinations = new int[capacity];
+            this.firstHalves = new int[capacity];
+            this.secondHalves = new int[capacity];
+            this.costs = new float[capacity];
+            this.kept = new boolean[capacity];
+            this.outgoing = new int[this.size][];
+            this.incoming = new int[this.size][];
+            this.nbOutgoing = new int[this.size];
+            this.nbIncoming = new int[this.size];
+            for (int node = 0; node < this.size; ++node) {
+                this.outgoing[node] = new int[csr.getNumberOfSuccessors(node)];
+                this.incoming[node] = new int[csr.getEndIncomingArc(node)
+                        - csr.getFirstIncomingArc(node)];
+            }
+            this.ranks = new int[this.size];
+            Arrays.fill(this.ranks, -1);
+            this.priorities = new int[this.size];
+            this.shortcuts = new int[this.size][];
+            this.contractedNeighbours = new int[this.size];
+            this.levels = new int[this.size];
+
+            // Original arcs (only the cheapest one between two nodes).
+            for (int e = 0; e < arcCosts.costs.length; ++e) {
+                final int origin = arcCosts.origins[e];
+                final int destination = csr.getTarget(e);
+                if (origin != destination
+                        && arcCosts.costs[e] < Float.POSITIVE_INFINITY) {
+                    addEdge(origin, destination, arcCosts.costs[e], e, -1);
+                }
+            }
+        }
+
+        /**
+         * Add an edge between two nodes not contracted yet, unless there is already a
+         * cheaper one (a more expensive one is replaced).
+         */
+        void addEdge(int origin, int destination, float cost, int firstHalf,
+                int secondHalf) {
+            for (int i = 0; i < this.nbOutgoing[origin]; ++i) {
+                final int edge = this.outgoing[origin][i];
+                if (this.destinations[edge] == destination) {
+                    if (this.costs[edge] <= cost) {
+                        return;
+                    }
+                    // The edge may be a half of a shortcut, so it is not modified.
+                    removeEdge(edge);
+                    break;
+                }
+            }
+            if (this.nbEdges == this.origins.length) {
+                final int capacity = 2 * this.nbEdges;
+                this.origins = Arrays.copyOf(this.origins, capacity);
+                this.destinations = Arrays.copyOf(this.destinations, capacity);
+                this.firstHalves = Arrays.copyOf(this.firstHalves, capacity);
+                this.secondHalves = Arrays.copyOf(this.secondHalves, capacity);
+                this.costs = Arrays.copyOf(this.costs, capacity);
+                this.kept = Arrays.copyOf(this.kept, capacity);
+            }
+            final int edge = this.nbEdges++;
+            this.origins[edge] = origin;
+            this.destinations[edge] = destination;
+            this.costs[edge] = cost;
+            this.firstHalves[edge] = firstHalf;
+            this.secondHalves[edge] = secondHalf;
+            append(this.outgoing, this.nbOutgoing, origin, edge);
+            append(this.incoming, this.nbIncoming, destination, edge);
+        }
+
+        /**
+         * Remove the given edge from the lists of its ends.
+         */
+        void removeEdge(int edge) {
+            remove(this.outgoing, this.nbOutgoing, this.origins[edge], edge);
+            remove(this.incoming, this.nbIncoming, this.destinations[edge], edge);
+        }
+
+        private static void append(int[][] lists, int[] sizes, int node, int edge) {
+            if (sizes[node] == lists[node].length) {
+                lists[node] = Arrays.copyOf(lists[node], Math.max(2 * sizes[node], 4));
+            }
+            lists[node][sizes[node]++] = edge;
+        }
+
+        private static void remove(int[][] lists, int[] sizes, int node, int edge) {
+            final int[] list = lists[node];
+            for (int i = 0; i < sizes[node]; ++i) {
+                if (list[i] == edge) {
+                    list[i] = list[--sizes[node]];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Compute the shortcuts needed to contract the given node and its priority.
+         */
+        void simulate(int node) {
+            WitnessSearch search = this.witnessSearches.poll();
+            if (search == null) {
+                search = new WitnessSearch(this);
+            }
+            final int[] found;
+            try {
+                found = search.findShortcuts(node);
+            }
+            finally {
+                this.witnessSearches.offer(search);
+            }
+            this.shortcuts[node] = found;
+            final int edgeDifference =
+                    found.length / 2 - this.nbIncoming[node] - this.nbOutgoing[node];
+            this.priorities[node] = edgeDifference + this.contractedNeighbours[node]
+                    + this.levels[node];
+        }
+
+        /**
+         * @return true if the first node must be contracted before the second one.
+         */
+        boolean isBefore(int node, int other) {
+            if (this.priorities[node] != this.priorities[other]) {
+                return this.priorities[node] < this.priorities[other];
+            }
+            // Pseudo-random tie-break, so that ties do not follow the IDs of the nodes.
+            final int hash = node * 0x9e3779b9, otherHash = other * 0x9e3779b9;
+            return hash != otherHash ? hash < otherHash : node < other;
+        }
+
+        /**
+         * @return true if the given node must be contracted before all the nodes within
+         *         two hops (ignoring the direction of the edges).
+         */
+        boolean isLocalMinimum(int node) {
+            if (!isBeforeNeighbours(node, node)) {
+                return false;
+            }
+            for (int i = 0; i < this.nbOutgoing[node]; ++i) {
+                if (!isBeforeNeighbours(node,
+                        this.destinations[this.outgoing[node][i]])) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < this.nbIncoming[node]; ++i) {
+                if (!isBeforeNeighbours(node, this.origins[this.incoming[node][i]])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return true if the given node must be contracted before all the neighbours
+         *         of the other node (except itself).
+         */
+        private boolean isBeforeNeighbours(int node, int other) {
+            for (int i = 0; i < this.nbOutgoing[other]; ++i) {
+                final int neighbour = this.destinations[this.outgoing[other][i]];
+                if (neighbour != node && !isBefore(node, neighbour)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < this.nbIncoming[other]; ++i) {
+                final int neighbour = this.origins[this.incoming[other][i]];
+                if (neighbour != node && !isBefore(node, neighbour)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Contract the given node, whose shortcuts have been computed by
+         * {@link #simulate(int)}.
+         *
+         * @param node Node to contract.
+         * @param rank Rank of the node.
+         * @param dirty Set to true for the nodes within two hops of the node, whose
+         *        shortcuts may have used the node as a witness and whose priority must
+         *        be updated.
+         */
+        void contract(int node, int rank, boolean[] dirty) {
+            this.ranks[node] = rank;
+            for (int i = 0; i < this.nbOutgoing[node]; ++i) {
+                markNeighbours(this.destinations[this.outgoing[node][i]], dirty);
+            }
+            for (int i = 0; i < this.nbIncoming[node]; ++i) {
+                markNeighbours(this.origins[this.incoming[node][i]], dirty);
+            }
+            for (int i = 0; i < this.nbOutgoing[node]; ++i) {
+                final int edge = this.outgoing[node][i];
+                this.kept[edge] = true;
+                touch(this.destinations[edge], node, dirty);
+                remove(this.incoming, this.nbIncoming, this.destinations[edge], edge);
+            }
+            for (int i = 0; i < this.nbIncoming[node]; ++i) {
+                final int edge = this.incoming[node][i];
+                this.kept[edge] = true;
+                touch(this.origins[edge], node, dirty);
+                remove(this.outgoing, this.nbOutgoing, this.origins[edge], edge);
+            }
+            this.nbOutgoing[node] = 0;
+            this.nbIncoming[node] = 0;
+
+            final int[] found = this.shortcuts[node];
+            for (int i = 0; i < found.length; i += 2) {
+                final int first = found[i], second = found[i + 1];
+                addEdge(this.origins[first], this.destinations[second],
+                        this.costs[first] + this.costs[second], first, second);
+            }
+            this.shortcuts[node] = null;
+        }
+
+        private void markNeighbours(int node, boolean[] dirty) {
+            for (int i = 0; i < this.nbOutgoing[node]; ++i) {
+                dirty[this.destinations[this.outgoing[node][i]]] = true;
+            }
+            for (int i = 0; i < this.nbIncoming[node]; ++i) {
+                dirty[this.origins[this.incoming[node][i]]] = true;
+            }
+        }
+
+        private void touch(int neighbour, int node, boolean[] dirty) {
+            dirty[neighbour] = true;
+            this.contractedNeighbours[neighbour]++;
+            this.levels[neighbour] =
+                    Math.max(this.levels[neighbour], this.levels[node] + 1);
+        }
+    }
+
+    /**
+     * Workspace of the witness searches, used by one thread at a time.
+     */
+    private static final class WitnessSearch {
+
+        final Contraction contraction;
+
+        // Cost of each node (valid if its stamp is the current one), and nodes whose
+        // shortcut is checked by the current search.
+        final float[] distances;
+        final int[] stamps;
+        final int[] targetStamps;
+        int stamp;
+
+        final IndexedDaryHeap heap;
+
+        WitnessSearch(Contraction contraction) {
+            this.contraction = contraction;
+            this.distances = new float[contraction.size];
+            this.stamps = new int[contraction.size];
+            this.targetStamps = new int[contraction.size];
+            this.heap = new IndexedDaryHeap(contraction.size);
+        }
+
+        /**
+         * Find the shortcuts needed to contract the given node.
+         *
+         * @return Pairs of edges (to and from the node) that must be replaced by a
+         *         shortcut.
+         */
+        int[] findShortcuts(int node) {
+            final Contraction c = this.contraction;
+            int[] found = new int[0];
+            int nbFound = 0;
+            for (int i = 0; i < c.nbIncoming[node]; ++i) {
+                final int first = c.incoming[node][i];
+                final int origin = c.origins[first];
+
+                // Search from the origin, without the node, up to the cost of the most
+                // expensive path through the node.
+                ++this.stamp;
+                float maximumCost = 0;
+                int nbTargets = 0;
+                for (int j = 0; j < c.nbOutgoing[node]; ++j) {
+                    final int second = c.outgoing[node][j];
+                    final int destination = c.destinations[second];
+                    if (destination != origin
+                            && this.targetStamps[destination] != this.stamp) {
+                        this.targetStamps[destination] = this.stamp;
+                        nbTargets++;
+                        maximumCost =
+                                Math.max(maximumCost, c.costs[first] + c.costs[second]);
+                    }
+                }
+                if (nbTargets == 0) {
+                    continue;
+                }
+                search(node, origin, maximumCost, nbTargets);
+
+                for (int j = 0; j < c.nbOutgoing[node]; ++j) {
+                    final int second = c.outgoing[node][j];
+                    final int destination = c.destinations[second];
+                    if (destination != origin
+                            && getDistance(destination) > c.costs[first]
+                                    + c.costs[second]) {
+                        if (nbFound + 2 > found.length) {
+                            found = Arrays.copyOf(found, Math.max(2 * found.length, 8));
+                        }
+                        found[nbFound++] = first;
+                        found[nbFound++] = second;
+                    }
+                }
+            }
+            return Arrays.copyOf(found, nbFound);
+        }
+
+        private float getDistance(int node) {
+            return this.stamps[node] == this.stamp ? this.distances[node]
+                    : Float.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Run a limited Dijkstra from the given origin, avoiding the given node.
+         */
+        private void search(int avoided, int origin, float maximumCost, int nbTargets) {
+            final Contraction c = this.contraction;
+            this.heap.clear();
+            this.stamps[origin] = this.stamp;
+            this.distances[origin] = 0;
+            this.heap.insert(origin, 0);
+            int settled = 0;
+            while (!this.heap.isEmpty() && this.heap.findMinKey() <= maximumCost
+                    && settled < WITNESS_SEARCH_LIMIT && nbTargets > 0) {
+                final int current = this.heap.deleteMin();
+                settled++;
+                if (this.targetStamps[current] == this.stamp) {
+                    nbTargets--;
+                }
+                final float cost = this.distances[current];
+                for (int i = 0; i < c.nbOutgoing[current]; ++i) {
+                    final int edge = c.outgoing[current][i];
+                    final int next = c.destinations[edge];
+                    final float newCost = cost + c.costs[edge];
+                    if (next != avoided && newCost < getDistance(next)) {
+                        this.stamps[next] = this.stamp;
+                        this.distances[next] = newCost;
+                        this.heap.insertOrDecreaseKey(next, newCost);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the contraction hierarchy of the given graph. Priorities of the nodes and
+     * shortcuts are computed in parallel.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @return New contraction hierarchy.
+     */
+    public static ContractionHierarchy compute(Graph graph, ArcInspector inspector) {
+        final ArcCosts arcCosts = new ArcCosts(graph, inspector);
+        final Contraction contraction = new Contraction(arcCosts);
+        final int size = contraction.size;
+
+        int[] remaining = IntStream.range(0, size).toArray();
+        int[] dirtyNodes = remaining;
+        final boolean[] dirty = new boolean[size];
+        int rank = 0;
+        while (remaining.length > 0) {
+            // Shortcuts and priorities only change for the neighbours of the nodes
+            // contracted by the previous round.
+            IntStream.of(dirtyNodes).parallel().forEach(contraction::simulate);
+
+            // Nodes whose priority is lower than the one of the nodes within two hops:
+            // the shortcuts of each one do not depend on the others.
+            final int[] selected = IntStream.of(remaining).parallel()
+                    .filter(contraction::isLocalMinimum).toArray();
+
+            Arrays.fill(dirty, false);
+            for (int node : selected) {
+                contraction.contract(node, rank++, dirty);
+            }
+            remaining = IntStream.of(remaining)
+                    .filter(node -> contraction.ranks[node] == -1).toArray();
+            dirtyNodes = IntStream.of(remaining).filter(node -> dirty[node]).toArray();
+        }
+
+        // Split the edges of the hierarchy between upward and downward edges.
+        final int nbEdges = contraction.nbEdges;
+        final int[] upwardOffsets = new int[size + 1];
+        final int[] downwardOffsets = new int[size + 1];
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (contraction.kept[edge]) {
+                if (isUpward(contraction.ranks, contraction.origins[edge],
+                        contraction.destinations[edge])) {
+                    upwardOffsets[contraction.origins[edge] + 1]++;
+                }
+                else {
+                    downwardOffsets[contraction.destinations[edge] + 1]++;
+                }
+            }
+        }
+        for (int node = 0; node < size; ++node) {
+            upwardOffsets[node + 1] += upwardOffsets[node];
+            downwardOffsets[node + 1] += downwardOffsets[node];
+        }
+        final int[] upwardEdges = new int[upwardOffsets[size]];
+        final int[] downwardEdges = new int[downwardOffsets[size]];
+        final int[] upwardNext = Arrays.copyOf(upwardOffsets, size);
+        final int[] downwardNext = Arrays.copyOf(downwardOffsets, size);
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (contraction.kept[edge]) {
+                if (isUpward(contraction.ranks, contraction.origins[edge],
+                        contraction.destinations[edge])) {
+                    upwardEdges[upwardNext[contraction.origins[edge]]++] = edge;
+                }
+                else {
+                    downwardEdges[downwardNext[contraction.destinations[edge]]++] =
+                            edge;
+                }
+            }
+        }
+
+        return new ContractionHierarchy(graph.getMapId(), inspector.toString(),
+                arcCosts.fingerprint, contraction.ranks,
+                Arrays.copyOf(contraction.origins, nbEdges),
+                Arrays.copyOf(contraction.destinations, nbEdges),
+                Arrays.copyOf(contraction.costs, nbEdges),
+                Arrays.copyOf(contraction.firstHalves, nbEdges),
+                Arrays.copyOf(contraction.secondHalves, nbEdges), upwardOffsets,
+                upwardEdges, downwardOffsets, downwardEdges);
+    }
+
+    private static boolean isUpward(int[] ranks, int origin, int destination) {
+        return ranks[destination] > ranks[origin];
+    }
+
+    @Override
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    @Override
+    public String getInspector() {
+        return this.inspector;
+    }
+
+    @Override
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Rank of the node in the order of contraction.
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * @return Number of edges of the hierarchy (including shortcuts).
+     */
+    public int getNumberOfEdges() {
+        return this.upwardEdges.length + this.downwardEdges.length;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position of the first upward edge of the node.
+     * @see #getUpwardEdge(int)
+     */
+    int getFirstUpwardEdge(int node) {
+        return this.upwardOffsets[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position after the last upward edge of the node.
+     */
+    int getEndUpwardEdge(int node) {
+        return this.upwardOffsets[node + 1];
+    }
+
+    /**
+     * @param i Position in the upward edges.
+     * @return Index of the edge at this position.
+     */
+    int getUpwardEdge(int i) {
+        return this.upwardEdges[i];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position of the first downward edge to the node.
+     * @see #getDownwardEdge(int)
+     */
+    int getFirstDownwardEdge(int node) {
+        return this.downwardOffsets[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position after the last downward edge to the node.
+     */
+    int getEndDownwardEdge(int node) {
+        return this.downwardOffsets[node + 1];
+    }
+
+    /**
+     * @param i Position in the downward edges.
+     * @return Index of the edge at this position.
+     */
+    int getDownwardEdge(int i) {
+        return this.downwardEdges[i];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * @return ID of the origin of the edge.
+     */
+    int getOrigin(int edge) {
+        return this.origins[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * @return ID of the destination of the edge.
+     */
+    int getDestination(int edge) {
+        return this.destinations[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * @return Cost of the edge.
+     */
+    float getCost(int edge) {
+        return this.costs[edge];
+    }
+
+    /**
+     * Append the original arcs of the given edge to the given list.
+     *
+     * @param edge Index of an edge.
+     * @param csr CSR representation of the graph of this hierarchy.
+     * @param arcs List to append the arcs to.
+     */
+    void unpack(int edge, CsrGraph csr, List<Arc> arcs) {
+        if (this.secondHalves[edge] == -1) {
+            arcs.add(csr.getArc(this.firstHalves[edge]));
+        }
+        else {
+            unpack(this.firstHalves[edge], csr, arcs);
+            unpack(this.secondHalves[edge], csr, arcs);
+        }
+    }
+
+    @Override
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        output.writeUTF(this.mapId);
+        output.writeUTF(this.inspector);
+        output.writeLong(this.fingerprint);
+        output.writeInt(this.ranks.length);
+        output.writeInt(this.origins.length);
+        output.writeInt(this.upwardEdges.length);
+        output.writeInt(this.downwardEdges.length);
+        PreprocessingStore.writeInts(output, this.ranks);
+        PreprocessingStore.writeInts(output, this.origins);
+        PreprocessingStore.writeInts(output, this.destinations);
+        PreprocessingStore.writeFloats(output, this.costs);
+        PreprocessingStore.writeInts(output, this.firstHalves);
+        PreprocessingStore.writeInts(output, this.secondHalves);
+        PreprocessingStore.writeInts(output, this.upwardOffsets);
+        PreprocessingStore.writeInts(output, this.upwardEdges);
+        PreprocessingStore.writeInts(output, this.downwardOffsets);
+        PreprocessingStore.writeInts(output, this.downwardEdges);
+    }
+
+    /**
+     * Read a hierarchy written by {@link #write(DataOutput)}.
+     *
+     * @param input Input to read from.
+     * @return Hierarchy read.
+     * @throws IOException if an error occurs while reading, or if the input does not
+     *         contain a hierarchy.
+     */
+    public static ContractionHierarchy read(DataInput input) throws IOException {
+        final int magicNumber = input.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        final String mapId = input.readUTF();
+        final String inspector = input.readUTF();
+        final long fingerprint = input.readLong();
+        final int nbNodes = input.readInt();
+        final int nbEdges = input.readInt();
+        final int nbUpwardEdges = input.readInt();
+        final int nbDownwardEdges = input.readInt();
+        final int[] ranks = PreprocessingStore.readInts(input, nbNodes);
+        final int[] origins = PreprocessingStore.readInts(input, nbEdges);
+        final int[] destinations = PreprocessingStore.readInts(input, nbEdges);
+        final float[] costs = PreprocessingStore.readFloats(input, nbEdges);
+        final int[] firstHalves = PreprocessingStore.readInts(input, nbEdges);
+        final int[] secondHalves = PreprocessingStore.readInts(input, nbEdges);
+        final int[] upwardOffsets = PreprocessingStore.readInts(input, nbNodes + 1);
+        final int[] upwardEdges = PreprocessingStore.readInts(input, nbUpwardEdges);
+        final int[] downwardOffsets = PreprocessingStore.readInts(input, nbNodes + 1);
+        final int[] downwardEdges = PreprocessingStore.readInts(input, nbDownwardEdges);
+        return new ContractionHierarchy(mapId, inspector, fingerprint, ranks, origins,
+                destinations, costs, firstHalves, secondHalves, upwardOffsets,
+                upwardEdges, downwardOffsets, downwardEdges);
+    }
+
+}
@@ -0,0 +1,207 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Shortest path query on the contraction hierarchy of the graph (see
+ * {@link ContractionHierarchy}): a forward search from the origin over upward edges and
+ * a backward search from the destination over downward edges are run alternately, each
+ * one stopping when its minimum cost is not smaller than the cost of the best path
+ * found so far.
+ * </p>
+ * <p>
+ * Nodes reached through a suboptimal path are not scanned ("stall-on-demand"): a node
+ * is stalled if it can be reached more cheaply through an edge coming from a higher
+ * node already reached by the same search. Shortcuts of the best path are unpacked to
+ * the original arcs of the graph.
+ * </p>
+ * <p>
+ * The hierarchy is retrieved from a {@link ContractionHierarchyStore} (the default one
+ * unless another one is given), so it is only computed the first time the algorithm is
+ * used on a graph with a given arc inspector.
+ * </p>
+ */
+public class ContractionHierarchyAlgorithm extends ShortestPathAlgorithm {
+
+    private int nodeVisited = 0; // Counter for the number of nodes visited (both sides)
+
+    private final ContractionHierarchyStore store; // store providing the hierarchy
+
+    // Cost of the best path found so far, and node where both searches meet on it.
+    private float best;
+    private int meeting;
+
+    public ContractionHierarchyAlgorithm(ShortestPathData data) {
+        this(data, ContractionHierarchyStore.getDefault());
+    }
+
+    public ContractionHierarchyAlgorithm(ShortestPathData data,
+            ContractionHierarchyStore store) {
+        super(data);
+        this.store = store;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final ContractionHierarchy hierarchy =
+                this.store.get(data.getGraph(), data.getArcInspector());
+        final SearchWorkspace workspace = SearchWorkspace.acquire(data.getGraph());
+        try {
+            return doRun(hierarchy, workspace, workspace.getBackward());
+        }
+        finally {
+            workspace.release();
+        }
+    }
+
+    private ShortestPathSolution doRun(ContractionHierarchy hierarchy,
+            SearchWorkspace forward, SearchWorkspace backward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final Node origin = data.getOrigin();
+        final Node destination = data.getDestination();
+
+        final IndexedDaryHeap forwardHeap =
+                forward.getHeap(IndexedDaryHeap.DEFAULT_ARITY);
+        final IndexedDaryHeap backwardHeap =
+                backward.getHeap(IndexedDaryHeap.DEFAULT_ARITY);
+        forward.update(origin.getId(), 0, -1);
+        forwardHeap.insert(origin.getId(), 0);
+        backward.update(destination.getId(), 0, -1);
+        backwardHeap.insert(destination.getId(), 0);
+
+        this.best = origin == destination ? 0 : Float.POSITIVE_INFINITY;
+        this.meeting = origin == destination ? origin.getId() : -1;
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(origin);
+
+        // Searches are run alternately, each one until it cannot improve the best path.
+        boolean forwardTurn = true;
+        while (true) {
+            final boolean forwardActive =
+                    !forwardHeap.isEmpty() && forwardHeap.findMinKey() < this.best;
+            final boolean backwardActive =
+                    !backwardHeap.isEmpty() && backwardHeap.findMinKey() < this.best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            if (forwardActive && (forwardTurn || !backwardActive)) {
+                scan(hierarchy, forward, backward, forwardHeap, true);
+            }
+            else {
+                scan(hierarchy, backward, forward, backwardHeap, false);
+            }
+            forwardTurn = !forwardTurn;
+        }
+
+        if (this.meeting == -1) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        notifyDestinationReached(destination);
+
+        // Edges from the meeting node to the origin, then to the destination.
+        final List<Integer> edges = new ArrayList<>();
+        for (int edge = forward.getFatherIndex(this.meeting); edge != -1; edge =
+                forward.getFatherIndex(hierarchy.getOrigin(edge))) {
+            edges.add(edge);
+        }
+        Collections.reverse(edges);
+        for (int edge = backward.getFatherIndex(this.meeting); edge != -1; edge =
+                backward.getFatherIndex(hierarchy.getDestination(edge))) {
+            edges.add(edge);
+        }
+
+        // Shortcuts are replaced by the original arcs.
+        final CsrGraph csr = graph.getCsrGraph();
+        final List<Arc> arcs = new ArrayList<>();
+        for (int edge : edges) {
+            hierarchy.unpack(edge, csr, arcs);
+        }
+
+        final Path path =
+                arcs.isEmpty() ? new Path(graph, origin) : new Path(graph, arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, path, this.best);
+    }
+
+    /*
+     * Function to settle the next node of one of the searches and relax its edges The
+     * forward search follows upward edges from their origin, the backward search
+     * follows downward edges from their destination
+     *
+     * @param hierarchy the contraction hierarchy
+     *
+     * @param current the workspace of the search
+     *
+     * @param other the workspace of the other search
+     *
+     * @param heap the heap of the search
+     *
+     * @param isForward true for the forward search
+     */
+    private void scan(ContractionHierarchy hierarchy, SearchWorkspace current,
+            SearchWorkspace other, IndexedDaryHeap heap, boolean isForward) {
+        final int node = heap.deleteMin();
+        current.mark(node);
+        nodeVisited++;
+        notifyNodeMarked(getInputData().getGraph().get(node));
+
+        final float cost = current.getCost(node);
+        if (other.isReached(node) && cost + other.getCost(node) < this.best) {
+            this.best = cost + other.getCost(node);
+            this.meeting = node;
+        }
+
+        // Stall-on-demand: edges of the other direction lead to higher nodes, if one of
+        // them already gives a cheaper path to the node, the node is not on a shortest
+        // path of this search.
+        final int firstStall = isForward ? hierarchy.getFirstDownwardEdge(node)
+                : hierarchy.getFirstUpwardEdge(node);
+        final int endStall = isForward ? hierarchy.getEndDownwardEdge(node)
+                : hierarchy.getEndUpwardEdge(node);
+        for (int i = firstStall; i < endStall; ++i) {
+            final int edge = isForward ? hierarchy.getDownwardEdge(i)
+                    : hierarchy.getUpwardEdge(i);
+            final int higher = isForward ? hierarchy.getOrigin(edge)
+                    : hierarchy.getDestination(edge);
+            if (current.getCost(higher) + hierarchy.getCost(edge) < cost) {
+                return;
+            }
+        }
+
+        final int first = isForward ? hierarchy.getFirstUpwardEdge(node)
+                : hierarchy.getFirstDownwardEdge(node);
+        final int end = isForward ? hierarchy.getEndUpwardEdge(node)
+                : hierarchy.getEndDownwardEdge(node);
+        for (int i = first; i < end; ++i) {
+            final int edge = isForward ? hierarchy.getUpwardEdge(i)
+                    : hierarchy.getDownwardEdge(i);
+            final int next = isForward ? hierarchy.getDestination(edge)
+                    : hierarchy.getOrigin(edge);
+            final float newCost = cost + hierarchy.getCost(edge);
+            if (newCost < current.getCost(next)) {
+                current.update(next, newCost, edge);
+                heap.insertOrDecreaseKey(next, newCost);
+                notifyNodeReached(getInputData().getGraph().get(next));
+            }
+        }
+    }
+
+    @Override
+    public int getNodeVisited() {
+        return this.nodeVisited;
+    }
+}
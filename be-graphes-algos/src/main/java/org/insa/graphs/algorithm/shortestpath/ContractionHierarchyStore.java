@@ -0,0 +1,60 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+/**
+ * Store of the {@link ContractionHierarchy contraction hierarchies} of graphs, see
+ * {@link PreprocessingStore}.
+ */
+public class ContractionHierarchyStore
+        extends PreprocessingStore<ContractionHierarchy> {
+
+    /**
+     * System property giving the directory of the default store, hierarchies are only
+     * kept in memory if the property is not set or is empty.
+     */
+    public static final String DIRECTORY_PROPERTY = "be-graphes.hierarchies.dir";
+
+    // Default store.
+    private static ContractionHierarchyStore defaultStore = null;
+
+    /**
+     * Create a new store.
+     *
+     * @param directory Directory of hierarchy files, or null to keep hierarchies in
+     *        memory only.
+     */
+    public ContractionHierarchyStore(Path directory) {
+        super(directory, ".hierarchy");
+    }
+
+    /**
+     * Retrieve the default store, which keeps hierarchies in memory only unless the
+     * {@link #DIRECTORY_PROPERTY} system property gives the directory of its files.
+     *
+     * @return The default store.
+     */
+    public static synchronized ContractionHierarchyStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new ContractionHierarchyStore(
+                    getDefaultDirectory(DIRECTORY_PROPERTY));
+        }
+        return defaultStore;
+    }
+
+    @Override
+    protected ContractionHierarchy compute(Graph graph, ArcInspector inspector) {
+        return ContractionHierarchy.compute(graph, inspector);
+    }
+
+    @Override
+    protected ContractionHierarchy read(DataInput input) throws IOException {
+        return ContractionHierarchy.read(input);
+    }
+
+}
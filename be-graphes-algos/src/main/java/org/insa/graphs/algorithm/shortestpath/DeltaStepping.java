@@ -0,0 +1,646 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.utils.ParallelLoop;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Parallel single-source shortest paths using delta-stepping (Meyer and Sanders): nodes
+ * are kept in buckets of width delta according to their cost, and buckets are processed
+ * in increasing order. Within a bucket, light arcs (cost not greater than delta) are
+ * relaxed repeatedly until the bucket is empty, then heavy arcs of all the nodes
+ * removed from the bucket are relaxed once.
+ * </p>
+ * <p>
+ * Nodes of a bucket are relaxed in parallel in a fork-join pool (the common pool unless
+ * another one is given). Costs and fathers of the nodes are updated with a
+ * compare-and-set on a single long, and each thread pushes the nodes it improves into
+ * its own buckets, which are merged when a bucket has been processed.
+ * </p>
+ * <p>
+ * A search can be computed again from another origin: each thread also records the
+ * nodes it reaches for the first time, and only these nodes are reset by the next
+ * computation, so that its setup cost is proportional to the number of nodes reached by
+ * the previous one rather than to the size of the graph.
+ * </p>
+ * <p>
+ * A small delta gives more buckets with less work each (close to Dijkstra), a large
+ * delta gives fewer, larger buckets at the cost of more nodes being relaxed several
+ * times (close to Bellman-Ford). By default, delta is the mean cost of the allowed
+ * arcs.
+ * </p>
+ */
+public class DeltaStepping {
+
+    // Number of nodes of a bucket relaxed by the same task.
+    private static final int CHUNK_SIZE = 256;
+
+    // Label of a node not reached.
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    // Maximum number of buckets that can hold nodes at the same time.
+    private static final int MAXIMUM_BUCKETS = 1 << 24;
+
+    /**
+     * Buckets of the nodes improved by one thread, along with the nodes it removed from
+     * the current bucket and the nodes it reached first.
+     * <p>
+     * Only the buckets following the current one by less than the cost of an arc can
+     * hold nodes, so buckets are stored in a cyclic array whose size is a power of two
+     * larger than this range: bucket {@code b} is stored at index {@code b & mask}.
+     * </p>
+     */
+    private static final class Buckets {
+
+        private int[][] nodes;
+        private int[] sizes;
+        private int mask;
+
+        private int[] removed = new int[64];
+        private int nbRemoved;
+
+        private int[] touched = new int[64];
+        private int nbTouched;
+
+        Buckets(int nbBuckets) {
+            reset(nbBuckets);
+        }
+
+        void reset(int nbBuckets) {
+            if (this.sizes == null || this.sizes.length != nbBuckets) {
+                this.nodes = new int[nbBuckets][];
+                this.sizes = new int[nbBuckets];
+            }
+            else {
+                Arrays.fill(this.sizes, 0);
+            }
+            this.mask = nbBuckets - 1;
+            this.nbRemoved = 0;
+        }
+
+        void push(int bucket, int node) {
+            final int slot = bucket & this.mask;
+            int[] content = this.nodes[slot];
+            if (content == null) {
+                content = this.nodes[slot] = new int[16];
+            }
+            else if (this.sizes[slot] == content.length) {
+                content = this.nodes[slot] = Arrays.copyOf(content, 2 * content.length);
+            }
+            content[this.sizes[slot]++] = node;
+        }
+
+        void remove(int node) {
+            if (this.nbRemoved == this.removed.length) {
+                this.removed = Arrays.copyOf(this.removed, 2 * this.nbRemoved);
+            }
+            this.removed[this.nbRemoved++] = node;
+        }
+
+        void touch(int node) {
+            if (this.nbTouched == this.touched.length) {
+                this.touched = Arrays.copyOf(this.touched, 2 * this.nbTouched);
+            }
+            this.touched[this.nbTouched++] = node;
+        }
+
+        int size(int bucket) {
+            return this.sizes[bucket & this.mask];
+        }
+
+        int[] content(int bucket) {
+            return this.nodes[bucket & this.mask];
+        }
+
+        void clear(int bucket) {
+            this.sizes[bucket & this.mask] = 0;
+        }
+
+        /*
+         * Function to find the first non-empty bucket after the current one
+         *
+         * @param current the current bucket
+         *
+         * @return the first non-empty bucket, or Integer.MAX_VALUE if all are empty
+         */
+        int firstNonEmpty(int current) {
+            for (int bucket = current + 1; bucket <= current + this.mask; ++bucket) {
+                if (this.sizes[bucket & this.mask] > 0) {
+                    return bucket;
+                }
+            }
+            return Integer.MAX_VALUE;
+        }
+
+    }
+
+    /**
+     * Task relaxing a range of nodes.
+     */
+    private interface RangeTask {
+        void run(Buckets buckets, int from, int to);
+    }
+
+    // Graph and its compressed representation.
+    private final Graph graph;
+    private final CsrGraph csr;
+
+    // Pool running the relaxations.
+    private final ForkJoinPool pool;
+
+    // Cost of each arc of the CSR graph for the last inspector (NaN if not allowed).
+    private ArcInspector inspector;
+    private float[] costs;
+    private double meanCost;
+    private float maximumCost;
+
+    // Label of each node: bits of its cost (high half) and CSR index of the arc from
+    // its father (low half, -1 for the origin).
+    private final AtomicLongArray labels;
+
+    // Bits of the cost of each node when its light arcs (resp. heavy arcs) were last
+    // relaxed during the current computation (-1 if never), to skip nodes appearing
+    // several times in a bucket. Races only lead to a node being relaxed again.
+    private final int[] lightScanned;
+    private final int[] heavyScanned;
+
+    // Buckets of each thread taking part in the current computation, and buckets of
+    // the previous computations, reused by the threads of the next one.
+    private final Map<Thread, Buckets> buckets = new ConcurrentHashMap<>();
+    private final Queue<Buckets> spareBuckets = new ConcurrentLinkedQueue<>();
+
+    // Size of the cyclic array of buckets of the current computation.
+    private int nbBuckets;
+
+    // Nodes of the bucket being processed.
+    private int[] frontier = new int[64];
+
+    // Width of the buckets of the last computation.
+    private double delta;
+
+    // Counter for the number of nodes relaxed (including nodes relaxed several times).
+    private final LongAdder nodeVisited = new LongAdder();
+
+    /**
+     * Create a new one-to-all search for the given graph, using the common pool.
+     *
+     * @param graph Graph of the search.
+     */
+    public DeltaStepping(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new one-to-all search for the given graph.
+     *
+     * @param graph Graph of the search.
+     * @param pool Pool running the relaxations.
+     */
+    public DeltaStepping(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.csr = graph.getCsrGraph();
+        this.pool = pool;
+        this.labels = new AtomicLongArray(graph.size());
+        this.lightScanned = new int[graph.size()];
+        this.heavyScanned = new int[graph.size()];
+        for (int node = 0; node < graph.size(); ++node) {
+            this.labels.set(node, UNREACHED);
+        }
+        Arrays.fill(this.lightScanned, -1);
+        Arrays.fill(this.heavyScanned, -1);
+    }
+
+    /**
+     * Compute the shortest paths from the given origin to all the nodes, with the
+     * default delta.
+     *
+     * @param origin Origin of the paths.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @return This search.
+     */
+    public DeltaStepping compute(Node origin, ArcInspector inspector) {
+        return compute(origin, inspector, Double.NaN);
+    }
+
+    /**
+     * Compute the shortest paths from the given origin to all the nodes.
+     *
+     * @param origin Origin of the paths.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param delta Width of the buckets (NaN for the default one).
+     * @return This search.
+     */
+    public DeltaStepping compute(Node origin, ArcInspector inspector, double delta) {
+        return compute(origin, null, inspector, delta);
+    }
+
+    /**
+     * Compute the shortest paths from the given origin, stopping once the cost of the
+     * given destination is known (if not null).
+     *
+     * @param origin Origin of the paths.
+     * @param destination Destination, or null to compute the paths to all the nodes.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param delta Width of the buckets (NaN for the default one).
+     * @return This search.
+     */
+    DeltaStepping compute(Node origin, Node destination, ArcInspector inspector,
+            double delta) {
+        if (inspector != this.inspector) {
+            computeCosts(inspector);
+        }
+        this.delta = Double.isNaN(delta) ? this.meanCost : delta;
+        if (!(this.delta > 0) || Double.isInfinite(this.delta)) {
+            throw new IllegalArgumentException("Invalid delta: " + delta);
+        }
+
+        // Nodes are at most 1 + maximumCost / delta buckets after the current one.
+        final double range = Math.floor(this.maximumCost / this.delta) + 3;
+        if (range > MAXIMUM_BUCKETS) {
+            throw new IllegalArgumentException(
+                    "Delta too small for the costs of the arcs: " + delta);
+        }
+        this.nbBuckets = Integer.highestOneBit((int) range - 1) << 1;
+
+        // Only the nodes reached by the previous computation are reset, then buckets
+        // are bound to the threads of this computation only.
+        for (Buckets buckets : this.buckets.values()) {
+            for (int i = 0; i < buckets.nbTouched; ++i) {
+                final int node = buckets.touched[i];
+                this.labels.set(node, UNREACHED);
+                this.lightScanned[node] = -1;
+                this.heavyScanned[node] = -1;
+            }
+            buckets.nbTouched = 0;
+        }
+        this.spareBuckets.addAll(this.buckets.values());
+        this.buckets.clear();
+        this.nodeVisited.reset();
+
+        this.labels.set(origin.getId(), pack(0, -1));
+        getBuckets().touch(origin.getId());
+        this.frontier[0] = origin.getId();
+        int size = 1;
+        int current = 0;
+        while (size > 0) {
+            final int bucket = current;
+
+            // Light arcs, until no node is added to the current bucket.
+            while (size > 0) {
+                final int[] nodes = this.frontier;
+                parallelFor(size, (buckets, from, to) -> {
+                    for (int i = from; i < to; ++i) {
+                        relax(buckets, nodes[i], bucket, true);
+                    }
+                });
+                size = gather(bucket);
+            }
+
+            // Heavy arcs of the nodes removed from the bucket, which cannot lead back
+            // to
+            // it.
+            size = gatherRemoved();
+            final int[] nodes = this.frontier;
+            parallelFor(size, (buckets, from, to) -> {
+                for (int i = from; i < to; ++i) {
+                    relax(buckets, nodes[i], bucket, false);
+                }
+            });
+
+            // Nodes in the next buckets have a cost of at least (current + 1) * delta.
+            if (destination != null) {
+                final long label = this.labels.get(destination.getId());
+                if (label != UNREACHED && cost(label) < (current + 1) * this.delta) {
+                    break;
+                }
+            }
+
+            current = Integer.MAX_VALUE;
+            for (Buckets buckets : this.buckets.values()) {
+                current = Math.min(current, buckets.firstNonEmpty(bucket));
+            }
+            size = current == Integer.MAX_VALUE ? 0 : gather(current);
+        }
+        return this;
+    }
+
+    /*
+     * Function to relax the arcs of a node taken from the current bucket
+     *
+     * @param buckets the buckets of the current thread
+     *
+     * @param node the node
+     *
+     * @param bucket the current bucket
+     *
+     * @param light true to relax the light arcs, false for the heavy arcs
+     */
+    private void relax(Buckets buckets, int node, int bucket, boolean light) {
+        final long label = this.labels.get(node);
+        final float cost = cost(label);
+        final int bits = (int) (label >>> 32);
+        if (light) {
+            // Skip nodes that moved to a lower bucket or were already relaxed.
+            if (bucketOf(cost) != bucket || this.lightScanned[node] == bits) {
+                return;
+            }
+            this.lightScanned[node] = bits;
+            buckets.remove(node);
+        }
+        else {
+            if (this.heavyScanned[node] == bits) {
+                return;
+            }
+            this.heavyScanned[node] = bits;
+        }
+        this.nodeVisited.increment();
+
+        for (int e = this.csr.getFirstArc(node),
+                end = this.csr.getEndArc(node); e < end; ++e) {
+            final float arcCost = this.costs[e];
+            if (Float.isNaN(arcCost) || (arcCost <= this.delta) != light) {
+                continue;
+            }
+            final int successor = this.csr.getTarget(e);
+            final float newCost = cost + arcCost;
+            if (update(buckets, successor, newCost, e)) {
+                buckets.push(bucketOf(newCost), successor);
+            }
+        }
+    }
+
+    /*
+     * Function to lower the cost of a node, if the given one is smaller
+     *
+     * @param buckets the buckets of the current thread, recording the node if it is
+     * reached for the first time
+     *
+     * @param node the node
+     *
+     * @param cost the new cost
+     *
+     * @param arc the CSR index of the arc from the new father
+     *
+     * @return true if the cost of the node was updated
+     */
+    private boolean update(Buckets buckets, int node, float cost, int arc) {
+        final long label = pack(cost, arc);
+        final int bits = (int) (label >>> 32);
+        long previous = this.labels.get(node);
+        // Costs are non-negative, so their bits are ordered as the costs.
+        while (bits < (int) (previous >>> 32)) {
+            if (this.labels.compareAndSet(node, previous, label)) {
+                if (previous == UNREACHED) {
+                    buckets.touch(node);
+                }
+                return true;
+            }
+            previous = this.labels.get(node);
+        }
+        return false;
+    }
+
+    /*
+     * Function to move the content of a bucket of all the threads to the frontier
+     *
+     * @param bucket the bucket
+     *
+     * @return the number of nodes in the frontier
+     */
+    private int gather(int bucket) {
+        int size = 0;
+        for (Buckets buckets : this.buckets.values()) {
+            size += buckets.size(bucket);
+        }
+        if (size > this.frontier.length) {
+            this.frontier = new int[Math.max(size, 2 * this.frontier.length)];
+        }
+        int offset = 0;
+        for (Buckets buckets : this.buckets.values()) {
+            final int count = buckets.size(bucket);
+            if (count > 0) {
+                System.arraycopy(buckets.content(bucket), 0, this.frontier, offset,
+                        count);
+                buckets.clear(bucket);
+                offset += count;
+            }
+        }
+        return size;
+    }
+
+    /*
+     * Function to move the nodes removed from the current bucket by all the threads to
+     * the frontier
+     *
+     * @return the number of nodes in the frontier
+     */
+    private int gatherRemoved() {
+        int size = 0;
+        for (Buckets buckets : this.buckets.values()) {
+            size += buckets.nbRemoved;
+        }
+        if (size > this.frontier.length) {
+            this.frontier = new int[Math.max(size, 2 * this.frontier.length)];
+        }
+        int offset = 0;
+        for (Buckets buckets : this.buckets.values()) {
+            System.arraycopy(buckets.removed, 0, this.frontier, offset,
+                    buckets.nbRemoved);
+            offset += buckets.nbRemoved;
+            buckets.nbRemoved = 0;
+        }
+        return size;
+    }
+
+    /*
+     * Function to run a task on a range of indices, split in chunks run in parallel
+     *
+     * @param size the size of the range
+     *
+     * @param task the task to run on each chunk
+     */
+    private void parallelFor(int size, RangeTask task) {
+        try {
+            ParallelLoop.run(this.pool, size, CHUNK_SIZE,
+                    (from, to) -> task.run(getBuckets(), from, to));
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during delta-stepping.",
+                    exception);
+        }
+    }
+
+    /*
+     * Function to retrieve the buckets of the current thread
+     *
+     * @return the buckets of the current thread
+     */
+    private Buckets getBuckets() {
+        return this.buckets.computeIfAbsent(Thread.currentThread(), thread -> {
+            final Buckets buckets = this.spareBuckets.poll();
+            if (buckets == null) {
+                return new Buckets(this.nbBuckets);
+            }
+            buckets.reset(this.nbBuckets);
+            return buckets;
+        });
+    }
+
+    /*
+     * Function to compute the cost of all the arcs for a new inspector
+     *
+     * @param inspector the inspector
+     */
+    private void computeCosts(ArcInspector inspector) {
+        final int nbArcs = this.csr.getNumberOfArcs();
+        if (this.costs == null) {
+            this.costs = new float[nbArcs];
+        }
+        final CompiledArcInspector compiled =
+                CompiledArcInspector.get(this.csr, inspector);
+        final LongAdder nbAllowed = new LongAdder();
+        final int nbChunks = Math.max(1, (nbArcs + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        final double[] sums = new double[nbChunks];
+        final float[] maximums = new float[nbChunks];
+        parallelFor(nbArcs, (buckets, from, to) -> {
+            double sum = 0;
+            float maximum = 0;
+            int allowed = 0;
+            for (int e = from; e < to; ++e) {
+                if (compiled.isAllowed(e)) {
+                    this.costs[e] = (float) compiled.getCost(e);
+                    sum += this.costs[e];
+                    maximum = Math.max(maximum, this.costs[e]);
+                    allowed++;
+                }
+                else {
+                    this.costs[e] = Float.NaN;
+                }
+            }
+            sums[from / CHUNK_SIZE] = sum;
+            maximums[from / CHUNK_SIZE] = maximum;
+            nbAllowed.add(allowed);
+        });
+        double sum = 0;
+        float maximum = 0;
+        for (int chunk = 0; chunk < nbChunks; ++chunk) {
+            sum += sums[chunk];
+            maximum = Math.max(maximum, maximums[chunk]);
+        }
+        final long allowed = nbAllowed.sum();
+        this.meanCost = allowed > 0 && sum > 0 ? sum / allowed : 1;
+        this.maximumCost = maximum;
+        this.inspector = inspector;
+    }
+
+    /*
+     * Function to compute the bucket of a cost
+     *
+     * @param cost the cost
+     *
+     * @return the index of the bucket containing this cost
+     */
+    private int bucketOf(float cost) {
+        return (int) Math.min(cost / this.delta, Integer.MAX_VALUE - 1);
+    }
+
+    private static long pack(float cost, int arc) {
+        return ((long) Float.floatToIntBits(cost) << 32) | (arc & 0xffffffffL);
+    }
+
+    private static float cost(long label) {
+        return Float.intBitsToFloat((int) (label >>> 32));
+    }
+
+    /**
+     * @return Graph of this search.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Width of the buckets of the last computation.
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * @return Number of nodes relaxed by the last computation, counting nodes as many
+     *         times as they were relaxed.
+     */
+    public long getNodeVisited() {
+        return this.nodeVisited.sum();
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return true if the node was reached by the last computation.
+     */
+    public boolean isReached(Node node) {
+        return this.labels.get(node.getId()) != UNREACHED;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return Cost of the shortest path to the node, or infinity if the node was not
+     *         reached.
+     */
+    public float getCost(Node node) {
+        final long label = this.labels.get(node.getId());
+        return label == UNREACHED ? Float.POSITIVE_INFINITY : cost(label);
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return Last arc of the shortest path to the node, or null for the origin or a
+     *         node not reached.
+     */
+    public Arc getFather(Node node) {
+        final long label = this.labels.get(node.getId());
+        return label == UNREACHED || (int) label == -1 ? null
+                : this.csr.getArc((int) label);
+    }
+
+    /**
+     * Build the shortest path to the given node.
+     *
+     * @param node A node of the graph.
+     * @return Path from the origin to the node, or null if the node was not reached.
+     */
+    public Path getPath(Node node) {
+        if (!isReached(node)) {
+            return null;
+        }
+        final List<Arc> arcs = new ArrayList<>();
+        for (Arc arc = getFather(node); arc != null; arc = getFather(arc.getOrigin())) {
+            arcs.add(arc);
+        }
+        if (arcs.isEmpty()) {
+            return new Path(this.graph, node);
+        }
+        Collections.reverse(arcs);
+        return new Path(this.graph, arcs);
+    }
+
+}
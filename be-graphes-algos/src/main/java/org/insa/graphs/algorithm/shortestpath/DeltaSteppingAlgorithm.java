@@ -0,0 +1,102 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Shortest path computed with a parallel {@link DeltaStepping} search, stopped as soon
+ * as the cost of the destination is known.
+ * </p>
+ * <p>
+ * Nodes are relaxed concurrently, so observers are only notified of the origin and of
+ * the destination, not of the nodes reached or marked.
+ * </p>
+ */
+public class DeltaSteppingAlgorithm extends ShortestPathAlgorithm {
+
+    // Search of each thread, reused as long as the thread searches the same graph. It
+    // is
+    // referenced softly, so that the last graph of a thread can still be collected.
+    private static final ThreadLocal<SoftReference<DeltaStepping>> SEARCHES =
+            new ThreadLocal<>();
+
+    private int nodeVisited = 0; // Counter for the number of nodes visited
+
+    private final double delta; // width of the buckets (NaN for the default one)
+
+    public DeltaSteppingAlgorithm(ShortestPathData data) {
+        this(data, Double.NaN);
+    }
+
+    public DeltaSteppingAlgorithm(ShortestPathData data, double delta) {
+        super(data);
+        this.delta = delta;
+    }
+
+    /*
+     * Function called before the search Queries whose destination is known to be
+     * unreachable are rejected without exploring everything reachable from their origin
+     *
+     * @return an infeasible solution for these queries, null otherwise
+     */
+    @Override
+    protected ShortestPathSolution doPreCheck() {
+        return rejectUnreachable();
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Node origin = data.getOrigin();
+        final Node destination = data.getDestination();
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(origin);
+
+        final DeltaStepping search = getSearch(data.getGraph()).compute(origin,
+                destination, data.getArcInspector(), this.delta);
+        nodeVisited = (int) Math.min(search.getNodeVisited(), Integer.MAX_VALUE);
+
+        if (!search.isReached(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The path is built before notifying observers, which may run other queries
+        // with the search of this thread.
+        final ShortestPathSolution solution =
+                new ShortestPathSolution(data, Status.OPTIMAL,
+                        search.getPath(destination), search.getCost(destination));
+
+        notifyDestinationReached(destination);
+
+        return solution;
+    }
+
+    /*
+     * Function to retrieve the search of the current thread for the given graph, so
+     * that its arrays (and the arc costs of the last inspector) are reused between
+     * queries
+     *
+     * @param graph the graph of the query
+     *
+     * @return the search of the current thread
+     */
+    private static DeltaStepping getSearch(Graph graph) {
+        final SoftReference<DeltaStepping> reference = SEARCHES.get();
+        DeltaStepping search = reference == null ? null : reference.get();
+        if (search == null || search.getGraph() != graph) {
+            search = new DeltaStepping(graph);
+            SEARCHES.set(new SoftReference<>(search));
+        }
+        return search;
+    }
+
+    @Override
+    public int getNodeVisited() {
+        return this.nodeVisited;
+    }
+}
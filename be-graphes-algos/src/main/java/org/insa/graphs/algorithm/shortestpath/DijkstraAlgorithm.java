@@ -5,9 +5,10 @@ import java.util.Collections;
 import java.util.List;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.algorithm.utils.ElementNotFoundException;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
@@ -17,55 +18,82 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
     private int nodeVisited = 0; // Counter for the number of nodes visited
 
     public DijkstraAlgorithm(ShortestPathData data) {
-        super(data);    
+        super(data);
     }
 
-    /* Function to initialize all the labels
-     * @param data the data of the shortest path problem
-     * @return an array of labels
-    */
-    public Label[] initLabel(ShortestPathData data) {
-        Graph graph = data.getGraph();
-        final int nbNodes = graph.size();
-        Label[] labels = new Label[nbNodes];
-
-        
-        // Initialize labels for each node in the graph
-        // Set the cost to infinity, fathers to null, and marked to false the label of the origin node is set to 0
-        for (int i = 0; i < nbNodes; i++) {
-            labels[i] = new Label(graph.get(i), false, Float.POSITIVE_INFINITY);
-        
-        }
-        // set the cost of the node at the origin, to 0
-        labels[data.getOrigin().getId()] = new Label(data.getOrigin(), false, 0);
-        return labels; 
+    /*
+     * Function to retrieve the label of a node for the current search Labels are
+     * borrowed from the workspace of the thread instead of being allocated for every
+     * node of the graph: a label is reset (cost to infinity, father to null, marked to
+     * false) the first time it is accessed during a search
+     *
+     * @param workspace the workspace of the current search
+     *
+     * @param node the node whose label is retrieved
+     *
+     * @return the label of the node
+     */
+    protected Label getLabel(SearchWorkspace workspace, Node node) {
+        return workspace.getLabel(node.getId());
     }
 
+    /*
+     * Function called once at the beginning of each search, before any label is
+     * retrieved Does nothing here, subclasses can use it to prepare the workspace
+     *
+     * @param workspace the workspace of the current search
+     */
+    protected void initSearch(SearchWorkspace workspace) {}
+
     @Override
     protected ShortestPathSolution doRun() {
-        // retrieve data from the input problem (getInputData() is inherited from the parent class ShortestPathAlgorithm)
+        // Labels and heap are borrowed from the workspace of the thread (given back at
+        // the end)
+        final SearchWorkspace workspace =
+                SearchWorkspace.acquire(getInputData().getGraph());
+        try {
+            return doRun(workspace);
+        }
+        finally {
+            workspace.release();
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace workspace) {
+        // retrieve data from the input problem (getInputData() is inherited from the
+        // parent class ShortestPathAlgorithm)
         final ShortestPathData data = getInputData();
         final Graph graph = data.getGraph();
         final Node origin = data.getOrigin();
         final Node destination = data.getDestination();
-
-        // Table of labels (initialized to infinity)
-        // The label of the origin node is set to 0
-        Label[] labels = initLabel(data);
-        // Binary heap to store the labels (we will remove the label of minimum cost at each iteration)
-        BinaryHeap<Label> heap = new BinaryHeap<>();
-        heap.insert(labels[origin.getId()]); // add the label of the origin node to the heap
+        final CsrGraph csr = graph.getCsrGraph();
+        final FilteredGraph filtered = data.getFilteredGraph();
+        initSearch(workspace);
+
+        // The label of the origin node is set to 0 (all the other labels are at
+        // infinity)
+        Label originLabel = getLabel(workspace, origin);
+        originLabel.setCost(0);
+        // Binary heap to store the labels (we will remove the label of minimum cost at
+        // each iteration)
+        // Labels are indexed by the ID of their node so that updating a label is O(log
+        // n)
+        IndexedBinaryHeap<Label> heap = workspace.getLabelHeap();
+        heap.insert(originLabel); // add the label of the origin node to the heap
 
         // Notify observers about the first event (origin processed).
         notifyOriginProcessed(origin);
 
         // While the heap is not empty/labels not marked (Main loop of the algorithm)
         while (!heap.isEmpty()) {
-            Label current = heap.deleteMin(); // removes the label of minimum cost from the heap and returns it
-            Node currentNode = current.getCurrentNode(); // get the cost of the current best label
+            Label current = heap.deleteMin(); // removes the label of minimum cost from
+                                              // the heap and returns it
+            Node currentNode = current.getCurrentNode(); // get the cost of the current
+                                                         // best label
 
             // If already marked, ignore
-            if (current.isMarked()) continue;
+            if (current.isMarked())
+                continue;
 
             // Mark the current node
             current.setMarked(true);
@@ -79,54 +107,63 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
                 // Reconstruct the path from the destination to the origin
                 List<Arc> arcs = new ArrayList<>();
-                Label label = labels[destination.getId()];
-                double totalCost = 0; // Calculate the total cost of the path
-
-                while (label.getFather() != null) {
-                    arcs.add(label.getFather());
-                    totalCost += label.getCost();
-                    label = labels[label.getFather().getOrigin().getId()];
+                Label label = current;
+                // The cost of the path is the cost of the destination label (the costs
+                // of the labels along the path are already cumulated)
+                final double totalCost = current.getCost();
+
+                // Arc objects are only created for the arcs of the path
+                while (label.getFatherArc() != -1) {
+                    final Arc arc = csr.getArc(label.getFatherArc());
+                    arcs.add(arc);
+                    label = getLabel(workspace, arc.getOrigin());
                 }
-                Collections.reverse(arcs); // Reverse the list to get the path from origin to destination
+                Collections.reverse(arcs); // Reverse the list to get the path from
+                                           // origin to destination
 
-                // Create the shortest path from the list of arcs
-                Path path = new Path(graph, arcs);
+                // Create the shortest path from the list of arcs (a path made of the
+                // origin only if the destination is the origin)
+                Path path = arcs.isEmpty() ? new Path(graph, origin)
+                        : new Path(graph, arcs);
 
                 return new ShortestPathSolution(data, Status.OPTIMAL, path, totalCost);
             }
 
-            // if not destination and not marked, explore the outgoing arcs of the current node
-            // For each successor of the current node
-            for (Arc arc : currentNode.getSuccessors()) {
-                // Check if the arc is allowed
-                // If not, skip to the next arc
-                if (!data.isAllowed(arc)) continue;
-
+            // if not destination and not marked, explore the outgoing arcs of the
+            // current node
+            // For each successor of the current node (the filtered graph only contains
+            // the allowed arcs, with their cost)
+            for (int e = filtered.getFirstArc(currentNode.getId()),
+                    end = filtered.getEndArc(currentNode.getId()); e < end; ++e) {
                 // Get the destination node of the arc
-                Node successorNode = arc.getDestination();
-                Label successorLabel = labels[successorNode.getId()];
+                Node successorNode = graph.get(filtered.getTarget(e));
+                Label successorLabel = getLabel(workspace, successorNode);
 
                 // If the successor label is already marked, skip to the next arc
-                if (successorLabel.isMarked()) continue;
+                if (successorLabel.isMarked())
+                    continue;
 
                 // Calculate the new cost,//?data is our current path of course
-                float newCost = current.getCost() + (float) data.getCost(arc);
+                float newCost = current.getCost() + filtered.getCost(e);
 
 
                 // If the new cost is less than the current cost of the successor label
                 // Update the cost and the father of the successor label
                 // and insert the successor label into the heap
-                //successorLabel.getCOst= current know shortest cost to destinatino node of our arc
+                // successorLabel.getCOst= current know shortest cost to destinatino
+                // node of our arc
                 if (newCost < successorLabel.getCost()) {
-                    try {
-                        heap.remove(successorLabel);
-                    } catch (ElementNotFoundException e) {} // successorLabel not in heap
-
-                    // Update by removing the old label and inserting the new one
+                    // Update the label, then move it up in the heap if it is already
+                    // there, or insert it if this is the first time it is reached
                     successorLabel.setCost(newCost);
-                    successorLabel.setFather(arc);
-                    heap.insert(successorLabel);
-                    
+                    successorLabel.setFatherArc(filtered.getOriginalArc(e));
+                    if (heap.contains(successorLabel)) {
+                        heap.decreaseKey(successorLabel);
+                    }
+                    else {
+                        heap.insert(successorLabel);
+                    }
+
                     // Notify observers about the new label
                     notifyNodeReached(successorNode);
                 }
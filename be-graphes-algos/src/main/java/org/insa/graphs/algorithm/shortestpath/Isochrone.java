@@ -0,0 +1,198 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Isochrone of a node: the part of the graph reachable from the node within a given
+ * cost (e.g. 15 minutes in time mode), computed from a bounded
+ * {@link ShortestPathTree}.
+ * </p>
+ * <p>
+ * The boundary of the isochrone is made of the arcs leaving a reachable node towards a
+ * node that is not reachable, and that cannot be entirely traveled within the given
+ * cost. For each of these arcs, the boundary point is the position reached on the arc
+ * when the cost is exhausted, assuming that the cost is spread evenly along the arc.
+ * </p>
+ * <p>
+ * As for {@link ShortestPathTree}, an isochrone can be computed again from another
+ * origin or with another cost without reallocating its arrays once they are large
+ * enough (only the points of the boundary arcs are read as new objects).
+ * </p>
+ */
+public class Isochrone {
+
+    // Tree of the reachable nodes.
+    private final ShortestPathTree tree;
+
+    // Maximum cost of the last isochrone.
+    private double maximumCost;
+
+    // Boundary arcs (indices in the CSR graph), and boundary point on each of them.
+    private int[] arcs = new int[16];
+    private float[] longitudes = new float[16];
+    private float[] latitudes = new float[16];
+    private int size;
+
+    /**
+     * Create a new empty isochrone for the given graph.
+     *
+     * @param graph Graph of the isochrone.
+     */
+    public Isochrone(Graph graph) {
+        this.tree = new ShortestPathTree(graph);
+    }
+
+    /**
+     * Compute the isochrone of the given node.
+     *
+     * @param origin Origin of the isochrone.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param maximumCost Maximum cost to reach a point of the isochrone.
+     * @return This isochrone.
+     */
+    public Isochrone compute(Node origin, ArcInspector inspector, double maximumCost) {
+        this.maximumCost = maximumCost;
+        this.tree.compute(origin, inspector, maximumCost);
+        this.size = 0;
+
+        final CsrGraph csr = this.tree.getGraph().getCsrGraph();
+        final FilteredGraph filtered =
+                FilteredGraph.get(this.tree.getGraph(), inspector);
+        for (int index = 0; index < this.tree.size(); ++index) {
+            final int node = this.tree.getNodeId(index);
+            final float cost = this.tree.getCost(index);
+            for (int e = filtered.getFirstArc(node),
+                    end = filtered.getEndArc(node); e < end; ++e) {
+                // Arcs to a node of the tree are inside the isochrone, the other ones
+                // cannot be entirely traveled (this does not depend on rounding
+                // errors).
+                if (this.tree.contains(filtered.getTarget(e))) {
+                    continue;
+                }
+                final double arcCost = filtered.getCost(e);
+                addBoundary(csr, filtered.getOriginalArc(e),
+                        arcCost > 0 ? (maximumCost - cost) / arcCost : 0);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add a boundary arc, whose boundary point is at the given fraction of its length.
+     */
+    private void addBoundary(CsrGraph csr, int arc, double fraction) {
+        if (this.size == this.arcs.length) {
+            this.arcs = Arrays.copyOf(this.arcs, 2 * this.size);
+            this.longitudes = Arrays.copyOf(this.longitudes, 2 * this.size);
+            this.latitudes = Arrays.copyOf(this.latitudes, 2 * this.size);
+        }
+        this.arcs[this.size] = arc;
+        locate(csr.getPoints(arc), Math.max(0, Math.min(1, fraction)));
+        this.size++;
+    }
+
+    /**
+     * Compute the point at the given fraction of the length of the polyline made of the
+     * given points (from the origin to the destination of an arc), and store it as the
+     * boundary point of the current boundary arc.
+     */
+    private void locate(List<Point> points, double fraction) {
+        double length = 0;
+        for (int i = 1; i < points.size(); ++i) {
+            length += Point.distance(points.get(i - 1), points.get(i));
+        }
+        double remaining = fraction * length;
+
+        // Find the segment containing the point.
+        Point from = points.get(0), to = points.get(0);
+        double segment = 0;
+        for (int i = 1; i < points.size(); ++i) {
+            from = points.get(i - 1);
+            to = points.get(i);
+            segment = Point.distance(from, to);
+            if (remaining <= segment) {
+                break;
+            }
+            remaining -= segment;
+        }
+        remaining = Math.min(remaining, segment);
+        final double ratio = segment > 0 ? remaining / segment : 1;
+
+        this.longitudes[this.size] = (float) (from.getLongitude()
+                + ratio * (to.getLongitude() - from.getLongitude()));
+        this.latitudes[this.size] = (float) (from.getLatitude()
+                + ratio * (to.getLatitude() - from.getLatitude()));
+    }
+
+    /**
+     * @return Tree of the nodes reachable within the maximum cost.
+     */
+    public ShortestPathTree getTree() {
+        return this.tree;
+    }
+
+    /**
+     * @return Maximum cost of this isochrone.
+     */
+    public double getMaximumCost() {
+        return this.maximumCost;
+    }
+
+    /**
+     * @return Number of boundary arcs (and points) of this isochrone.
+     */
+    public int getNumberOfBoundaryArcs() {
+        return this.size;
+    }
+
+    /**
+     * @param index Index of a boundary arc.
+     * @return Boundary arc at this index.
+     */
+    public Arc getBoundaryArc(int index) {
+        return this.tree.getGraph().getCsrGraph().getArc(this.arcs[index]);
+    }
+
+    /**
+     * @param index Index of a boundary arc.
+     * @return Index in the CSR graph of the boundary arc at this index.
+     */
+    public int getBoundaryArcIndex(int index) {
+        return this.arcs[index];
+    }
+
+    /**
+     * @param index Index of a boundary arc.
+     * @return Longitude of the boundary point of the arc at this index.
+     */
+    public float getBoundaryLongitude(int index) {
+        return this.longitudes[index];
+    }
+
+    /**
+     * @param index Index of a boundary arc.
+     * @return Latitude of the boundary point of the arc at this index.
+     */
+    public float getBoundaryLatitude(int index) {
+        return this.latitudes[index];
+    }
+
+    /**
+     * @param index Index of a boundary arc.
+     * @return Boundary point of the arc at this index (a new point).
+     */
+    public Point getBoundaryPoint(int index) {
+        return new Point(this.longitudes[index], this.latitudes[index]);
+    }
+
+}
@@ -1,19 +1,18 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.model.Node;
-import org.insa.graphs.model.Arc;
 
 public class Label implements Comparable<Label> {
     private Node currentNode;
     private float currentCost;
-    private Arc father;
+    private int fatherArc; // index of the father in the CSR graph, -1 if none
     private boolean marked;
 
     public Label(Node current, boolean marked, float currentCost) {
         this.currentNode = current;
         this.currentCost = currentCost;
         this.marked = marked;
-        this.father = null;
+        this.fatherArc = -1;
     }
 
     // label
@@ -24,19 +23,21 @@ public class Label implements Comparable<Label> {
         return this.currentNode;
     }
 
-    public Arc getFather() {
-        return this.father;
+    // Father given as the index of an arc of the CsrGraph, so that searches over the
+    // CSR arrays do not need Arc objects until the path is built
+    public int getFatherArc() {
+        return this.fatherArc;
     }
 
-    public void setFather(Arc father) {
-        this.father = father;
+    public void setFatherArc(int fatherArc) {
+        this.fatherArc = fatherArc;
     }
 
     public boolean isMarked() {
         return this.marked;
     }
 
-    public void setMarked(boolean marked){
+    public void setMarked(boolean marked) {
         this.marked = marked;
     }
 
@@ -44,7 +45,7 @@ public class Label implements Comparable<Label> {
         return this.currentCost;
     }
 
-     public float getTotalCost() {
+    public float getTotalCost() {
         return this.currentCost;
     }
 
@@ -52,8 +53,16 @@ public class Label implements Comparable<Label> {
         this.currentCost = cost;
     }
 
+    // Reset the label to an unreached state (infinite cost, no father, not marked)
+    // so that it can be reused by another search
+    void reset() {
+        this.currentCost = Float.POSITIVE_INFINITY;
+        this.fatherArc = -1;
+        this.marked = false;
+    }
+
     @Override
-    //returns the sign of d1-d2 here d1=this.getCost(), 0 if equal
+    // returns the sign of d1-d2 here d1=this.getCost(), 0 if equal
     public int compareTo(Label other) {
         // Compare based on the cost (or any other criteria
         return Double.compare(this.getTotalCost(), other.getTotalCost());
@@ -3,17 +3,35 @@ package org.insa.graphs.algorithm.shortestpath;
 import org.insa.graphs.model.Node;
 
 
-public class LabelStar extends Label implements Comparable<Label>{
-    private Float destinationCost;
+public class LabelStar extends Label implements Comparable<Label> {
+    private float destinationCost;
 
     // Constructor
-    public LabelStar(Node current, Boolean marked, Float currentCost, float destinationCost) {
+    public LabelStar(Node current, Boolean marked, Float currentCost,
+            float destinationCost) {
         super(current, marked, currentCost);
-        this.destinationCost=destinationCost;
-        }
-        
-    public float getTotalCost(){
-        return this.getCost() + this.destinationCost; // Pass appropriate ArcInspector if needed
-                                //destinationCost = heuristic
+        this.destinationCost = destinationCost;
     }
-}
\ No newline at end of file
+
+    public float getTotalCost() {
+        return this.getCost() + this.destinationCost; // Pass appropriate ArcInspector
+                                                      // if needed
+        // destinationCost = heuristic
+    }
+
+    // Estimated cost from this node to the destination (the heuristic), NaN if not
+    // computed yet
+    public float getDestinationCost() {
+        return this.destinationCost;
+    }
+
+    public void setDestinationCost(float destinationCost) {
+        this.destinationCost = destinationCost;
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        this.destinationCost = Float.NaN;
+    }
+}
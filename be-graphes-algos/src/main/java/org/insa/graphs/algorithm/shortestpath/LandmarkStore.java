@@ -0,0 +1,82 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+/**
+ * Store of the {@link Landmarks} of graphs, see {@link PreprocessingStore}.
+ */
+public class LandmarkStore extends PreprocessingStore<Landmarks> {
+
+    /**
+     * Default number of landmarks.
+     */
+    public static final int DEFAULT_NUMBER_OF_LANDMARKS = 16;
+
+    /**
+     * System property giving the directory of the default store, landmarks are only
+     * kept in memory if the property is not set or is empty.
+     */
+    public static final String DIRECTORY_PROPERTY = "be-graphes.landmarks.dir";
+
+    // Default store.
+    private static LandmarkStore defaultStore = null;
+
+    // Number of landmarks and selection strategy.
+    private final int numberOfLandmarks;
+    private final Landmarks.Selection selection;
+
+    /**
+     * Create a new store with the default number of landmarks and the avoid selection.
+     *
+     * @param directory Directory of landmark files, or null to keep landmarks in memory
+     *        only.
+     */
+    public LandmarkStore(Path directory) {
+        this(directory, DEFAULT_NUMBER_OF_LANDMARKS, Landmarks.Selection.AVOID);
+    }
+
+    /**
+     * Create a new store.
+     *
+     * @param directory Directory of landmark files, or null to keep landmarks in memory
+     *        only.
+     * @param numberOfLandmarks Number of landmarks to select.
+     * @param selection Selection strategy.
+     */
+    public LandmarkStore(Path directory, int numberOfLandmarks,
+            Landmarks.Selection selection) {
+        super(directory, ".landmarks");
+        this.numberOfLandmarks = numberOfLandmarks;
+        this.selection = selection;
+    }
+
+    /**
+     * Retrieve the default store, which keeps landmarks in memory only unless the
+     * {@link #DIRECTORY_PROPERTY} system property gives the directory of its files.
+     *
+     * @return The default store.
+     */
+    public static synchronized LandmarkStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new LandmarkStore(getDefaultDirectory(DIRECTORY_PROPERTY));
+        }
+        return defaultStore;
+    }
+
+    @Override
+    protected Landmarks compute(Graph graph, ArcInspector inspector) {
+        return Landmarks.compute(graph, inspector, this.numberOfLandmarks,
+                this.selection);
+    }
+
+    @Override
+    protected Landmarks read(DataInput input) throws IOException {
+        return Landmarks.read(input);
+    }
+
+}
@@ -0,0 +1,441 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+
+/**
+ * <p>
+ * Landmarks of a graph for a given arc inspector, with the cost of the shortest paths
+ * from each landmark to every node and from every node to each landmark, as used by
+ * {@link ALTAlgorithm} (A*, landmarks and triangle inequality).
+ * </p>
+ * <p>
+ * For any landmark {@code L} and nodes {@code v} and {@code t}, the triangle inequality
+ * gives two lower bounds of the cost from {@code v} to {@code t}:
+ * {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)}. The best of these bounds
+ * over all landmarks is returned by {@link #lowerBound(int, int)}.
+ * </p>
+ * <p>
+ * Costs are stored as floats (like the costs of the searches), i.e. 8 bytes per node
+ * and per landmark. They can be saved and loaded with {@link #write(DataOutput)} and
+ * {@link #read(DataInput)}, see {@link LandmarkStore}.
+ * </p>
+ */
+public class Landmarks implements PreprocessedData {
+
+    /**
+     * Strategy used to select the landmarks.
+     */
+    public enum Selection {
+
+        /**
+         * Each new landmark is the node farthest from the landmarks already selected.
+         */
+        FARTHEST,
+
+        /**
+         * Each new landmark is a leaf of the subtree of a shortest path tree (from a
+         * random root) where the current lower bounds are the worst (Goldberg and
+         * Werneck's "avoid" strategy).
+         */
+        AVOID
+    }
+
+    // Magic number and version of landmark files.
+    static final int MAGIC_NUMBER = 0x4c4d4b53;
+    static final int VERSION = 1;
+
+    // Map, inspector and fingerprint of the costs these landmarks were computed for.
+    private final String mapId;
+    private final String inspector;
+    private final long fingerprint;
+
+    // IDs of the landmarks.
+    private final int[] nodes;
+
+    // Costs from each landmark to each node, and from each node to each landmark
+    // (infinite if there is no path).
+    private final float[][] distancesFrom;
+    private final float[][] distancesTo;
+
+    private Landmarks(String mapId, String inspector, long fingerprint, int[] nodes,
+            float[][] distancesFrom, float[][] distancesTo) {
+        this.mapId = mapId;
+        this.inspector = inspector;
+        this.fingerprint = fingerprint;
+        this.nodes = nodes;
+        this.distancesFrom = distancesFrom;
+        this.distancesTo = distancesTo;
+    }
+
+    /**
+     * Compute the costs from and to the given landmarks. The shortest path trees of all
+     * the landmarks are computed in parallel.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param nodes IDs of the landmarks.
+     * @return New landmarks.
+     */
+    public static Landmarks compute(Graph graph, ArcInspector inspector, int[] nodes) {
+        final ArcCosts costs = new ArcCosts(graph, inspector);
+        final float[][] distances = new float[2 * nodes.length][];
+        IntStream.range(0, distances.length).parallel().forEach(i -> distances[i] =
+                costs.distances(nodes[i / 2], i % 2 == 1, null, null));
+
+        final float[][] distancesFrom = new float[nodes.length][];
+        final float[][] distancesTo = new float[nodes.length][];
+        for (int i = 0; i < nodes.length; ++i) {
+            distancesFrom[i] = distances[2 * i];
+            distancesTo[i] = distances[2 * i + 1];
+        }
+        return new Landmarks(graph.getMapId(), inspector.toString(), costs.fingerprint,
+                nodes.clone(), distancesFrom, distancesTo);
+    }
+
+    /**
+     * Select landmarks using the given strategy and compute the costs from and to them.
+     * The selection is deterministic for a given graph and inspector.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param count Number of landmarks to select (fewer landmarks are selected if the
+     *        graph does not have enough nodes).
+     * @param selection Selection strategy.
+     * @return New landmarks.
+     */
+    public static Landmarks compute(Graph graph, ArcInspector inspector, int count,
+            Selection selection) {
+        final ArcCosts costs = new ArcCosts(graph, inspector);
+        final int size = costs.size();
+        final Random random = new Random(costs.fingerprint);
+
+        final List<Integer> nodes = new ArrayList<>();
+        final List<float[]> distancesFrom = new ArrayList<>();
+        final List<float[]> distancesTo = new ArrayList<>();
+
+        // Minimum over the landmarks of the costs between each node and the landmarks,
+        // used by the farthest selection.
+        final float[] scores = new float[size];
+        Arrays.fill(scores, Float.POSITIVE_INFINITY);
+
+        while (nodes.size() < Math.min(count, size)) {
+            final int landmark;
+            if (nodes.isEmpty()) {
+                // First landmark: the node farthest from a random node.
+                final float[] distances =
+                        costs.distances(random.nextInt(size), false, null, null);
+                landmark = argmax(distances);
+            }
+            else if (selection == Selection.FARTHEST) {
+                landmark = argmax(scores);
+            }
+            else {
+                landmark = avoid(costs, random, nodes, distancesFrom, distancesTo);
+            }
+            if (landmark == -1 || nodes.contains(landmark)) {
+                break;
+            }
+
+            // Both trees of the new landmark are computed in parallel.
+            final float[][] distances = new float[2][];
+            IntStream.range(0, 2).parallel().forEach(
+                    i -> distances[i] = costs.distances(landmark, i == 1, null, null));
+            nodes.add(landmark);
+            distancesFrom.add(distances[0]);
+            distancesTo.add(distances[1]);
+
+            // Unreachable nodes do not count in the scores, so that they are not
+            // selected before the reachable ones.
+            for (int node = 0; node < size; ++node) {
+                final float score =
+                        finite(distances[0][node]) + finite(distances[1][node]);
+                scores[node] = Math.min(scores[node], score);
+            }
+        }
+
+        return new Landmarks(graph.getMapId(), inspector.toString(), costs.fingerprint,
+                nodes.stream().mapToInt(Integer::intValue).toArray(),
+                distancesFrom.toArray(new float[0][]),
+                distancesTo.toArray(new float[0][]));
+    }
+
+    /**
+     * Select a new landmark with the "avoid" strategy.
+     *
+     * @return ID of the new landmark, or -1 if there is no good candidate.
+     */
+    private static int avoid(ArcCosts costs, Random random, List<Integer> nodes,
+            List<float[]> distancesFrom, List<float[]> distancesTo) {
+        final int size = costs.size();
+        final int root = random.nextInt(size);
+        final int[] parents = new int[size];
+        final int[] order = new int[size];
+        final float[] distances = costs.distances(root, false, parents, order);
+
+        // Weight of each node: difference between its cost and the lower bound given by
+        // the current landmarks, then sum of the weights of each subtree. Subtrees
+        // containing a landmark are already well covered and get a 0 size.
+        final float[] sizes = new float[size];
+        final boolean[] covered = new boolean[size];
+        for (int node : nodes) {
+            covered[node] = true;
+        }
+        int nbReached = 0;
+        while (nbReached < size && order[nbReached] != -1) {
+            final int node = order[nbReached++];
+            sizes[node] = distances[node]
+                    - Math.max(lowerBound(distancesFrom, distancesTo, root, node), 0);
+        }
+        for (int i = nbReached - 1; i > 0; --i) {
+            final int node = order[i];
+            if (covered[node]) {
+                covered[parents[node]] = true;
+            }
+            else {
+                sizes[parents[node]] += sizes[node];
+            }
+        }
+        for (int i = 0; i < nbReached; ++i) {
+            if (covered[order[i]]) {
+                sizes[order[i]] = 0;
+            }
+        }
+
+        int best = -1;
+        for (int i = 0; i < nbReached; ++i) {
+            if (sizes[order[i]] > 0 && (best == -1 || sizes[order[i]] > sizes[best])) {
+                best = order[i];
+            }
+        }
+        if (best == -1) {
+            return -1;
+        }
+
+        // Go down to a leaf, following the largest subtrees.
+        final int[] children = new int[size];
+        Arrays.fill(children, -1);
+        for (int i = 1; i < nbReached; ++i) {
+            final int node = order[i];
+            final int parent = parents[node];
+            if (children[parent] == -1 || sizes[node] > sizes[children[parent]]) {
+                children[parent] = node;
+            }
+        }
+        while (children[best] != -1) {
+            best = children[best];
+        }
+        return best;
+    }
+
+    /**
+     * @return Index of the largest finite value of the given array, or -1 if there is
+     *         no finite positive value.
+     */
+    private static int argmax(float[] values) {
+        int best = -1;
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] > 0 && values[i] < Float.POSITIVE_INFINITY
+                    && (best == -1 || values[i] > values[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The given value, or 0 if it is infinite.
+     */
+    private static float finite(float value) {
+        return value == Float.POSITIVE_INFINITY ? 0 : value;
+    }
+
+    /**
+     * Compute the best lower bound of the cost from a node to another one, given the
+     * costs from and to some landmarks.
+     */
+    private static float lowerBound(List<float[]> distancesFrom,
+            List<float[]> distancesTo, int node, int target) {
+        float bound = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < distancesFrom.size(); ++i) {
+            bound = lowerBound(bound, distancesFrom.get(i), distancesTo.get(i), node,
+                    target);
+        }
+        return bound;
+    }
+
+    /**
+     * Improve the given lower bound of the cost from a node to another one with the
+     * costs from and to a landmark. Bounds involving two infinite costs are undefined
+     * (NaN) and ignored.
+     */
+    private static float lowerBound(float bound, float[] from, float[] to, int node,
+            int target) {
+        final float boundFrom = from[target] - from[node];
+        final float boundTo = to[node] - to[target];
+        if (boundFrom > bound) {
+            bound = boundFrom;
+        }
+        if (boundTo > bound) {
+            bound = boundTo;
+        }
+        return bound;
+    }
+
+    /**
+     * Compute the best lower bound of the cost from a node to another one, given by the
+     * triangle inequality with each landmark. The bound is infinite if the landmarks
+     * prove that there is no path between the nodes.
+     *
+     * @param node ID of the origin node.
+     * @param target ID of the destination node.
+     * @return Lower bound of the cost from node to target (may be negative if the
+     *         landmarks give no useful bound).
+     */
+    public float lowerBound(int node, int target) {
+        float bound = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < this.nodes.length; ++i) {
+            bound = lowerBound(bound, this.distancesFrom[i], this.distancesTo[i], node,
+                    target);
+        }
+        return bound;
+    }
+
+    /**
+     * @return ID of the map these landmarks were computed for.
+     */
+    @Override
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Description of the arc inspector these landmarks were computed for.
+     */
+    @Override
+    public String getInspector() {
+        return this.inspector;
+    }
+
+    /**
+     * @return Fingerprint of the costs these landmarks were computed with.
+     */
+    @Override
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return Number of nodes of the graph.
+     */
+    @Override
+    public int getNumberOfNodes() {
+        return this.nodes.length == 0 ? 0 : this.distancesFrom[0].length;
+    }
+
+    /**
+     * @return Number of landmarks.
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * @param index Index of a landmark.
+     * @return ID of the landmark node.
+     */
+    public int getLandmark(int index) {
+        return this.nodes[index];
+    }
+
+    /**
+     * @param index Index of a landmark.
+     * @param node ID of a node.
+     * @return Cost of the shortest path from the landmark to the node (infinite if
+     *         there is none).
+     */
+    public float getCostFrom(int index, int node) {
+        return this.distancesFrom[index][node];
+    }
+
+    /**
+     * @param index Index of a landmark.
+     * @param node ID of a node.
+     * @return Cost of the shortest path from the node to the landmark (infinite if
+     *         there is none).
+     */
+    public float getCostTo(int index, int node) {
+        return this.distancesTo[index][node];
+    }
+
+    /**
+     * Write these landmarks to the given output.
+     *
+     * @param output Output to write to.
+     * @throws IOException if an error occurs while writing.
+     */
+    @Override
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        output.writeUTF(this.mapId);
+        output.writeUTF(this.inspector);
+        output.writeLong(this.fingerprint);
+        output.writeInt(getNumberOfNodes());
+        output.writeInt(this.nodes.length);
+        for (int node : this.nodes) {
+            output.writeInt(node);
+        }
+        for (int i = 0; i < this.nodes.length; ++i) {
+            PreprocessingStore.writeFloats(output, this.distancesFrom[i]);
+            PreprocessingStore.writeFloats(output, this.distancesTo[i]);
+        }
+    }
+
+    /**
+     * Read landmarks written by {@link #write(DataOutput)}.
+     *
+     * @param input Input to read from.
+     * @return Landmarks read.
+     * @throws IOException if an error occurs while reading, or if the input does not
+     *         contain landmarks.
+     */
+    public static Landmarks read(DataInput input) throws IOException {
+        final int magicNumber = input.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        final String mapId = input.readUTF();
+        final String inspector = input.readUTF();
+        final long fingerprint = input.readLong();
+        final int nbNodes = input.readInt();
+        final int[] nodes = new int[input.readInt()];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = input.readInt();
+        }
+        final float[][] distancesFrom = new float[nodes.length][];
+        final float[][] distancesTo = new float[nodes.length][];
+        for (int i = 0; i < nodes.length; ++i) {
+            distancesFrom[i] = PreprocessingStore.readFloats(input, nbNodes);
+            distancesTo[i] = PreprocessingStore.readFloats(input, nbNodes);
+        }
+        return new Landmarks(mapId, inspector, fingerprint, nodes, distancesFrom,
+                distancesTo);
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.insa.graphs.algorithm.ArcInspector;
+
+/**
+ * Data precomputed for a graph and an arc inspector to speed up shortest path queries,
+ * such as {@link Landmarks}, kept in memory and on disk by a
+ * {@link PreprocessingStore}.
+ */
+public interface PreprocessedData {
+
+    /**
+     * @return ID of the map these data were computed for.
+     */
+    public String getMapId();
+
+    /**
+     * @return Description of the arc inspector these data were computed for (see
+     *         {@link ArcInspector#toString()}).
+     */
+    public String getInspector();
+
+    /**
+     * @return Number of nodes of the graph these data were computed for.
+     */
+    public int getNumberOfNodes();
+
+    /**
+     * @return Fingerprint of the costs of the arcs these data were computed with.
+     */
+    public long getFingerprint();
+
+    /**
+     * Write these data to the given output.
+     *
+     * @param output Output to write to.
+     * @throws IOException if an error occurs while writing.
+     */
+    public void write(DataOutput output) throws IOException;
+
+}
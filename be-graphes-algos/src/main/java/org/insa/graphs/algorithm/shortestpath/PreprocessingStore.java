@@ -0,0 +1,327 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Store of data precomputed for graphs, computed on first use and kept in memory as
+ * long as the graph is, and optionally saved on disk (one file per map and arc
+ * inspector) so that they do not have to be computed again for the next runs.
+ * </p>
+ * <p>
+ * Data of different graphs or arc inspectors can be computed concurrently; threads
+ * asking for data being computed wait for them instead of computing them again.
+ * </p>
+ * <p>
+ * Data in memory are identified by their graph and their arc inspector, compared with
+ * {@link Object#equals(Object)} (i.e. by identity unless the inspector defines
+ * equality, see {@link ArcInspector}). Inspectors are referenced weakly, so the data of
+ * an inspector that is not used anymore are dropped.
+ * </p>
+ * <p>
+ * Data are only used if they were computed with the same costs (see
+ * {@link PreprocessedData#getFingerprint()}): data read from disk are otherwise
+ * computed again and the file is replaced, and data in memory retrieved through another
+ * (equal) inspector than the one they were computed for are otherwise computed again
+ * for this inspector. Errors while reading or writing files are not fatal: data are
+ * then simply computed again.
+ * </p>
+ *
+ * @param <T> Type of the precomputed data.
+ */
+public abstract class PreprocessingStore<T extends PreprocessedData> {
+
+    // Directory of the files (null if data are only kept in memory), and extension of
+    // the files.
+    private final Path directory;
+    private final String extension;
+
+    /**
+     * Data in memory (possibly still being computed), with the inspector they were
+     * computed for (referenced weakly, since it is also the key of the data).
+     */
+    private static final class Entry<T> {
+
+        private final FutureTask<T> task;
+        private final WeakReference<ArcInspector> inspector;
+
+        Entry(FutureTask<T> task, ArcInspector inspector) {
+            this.task = task;
+            this.inspector = new WeakReference<>(inspector);
+        }
+
+    }
+
+    // Data in memory, for each graph and arc inspector (accessed under its own lock).
+    private final Map<Graph, Map<ArcInspector, Entry<T>>> data = new WeakHashMap<>();
+
+    /**
+     * Create a new store.
+     *
+     * @param directory Directory of the files, or null to keep data in memory only.
+     * @param extension Extension of the files (including the dot).
+     */
+    protected PreprocessingStore(Path directory, String extension) {
+        this.directory = directory;
+        this.extension = extension;
+    }
+
+    /**
+     * Find the directory of a default store, given by the given system property.
+     *
+     * @param property Name of the system property.
+     * @return Directory of the store, or null if the property is not set or is empty
+     *         (data only kept in memory).
+     */
+    protected static Path getDefaultDirectory(String property) {
+        final String value = System.getProperty(property);
+        return value == null || value.isEmpty() ? null : Paths.get(value);
+    }
+
+    /**
+     * Write the given values to the given output, in big-endian order.
+     *
+     * @param output Output to write to.
+     * @param values Values to write.
+     * @throws IOException if an error occurs while writing.
+     */
+    static void writeFloats(DataOutput output, float[] values) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * values.length);
+        buffer.asFloatBuffer().put(values);
+        output.write(buffer.array());
+    }
+
+    /**
+     * Read values written by {@link #writeFloats(DataOutput, float[])}.
+     *
+     * @param input Input to read from.
+     * @param count Number of values to read.
+     * @return Values read.
+     * @throws IOException if an error occurs while reading.
+     */
+    static float[] readFloats(DataInput input, int count) throws IOException {
+        final byte[] bytes = new byte[4 * count];
+        input.readFully(bytes);
+        final float[] values = new float[count];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Write the given values to the given output, in big-endian order.
+     *
+     * @param output Output to write to.
+     * @param values Values to write.
+     * @throws IOException if an error occurs while writing.
+     */
+    static void writeInts(DataOutput output, int[] values) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * values.length);
+        buffer.asIntBuffer().put(values);
+        output.write(buffer.array());
+    }
+
+    /**
+     * Read values written by {@link #writeInts(DataOutput, int[])}.
+     *
+     * @param input Input to read from.
+     * @param count Number of values to read.
+     * @return Values read.
+     * @throws IOException if an error occurs while reading.
+     */
+    static int[] readInts(DataInput input, int count) throws IOException {
+        final byte[] bytes = new byte[4 * count];
+        input.readFully(bytes);
+        final int[] values = new int[count];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Compute the data of the given graph.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @return New data.
+     */
+    protected abstract T compute(Graph graph, ArcInspector inspector);
+
+    /**
+     * Read data written by {@link PreprocessedData#write(DataOutput)}.
+     *
+     * @param input Input to read from.
+     * @return Data read.
+     * @throws IOException if an error occurs while reading.
+     */
+    protected abstract T read(DataInput input) throws IOException;
+
+    /**
+     * Retrieve the data of the given graph for the given inspector, reading them from
+     * disk or computing them if they are not in memory yet.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @return Data of the graph.
+     */
+    public T get(Graph graph, ArcInspector inspector) {
+        final Entry<T> entry;
+        synchronized (this.data) {
+            entry = this.data.computeIfAbsent(graph, g -> new WeakHashMap<>())
+                    .computeIfAbsent(inspector,
+                            k -> new Entry<>(new FutureTask<>(() -> {
+                                T result = load(graph, inspector);
+                                if (result == null) {
+                                    result = compute(graph, inspector);
+                                    save(result);
+                                }
+                                return result;
+                            }), inspector));
+        }
+        final T result = await(graph, inspector, entry);
+
+        // Data computed for another inspector are only used if the costs are the same
+        // (the inspectors are equal, but equality may not take all costs into account).
+        if (entry.inspector.get() != inspector
+                && result.getFingerprint() != ArcCosts.fingerprint(graph, inspector)) {
+            return compute(graph, inspector);
+        }
+        return result;
+    }
+
+    /*
+     * Function to wait for the data of an entry, running the computation in the current
+     * thread if no other thread has started it
+     *
+     * @param graph the graph of the data
+     *
+     * @param inspector the arc inspector of the data
+     *
+     * @param entry the entry of the data
+     *
+     * @return the data
+     */
+    private T await(Graph graph, ArcInspector inspector, Entry<T> entry) {
+        // Only the first thread runs the task, the other ones wait for its result.
+        final FutureTask<T> task = entry.task;
+        task.run();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                }
+                catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        catch (ExecutionException exception) {
+            // Data will be computed again next time.
+            synchronized (this.data) {
+                final Map<ArcInspector, Entry<T>> byInspector = this.data.get(graph);
+                if (byInspector != null) {
+                    byInspector.remove(inspector, entry);
+                }
+            }
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return File containing the data for the given map and inspector, or null if data
+     *         are only kept in memory.
+     */
+    private Path getFile(String mapId, String inspector) {
+        if (this.directory == null) {
+            return null;
+        }
+        final String name = mapId.replaceAll("[^A-Za-z0-9_.-]", "_") + "-"
+                + Integer.toHexString(inspector.hashCode()) + this.extension;
+        return this.directory.resolve(name);
+    }
+
+    /**
+     * Read the data of the given graph from disk.
+     *
+     * @return Data read, or null if there is no valid file for the given graph.
+     */
+    private T load(Graph graph, ArcInspector inspector) {
+        final Path file = getFile(graph.getMapId(), inspector.toString());
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            final T result = read(input);
+            if (!result.getMapId().equals(graph.getMapId())
+                    || !result.getInspector().equals(inspector.toString())
+                    || result.getNumberOfNodes() != graph.size()
+                    || result.getFingerprint() != ArcCosts.fingerprint(graph,
+                            inspector)) {
+                return null;
+            }
+            return result;
+        }
+        catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Save the given data on disk. The file is written under a temporary name and then
+     * renamed, so that concurrent readers never see a partial file.
+     */
+    private void save(T result) {
+        final Path file = getFile(result.getMapId(), result.getInspector());
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(this.directory);
+            final Path temporary = Files.createTempFile(this.directory, "store", null);
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                result.write(output);
+            }
+            catch (IOException exception) {
+                Files.deleteIfExists(temporary);
+                throw exception;
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException exception) {
+            // Data will be computed again next time.
+        }
+    }
+
+}
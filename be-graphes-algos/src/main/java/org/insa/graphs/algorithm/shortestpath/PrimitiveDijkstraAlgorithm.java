@@ -0,0 +1,147 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * Dijkstra algorithm that does not use {@link Label} objects: the cost, predecessor arc
+ * and mark of each node are stored in parallel arrays indexed by node ID, and the
+ * priority queue is an {@link IndexedDaryHeap} of node IDs with {@code float} keys.
+ * Successors are iterated using the {@link FilteredGraph} of the input, i.e. only over
+ * the allowed arcs, whose costs are precomputed. Arrays and heap are borrowed from the
+ * {@link SearchWorkspace} of the thread, so a search does not allocate anything once
+ * the workspace is warm.
+ */
+public class PrimitiveDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    private int nodeVisited = 0; // Counter for the number of nodes visited
+
+    // Arity of the heap used by this algorithm.
+    private final int arity;
+
+    /**
+     * Create a new primitive Dijkstra algorithm with a heap of default arity.
+     *
+     * @param data Input data for this algorithm.
+     */
+    public PrimitiveDijkstraAlgorithm(ShortestPathData data) {
+        this(data, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * Create a new primitive Dijkstra algorithm with a heap of the given arity.
+     *
+     * @param data Input data for this algorithm.
+     * @param arity Arity of the heap (2, 4 or 8).
+     */
+    public PrimitiveDijkstraAlgorithm(ShortestPathData data, int arity) {
+        super(data);
+        this.arity = arity;
+    }
+
+    /*
+     * Function called before the search Queries whose destination is known to be
+     * unreachable are rejected without exploring everything reachable from their origin
+     *
+     * @return an infeasible solution for these queries, null otherwise
+     */
+    @Override
+    protected ShortestPathSolution doPreCheck() {
+        return rejectUnreachable();
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        // Arrays and heap are borrowed from the workspace of the thread.
+        final SearchWorkspace workspace =
+                SearchWorkspace.acquire(getInputData().getGraph());
+        try {
+            return doRun(workspace);
+        }
+        finally {
+            workspace.release();
+        }
+    }
+
+    private ShortestPathSolution doRun(SearchWorkspace workspace) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final Node origin = data.getOrigin();
+        final Node destination = data.getDestination();
+        final CsrGraph csr = graph.getCsrGraph();
+        final FilteredGraph filtered = data.getFilteredGraph();
+
+        final IndexedDaryHeap heap = workspace.getHeap(this.arity);
+        workspace.update(origin.getId(), 0, -1);
+        heap.insert(origin.getId(), 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(origin);
+
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            final Node currentNode = graph.get(current);
+            workspace.mark(current);
+            nodeVisited++;
+            notifyNodeMarked(currentNode);
+
+            if (current == destination.getId()) {
+                break;
+            }
+
+            // Successors are scanned in the filtered graph (allowed arcs only), fathers
+            // are stored as arc indices of the CSR graph.
+            final float currentCost = workspace.getCost(current);
+            for (int e = filtered.getFirstArc(current),
+                    end = filtered.getEndArc(current); e < end; ++e) {
+                final int successor = filtered.getTarget(e);
+                if (workspace.isMarked(successor)) {
+                    continue;
+                }
+                final float newCost = currentCost + filtered.getCost(e);
+                if (newCost < workspace.getCost(successor)) {
+                    workspace.update(successor, newCost, filtered.getOriginalArc(e));
+                    heap.insertOrDecreaseKey(successor, newCost);
+                    notifyNodeReached(graph.get(successor));
+                }
+            }
+        }
+
+        if (!workspace.isMarked(destination.getId())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        notifyDestinationReached(destination);
+
+        // Reconstruct the path from the destination to the origin, Arc objects are
+        // only created for the arcs of the path.
+        final List<Arc> arcs = new ArrayList<>();
+        int e = workspace.getFatherIndex(destination.getId());
+        while (e != -1) {
+            final Arc arc = csr.getArc(e);
+            arcs.add(arc);
+            e = workspace.getFatherIndex(arc.getOrigin().getId());
+        }
+        Collections.reverse(arcs);
+
+        final Path path =
+                arcs.isEmpty() ? new Path(graph, origin) : new Path(graph, arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, path,
+                workspace.getCost(destination.getId()));
+    }
+
+    @Override
+    public int getNodeVisited() {
+        return this.nodeVisited;
+    }
+}
@@ -0,0 +1,347 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.utils.IndexedBinaryHeap;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Reusable state for the searches run on a given graph: labels, primitive cost and
+ * predecessor arrays, cached heuristics, and priority queues.
+ * </p>
+ * <p>
+ * Instead of resetting all of its arrays before each search, a workspace stamps each
+ * node with the number (epoch) of the search that last touched it, and resets the state
+ * of a node the first time it is accessed during a new search. The setup cost of a
+ * search is thus proportional to the number of nodes it reaches, not to the size of the
+ * graph.
+ * </p>
+ * <p>
+ * Workspaces are not thread-safe: each thread owns its own workspace, which is borrowed
+ * with {@link #acquire(Graph)} and given back with {@link #release()}. Workspaces are
+ * referenced softly by their thread, so that the last searched graph and the arrays of
+ * its workspace can be dropped when memory runs low.
+ * </p>
+ */
+public class SearchWorkspace {
+
+    // Workspace of each thread, reused as long as the thread searches the same graph
+    // (and as long as memory is available).
+    private static final ThreadLocal<SoftReference<SearchWorkspace>> WORKSPACES =
+            new ThreadLocal<>();
+
+    /**
+     * Borrow the workspace of the current thread for the given graph and start a new
+     * search in it. The workspace must be given back using {@link #release()} once the
+     * search is over.
+     *
+     * @param graph Graph that will be searched.
+     * @return A workspace for the given graph, ready for a new search.
+     */
+    public static SearchWorkspace acquire(Graph graph) {
+        final SoftReference<SearchWorkspace> reference = WORKSPACES.get();
+        SearchWorkspace workspace = reference == null ? null : reference.get();
+        if (workspace == null || workspace.graph != graph) {
+            workspace = new SearchWorkspace(graph);
+            WORKSPACES.set(new SoftReference<>(workspace));
+        }
+        else if (workspace.inUse) {
+            // Nested search on the same thread: use a temporary workspace.
+            workspace = new SearchWorkspace(graph);
+        }
+        workspace.inUse = true;
+        workspace.newSearch();
+        return workspace;
+    }
+
+    // Graph this workspace is bound to.
+    private final Graph graph;
+
+    // true if the workspace is currently borrowed.
+    private boolean inUse;
+
+    // Current search number, and search number that last reached / marked each node.
+    private int epoch;
+    private final int[] reached;
+    private final int[] marked;
+
+    // Primitive state of each node (only valid if the node was reached).
+    private final float[] costs;
+
+    // Predecessor of each node given as an index (of an arc of the CSR graph, or of an
+    // edge of a contraction hierarchy), created on demand.
+    private int[] fatherIndexes;
+
+    // Labels of each node (only valid if the node was reached), created on demand.
+    private Label[] labels;
+    private LabelStar[] starLabels;
+
+    // Cached heuristic (potential) of each node, valid if its stamp equals
+    // potentialEpoch, and key of the heuristic these values belong to.
+    private float[] potentials;
+    private int[] potentialStamps;
+    private int potentialEpoch;
+    private Object potentialKey;
+
+    // Priority queues, created on demand.
+    private IndexedBinaryHeap<Label> labelHeap;
+    private IndexedDaryHeap heap;
+
+    // Workspace of the backward search of bidirectional searches, created on demand.
+    private SearchWorkspace backward;
+
+    /**
+     * Create a new workspace for the given graph.
+     *
+     * @param graph Graph this workspace is bound to.
+     */
+    protected SearchWorkspace(Graph graph) {
+        final int nbNodes = graph.size();
+        this.graph = graph;
+        this.epoch = 0;
+        this.reached = new int[nbNodes];
+        this.marked = new int[nbNodes];
+        this.costs = new float[nbNodes];
+    }
+
+    /**
+     * Start a new search, invalidating the state of all the nodes in <i>O(1)</i>.
+     */
+    public void newSearch() {
+        if (++this.epoch == Integer.MAX_VALUE) {
+            // Stamps would wrap around: actually clear them once in a while.
+            Arrays.fill(this.reached, 0);
+            Arrays.fill(this.marked, 0);
+            this.epoch = 1;
+        }
+        if (this.labelHeap != null) {
+            this.labelHeap.clear();
+        }
+        if (this.heap != null) {
+            this.heap.clear();
+        }
+        if (this.backward != null) {
+            this.backward.newSearch();
+        }
+    }
+
+    /**
+     * Give this workspace back so that it can be reused by the next search of the
+     * current thread.
+     */
+    public void release() {
+        this.inUse = false;
+    }
+
+    /**
+     * Retrieve a second workspace for the same graph, e.g. for the backward search of a
+     * bidirectional search. The second workspace starts a new search whenever this one
+     * does, and is given back along with this one.
+     *
+     * @return Backward workspace associated with this workspace.
+     */
+    public SearchWorkspace getBackward() {
+        if (this.backward == null) {
+            this.backward = new SearchWorkspace(this.graph);
+            this.backward.newSearch();
+        }
+        return this.backward;
+    }
+
+    /**
+     * @return Graph this workspace is bound to.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @param id ID of a node.
+     * @return true if the node has been reached during the current search.
+     */
+    public boolean isReached(int id) {
+        return this.reached[id] == this.epoch;
+    }
+
+    /**
+     * @param id ID of a node.
+     * @return true if the node has been marked during the current search.
+     */
+    public boolean isMarked(int id) {
+        return this.marked[id] == this.epoch;
+    }
+
+    /**
+     * Mark the given node for the current search.
+     *
+     * @param id ID of the node to mark.
+     */
+    public void mark(int id) {
+        this.marked[id] = this.epoch;
+    }
+
+    /**
+     * @param id ID of a node.
+     * @return Cost of the node in the current search, or infinity if the node has not
+     *         been reached yet.
+     */
+    public float getCost(int id) {
+        return this.reached[id] == this.epoch ? this.costs[id]
+                : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param id ID of a node.
+     * @return Index of the predecessor of the node in the current search, or -1 if
+     *         there is none.
+     * @see #update(int, float, int)
+     */
+    public int getFatherIndex(int id) {
+        return this.reached[id] == this.epoch && this.fatherIndexes != null
+                ? this.fatherIndexes[id]
+                : -1;
+    }
+
+    /**
+     * Update the cost and predecessor of the given node, marking it as reached. The
+     * predecessor is given as an index, e.g. of an arc of the {@link CsrGraph}, so that
+     * searches do not create Arc objects for the arcs they relax.
+     *
+     * @param id ID of the node to update.
+     * @param cost New cost of the node.
+     * @param fatherIndex Index of the new predecessor of the node, or -1 if there is
+     *        none.
+     */
+    public void update(int id, float cost, int fatherIndex) {
+        if (this.fatherIndexes == null) {
+            this.fatherIndexes = new int[this.graph.size()];
+        }
+        this.reached[id] = this.epoch;
+        this.costs[id] = cost;
+        this.fatherIndexes[id] = fatherIndex;
+    }
+
+    /**
+     * Retrieve the label of the given node, resetting it (infinite cost, no father, not
+     * marked) the first time it is accessed during the current search.
+     *
+     * @param id ID of the node.
+     * @return Label of the node.
+     */
+    public Label getLabel(int id) {
+        if (this.labels == null) {
+            this.labels = new Label[this.graph.size()];
+        }
+        Label label = this.labels[id];
+        if (this.reached[id] != this.epoch) {
+            this.reached[id] = this.epoch;
+            if (label == null) {
+                label = new Label(this.graph.get(id), false, Float.POSITIVE_INFINITY);
+                this.labels[id] = label;
+            }
+            else {
+                label.reset();
+            }
+        }
+        return label;
+    }
+
+    /**
+     * Retrieve the A* label of the given node, resetting it the first time it is
+     * accessed during the current search. A label that has just been reset has an
+     * unknown ({@code NaN}) estimated cost to the destination.
+     *
+     * @param id ID of the node.
+     * @return Label of the node.
+     */
+    public LabelStar getStarLabel(int id) {
+        if (this.starLabels == null) {
+            this.starLabels = new LabelStar[this.graph.size()];
+        }
+        LabelStar label = this.starLabels[id];
+        if (this.reached[id] != this.epoch) {
+            this.reached[id] = this.epoch;
+            if (label == null) {
+                label = new LabelStar(this.graph.get(id), false,
+                        Float.POSITIVE_INFINITY, Float.NaN);
+                this.starLabels[id] = label;
+            }
+            else {
+                label.reset();
+            }
+        }
+        return label;
+    }
+
+    /**
+     * Select the heuristic whose values are cached by {@link #getPotential(int)}. As
+     * long as successive searches use equal keys (e.g. same destination, same mode),
+     * values computed by previous searches are kept; otherwise all cached values are
+     * dropped in <i>O(1)</i>.
+     *
+     * @param key Key identifying the heuristic, compared with {@code equals}.
+     */
+    public void usePotentials(Object key) {
+        if (this.potentials == null) {
+            this.potentials = new float[this.graph.size()];
+            this.potentialStamps = new int[this.graph.size()];
+        }
+        if (!key.equals(this.potentialKey)) {
+            this.potentialKey = key;
+            if (++this.potentialEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(this.potentialStamps, 0);
+                this.potentialEpoch = 1;
+            }
+        }
+    }
+
+    /**
+     * @param id ID of a node.
+     * @return Cached heuristic of the node, or {@code NaN} if it has not been computed
+     *         for the current key.
+     * @see #usePotentials(Object)
+     */
+    public float getPotential(int id) {
+        return this.potentialStamps[id] == this.potentialEpoch ? this.potentials[id]
+                : Float.NaN;
+    }
+
+    /**
+     * Cache the heuristic of the given node for the current key.
+     *
+     * @param id ID of the node.
+     * @param potential Heuristic of the node.
+     * @see #usePotentials(Object)
+     */
+    public void setPotential(int id, float potential) {
+        this.potentialStamps[id] = this.potentialEpoch;
+        this.potentials[id] = potential;
+    }
+
+    /**
+     * @return An empty heap of labels indexed by node ID.
+     */
+    public IndexedBinaryHeap<Label> getLabelHeap() {
+        if (this.labelHeap == null) {
+            this.labelHeap = new IndexedBinaryHeap<>(this.graph.size(),
+                    label -> label.getCurrentNode().getId());
+        }
+        return this.labelHeap;
+    }
+
+    /**
+     * @param arity Arity of the heap.
+     * @return An empty heap of node IDs with the given arity.
+     */
+    public IndexedDaryHeap getHeap(int arity) {
+        if (this.heap == null || this.heap.getArity() != arity) {
+            this.heap = new IndexedDaryHeap(this.graph.size(), arity);
+        }
+        return this.heap;
+    }
+
+}
@@ -1,6 +1,8 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.strongconnectivity.StronglyConnectedComponents;
 import org.insa.graphs.model.Node;
 
 public abstract class ShortestPathAlgorithm
@@ -18,6 +20,26 @@ public abstract class ShortestPathAlgorithm
     @Override
     protected abstract ShortestPathSolution doRun();
 
+    /**
+     * Reject in O(1) the queries whose destination is known to be unreachable from
+     * their origin according to the strongly connected components of the graph for the
+     * arc inspector of the query (computed once per graph and inspector, in linear
+     * time). This check is not done by default: algorithms that would otherwise explore
+     * everything reachable from the origin can call it from {@link #doPreCheck()}.
+     *
+     * @return An infeasible solution if the destination is known to be unreachable,
+     *         null otherwise.
+     */
+    protected ShortestPathSolution rejectUnreachable() {
+        final ShortestPathData data = getInputData();
+        if (data.getOrigin() != data.getDestination() && StronglyConnectedComponents
+                .get(data.getGraph(), data.getArcInspector())
+                .isUnreachable(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        return null;
+    }
+
     @Override
     public ShortestPathData getInputData() {
         return (ShortestPathData) super.getInputData();
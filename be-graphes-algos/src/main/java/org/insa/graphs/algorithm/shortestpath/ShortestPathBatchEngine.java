@@ -0,0 +1,527 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Engine running batches of shortest path queries concurrently on a fixed pool of
+ * threads, all the queries sharing the same graph.
+ * </p>
+ * <p>
+ * Each query is a {@link ShortestPathData} (origin, destination and arc inspector) on
+ * the graph of the engine, and is solved by a new instance of the algorithm of the
+ * engine. Since the threads of the pool are kept alive, the {@link SearchWorkspace} of
+ * each thread is reused by all the queries it runs, so no array of the size of the
+ * graph is allocated per query.
+ * </p>
+ * <p>
+ * Results can be retrieved in the order of the queries ({@link #forEachOrdered}) or as
+ * soon as they are available ({@link #forEachCompleted}). In both cases, the number of
+ * queries waiting to be run is bounded, so that streams of any size can be processed.
+ * The engine records the latency of each query (time spent running it) and the elapsed
+ * time of the batch, available through {@link #getStatistics()}.
+ * </p>
+ */
+public class ShortestPathBatchEngine implements AutoCloseable {
+
+    /**
+     * Snapshot of the statistics of an engine.
+     */
+    public static class Statistics {
+
+        private final long count;
+        private final long infeasible;
+        private final long elapsed;
+        private final long total;
+        private final long minimum;
+        private final long maximum;
+        private final long[] histogram;
+
+        private Statistics(long count, long infeasible, long elapsed, long total,
+                long minimum, long maximum, long[] histogram) {
+            this.count = count;
+            this.infeasible = infeasible;
+            this.elapsed = elapsed;
+            this.total = total;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.histogram = histogram;
+        }
+
+        /**
+         * @return Number of queries completed.
+         */
+        public long getNumberOfQueries() {
+            return this.count;
+        }
+
+        /**
+         * @return Number of queries completed without finding a path.
+         */
+        public long getNumberOfInfeasibleQueries() {
+            return this.infeasible;
+        }
+
+        /**
+         * @return Time between the start of the first query and the end of the last
+         *         one.
+         */
+        public Duration getElapsedTime() {
+            return Duration.ofNanos(this.elapsed);
+        }
+
+        /**
+         * @return Number of queries completed per second of elapsed time.
+         */
+        public double getThroughput() {
+            return this.elapsed == 0 ? 0 : this.count * 1e9 / this.elapsed;
+        }
+
+        /**
+         * @return Mean latency of the queries.
+         */
+        public Duration getMeanLatency() {
+            return Duration.ofNanos(this.count == 0 ? 0 : this.total / this.count);
+        }
+
+        /**
+         * @return Minimum latency of the queries.
+         */
+        public Duration getMinimumLatency() {
+            return Duration.ofNanos(this.count == 0 ? 0 : this.minimum);
+        }
+
+        /**
+         * @return Maximum latency of the queries.
+         */
+        public Duration getMaximumLatency() {
+            return Duration.ofNanos(this.maximum);
+        }
+
+        /**
+         * Latencies are recorded in buckets whose width is 1/8 of their lower bound, so
+         * the returned value is an upper bound of the actual percentile, at most 12.5%
+         * above it.
+         *
+         * @param percentile Percentile, between 0 and 100 (e.g. 50 for the median).
+         * @return Latency not exceeded by the given percentage of the queries.
+         */
+        public Duration getLatencyPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile);
+            }
+            if (this.count == 0) {
+                return Duration.ZERO;
+            }
+            final long rank =
+                    Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+            long seen = 0;
+            for (int bucket = 0; bucket < this.histogram.length; ++bucket) {
+                seen += this.histogram[bucket];
+                if (seen >= rank) {
+                    return Duration.ofNanos(Math.max(this.minimum,
+                            Math.min(this.maximum, upperBound(bucket))));
+                }
+            }
+            return Duration.ofNanos(this.maximum);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d queries (%d infeasible) in %.3f s, %.1f queries/s, latency: "
+                            + "mean=%.3f ms, p50=%.3f ms, p95=%.3f ms, p99=%.3f ms, max=%.3f ms",
+                    this.count, this.infeasible, this.elapsed / 1e9, getThroughput(),
+                    getMeanLatency().toNanos() / 1e6,
+                    getLatencyPercentile(50).toNanos() / 1e6,
+                    getLatencyPercentile(95).toNanos() / 1e6,
+                    getLatencyPercentile(99).toNanos() / 1e6, this.maximum / 1e6);
+        }
+
+    }
+
+    // Latency buckets: 8 buckets per power of two (values below 8 have their own
+    // bucket).
+    private static final int SUB_BUCKETS = 8;
+    private static final int NUMBER_OF_BUCKETS = 64 * SUB_BUCKETS;
+
+    // Graph of the queries.
+    private final Graph graph;
+
+    // Function creating the algorithm solving a query.
+    private final Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory;
+
+    // Pool running the queries, and its number of threads.
+    private final ExecutorService executor;
+    private final int nbThreads;
+
+    // Statistics.
+    private final LongAdder count = new LongAdder();
+    private final LongAdder infeasible = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator minimum =
+            new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray histogram = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+    private final LongAccumulator lastEnd =
+            new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * Create a new engine using one thread per available processor.
+     *
+     * @param graph Graph of the queries.
+     * @param algorithm Class of the algorithm solving the queries (e.g.
+     *        DijkstraAlgorithm.class), see
+     *        {@link AlgorithmFactory#createAlgorithm(Class, org.insa.graphs.algorithm.AbstractInputData)}.
+     */
+    public ShortestPathBatchEngine(Graph graph,
+            Class<? extends ShortestPathAlgorithm> algorithm) {
+        this(graph, algorithm, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new engine using the given number of threads.
+     *
+     * @param graph Graph of the queries.
+     * @param algorithm Class of the algorithm solving the queries.
+     * @param nbThreads Number of threads running the queries.
+     */
+    public ShortestPathBatchEngine(Graph graph,
+            Class<? extends ShortestPathAlgorithm> algorithm, int nbThreads) {
+        this(graph, data -> {
+            try {
+                return (ShortestPathAlgorithm) AlgorithmFactory
+                        .createAlgorithm(algorithm, data);
+            }
+            catch (Exception exception) {
+                throw new IllegalStateException(
+                        "Cannot create algorithm " + algorithm.getName(), exception);
+            }
+        }, nbThreads);
+    }
+
+    /**
+     * Create a new engine using the given number of threads.
+     *
+     * @param graph Graph of the queries.
+     * @param factory Function creating the algorithm solving a query (e.g.
+     *        DijkstraAlgorithm::new).
+     * @param nbThreads Number of threads running the queries.
+     */
+    public ShortestPathBatchEngine(Graph graph,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> factory,
+            int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid number of threads: " + nbThreads);
+        }
+        this.graph = graph;
+        this.factory = factory;
+        this.nbThreads = nbThreads;
+
+        // Build the shared structures of the graph once, before the threads need them.
+        graph.getCsrGraph();
+
+        final AtomicInteger index = new AtomicInteger();
+        final ThreadFactory threads = runnable -> {
+            final Thread thread = new Thread(runnable,
+                    "shortest-path-batch-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(nbThreads, threads);
+    }
+
+    /**
+     * @return Graph of the queries.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Number of threads running the queries.
+     */
+    public int getNumberOfThreads() {
+        return this.nbThreads;
+    }
+
+    /**
+     * Create a query on the graph of this engine.
+     *
+     * @param origin Origin of the query.
+     * @param destination Destination of the query.
+     * @param inspector Arc inspector of the query.
+     * @return A new query.
+     */
+    public ShortestPathData createQuery(Node origin, Node destination,
+            ArcInspector inspector) {
+        return new ShortestPathData(this.graph, origin, destination, inspector);
+    }
+
+    /**
+     * Submit a single query.
+     *
+     * @param query Query to run, on the graph of this engine.
+     * @return Future solution of the query.
+     * @throws IllegalArgumentException if the query is not on the graph of this engine.
+     */
+    public Future<ShortestPathSolution> submit(ShortestPathData query) {
+        if (query.getGraph() != this.graph) {
+            throw new IllegalArgumentException(
+                    "Query on another graph than the engine.");
+        }
+        return this.executor.submit(() -> solve(query));
+    }
+
+    /**
+     * Run all the given queries and return their solutions in the order of the queries.
+     *
+     * @param queries Queries to run.
+     * @return Solutions of the queries, in the same order.
+     */
+    public List<ShortestPathSolution> runAll(Stream<ShortestPathData> queries) {
+        final List<ShortestPathSolution> solutions = new ArrayList<>();
+        forEachOrdered(queries, solutions::add);
+        return solutions;
+    }
+
+    /**
+     * Run all the given queries and give their solutions to the given consumer, in the
+     * order of the queries. The consumer is called by the calling thread.
+     *
+     * @param queries Queries to run.
+     * @param consumer Consumer of the solutions.
+     */
+    public void forEachOrdered(Stream<ShortestPathData> queries,
+            Consumer<? super ShortestPathSolution> consumer) {
+        final ArrayDeque<Future<ShortestPathSolution>> pending = new ArrayDeque<>();
+        final Iterator<ShortestPathData> iterator = queries.iterator();
+        while (iterator.hasNext()) {
+            if (pending.size() >= getWindowSize()) {
+                consumer.accept(await(pending.poll()));
+            }
+            pending.add(submit(iterator.next()));
+        }
+        while (!pending.isEmpty()) {
+            consumer.accept(await(pending.poll()));
+        }
+    }
+
+    /**
+     * Run all the given queries and give their solutions to the given consumer as soon
+     * as they are available. The consumer is called by the calling thread, the query of
+     * a solution is available through {@link ShortestPathSolution#getInputData()}.
+     *
+     * @param queries Queries to run.
+     * @param consumer Consumer of the solutions.
+     */
+    public void forEachCompleted(Stream<ShortestPathData> queries,
+            Consumer<? super ShortestPathSolution> consumer) {
+        final CompletionService<ShortestPathSolution> completion =
+                new ExecutorCompletionService<>(this.executor);
+        final Iterator<ShortestPathData> iterator = queries.iterator();
+        int pending = 0;
+        while (iterator.hasNext()) {
+            if (pending >= getWindowSize()) {
+                consumer.accept(await(take(completion)));
+                pending--;
+            }
+            final ShortestPathData query = iterator.next();
+            if (query.getGraph() != this.graph) {
+                throw new IllegalArgumentException(
+                        "Query on another graph than the engine.");
+            }
+            completion.submit(() -> solve(query));
+            pending++;
+        }
+        for (; pending > 0; --pending) {
+            consumer.accept(await(take(completion)));
+        }
+    }
+
+    /**
+     * @return Statistics of the queries completed since the creation of this engine or
+     *         the last call to {@link #resetStatistics()}.
+     */
+    public Statistics getStatistics() {
+        final long[] buckets = new long[NUMBER_OF_BUCKETS];
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] = this.histogram.get(i);
+        }
+        final long start = this.firstStart.get();
+        final long end = this.lastEnd.get();
+        return new Statistics(this.count.sum(), this.infeasible.sum(),
+                end > start ? end - start : 0, this.total.sum(), this.minimum.get(),
+                this.maximum.get(), buckets);
+    }
+
+    /**
+     * Reset the statistics of this engine. Should not be called while queries are
+     * running.
+     */
+    public void resetStatistics() {
+        this.count.reset();
+        this.infeasible.reset();
+        this.total.reset();
+        this.minimum.reset();
+        this.maximum.reset();
+        for (int i = 0; i < NUMBER_OF_BUCKETS; ++i) {
+            this.histogram.set(i, 0);
+        }
+        this.firstStart.set(Long.MAX_VALUE);
+        this.lastEnd.reset();
+    }
+
+    /**
+     * Stop the threads of this engine, after the queries already submitted.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException exception) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Function to solve a query on the current thread and record its statistics
+     *
+     * @param query the query
+     *
+     * @return the solution of the query
+     */
+    private ShortestPathSolution solve(ShortestPathData query) {
+        final long start = System.nanoTime();
+        this.firstStart.accumulateAndGet(start, Math::min);
+        final ShortestPathSolution solution = this.factory.apply(query).run();
+        final long end = System.nanoTime();
+        final long latency = end - start;
+
+        this.count.increment();
+        if (!solution.isFeasible()) {
+            this.infeasible.increment();
+        }
+        this.total.add(latency);
+        this.minimum.accumulate(latency);
+        this.maximum.accumulate(latency);
+        this.histogram.incrementAndGet(bucket(latency));
+        this.lastEnd.accumulate(end);
+        return solution;
+    }
+
+    /*
+     * Function to get the maximum number of queries submitted and not yet consumed,
+     * enough to keep all the threads busy without holding the whole stream
+     */
+    private int getWindowSize() {
+        return 4 * this.nbThreads;
+    }
+
+    /*
+     * Function to get the latency bucket of a value
+     *
+     * @param value the latency, in nanoseconds
+     *
+     * @return the index of its bucket
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return (exponent - 2) * SUB_BUCKETS + sub;
+    }
+
+    /*
+     * Function to get the largest latency of a bucket
+     *
+     * @param bucket the index of the bucket
+     *
+     * @return the largest value in the bucket, in nanoseconds
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + 2;
+        final long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+    }
+
+    /*
+     * Function to wait for the next completed query
+     *
+     * @param completion the completion service
+     *
+     * @return the future of the completed query
+     */
+    private static Future<ShortestPathSolution> take(
+            CompletionService<ShortestPathSolution> completion) {
+        try {
+            return completion.take();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query.",
+                    exception);
+        }
+    }
+
+    /*
+     * Function to wait for the solution of a query
+     *
+     * @param future the future of the query
+     *
+     * @return the solution of the query
+     */
+    private static ShortestPathSolution await(Future<ShortestPathSolution> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query.",
+                    exception);
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -5,6 +5,24 @@ import org.insa.graphs.algorithm.ArcInspector;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 
+/**
+ * <p>
+ * Input of a shortest path query: a graph, an origin, a destination and an arc
+ * inspector.
+ * </p>
+ * <p>
+ * Some algorithms first check in <i>O(1)</i> whether the destination is known to be
+ * unreachable from the origin, according to the strongly connected components of the
+ * graph for the arc inspector of the query (see
+ * {@link ShortestPathAlgorithm#rejectUnreachable()}), and then return an infeasible
+ * solution without searching: {@link PrimitiveDijkstraAlgorithm},
+ * {@link BidirectionalDijkstraAlgorithm} (and thus
+ * {@link BidirectionalAStarAlgorithm}), {@link DeltaSteppingAlgorithm} and
+ * {@link ALTAlgorithm}. The other algorithms ({@link DijkstraAlgorithm},
+ * {@link AStarAlgorithm} and its equirectangular variant, {@link BellmanFordAlgorithm}
+ * and {@link ContractionHierarchyAlgorithm}) always run their search.
+ * </p>
+ */
 public class ShortestPathData extends AbstractInputData {
 
     // Origin and destination nodes.
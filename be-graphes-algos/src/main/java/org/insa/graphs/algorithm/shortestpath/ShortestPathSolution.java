@@ -29,7 +29,8 @@ public class ShortestPathSolution extends AbstractSolution {
      * @param status Status of the solution (FEASIBLE / OPTIMAL).
      * @param path Path corresponding to the solution.
      */
-    public ShortestPathSolution(ShortestPathData data, Status status, Path path, double cost) {
+    public ShortestPathSolution(ShortestPathData data, Status status, Path path,
+            double cost) {
         super(data, status);
         this.path = path;
         this.cost = cost;
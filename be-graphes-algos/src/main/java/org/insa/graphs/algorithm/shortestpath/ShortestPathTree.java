@@ -0,0 +1,287 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.FilteredGraph;
+import org.insa.graphs.algorithm.utils.IndexedDaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Shortest path tree from a single origin, computed by a Dijkstra search that can be
+ * bounded by a maximum cost and/or a maximum number of nodes.
+ * </p>
+ * <p>
+ * The tree is stored in primitive arrays, in the order the nodes were settled: ID, cost
+ * and position of the parent of each node, along with the arc from its parent. A tree
+ * can be computed again from another origin (or with other bounds) with
+ * {@link #compute(Node, ArcInspector, double, int)}: its arrays and the
+ * {@link SearchWorkspace} of the thread are reused, so that successive searches do not
+ * allocate anything once the arrays are large enough.
+ * </p>
+ */
+public class ShortestPathTree {
+
+    // Graph of the tree.
+    private final Graph graph;
+
+    // Nodes of the tree in the order they were settled, with their cost, the position
+    // of their parent (-1 for the origin) and the index in the CSR graph of the arc
+    // from their parent (-1 for the origin).
+    private int[] nodes;
+    private float[] costs;
+    private int[] parents;
+    private int[] arcs;
+    private int size;
+
+    // Position of each node in the tree (only valid if its stamp is the current one).
+    private final int[] positions;
+    private final int[] stamps;
+    private int stamp;
+
+    // true if a bound stopped the search before all the reachable nodes were settled.
+    private boolean truncated;
+
+    /**
+     * Create a new empty tree for the given graph.
+     *
+     * @param graph Graph of the tree.
+     */
+    public ShortestPathTree(Graph graph) {
+        this.graph = graph;
+        final int capacity = Math.min(graph.size(), 1024);
+        this.nodes = new int[capacity];
+        this.costs = new float[capacity];
+        this.parents = new int[capacity];
+        this.arcs = new int[capacity];
+        this.positions = new int[graph.size()];
+        this.stamps = new int[graph.size()];
+    }
+
+    /**
+     * Compute the tree of all the nodes reachable from the given origin with a cost not
+     * greater than the given one.
+     *
+     * @param origin Origin of the tree.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param maximumCost Maximum cost of the nodes of the tree.
+     * @return This tree.
+     */
+    public ShortestPathTree compute(Node origin, ArcInspector inspector,
+            double maximumCost) {
+        return compute(origin, inspector, maximumCost, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute the tree of the nodes reachable from the given origin, stopping when the
+     * cost of the next node is greater than the given maximum cost, or when the tree
+     * contains the given maximum number of nodes.
+     *
+     * @param origin Origin of the tree.
+     * @param inspector Arc inspector giving the costs of the arcs.
+     * @param maximumCost Maximum cost of the nodes of the tree (infinity for no limit).
+     * @param maximumSize Maximum number of nodes of the tree.
+     * @return This tree.
+     */
+    public ShortestPathTree compute(Node origin, ArcInspector inspector,
+            double maximumCost, int maximumSize) {
+        if (++this.stamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamps, 0);
+            this.stamp = 1;
+        }
+        this.size = 0;
+        this.truncated = false;
+
+        final CsrGraph csr = this.graph.getCsrGraph();
+        final FilteredGraph filtered = FilteredGraph.get(this.graph, inspector);
+        final SearchWorkspace workspace = SearchWorkspace.acquire(this.graph);
+        try {
+            final IndexedDaryHeap heap =
+                    workspace.getHeap(IndexedDaryHeap.DEFAULT_ARITY);
+            workspace.update(origin.getId(), 0, -1);
+            heap.insert(origin.getId(), 0);
+
+            while (!heap.isEmpty()) {
+                if (heap.findMinKey() > maximumCost || this.size >= maximumSize) {
+                    this.truncated = true;
+                    break;
+                }
+                final int current = heap.deleteMin();
+                workspace.mark(current);
+                add(csr, current, workspace.getCost(current),
+                        workspace.getFatherIndex(current));
+
+                final float currentCost = workspace.getCost(current);
+                for (int e = filtered.getFirstArc(current),
+                        end = filtered.getEndArc(current); e < end; ++e) {
+                    final int successor = filtered.getTarget(e);
+                    if (workspace.isMarked(successor)) {
+                        continue;
+                    }
+                    final float newCost = currentCost + filtered.getCost(e);
+                    if (newCost < workspace.getCost(successor)) {
+                        workspace.update(successor, newCost,
+                                filtered.getOriginalArc(e));
+                        heap.insertOrDecreaseKey(successor, newCost);
+                    }
+                }
+            }
+        }
+        finally {
+            workspace.release();
+        }
+        return this;
+    }
+
+    /**
+     * Add a settled node at the end of the tree, arc being the index of the arc from
+     * its parent in the given CSR graph (-1 for the origin).
+     */
+    private void add(CsrGraph csr, int node, float cost, int arc) {
+        if (this.size == this.nodes.length) {
+            final int capacity = (int) Math.min(2L * this.size, this.graph.size());
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+            this.costs = Arrays.copyOf(this.costs, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.arcs = Arrays.copyOf(this.arcs, capacity);
+        }
+        this.nodes[this.size] = node;
+        this.costs[this.size] = cost;
+        this.parents[this.size] = arc == -1 ? -1 : this.positions[csr.getOrigin(arc)];
+        this.arcs[this.size] = arc;
+        this.positions[node] = this.size;
+        this.stamps[node] = this.stamp;
+        this.size++;
+    }
+
+    /**
+     * @return Graph of this tree.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return Number of nodes of this tree.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if the last search was stopped by one of its bounds before all the
+     *         nodes reachable from the origin were added to this tree.
+     */
+    public boolean isTruncated() {
+        return this.truncated;
+    }
+
+    /**
+     * @param index Position of a node in this tree (0 for the origin).
+     * @return ID of the node at this position.
+     */
+    public int getNodeId(int index) {
+        return this.nodes[index];
+    }
+
+    /**
+     * @param index Position of a node in this tree.
+     * @return Node at this position.
+     */
+    public Node getNode(int index) {
+        return this.graph.get(this.nodes[index]);
+    }
+
+    /**
+     * @param index Position of a node in this tree.
+     * @return Cost of the shortest path from the origin to the node at this position.
+     */
+    public float getCost(int index) {
+        return this.costs[index];
+    }
+
+    /**
+     * @param index Position of a node in this tree.
+     * @return Position of the parent of the node at this position, or -1 for the
+     *         origin.
+     */
+    public int getParent(int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * @param index Position of a node in this tree.
+     * @return Arc from the parent of the node at this position, or null for the origin.
+     */
+    public Arc getArc(int index) {
+        final int arc = this.arcs[index];
+        return arc == -1 ? null : this.graph.getCsrGraph().getArc(arc);
+    }
+
+    /**
+     * @param index Position of a node in this tree.
+     * @return Index in the CSR graph of the arc from the parent of the node at this
+     *         position, or -1 for the origin.
+     */
+    public int getArcIndex(int index) {
+        return this.arcs[index];
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return Position of the node in this tree, or -1 if the node is not in this tree.
+     */
+    public int indexOf(Node node) {
+        return this.stamps[node.getId()] == this.stamp ? this.positions[node.getId()]
+                : -1;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return true if the node is in this tree.
+     */
+    public boolean contains(Node node) {
+        return indexOf(node) != -1;
+    }
+
+    /**
+     * @param id ID of a node of the graph.
+     * @return true if the node with this ID is in this tree.
+     */
+    public boolean contains(int id) {
+        return this.stamps[id] == this.stamp;
+    }
+
+    /**
+     * Build the shortest path from the origin of this tree to the given node.
+     *
+     * @param node A node of the graph.
+     * @return Path from the origin to the node, or null if the node is not in this
+     *         tree.
+     */
+    public Path getPath(Node node) {
+        int index = indexOf(node);
+        if (index == -1) {
+            return null;
+        }
+        if (index == 0) {
+            return new Path(this.graph, node);
+        }
+        final CsrGraph csr = this.graph.getCsrGraph();
+        final List<Arc> path = new ArrayList<>();
+        for (; index > 0; index = this.parents[index]) {
+            path.add(csr.getArc(this.arcs[index]));
+        }
+        Collections.reverse(path);
+        return new Path(this.graph, path);
+    }
+
+}
@@ -0,0 +1,18 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.model.Node;
+
+public interface StronglyConnectedComponentObserver {
+
+    /**
+     * Notify that the algorithm has computed a new component. Components are found in
+     * reverse topological order: no arc leads from a component to a component found
+     * after it.
+     *
+     * @param nodes List of nodes in the component.
+     */
+    public void notifyEndComponent(ArrayList<Node> nodes);
+
+}
@@ -0,0 +1,222 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.CompiledArcInspector;
+import org.insa.graphs.algorithm.DerivedData;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Strongly connected components of a graph, restricted to the arcs allowed by an arc
+ * inspector, computed with an iterative version of Tarjan's algorithm (so that large
+ * components do not overflow the call stack).
+ * </p>
+ * <p>
+ * Components are numbered in the order Tarjan's algorithm finds them, which is a
+ * reverse topological order: an arc between two different components always leads to a
+ * component with a smaller number. Together with the components having no incoming or
+ * no outgoing arc, this gives an O(1) test for some (but not all) queries whose
+ * destination cannot be reached from their origin, see
+ * {@link #isUnreachable(Node, Node)}.
+ * </p>
+ * <p>
+ * Components only depend on the arcs that are allowed, so the components of a graph are
+ * kept in memory for each arc inspector (see {@link #get(Graph, ArcInspector)}) as long
+ * as the graph and the inspector are, as {@link DerivedData} of its {@link CsrGraph}.
+ * </p>
+ */
+public class StronglyConnectedComponents {
+
+    // Component of each node.
+    private final int[] componentIds;
+
+    // Number of components.
+    private final int nbComponents;
+
+    // true for the components with an arc coming from (resp. leading to) another
+    // component.
+    private final boolean[] hasIncomingArc;
+    private final boolean[] hasOutgoingArc;
+
+    private StronglyConnectedComponents(int[] componentIds, int nbComponents,
+            boolean[] hasIncomingArc, boolean[] hasOutgoingArc) {
+        this.componentIds = componentIds;
+        this.nbComponents = nbComponents;
+        this.hasIncomingArc = hasIncomingArc;
+        this.hasOutgoingArc = hasOutgoingArc;
+    }
+
+    /**
+     * Retrieve the components of the given graph for the given inspector, computing
+     * them if they are not in memory yet. Components in memory are read without
+     * locking.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the arcs that can be used.
+     * @return Strongly connected components of the graph.
+     */
+    public static StronglyConnectedComponents get(Graph graph, ArcInspector inspector) {
+        return DerivedData.get(graph.getCsrGraph(), inspector,
+                "strongly-connected-components", name -> compute(graph, inspector));
+    }
+
+    /**
+     * Compute the components of the given graph for the given inspector.
+     *
+     * @param graph Graph.
+     * @param inspector Arc inspector giving the arcs that can be used.
+     * @return Strongly connected components of the graph.
+     */
+    public static StronglyConnectedComponents compute(Graph graph,
+            ArcInspector inspector) {
+        final CsrGraph csr = graph.getCsrGraph();
+        final int nbNodes = csr.size();
+
+        final CompiledArcInspector compiled = CompiledArcInspector.get(csr, inspector);
+        final boolean[] allowed = new boolean[csr.getNumberOfArcs()];
+        for (int e = 0; e < allowed.length; ++e) {
+            allowed[e] = compiled.isAllowed(e);
+        }
+
+        // Order of discovery and lowest order reachable of each node, and component
+        // (-1 while the node is on the stack of Tarjan's algorithm).
+        final int[] order = new int[nbNodes];
+        final int[] lowest = new int[nbNodes];
+        final int[] componentIds = new int[nbNodes];
+        Arrays.fill(order, -1);
+        Arrays.fill(componentIds, -1);
+
+        // Stack of Tarjan's algorithm, and stack replacing the recursive calls (node
+        // and next arc to explore).
+        final int[] stack = new int[nbNodes];
+        final int[] callNodes = new int[nbNodes];
+        final int[] callArcs = new int[nbNodes];
+        int stackSize = 0;
+        int nbComponents = 0;
+        int counter = 0;
+
+        for (int root = 0; root < nbNodes; ++root) {
+            if (order[root] != -1) {
+                continue;
+            }
+            order[root] = lowest[root] = counter++;
+            stack[stackSize++] = root;
+            callNodes[0] = root;
+            callArcs[0] = csr.getFirstArc(root);
+            int depth = 1;
+
+            while (depth > 0) {
+                final int node = callNodes[depth - 1];
+                final int e = callArcs[depth - 1];
+                if (e < csr.getEndArc(node)) {
+                    callArcs[depth - 1] = e + 1;
+                    if (!allowed[e]) {
+                        continue;
+                    }
+                    final int successor = csr.getTarget(e);
+                    if (order[successor] == -1) {
+                        // "Recursive call" on the successor.
+                        order[successor] = lowest[successor] = counter++;
+                        stack[stackSize++] = successor;
+                        callNodes[depth] = successor;
+                        callArcs[depth] = csr.getFirstArc(successor);
+                        depth++;
+                    }
+                    else if (componentIds[successor] == -1) {
+                        // Successor still on the stack.
+                        lowest[node] = Math.min(lowest[node], order[successor]);
+                    }
+                    continue;
+                }
+
+                // All the arcs of the node have been explored.
+                depth--;
+                if (lowest[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        componentIds[member] = nbComponents;
+                    } while (member != node);
+                    nbComponents++;
+                }
+                if (depth > 0) {
+                    final int parent = callNodes[depth - 1];
+                    lowest[parent] = Math.min(lowest[parent], lowest[node]);
+                }
+            }
+        }
+
+        final boolean[] hasIncomingArc = new boolean[nbComponents];
+        final boolean[] hasOutgoingArc = new boolean[nbComponents];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int e = csr.getFirstArc(node),
+                    end = csr.getEndArc(node); e < end; ++e) {
+                final int target = csr.getTarget(e);
+                if (allowed[e] && componentIds[node] != componentIds[target]) {
+                    hasOutgoingArc[componentIds[node]] = true;
+                    hasIncomingArc[componentIds[target]] = true;
+                }
+            }
+        }
+
+        return new StronglyConnectedComponents(componentIds, nbComponents,
+                hasIncomingArc, hasOutgoingArc);
+    }
+
+    /**
+     * @return Number of components.
+     */
+    public int getNumberOfComponents() {
+        return this.nbComponents;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * @return Component of the node.
+     */
+    public int getComponent(Node node) {
+        return this.componentIds[node.getId()];
+    }
+
+    /**
+     * @return Component of each node of the graph (indexed by node ID), this array must
+     *         not be modified.
+     */
+    public int[] getComponentIds() {
+        return this.componentIds;
+    }
+
+    /**
+     * @param first A node of the graph.
+     * @param second Another node of the graph.
+     * @return true if both nodes are in the same component, i.e. each one can be
+     *         reached from the other.
+     */
+    public boolean isStronglyConnected(Node first, Node second) {
+        return this.componentIds[first.getId()] == this.componentIds[second.getId()];
+    }
+
+    /**
+     * Check in O(1) whether the destination certainly cannot be reached from the
+     * origin: this is the case if the origin and the destination are in different
+     * components and the component of the origin has no outgoing arc, or the component
+     * of the destination has no incoming arc, or the component of the destination is
+     * after the component of the origin in the order of the components.
+     *
+     * @param origin Origin of a query.
+     * @param destination Destination of the query.
+     * @return true if the destination cannot be reached from the origin, false if it
+     *         may be reachable.
+     */
+    public boolean isUnreachable(Node origin, Node destination) {
+        final int from = this.componentIds[origin.getId()];
+        final int to = this.componentIds[destination.getId()];
+        return from != to && (from < to || !this.hasOutgoingArc[from]
+                || !this.hasIncomingArc[to]);
+    }
+
+}
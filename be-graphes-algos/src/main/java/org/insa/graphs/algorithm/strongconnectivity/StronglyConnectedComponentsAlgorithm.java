@@ -0,0 +1,73 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class StronglyConnectedComponentsAlgorithm
+        extends AbstractAlgorithm<StronglyConnectedComponentObserver> {
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public StronglyConnectedComponentsAlgorithm(StronglyConnectedComponentsData data) {
+        super(data);
+    }
+
+    @Override
+    public StronglyConnectedComponentsSolution run() {
+        return (StronglyConnectedComponentsSolution) super.run();
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the algorithm has computed a new component.
+     *
+     * @param nodes List of nodes in the component.
+     */
+    protected void notifyEndComponent(ArrayList<Node> nodes) {
+        for (StronglyConnectedComponentObserver obs : getObservers()) {
+            obs.notifyEndComponent(nodes);
+        }
+    }
+
+    @Override
+    protected StronglyConnectedComponentsSolution doRun() {
+        final StronglyConnectedComponentsData data = getInputData();
+        final StronglyConnectedComponents components = StronglyConnectedComponents
+                .get(data.getGraph(), data.getArcInspector());
+
+        // Lists of nodes are only built for the observers, in the order the components
+        // were found.
+        if (!getObservers().isEmpty()) {
+            final Graph graph = data.getGraph();
+            final ArrayList<ArrayList<Node>> lists =
+                    new ArrayList<ArrayList<Node>>(components.getNumberOfComponents());
+            for (int i = 0; i < components.getNumberOfComponents(); ++i) {
+                lists.add(new ArrayList<Node>());
+            }
+            for (Node node : graph.getNodes()) {
+                lists.get(components.getComponent(node)).add(node);
+            }
+            for (ArrayList<Node> nodes : lists) {
+                notifyEndComponent(nodes);
+            }
+        }
+
+        return new StronglyConnectedComponentsSolution(data, Status.OPTIMAL,
+                components);
+    }
+
+    @Override
+    protected int getNodeVisited() {
+        return getInputData().getGraph().size();
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+
+public class StronglyConnectedComponentsSolution extends AbstractSolution {
+
+    // Components
+    private StronglyConnectedComponents components;
+
+    protected StronglyConnectedComponentsSolution(
+            StronglyConnectedComponentsData data) {
+        super(data);
+    }
+
+    protected StronglyConnectedComponentsSolution(StronglyConnectedComponentsData data,
+            Status status, StronglyConnectedComponents components) {
+        super(data, status);
+        this.components = components;
+    }
+
+    @Override
+    public StronglyConnectedComponentsData getInputData() {
+        return (StronglyConnectedComponentsData) super.getInputData();
+    }
+
+    /**
+     * @return Components of the solution, if any.
+     */
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        final int[] sizes = new int[components.getNumberOfComponents()];
+        for (int component : components.getComponentIds()) {
+            sizes[component] += 1;
+        }
+        int nIsolated = 0;
+        int nGt10 = 0;
+        for (int size : sizes) {
+            if (size == 1) {
+                nIsolated += 1;
+            }
+            else if (size > 10) {
+                nGt10 += 1;
+            }
+        }
+        return "Found " + sizes.length + " components (" + nGt10
+                + " with more than 10 nodes, " + nIsolated + " isolated nodes) in "
+                + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
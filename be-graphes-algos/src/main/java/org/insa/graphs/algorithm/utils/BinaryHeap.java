@@ -134,23 +134,41 @@ public class BinaryHeap<E extends Comparable<E>> implements PriorityQueue<E> {
 
     @Override
     public void remove(E x) throws ElementNotFoundException {
-        //TODO: Actual complexity is O(n) because we have to search for the element in the array
-        //TODO:  We can improve this by using a hash map to store the index of each element
+        // TODO: Actual complexity is O(n) because we have to search for the element in
+        // the array
+        // TODO: We can improve this by using a hash map to store the index of each
+        // element
         int indexToRemove = this.array.indexOf(x);
         // If the element is not found, throw an exception
-        if (indexToRemove == -1 || indexToRemove >= currentSize || this.isEmpty()) throw new ElementNotFoundException(x);
-        
+        if (indexToRemove == -1 || indexToRemove >= currentSize || this.isEmpty())
+            throw new ElementNotFoundException(x);
+
         // Replace element to remove with last element of the binary heap
-        this.array.set(indexToRemove, this.array.get(this.currentSize-1));
+        this.array.set(indexToRemove, this.array.get(this.currentSize - 1));
 
         // Decrement the array size to remove last element
         this.currentSize--;
 
-        // Reorganise the binary heap from the element that was removed        
+        // Reorganise the binary heap from the element that was removed
         this.percolateUp(indexToRemove);
         this.percolateDown(indexToRemove);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i>, since the element is first looked for in the heap
+     * (see {@link IndexedBinaryHeap} for an <i>O(log n)</i> version).
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int index = this.array.indexOf(x);
+        if (index == -1 || index >= currentSize)
+            throw new ElementNotFoundException(x);
+        this.percolateUp(index);
+    }
+
     @Override
     public E findMin() throws EmptyPriorityQueueException {
         if (isEmpty())
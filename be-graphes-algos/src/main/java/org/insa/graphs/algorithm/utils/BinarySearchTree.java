@@ -46,6 +46,22 @@ public class BinarySearchTree<E extends Comparable<E>> implements PriorityQueue<
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i>, since the key of the element has already changed
+     * and the tree cannot be used to find it.
+     * </p>
+     */
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        // Look for x by reference, then insert it back at its new place.
+        if (!sortedSet.removeIf(e -> e == x)) {
+            throw new ElementNotFoundException(x);
+        }
+        sortedSet.add(x);
+    }
+
     @Override
     public E findMin() throws EmptyPriorityQueueException {
         if (isEmpty()) {
@@ -0,0 +1,293 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a binary heap that keeps track of the position of each of its elements, so
+ * that {@link #remove(Comparable)} and {@link #decreaseKey(Comparable)} run in <i>O(log
+ * n)</i> instead of requiring a linear search through the heap.
+ * </p>
+ * <p>
+ * Positions are stored in a plain {@code int} array when elements can be mapped to a
+ * dense integer index (e.g. a node ID, see
+ * {@link #IndexedBinaryHeap(int, ToIntFunction)}), and in an identity map otherwise. In
+ * both cases, elements are identified by reference, not by {@code equals}.
+ * </p>
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> implements PriorityQueue<E> {
+
+    // Initial capacity of the heap array when none is specified.
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    private E[] array;
+
+    // Dense index of the elements, or null if positions are stored in positionMap.
+    private final ToIntFunction<E> indexer;
+
+    // Position (plus one) of each element in the heap array, 0 if not in the heap.
+    private int[] positions;
+
+    // Position of each element in the heap array, used when there is no indexer.
+    private final IdentityHashMap<E, Integer> positionMap;
+
+    /**
+     * Construct a new empty indexed heap that stores the position of its elements in an
+     * identity map.
+     */
+    public IndexedBinaryHeap() {
+        this.currentSize = 0;
+        this.array = newArray(DEFAULT_CAPACITY);
+        this.indexer = null;
+        this.positions = null;
+        this.positionMap = new IdentityHashMap<>();
+    }
+
+    /**
+     * Construct a new empty indexed heap for elements that can be mapped to a dense
+     * integer index in {@code [0, capacity)}, e.g. labels mapped to the ID of their
+     * node.
+     *
+     * @param capacity Expected number of distinct indices.
+     * @param indexer Function mapping each element to its index.
+     */
+    public IndexedBinaryHeap(int capacity, ToIntFunction<E> indexer) {
+        this.currentSize = 0;
+        this.array = newArray(Math.max(capacity, 1));
+        this.indexer = indexer;
+        this.positions = new int[Math.max(capacity, 1)];
+        this.positionMap = null;
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Indexed binary heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap<E> heap) {
+        this.currentSize = heap.currentSize;
+        this.array = Arrays.copyOf(heap.array, heap.array.length);
+        this.indexer = heap.indexer;
+        this.positions = heap.positions == null ? null
+                : Arrays.copyOf(heap.positions, heap.positions.length);
+        this.positionMap = heap.positionMap == null ? null
+                : new IdentityHashMap<>(heap.positionMap);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int capacity) {
+        return (E[]) new Comparable<?>[capacity];
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    protected int indexParent(int index) {
+        return (index - 1) / 2;
+    }
+
+    /**
+     * @return Index of the left child of the given index.
+     */
+    protected int indexLeft(int index) {
+        return index * 2 + 1;
+    }
+
+    /**
+     * @param x Element to look for.
+     * @return Position of the given element in the heap array, or -1 if the element is
+     *         not in this heap.
+     */
+    private int positionOf(E x) {
+        if (this.indexer != null) {
+            final int index = this.indexer.applyAsInt(x);
+            if (index < 0 || index >= this.positions.length) {
+                return -1;
+            }
+            final int position = this.positions[index] - 1;
+            return position >= 0 && this.array[position] == x ? position : -1;
+        }
+        final Integer position = this.positionMap.get(x);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Store the given element at the given position of the heap array and record this
+     * position.
+     *
+     * @param position Position at which the element should be stored.
+     * @param x Element to store.
+     */
+    private void place(int position, E x) {
+        this.array[position] = x;
+        if (this.indexer != null) {
+            final int index = this.indexer.applyAsInt(x);
+            if (index >= this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions,
+                        Math.max(index + 1, this.positions.length * 2));
+            }
+            this.positions[index] = position + 1;
+        }
+        else {
+            this.positionMap.put(x, position);
+        }
+    }
+
+    /**
+     * Forget the position of the given element.
+     *
+     * @param x Element that is no longer in the heap.
+     */
+    private void forget(E x) {
+        if (this.indexer != null) {
+            this.positions[this.indexer.applyAsInt(x)] = 0;
+        }
+        else {
+            this.positionMap.remove(x);
+        }
+    }
+
+    /**
+     * Internal method to percolate up in the heap, moving the hole at the given index
+     * up until the given element can be stored in it.
+     *
+     * @param index Index at which the percolate begins.
+     * @param x Element to store.
+     */
+    private void percolateUp(int index, E x) {
+        while (index > 0) {
+            final int parent = indexParent(index);
+            final E parentValue = this.array[parent];
+            if (x.compareTo(parentValue) >= 0) {
+                break;
+            }
+            this.place(index, parentValue);
+            index = parent;
+        }
+        this.place(index, x);
+    }
+
+    /**
+     * Internal method to percolate down in the heap, moving the hole at the given index
+     * down until the given element can be stored in it.
+     *
+     * @param index Index at which the percolate begins.
+     * @param x Element to store.
+     */
+    private void percolateDown(int index, E x) {
+        int child;
+        while ((child = indexLeft(index)) < this.currentSize) {
+            E childValue = this.array[child];
+            if (child + 1 < this.currentSize
+                    && this.array[child + 1].compareTo(childValue) < 0) {
+                childValue = this.array[++child];
+            }
+            if (childValue.compareTo(x) >= 0) {
+                break;
+            }
+            this.place(index, childValue);
+            index = child;
+        }
+        this.place(index, x);
+    }
+
+    /**
+     * Check if the given element is in this heap.
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to look for.
+     * @return true if the given element is in this heap.
+     */
+    public boolean contains(E x) {
+        return positionOf(x) != -1;
+    }
+
+    /**
+     * Remove all the elements of this heap, in <i>O(size)</i>, so that it can be reused
+     * without allocating a new one.
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.forget(this.array[i]);
+            this.array[i] = null;
+        }
+        this.currentSize = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public void insert(E x) {
+        if (this.currentSize == this.array.length) {
+            this.array = Arrays.copyOf(this.array, this.array.length * 2);
+        }
+        this.percolateUp(this.currentSize++, x);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        final int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        this.forget(x);
+
+        // Fill the hole with the last element of the heap, which may have to move
+        // either up or down from there.
+        final E last = this.array[--this.currentSize];
+        this.array[this.currentSize] = null;
+        if (index != this.currentSize) {
+            if (index > 0 && last.compareTo(this.array[indexParent(index)]) < 0) {
+                this.percolateUp(index, last);
+            }
+            else {
+                this.percolateDown(index, last);
+            }
+        }
+    }
+
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        final int index = positionOf(x);
+        if (index == -1) {
+            throw new ElementNotFoundException(x);
+        }
+        this.percolateUp(index, x);
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.array[0];
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        final E minItem = findMin();
+        this.forget(minItem);
+        final E lastItem = this.array[--this.currentSize];
+        this.array[this.currentSize] = null;
+        if (this.currentSize > 0) {
+            this.percolateDown(0, lastItem);
+        }
+        return minItem;
+    }
+
+}
@@ -0,0 +1,305 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a d-ary min-heap of integer IDs (typically node IDs) with {@code float}
+ * priorities, specialised for primitives so that no object is created or compared
+ * through {@code compareTo}.
+ * </p>
+ * <p>
+ * IDs and keys are stored in two parallel arrays laid out in heap order, and the
+ * position of each ID is stored in a third array, so that
+ * {@link #decreaseKey(int, float)} and {@link #remove(int)} run in <i>O(log n)</i>.
+ * Once created, a heap can be {@link #clear() cleared} and reused without allocating
+ * anything.
+ * </p>
+ */
+public class IndexedDaryHeap {
+
+    /**
+     * Default arity of the heap.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    // log2 of the arity of the heap.
+    private final int shift;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // IDs and keys of the elements, in heap order.
+    private int[] ids;
+    private float[] keys;
+
+    // Position (plus one) of each ID in the heap arrays, 0 if not in the heap.
+    private int[] positions;
+
+    /**
+     * Construct a new empty heap with the default arity.
+     *
+     * @param capacity Number of distinct IDs, i.e. IDs are in {@code [0, capacity)}.
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Construct a new empty heap with the given arity.
+     *
+     * @param capacity Number of distinct IDs, i.e. IDs are in {@code [0, capacity)}.
+     * @param arity Number of children of each element, must be 2, 4 or 8.
+     * @throws IllegalArgumentException if the arity is not 2, 4 or 8.
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("Unsupported heap arity: " + arity);
+        }
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.currentSize = 0;
+        this.ids = new int[Math.max(capacity, 1)];
+        this.keys = new float[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return Arity of this heap.
+     */
+    public int getArity() {
+        return 1 << this.shift;
+    }
+
+    /**
+     * @return Number of distinct IDs this heap can currently hold.
+     */
+    public int getCapacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * Make sure this heap can hold the IDs in {@code [0, capacity)}.
+     *
+     * @param capacity Number of distinct IDs.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.positions.length) {
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.positions = Arrays.copyOf(this.positions, capacity);
+        }
+    }
+
+    /**
+     * @return true if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * @return Number of elements in this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @param id ID to look for.
+     * @return true if the given ID is in this heap.
+     */
+    public boolean contains(int id) {
+        return this.positions[id] != 0;
+    }
+
+    /**
+     * @param id ID to look for.
+     * @return Key of the given ID.
+     * @throws ElementNotFoundException if the given ID is not in this heap.
+     */
+    public float getKey(int id) throws ElementNotFoundException {
+        final int position = this.positions[id] - 1;
+        if (position < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        return this.keys[position];
+    }
+
+    /**
+     * Remove all the elements of this heap, in <i>O(size)</i>.
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[this.ids[i]] = 0;
+        }
+        this.currentSize = 0;
+    }
+
+    /**
+     * Store the given ID and key at the given position.
+     */
+    private void place(int position, int id, float key) {
+        this.ids[position] = id;
+        this.keys[position] = key;
+        this.positions[id] = position + 1;
+    }
+
+    /**
+     * Internal method to percolate up in the heap, moving the hole at the given index
+     * up until the given element can be stored in it.
+     */
+    private void percolateUp(int index, int id, float key) {
+        while (index > 0) {
+            final int parent = (index - 1) >> this.shift;
+            final float parentKey = this.keys[parent];
+            if (key >= parentKey) {
+                break;
+            }
+            this.place(index, this.ids[parent], parentKey);
+            index = parent;
+        }
+        this.place(index, id, key);
+    }
+
+    /**
+     * Internal method to percolate down in the heap, moving the hole at the given index
+     * down until the given element can be stored in it.
+     */
+    private void percolateDown(int index, int id, float key) {
+        int first;
+        while ((first = (index << this.shift) + 1) < this.currentSize) {
+            // Find the smallest child.
+            final int last = Math.min(first + (1 << this.shift), this.currentSize);
+            int child = first;
+            float childKey = this.keys[first];
+            for (int i = first + 1; i < last; ++i) {
+                if (this.keys[i] < childKey) {
+                    child = i;
+                    childKey = this.keys[i];
+                }
+            }
+            if (childKey >= key) {
+                break;
+            }
+            this.place(index, this.ids[child], childKey);
+            index = child;
+        }
+        this.place(index, id, key);
+    }
+
+    /**
+     * Insert the given ID with the given key.
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id ID to insert.
+     * @param key Key of the ID.
+     * @throws IllegalArgumentException if the ID is already in the heap.
+     */
+    public void insert(int id, float key) {
+        if (this.positions[id] != 0) {
+            throw new IllegalArgumentException("Element already in heap: " + id);
+        }
+        this.percolateUp(this.currentSize++, id, key);
+    }
+
+    /**
+     * Decrease the key of the given ID.
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id ID whose key should be decreased.
+     * @param key New key, not greater than the current one.
+     * @throws ElementNotFoundException if the ID is not in the heap.
+     */
+    public void decreaseKey(int id, float key) throws ElementNotFoundException {
+        final int position = this.positions[id] - 1;
+        if (position < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        this.percolateUp(position, id, key);
+    }
+
+    /**
+     * Insert the given ID, or decrease its key if it is already in the heap.
+     *
+     * @param id ID to insert or update.
+     * @param key New key of the ID.
+     */
+    public void insertOrDecreaseKey(int id, float key) {
+        final int position = this.positions[id] - 1;
+        this.percolateUp(position < 0 ? this.currentSize++ : position, id, key);
+    }
+
+    /**
+     * Remove the given ID from the heap.
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param id ID to remove.
+     * @throws ElementNotFoundException if the ID is not in the heap.
+     */
+    public void remove(int id) throws ElementNotFoundException {
+        final int index = this.positions[id] - 1;
+        if (index < 0) {
+            throw new ElementNotFoundException(id);
+        }
+        this.positions[id] = 0;
+        final int last = --this.currentSize;
+        if (index != last) {
+            final int lastId = this.ids[last];
+            final float lastKey = this.keys[last];
+            if (index > 0 && lastKey < this.keys[(index - 1) >> this.shift]) {
+                this.percolateUp(index, lastId, lastKey);
+            }
+            else {
+                this.percolateDown(index, lastId, lastKey);
+            }
+        }
+    }
+
+    /**
+     * @return ID with the smallest key.
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.ids[0];
+    }
+
+    /**
+     * @return Smallest key in this heap.
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public float findMinKey() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.keys[0];
+    }
+
+    /**
+     * Remove and return the ID with the smallest key.
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @return ID with the smallest key.
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        final int minId = findMin();
+        this.positions[minId] = 0;
+        final int last = --this.currentSize;
+        if (last > 0) {
+            this.percolateDown(0, this.ids[last], this.keys[last]);
+        }
+        return minId;
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Parallel loop over a range of indices {@code [0, size)}, split in chunks of a given
+ * size that are run by the threads of a fork-join pool.
+ * </p>
+ * <p>
+ * The range of chunks is split in halves by fork-join tasks until a single chunk
+ * remains, so the chunks are run by the threads of the given pool only. A range that
+ * fits in a single chunk is run by the calling thread.
+ * </p>
+ */
+public final class ParallelLoop {
+
+    /**
+     * Task run on a chunk of the range.
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+
+        /**
+         * @param from First index of the chunk.
+         * @param to Index after the last index of the chunk.
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Fork-join task running the chunks {@code [fromChunk, toChunk)}.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Task, range of chunks, size of the range of indices and size of the chunks.
+        private final RangeTask task;
+        private final int fromChunk, toChunk;
+        private final int size, chunkSize;
+
+        ChunkAction(RangeTask task, int fromChunk, int toChunk, int size,
+                int chunkSize) {
+            this.task = task;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.size = size;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toChunk - this.fromChunk == 1) {
+                this.task.run(this.fromChunk * this.chunkSize, (int) Math.min(this.size,
+                        (this.fromChunk + 1L) * this.chunkSize));
+                return;
+            }
+            final int middle = (this.fromChunk + this.toChunk) >>> 1;
+            invokeAll(
+                    new ChunkAction(this.task, this.fromChunk, middle, this.size,
+                            this.chunkSize),
+                    new ChunkAction(this.task, middle, this.toChunk, this.size,
+                            this.chunkSize));
+        }
+    }
+
+    private ParallelLoop() {}
+
+    /**
+     * Run the given task on each chunk of the range {@code [0, size)}, in parallel.
+     * Exceptions thrown by the task are thrown again by this method. The chunks are run
+     * by the threads of the pool, so the task must be thread-safe.
+     *
+     * @param pool Pool running the chunks.
+     * @param size Size of the range.
+     * @param chunkSize Size of the chunks (the last one may be smaller).
+     * @param task Task to run on each chunk.
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     *         for the chunks.
+     */
+    public static void run(ForkJoinPool pool, int size, int chunkSize, RangeTask task)
+            throws InterruptedException {
+        final int nbChunks = (int) ((size + (long) chunkSize - 1) / chunkSize);
+        if (nbChunks <= 1) {
+            task.run(0, size);
+            return;
+        }
+        final ChunkAction action = new ChunkAction(task, 0, nbChunks, size, chunkSize);
+        if (ForkJoinTask.getPool() == pool) {
+            // A thread of the pool helps running the chunks instead of blocking.
+            pool.invoke(action);
+            return;
+        }
+        try {
+            pool.submit(action).get();
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
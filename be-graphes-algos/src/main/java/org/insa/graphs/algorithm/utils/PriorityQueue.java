@@ -46,6 +46,22 @@ public interface PriorityQueue<E extends Comparable<E>> {
      */
     public void remove(E x) throws ElementNotFoundException;
 
+    /**
+     * Restore the ordering of the priority queue after the key of the given element has
+     * been decreased, e.g. when a Dijkstra label is updated with a smaller cost. The
+     * element must already be in the queue.
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i> for the implementations that keep track of the
+     * position of their elements (see {@link IndexedBinaryHeap}), <i>O(n)</i> for
+     * {@link BinaryHeap} and {@link BinarySearchTree}, which must first look for the
+     * element.
+     * </p>
+     *
+     * @param x Item whose key has been decreased.
+     * @throws ElementNotFoundException if the given element is not in the queue.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException;
+
     /**
      * Retrieve (but not remove) the smallest item in the queue.
      * <p>
@@ -0,0 +1,195 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.ParallelLoop;
+import org.insa.graphs.algorithm.utils.ParallelLoop.RangeTask;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Weakly connected components computed with a lock-free union-find: the two ends of
+ * every arc are merged in parallel over ranges of nodes, roots being linked with a
+ * compare-and-set and paths being compressed by halving during lookups.
+ * </p>
+ * <p>
+ * A root is always linked to a smaller root, so the root of a component is its smallest
+ * node, and components are numbered in the order of their smallest node (as the
+ * components found by the breadth-first search of the parent class). The solution holds
+ * the component of each node in an array, lists of nodes are only built if requested.
+ * </p>
+ * <p>
+ * Observers are notified only if there are some, once all the components have been
+ * computed, which requires building the lists of nodes.
+ * </p>
+ */
+public class UnionFindWeaklyConnectedComponentsAlgorithm
+        extends WeaklyConnectedComponentsAlgorithm {
+
+    // Number of nodes merged by the same task.
+    private static final int CHUNK_SIZE = 4096;
+
+    // Pool running the merges.
+    private final ForkJoinPool pool;
+
+    // Parent of each node in the union-find forest.
+    private AtomicIntegerArray parents;
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public UnionFindWeaklyConnectedComponentsAlgorithm(
+            WeaklyConnectedComponentsData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param data Input data for this algorithm.
+     * @param pool Pool running the merges.
+     */
+    public UnionFindWeaklyConnectedComponentsAlgorithm(
+            WeaklyConnectedComponentsData data, ForkJoinPool pool) {
+        super(data);
+        this.pool = pool;
+    }
+
+    @Override
+    protected WeaklyConnectedComponentsSolution doRun() {
+        final Graph graph = getInputData().getGraph();
+        final CsrGraph csr = graph.getCsrGraph();
+        final int nbNodes = graph.size();
+
+        this.parents = new AtomicIntegerArray(nbNodes);
+        parallelFor(nbNodes, (from, to) -> {
+            for (int node = from; node < to; ++node) {
+                this.parents.set(node, node);
+            }
+        });
+
+        // Merge both ends of each arc (its direction does not matter).
+        parallelFor(nbNodes, (from, to) -> {
+            for (int node = from; node < to; ++node) {
+                for (int e = csr.getFirstArc(node),
+                        end = csr.getEndArc(node); e < end; ++e) {
+                    union(node, csr.getTarget(e));
+                }
+            }
+        });
+
+        // Roots of the nodes, then numbers of the components in the order of their
+        // root (smallest node).
+        final int[] componentIds = new int[nbNodes];
+        parallelFor(nbNodes, (from, to) -> {
+            for (int node = from; node < to; ++node) {
+                componentIds[node] = find(node);
+            }
+        });
+        int nbComponents = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            // The root of a node is not greater than the node, so it is already
+            // numbered.
+            componentIds[node] = componentIds[node] == node ? nbComponents++
+                    : componentIds[componentIds[node]];
+        }
+        this.parents = null;
+
+        final WeaklyConnectedComponentsSolution solution =
+                new WeaklyConnectedComponentsSolution(getInputData(), Status.OPTIMAL,
+                        componentIds, nbComponents);
+        if (!getObservers().isEmpty()) {
+            notifyComponents(solution);
+        }
+        return solution;
+    }
+
+    /*
+     * Function to find the root of a node, halving the path on the way
+     *
+     * @param node the node
+     *
+     * @return the root of the node
+     */
+    private int find(int node) {
+        int parent = this.parents.get(node);
+        while (parent != node) {
+            final int grandParent = this.parents.get(parent);
+            if (grandParent != parent) {
+                // May fail if another thread changed the parent, which is fine.
+                this.parents.compareAndSet(node, parent, grandParent);
+            }
+            node = grandParent;
+            parent = this.parents.get(node);
+        }
+        return node;
+    }
+
+    /*
+     * Function to merge the sets of two nodes The larger root is linked to the smaller
+     * one, retrying if the larger root got a parent in the meantime
+     *
+     * @param first the first node
+     *
+     * @param second the second node
+     */
+    private void union(int first, int second) {
+        while (true) {
+            first = find(first);
+            second = find(second);
+            if (first == second) {
+                return;
+            }
+            if (first < second) {
+                final int tmp = first;
+                first = second;
+                second = tmp;
+            }
+            if (this.parents.compareAndSet(first, first, second)) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Function to notify the observers of all the components of a solution
+     *
+     * @param solution the solution
+     */
+    private void notifyComponents(WeaklyConnectedComponentsSolution solution) {
+        for (ArrayList<Node> component : solution.getComponents()) {
+            notifyStartComponent(component.get(0));
+            for (Node node : component) {
+                notifyNewNodeInComponent(node);
+            }
+            notifyEndComponent(component);
+        }
+    }
+
+    /*
+     * Function to run a task on ranges of nodes in parallel
+     *
+     * @param size the number of nodes
+     *
+     * @param task the task to run on each range
+     */
+    private void parallelFor(int size, RangeTask task) {
+        try {
+            ParallelLoop.run(this.pool, size, CHUNK_SIZE, task);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while merging components.",
+                    exception);
+        }
+    }
+
+    @Override
+    protected int getNodeVisited() {
+        return getInputData().getGraph().size();
+    }
+
+}
@@ -3,6 +3,7 @@ package org.insa.graphs.algorithm.weakconnectivity;
 import java.util.ArrayList;
 
 import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 
 public class WeaklyConnectedComponentsSolution extends AbstractSolution {
@@ -10,6 +11,10 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
     // Components
     private ArrayList<ArrayList<Node>> components;
 
+    // Component of each node (by ID), components being numbered by their smallest node.
+    private int[] componentIds;
+    private int nbComponents;
+
     protected WeaklyConnectedComponentsSolution(WeaklyConnectedComponentsData data) {
         super(data);
     }
@@ -18,6 +23,21 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
             Status status, ArrayList<ArrayList<Node>> components) {
         super(data, status);
         this.components = components;
+        this.nbComponents = components.size();
+    }
+
+    /**
+     * @param data Input data of the algorithm.
+     * @param status Status of the solution.
+     * @param componentIds Component of each node, numbered from 0 in the order of the
+     *        smallest node of each component.
+     * @param nbComponents Number of components.
+     */
+    protected WeaklyConnectedComponentsSolution(WeaklyConnectedComponentsData data,
+            Status status, int[] componentIds, int nbComponents) {
+        super(data, status);
+        this.componentIds = componentIds;
+        this.nbComponents = nbComponents;
     }
 
     @Override
@@ -29,9 +49,42 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
      * @return Components of the solution, if any.
      */
     public ArrayList<ArrayList<Node>> getComponents() {
+        if (components == null && componentIds != null) {
+            final Graph graph = getInputData().getGraph();
+            components = new ArrayList<ArrayList<Node>>(nbComponents);
+            for (int i = 0; i < nbComponents; ++i) {
+                components.add(new ArrayList<Node>());
+            }
+            for (int id = 0; id < componentIds.length; ++id) {
+                components.get(componentIds[id]).add(graph.get(id));
+            }
+        }
         return components;
     }
 
+    /**
+     * @return Component of each node of the graph (indexed by node ID), components
+     *         being numbered from 0, or null if the solution has no component.
+     */
+    public int[] getComponentIds() {
+        if (componentIds == null && components != null) {
+            componentIds = new int[getInputData().getGraph().size()];
+            for (int i = 0; i < components.size(); ++i) {
+                for (Node node : components.get(i)) {
+                    componentIds[node.getId()] = i;
+                }
+            }
+        }
+        return componentIds;
+    }
+
+    /**
+     * @return Number of components of the solution.
+     */
+    public int getNumberOfComponents() {
+        return nbComponents;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -41,15 +94,19 @@ public class WeaklyConnectedComponentsSolution extends AbstractSolution {
     public String toString() {
         int nIsolated = 0;
         int nGt10 = 0;
-        for (ArrayList<Node> component : components) {
-            if (component.size() == 1) {
+        final int[] sizes = new int[nbComponents];
+        for (int component : getComponentIds()) {
+            sizes[component] += 1;
+        }
+        for (int size : sizes) {
+            if (size == 1) {
                 nIsolated += 1;
             }
-            else if (component.size() > 10) {
+            else if (size > 10) {
                 nGt10 += 1;
             }
         }
-        return "Found " + components.size() + " components (" + nGt10
+        return "Found " + nbComponents + " components (" + nGt10
                 + " with more than 10 nodes, " + nIsolated + " isolated nodes) in "
                 + getSolvingTime().getSeconds() + " seconds.";
 
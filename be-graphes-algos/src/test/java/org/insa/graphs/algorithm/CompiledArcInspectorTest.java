@@ -0,0 +1,157 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.RoadInformation;
+import org.junit.Test;
+
+public class CompiledArcInspectorTest {
+
+    // Graph of the arcs to inspect.
+    private static final CsrGraph CSR =
+            RandomGraphs.createGraph(20, 20, 20).getCsrGraph();
+
+    /**
+     * Compilable inspector: all roads, by length.
+     */
+    private static class AllRoadsArcInspector implements CompilableArcInspector {
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return true;
+        }
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            return true;
+        }
+
+        @Override
+        public double getSpeed(RoadInformation roadInformation) {
+            return roadInformation.getMaximumSpeed();
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return arc.getLength();
+        }
+
+        @Override
+        public int getMaximumSpeed() {
+            return GraphStatistics.NO_MAXIMUM_SPEED;
+        }
+
+        @Override
+        public Mode getMode() {
+            return Mode.LENGTH;
+        }
+
+        @Override
+        public String toString() {
+            return "All roads";
+        }
+    }
+
+    /**
+     * Subclass overriding the per-arc methods only, which must not be ignored.
+     */
+    private static final class ShortRoadsArcInspector extends AllRoadsArcInspector {
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return arc.getLength() < 1000;
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return 2 * arc.getLength();
+        }
+
+        @Override
+        public String toString() {
+            return "Short roads";
+        }
+    }
+
+    /**
+     * Compilable inspector counting the descriptors it checks.
+     */
+    private static final class CountingArcInspector extends AllRoadsArcInspector {
+
+        // Number of descriptors checked by all the instances.
+        private static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public boolean isAllowed(RoadInformation roadInformation) {
+            COUNT.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CountingArcInspector;
+        }
+
+        @Override
+        public int hashCode() {
+            return CountingArcInspector.class.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Counting";
+        }
+    }
+
+    private static void assertSameAsInspector(ArcInspector inspector) {
+        final CompiledArcInspector compiled = CompiledArcInspector.get(CSR, inspector);
+        for (int e = 0; e < CSR.getNumberOfArcs(); ++e) {
+            final Arc arc = CSR.getArc(e);
+            final String message = inspector + ": " + e;
+            assertEquals(message, inspector.isAllowed(arc), compiled.isAllowed(e));
+            final double cost = inspector.getCost(arc);
+            assertEquals(message, cost, compiled.getCost(e), 1e-6 * Math.max(1, cost));
+        }
+    }
+
+    @Test
+    public void testSameAsInspector() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            assertTrue(inspector.toString(),
+                    CompiledArcInspector.get(CSR, inspector).isCompiled());
+            assertSameAsInspector(inspector);
+        }
+    }
+
+    @Test
+    public void testOverriddenNotCompiled() {
+        final ArcInspector base = new AllRoadsArcInspector();
+        assertTrue(CompiledArcInspector.get(CSR, base).isCompiled());
+        assertSameAsInspector(base);
+
+        final ArcInspector subclass = new ShortRoadsArcInspector();
+        assertFalse(CompiledArcInspector.get(CSR, subclass).isCompiled());
+        assertSameAsInspector(subclass);
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        // Equal inspectors share their tables.
+        CountingArcInspector.COUNT.set(0);
+        for (int i = 0; i < 2; ++i) {
+            final ArcInspector inspector = new CountingArcInspector();
+            assertTrue(CompiledArcInspector.get(CSR, inspector).isCompiled());
+            assertEquals(CSR.getNumberOfDescriptors(),
+                    CountingArcInspector.COUNT.get());
+        }
+    }
+
+}
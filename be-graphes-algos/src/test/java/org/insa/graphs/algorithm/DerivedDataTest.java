@@ -0,0 +1,138 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.algorithm.strongconnectivity.StronglyConnectedComponents;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.junit.Test;
+
+public class DerivedDataTest {
+
+    // Graph and inspector of the data.
+    private static final CsrGraph CSR =
+            RandomGraphs.createGraph(10, 10, 40).getCsrGraph();
+    private static final ArcInspector INSPECTOR =
+            ArcInspectorFactory.getAllFilters().get(0);
+
+    @Test
+    public void testComputedOnce() {
+        final AtomicInteger count = new AtomicInteger();
+        final Object data = DerivedData.get(CSR, INSPECTOR, "test/once", name -> {
+            count.incrementAndGet();
+            return new Object();
+        });
+        assertSame(data,
+                DerivedData.get(CSR, INSPECTOR, "test/once", name -> new Object()));
+        assertEquals(1, count.get());
+
+        // Data of another graph are computed separately.
+        final CsrGraph other = RandomGraphs.createGraph(10, 10, 40).getCsrGraph();
+        assertNotSame(data,
+                DerivedData.get(other, INSPECTOR, "test/once", name -> new Object()));
+
+        // Data of equal inspectors are shared, not the ones of other inspectors.
+        assertSame(data,
+                DerivedData.get(CSR, ArcInspectorFactory.getAllFilters().get(0),
+                        "test/once", name -> new Object()));
+        assertNotSame(data,
+                DerivedData.get(CSR, ArcInspectorFactory.getAllFilters().get(1),
+                        "test/once", name -> new Object()));
+    }
+
+    @Test
+    public void testRemove() {
+        final Object data =
+                DerivedData.get(CSR, INSPECTOR, "test/remove", name -> new Object());
+
+        // Data are only removed if they are still the given ones.
+        DerivedData.remove(CSR, INSPECTOR, "test/remove", new Object());
+        assertSame(data,
+                DerivedData.get(CSR, INSPECTOR, "test/remove", name -> new Object()));
+        DerivedData.remove(CSR, INSPECTOR, "test/remove", data);
+        assertNotSame(data,
+                DerivedData.get(CSR, INSPECTOR, "test/remove", name -> new Object()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailedComputation() {
+        try {
+            DerivedData.get(CSR, INSPECTOR, "test/failed", name -> {
+                throw new IllegalArgumentException(name);
+            });
+        }
+        finally {
+            // A failed computation is not kept.
+            assertEquals("ok",
+                    DerivedData.get(CSR, INSPECTOR, "test/failed", name -> "ok"));
+        }
+    }
+
+    /*
+     * Function to create a graph and data derived from it for all the filters
+     *
+     * @param data the list where the derived data are added
+     *
+     * @return a weak reference to the CSR graph
+     */
+    private static WeakReference<CsrGraph> createDerivedData(List<Object> data) {
+        final Graph graph = RandomGraphs.createGraph(10, 10, 41);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            data.add(FilteredGraph.get(graph, inspector));
+            data.add(StronglyConnectedComponents.get(graph, inspector));
+        }
+        return new WeakReference<>(graph.getCsrGraph());
+    }
+
+    @Test
+    public void testGraphNotRetained() throws InterruptedException {
+        // Derived data do not reference their graph, which can be dropped while the
+        // data are still used.
+        final List<Object> data = new ArrayList<>();
+        final WeakReference<CsrGraph> csr = createDerivedData(data);
+        for (int i = 0; i < 50 && csr.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(csr.get());
+        assertEquals(2 * ArcInspectorFactory.getAllFilters().size(), data.size());
+    }
+
+    /*
+     * Function to create an inspector and data derived for it
+     *
+     * @param data the list where the derived data are added
+     *
+     * @return a weak reference to the inspector
+     */
+    private static WeakReference<ArcInspector> createInspectorData(List<Object> data) {
+        final Graph graph = RandomGraphs.createGraph(10, 10, 42);
+        final ArcInspector inspector = new ScaledArcInspector(1);
+        data.add(graph);
+        data.add(FilteredGraph.get(graph, inspector));
+        data.add(StronglyConnectedComponents.get(graph, inspector));
+        return new WeakReference<>(inspector);
+    }
+
+    @Test
+    public void testInspectorNotRetained() throws InterruptedException {
+        // Derived data do not reference their inspector, which can be dropped while the
+        // graph is still used.
+        final List<Object> data = new ArrayList<>();
+        final WeakReference<ArcInspector> inspector = createInspectorData(data);
+        for (int i = 0; i < 50 && inspector.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(inspector.get());
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.junit.After;
+import org.junit.Test;
+
+public class FilteredGraphTest {
+
+    // Graph to filter.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 30);
+
+    @After
+    public void resetMaximumMemory() {
+        FilteredGraph.setMaximumMemory(FilteredGraph.DEFAULT_MAXIMUM_MEMORY);
+    }
+
+    @Test
+    public void testAllowedArcs() {
+        final CsrGraph csr = GRAPH.getCsrGraph();
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            final FilteredGraph filtered = FilteredGraph.get(GRAPH, inspector);
+            final CompiledArcInspector compiled =
+                    CompiledArcInspector.get(csr, inspector);
+            assertEquals(csr.size(), filtered.size());
+
+            // The arcs of each node are its allowed arcs in the CSR graph, in order.
+            int nbArcs = 0;
+            for (int node = 0; node < csr.size(); ++node) {
+                int arc = filtered.getFirstArc(node);
+                for (int e = csr.getFirstArc(node); e < csr.getEndArc(node); ++e) {
+                    if (!compiled.isAllowed(e)) {
+                        continue;
+                    }
+                    assertEquals(e, filtered.getOriginalArc(arc));
+                    assertEquals(csr.getTarget(e), filtered.getTarget(arc));
+                    assertEquals((float) compiled.getCost(e), filtered.getCost(arc), 0);
+                    ++arc;
+                }
+                assertEquals(filtered.getEndArc(node), arc);
+                nbArcs += arc - filtered.getFirstArc(node);
+            }
+            assertEquals(filtered.getNumberOfArcs(), nbArcs);
+        }
+    }
+
+    @Test
+    public void testIncomingArcs() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            final FilteredGraph filtered = FilteredGraph.get(GRAPH, inspector);
+
+            // Each allowed arc is an incoming arc of its target, from its origin.
+            final int[] nbIncomingArcs = new int[filtered.size()];
+            for (int node = 0; node < filtered.size(); ++node) {
+                for (int i = filtered.getFirstIncomingArc(node); i < filtered
+                        .getEndIncomingArc(node); ++i) {
+                    final int arc = filtered.getIncomingArc(i);
+                    final int origin = filtered.getIncomingOrigin(i);
+                    assertEquals(node, filtered.getTarget(arc));
+                    assertTrue(filtered.getFirstArc(origin) <= arc
+                            && arc < filtered.getEndArc(origin));
+                    nbIncomingArcs[node]++;
+                }
+            }
+            assertEquals(filtered.getNumberOfArcs(),
+                    IntStream.of(nbIncomingArcs).sum());
+        }
+    }
+
+    @Test
+    public void testGetSameGraph() {
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        assertSame(FilteredGraph.get(GRAPH, inspector),
+                FilteredGraph.get(GRAPH, inspector));
+
+        // Another graph with the same map ID has its own filtered graph.
+        final Graph other = RandomGraphs.createGraph(10, 10, 30);
+        assertEquals(GRAPH.getMapId(), other.getMapId());
+        final FilteredGraph filtered = FilteredGraph.get(other, inspector);
+        assertNotSame(FilteredGraph.get(GRAPH, inspector), filtered);
+        assertEquals(other.size(), filtered.size());
+    }
+
+    @Test
+    public void testGetOtherInspector() {
+        // Equal inspectors share their filtered graph.
+        assertSame(FilteredGraph.get(GRAPH, ArcInspectorFactory.getAllFilters().get(0)),
+                FilteredGraph.get(GRAPH, ArcInspectorFactory.getAllFilters().get(0)));
+
+        // Inspectors with the same description but other costs do not.
+        final FilteredGraph filtered =
+                FilteredGraph.get(GRAPH, new ScaledArcInspector(1));
+        final FilteredGraph doubled =
+                FilteredGraph.get(GRAPH, new ScaledArcInspector(2));
+        assertNotSame(filtered, doubled);
+        for (int arc = 0; arc < filtered.getNumberOfArcs(); ++arc) {
+            assertEquals(2 * filtered.getCost(arc), doubled.getCost(arc), 1e-3);
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        final FilteredGraph first = FilteredGraph.get(GRAPH, inspectors.get(0));
+
+        // Only the most recently used filtered graph is kept.
+        FilteredGraph.setMaximumMemory(0);
+        assertSame(first, FilteredGraph.get(GRAPH, inspectors.get(0)));
+        final FilteredGraph second = FilteredGraph.get(GRAPH, inspectors.get(1));
+        assertSame(second, FilteredGraph.get(GRAPH, inspectors.get(1)));
+        assertNotSame(first, FilteredGraph.get(GRAPH, inspectors.get(0)));
+    }
+
+}
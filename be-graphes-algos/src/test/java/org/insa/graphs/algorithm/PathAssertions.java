@@ -0,0 +1,68 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * Assertions comparing the costs and paths found by the algorithms with reference costs
+ * (e.g. computed by {@link RandomGraphs#computeCosts}), all with the same tolerance,
+ * since costs are summed in different orders and with different precisions.
+ */
+public final class PathAssertions {
+
+    private PathAssertions() {}
+
+    /**
+     * @param cost A reference cost.
+     * @return Tolerance on costs compared with the given cost.
+     */
+    public static double getTolerance(double cost) {
+        return 1e-4 * Math.max(1, cost);
+    }
+
+    /**
+     * Check that a cost is the reference one.
+     *
+     * @param message Message of the assertion.
+     * @param expected Reference cost.
+     * @param actual Cost to check.
+     */
+    public static void assertCost(String message, double expected, double actual) {
+        assertEquals(message, expected, actual, getTolerance(expected));
+    }
+
+    /**
+     * Check that a path is valid, goes from the given origin to the given destination
+     * (a path from a node to itself being empty) using only allowed arcs, and that the
+     * sum of the costs of its arcs is the reference cost.
+     *
+     * @param message Message of the assertions.
+     * @param path Path to check.
+     * @param origin Expected origin of the path.
+     * @param destination Expected destination of the path.
+     * @param inspector Arc inspector giving the allowed arcs and their costs.
+     * @param expected Reference cost of the path.
+     */
+    public static void assertPath(String message, Path path, Node origin,
+            Node destination, ArcInspector inspector, double expected) {
+        assertTrue(message, path.isValid());
+        assertEquals(message, origin, path.getOrigin());
+        if (path.getArcs().isEmpty()) {
+            assertEquals(message, origin, destination);
+        }
+        else {
+            assertEquals(message, destination, path.getDestination());
+        }
+        double cost = 0;
+        for (Arc arc : path.getArcs()) {
+            assertTrue(message, inspector.isAllowed(arc));
+            cost += inspector.getCost(arc);
+        }
+        assertCost(message, expected, cost);
+    }
+
+}
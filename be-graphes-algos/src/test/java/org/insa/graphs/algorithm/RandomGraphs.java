@@ -0,0 +1,156 @@
+package org.insa.graphs.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * Random graphs used to compare algorithms: nodes on a perturbed grid, linked to some
+ * of their neighbours by roads of random types, speeds, access restrictions and
+ * intermediate points, some of them one-way, so that every arc inspector allows a
+ * different subset of the arcs. Reference costs are computed by a plain Bellman-Ford
+ * over the {@link Arc} objects.
+ */
+public final class RandomGraphs {
+
+    private RandomGraphs() {}
+
+    /**
+     * Create a random graph.
+     *
+     * @param width Number of columns of the grid.
+     * @param height Number of rows of the grid.
+     * @param seed Seed of the graph.
+     * @return A new random graph.
+     */
+    public static Graph createGraph(int width, int height, long seed) {
+        final Random random = new Random(seed);
+        final Node[] nodes = new Node[width * height];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i,
+                    new Point(1 + (i % width) * 0.01f + random.nextFloat() * 0.004f,
+                            43 + (i / width) * 0.01f + random.nextFloat() * 0.004f));
+        }
+
+        final RoadType[] types = RoadType.values();
+        final AccessRestriction[] restrictions = AccessRestriction.values();
+        int maximumSpeed = 0;
+        for (int i = 0; i < nodes.length; ++i) {
+            final int x = i % width, y = i / width;
+            final int[][] neighbours = { { x + 1, y }, { x, y + 1 }, { x + 1, y + 1 } };
+            for (int[] neighbour : neighbours) {
+                if (neighbour[0] >= width || neighbour[1] >= height
+                        || random.nextInt(10) == 0) {
+                    continue;
+                }
+                final EnumMap<AccessMode, AccessRestriction> access =
+                        new EnumMap<>(AccessMode.class);
+                for (AccessMode mode : AccessMode.values()) {
+                    access.put(mode, restrictions[random.nextInt(restrictions.length)]);
+                }
+                if (random.nextInt(3) > 0) {
+                    access.put(AccessMode.MOTORCAR, AccessRestriction.ALLOWED);
+                }
+                if (random.nextInt(3) > 0) {
+                    access.put(AccessMode.FOOT, AccessRestriction.ALLOWED);
+                }
+                final int speed = 10 + 10 * random.nextInt(12);
+                maximumSpeed = Math.max(maximumSpeed, speed);
+                final RoadInformation information =
+                        new RoadInformation(types[random.nextInt(types.length)],
+                                new AccessRestrictions(access), random.nextInt(4) == 0,
+                                speed, null);
+
+                final int j = neighbour[1] * width + neighbour[0];
+                final Node origin = nodes[random.nextBoolean() ? i : j];
+                final Node destination = nodes[origin.getId() == i ? j : i];
+                final ArrayList<Point> points = new ArrayList<>();
+                points.add(origin.getPoint());
+                for (int k = random.nextInt(3); k > 0; --k) {
+                    points.add(new Point(origin.getPoint().getLongitude() + 0.001f * k,
+                            origin.getPoint().getLatitude() + 0.0005f));
+                }
+                points.add(destination.getPoint());
+                final float length = (float) (Point.distance(origin.getPoint(),
+                        destination.getPoint()) * (1 + random.nextFloat()));
+                Node.linkNodes(origin, destination, length, information, points);
+            }
+        }
+        return new Graph("random-" + seed, "random-" + seed, List.of(nodes),
+                new GraphStatistics(
+                        new BoundingBox(new Point(1, 43 + height * 0.01f),
+                                new Point(1 + width * 0.01f, 43)),
+                        0, 0, maximumSpeed, 0));
+    }
+
+    /**
+     * Compute the cost of the shortest paths from the given origin to all the nodes,
+     * with a plain Bellman-Ford over the {@link Arc} objects.
+     *
+     * @param graph Graph of the paths.
+     * @param origin Origin of the paths.
+     * @param inspector Arc inspector giving the allowed arcs and their costs.
+     * @return Cost of the shortest path to each node (infinite if there is none),
+     *         indexed by node ID.
+     */
+    public static double[] computeCosts(Graph graph, Node origin,
+            ArcInspector inspector) {
+        final double[] costs = new double[graph.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        costs[origin.getId()] = 0;
+        boolean updated = true;
+        for (int i = 0; updated && i < graph.size(); ++i) {
+            updated = false;
+            for (Node node : graph.getNodes()) {
+                if (Double.isInfinite(costs[node.getId()])) {
+                    continue;
+                }
+                for (Arc arc : node.getSuccessors()) {
+                    final double cost = costs[node.getId()] + inspector.getCost(arc);
+                    if (inspector.isAllowed(arc)
+                            && cost < costs[arc.getDestination().getId()]) {
+                        costs[arc.getDestination().getId()] = cost;
+                        updated = true;
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Pick random pairs of nodes of a graph.
+     *
+     * @param graph Graph of the nodes.
+     * @param nbPairs Number of pairs.
+     * @param seed Seed of the pairs.
+     * @return Pairs of nodes, as arrays of two nodes.
+     */
+    public static List<Node[]> createPairs(Graph graph, int nbPairs, long seed) {
+        final Random random = new Random(seed);
+        final List<Node[]> pairs = new ArrayList<>(nbPairs);
+        for (int i = 0; i < nbPairs; ++i) {
+            final Node origin = graph.get(random.nextInt(graph.size()));
+            // Some queries from a node to itself.
+            final Node destination =
+                    i % 10 == 0 ? origin : graph.get(random.nextInt(graph.size()));
+            pairs.add(new Node[] { origin, destination });
+        }
+        return pairs;
+    }
+
+}
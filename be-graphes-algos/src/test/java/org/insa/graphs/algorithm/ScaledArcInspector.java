@@ -0,0 +1,51 @@
+package org.insa.graphs.algorithm;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.GraphStatistics;
+
+/**
+ * Arc inspector allowing all the arcs, with their length multiplied by a scale as cost.
+ * All the scaled inspectors have the same description whatever their scale, so they can
+ * be used to check that data derived for an inspector are not identified by its
+ * description.
+ */
+public class ScaledArcInspector implements ArcInspector {
+
+    private final double scale;
+
+    /**
+     * Create a new scaled inspector.
+     *
+     * @param scale Scale of the lengths of the arcs.
+     */
+    public ScaledArcInspector(double scale) {
+        this.scale = scale;
+    }
+
+    @Override
+    public boolean isAllowed(Arc arc) {
+        return true;
+    }
+
+    @Override
+    public double getCost(Arc arc) {
+        return this.scale * arc.getLength();
+    }
+
+    @Override
+    public int getMaximumSpeed() {
+        return GraphStatistics.NO_MAXIMUM_SPEED;
+    }
+
+    @Override
+    public Mode getMode() {
+        return Mode.LENGTH;
+    }
+
+    @Override
+    public String toString() {
+        return "Scaled lengths";
+    }
+
+}
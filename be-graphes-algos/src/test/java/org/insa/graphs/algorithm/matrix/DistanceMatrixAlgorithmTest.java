@@ -0,0 +1,83 @@
+package org.insa.graphs.algorithm.matrix;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.insa.graphs.algorithm.PathAssertions.assertPath;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class DistanceMatrixAlgorithmTest {
+
+    // Graph of the matrices, with its origins and targets.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 6);
+    private static final List<Node> ORIGINS = new ArrayList<>();
+    private static final List<Node> TARGETS = new ArrayList<>();
+
+    static {
+        for (Node[] pair : RandomGraphs.createPairs(GRAPH, 12, 6)) {
+            ORIGINS.add(pair[0]);
+            TARGETS.add(pair[1]);
+        }
+    }
+
+    // Pool with several threads, so that rows are computed concurrently.
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void closeAll() {
+        POOL.shutdown();
+    }
+
+    private static void testMatrix(boolean withPaths) {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            final DistanceMatrixSolution solution =
+                    new DistanceMatrixAlgorithm(new DistanceMatrixData(GRAPH, ORIGINS,
+                            TARGETS, inspector, withPaths), POOL).run();
+            for (int i = 0; i < ORIGINS.size(); ++i) {
+                final Node origin = ORIGINS.get(i);
+                final double[] expected =
+                        RandomGraphs.computeCosts(GRAPH, origin, inspector);
+                for (int j = 0; j < TARGETS.size(); ++j) {
+                    final Node target = TARGETS.get(j);
+                    final double cost = expected[target.getId()];
+                    final String message =
+                            inspector + ": " + origin.getId() + " -> " + target.getId();
+                    if (Double.isInfinite(cost)) {
+                        assertEquals(message, cost, solution.getCost(i, j), 0);
+                        assertNull(message, solution.getPath(i, j));
+                        continue;
+                    }
+                    assertCost(message, cost, solution.getCost(i, j));
+                    if (!withPaths) {
+                        assertNull(message, solution.getPath(i, j));
+                        continue;
+                    }
+                    assertPath(message, solution.getPath(i, j), origin, target,
+                            inspector, cost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCosts() {
+        testMatrix(false);
+    }
+
+    @Test
+    public void testPaths() {
+        testMatrix(true);
+    }
+
+}
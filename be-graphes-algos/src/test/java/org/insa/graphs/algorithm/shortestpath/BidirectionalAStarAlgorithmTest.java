@@ -0,0 +1,80 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+/**
+ * Check that the averaged potentials of the bidirectional A* are consistent for both
+ * searches, and that its costs are the ones of Dijkstra, for each arc inspector.
+ */
+public class BidirectionalAStarAlgorithmTest {
+
+    // Graph of the queries, and number of queries.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 13);
+    private static final int NB_QUERIES = 10;
+
+    @Test
+    public void testConsistentPotentials() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (Node[] pair : RandomGraphs.createPairs(GRAPH, NB_QUERIES, 13)) {
+                final ShortestPathData data =
+                        new ShortestPathData(GRAPH, pair[0], pair[1], inspector);
+                final BidirectionalAStarAlgorithm algorithm =
+                        new BidirectionalAStarAlgorithm(data);
+                final SearchWorkspace workspace = SearchWorkspace.acquire(GRAPH);
+                try {
+                    algorithm.initSearch(workspace);
+                    for (Node node : GRAPH.getNodes()) {
+                        for (Arc arc : node.getSuccessors()) {
+                            if (!inspector.isAllowed(arc)) {
+                                continue;
+                            }
+                            // The backward potential is the opposite of the forward
+                            // one,
+                            // so both reduced costs are the same.
+                            final double reduced = data.getCost(arc)
+                                    - algorithm.getPotential(node.getId()) + algorithm
+                                            .getPotential(arc.getDestination().getId());
+                            assertTrue(
+                                    inspector + ": " + arc.getOrigin().getId() + " -> "
+                                            + arc.getDestination().getId(),
+                                    reduced >= -1e-3);
+                        }
+                    }
+                }
+                finally {
+                    workspace.release();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameCostsAsDijkstra() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (Node[] pair : RandomGraphs.createPairs(GRAPH, NB_QUERIES, 31)) {
+                final ShortestPathData data =
+                        new ShortestPathData(GRAPH, pair[0], pair[1], inspector);
+                final ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                final ShortestPathSolution actual =
+                        new BidirectionalAStarAlgorithm(data).run();
+                final String message =
+                        inspector + ": " + pair[0].getId() + " -> " + pair[1].getId();
+                assertEquals(message, expected.isFeasible(), actual.isFeasible());
+                if (actual.isFeasible()) {
+                    assertCost(message, expected.getCost(), actual.getCost());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.insa.graphs.algorithm.PathAssertions.assertPath;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.ScaledArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.Test;
+
+public class ContractionHierarchyTest {
+
+    // Road information of one-way and two-way roads.
+    private static final RoadInformation ONE_WAY =
+            new RoadInformation(RoadType.UNCLASSIFIED, null, true, 50, null);
+    private static final RoadInformation TWO_WAYS =
+            new RoadInformation(RoadType.UNCLASSIFIED, null, false, 50, null);
+
+    // Shortest path, all roads allowed.
+    private static final ArcInspector INSPECTOR =
+            ArcInspectorFactory.getAllFilters().get(0);
+
+    private static Node[] createNodes(int nbNodes, Random random) {
+        final Node[] nodes = new Node[nbNodes];
+        for (int i = 0; i < nbNodes; ++i) {
+            nodes[i] = new Node(i,
+                    new Point(1 + random.nextFloat(), 43 + random.nextFloat()));
+        }
+        return nodes;
+    }
+
+    private static Graph createGraph(String mapId, Node[] nodes) {
+        return new Graph(mapId, mapId, List.of(nodes), new GraphStatistics(
+                new BoundingBox(new Point(1, 44), new Point(2, 43)), 0, 0, 50, 10));
+    }
+
+    private static void assertSameCosts(Graph graph, ContractionHierarchyStore store,
+            int origin, int destination) {
+        assertSameCosts(graph, store, INSPECTOR, origin, destination);
+    }
+
+    private static void assertSameCosts(Graph graph, ContractionHierarchyStore store,
+            ArcInspector inspector, int origin, int destination) {
+        final ShortestPathData data = new ShortestPathData(graph, graph.get(origin),
+                graph.get(destination), inspector);
+        final ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+        final ShortestPathSolution actual =
+                new ContractionHierarchyAlgorithm(data, store).run();
+        final String message = graph.getMapId() + ": " + origin + " -> " + destination;
+        assertEquals(message, expected.getStatus() == Status.INFEASIBLE,
+                actual.getStatus() == Status.INFEASIBLE);
+        if (actual.isFeasible()) {
+            assertCost(message, expected.getCost(), actual.getCost());
+            assertPath(message, actual.getPath(), graph.get(origin),
+                    graph.get(destination), inspector, expected.getCost());
+        }
+    }
+
+    @Test
+    public void testNodesWithSameNeighbours() {
+        // v and x are between the same neighbours, with paths of equal costs: each one
+        // is a witness for the other, but they cannot both be contracted without
+        // shortcut.
+        final Node[] nodes = createNodes(6, new Random(0));
+        final int p = 0, u = 1, v = 2, w = 3, x = 4, q = 5;
+        final int[][] arcs =
+                { { p, u }, { u, v }, { v, w }, { u, x }, { x, w }, { w, q } };
+        for (int[] arc : arcs) {
+            Node.linkNodes(nodes[arc[0]], nodes[arc[1]], 10, ONE_WAY,
+                    new ArrayList<>());
+        }
+        final Graph graph = createGraph("same-neighbours", nodes);
+        final ContractionHierarchyStore store = new ContractionHierarchyStore(null);
+        for (int origin = 0; origin < graph.size(); ++origin) {
+            for (int destination = 0; destination < graph.size(); ++destination) {
+                assertSameCosts(graph, store, origin, destination);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomGraphsWithTies() {
+        // Few distinct lengths, so that many paths have equal costs.
+        for (int seed = 0; seed < 100; ++seed) {
+            final Random random = new Random(seed);
+            final int nbNodes = 10 + random.nextInt(30);
+            final Node[] nodes = createNodes(nbNodes, random);
+            final int nbRoads = nbNodes + random.nextInt(3 * nbNodes);
+            for (int road = 0; road < nbRoads; ++road) {
+                Node.linkNodes(nodes[random.nextInt(nbNodes)],
+                        nodes[random.nextInt(nbNodes)], 1 + random.nextInt(3),
+                        random.nextBoolean() ? ONE_WAY : TWO_WAYS, new ArrayList<>());
+            }
+            final Graph graph = createGraph("random-ties-" + seed, nodes);
+            final ContractionHierarchyStore store = new ContractionHierarchyStore(null);
+            for (int origin = 0; origin < nbNodes; ++origin) {
+                for (int destination = 0; destination < nbNodes; ++destination) {
+                    assertSameCosts(graph, store, origin, destination);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInspectorsWithSameDescription() {
+        // Inspectors with the same description but other costs must not share
+        // their hierarchy.
+        final Random random = new Random(0);
+        final Node[] nodes = createNodes(30, random);
+        for (int road = 0; road < 60; ++road) {
+            Node.linkNodes(nodes[random.nextInt(nodes.length)],
+                    nodes[random.nextInt(nodes.length)], 1 + random.nextInt(100),
+                    random.nextBoolean() ? ONE_WAY : TWO_WAYS, new ArrayList<>());
+        }
+        final Graph graph = createGraph("same-description", nodes);
+        final ContractionHierarchyStore store = new ContractionHierarchyStore(null);
+        for (ArcInspector inspector : new ArcInspector[] { new ScaledArcInspector(1),
+                new ScaledArcInspector(3) }) {
+            for (int origin = 0; origin < nodes.length; ++origin) {
+                for (int destination = 0; destination < nodes.length; ++destination) {
+                    assertSameCosts(graph, store, inspector, origin, destination);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.insa.graphs.algorithm.PathAssertions.assertPath;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class DeltaSteppingTest {
+
+    // Graph of the searches, and origins of the searches.
+    private static final Graph GRAPH = RandomGraphs.createGraph(25, 20, 5);
+    private static final int[] ORIGINS = { 0, 123, 499 };
+
+    // Graph large enough for the buckets to hold more nodes than a chunk, so that they
+    // are relaxed by several threads, and origins of its searches.
+    private static final Graph LARGE_GRAPH = RandomGraphs.createGraph(160, 160, 6);
+    private static final int[] LARGE_ORIGINS = { 0, 12880, 25599 };
+
+    // Pool with several threads, so that nodes are relaxed concurrently.
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void closeAll() {
+        POOL.shutdown();
+    }
+
+    private static void assertSameCosts(DeltaStepping search, Node origin,
+            ArcInspector inspector, double[] expected) {
+        for (Node node : search.getGraph().getNodes()) {
+            final double cost = expected[node.getId()];
+            final String message = inspector + ", delta " + search.getDelta() + ": "
+                    + origin.getId() + " -> " + node.getId();
+            assertEquals(message, Double.isFinite(cost), search.isReached(node));
+            if (!search.isReached(node)) {
+                continue;
+            }
+            assertCost(message, cost, search.getCost(node));
+            assertPath(message, search.getPath(node), origin, node, inspector, cost);
+        }
+    }
+
+    @Test
+    public void testDeltas() {
+        // The same search is reused for all the inspectors and deltas: very small (many
+        // buckets), default, and very large (a single bucket, as Bellman-Ford).
+        final DeltaStepping search = new DeltaStepping(GRAPH, POOL);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (int id : ORIGINS) {
+                final Node origin = GRAPH.get(id);
+                final double[] expected =
+                        RandomGraphs.computeCosts(GRAPH, origin, inspector);
+                for (double delta : new double[] { 1, Double.NaN, 1e9 }) {
+                    search.compute(origin, inspector, delta);
+                    assertSameCosts(search, origin, inspector, expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeGraph() {
+        // Searches stopped at a destination are interleaved with full searches, so
+        // that nodes reached by the previous search have to be reset.
+        final DeltaStepping search = new DeltaStepping(LARGE_GRAPH, POOL);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (int id : LARGE_ORIGINS) {
+                final Node origin = LARGE_GRAPH.get(id);
+                final double[] expected =
+                        RandomGraphs.computeCosts(LARGE_GRAPH, origin, inspector);
+                for (double delta : new double[] { Double.NaN, 1e9 }) {
+                    final Node destination =
+                            LARGE_GRAPH.get(LARGE_GRAPH.size() - 1 - id);
+                    search.compute(origin, destination, inspector, delta);
+                    assertCost(inspector + ": " + id + " -> " + destination.getId(),
+                            expected[destination.getId()], search.getCost(destination));
+                    search.compute(origin, inspector, delta);
+                    assertSameCosts(search, origin, inspector, expected);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelta() {
+        new DeltaStepping(GRAPH, POOL).compute(GRAPH.get(0),
+                ArcInspectorFactory.getAllFilters().get(0), -1);
+    }
+
+}
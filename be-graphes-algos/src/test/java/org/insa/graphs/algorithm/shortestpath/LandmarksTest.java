@@ -0,0 +1,150 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ScaledArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LandmarksTest {
+
+    // Graph of the landmarks, and number of landmarks.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 14);
+    private static final int NB_LANDMARKS = 6;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Scaled inspector equal to all the other ones whatever their scale, i.e. not
+     * following the contract of {@link ArcInspector}.
+     */
+    private static final class EqualScaledInspector extends ScaledArcInspector {
+
+        EqualScaledInspector(double scale) {
+            super(scale);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof EqualScaledInspector;
+        }
+
+        @Override
+        public int hashCode() {
+            return EqualScaledInspector.class.hashCode();
+        }
+
+    }
+
+    private static void assertSameLandmarks(Landmarks expected, Landmarks actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getInspector(), actual.getInspector());
+        assertEquals(expected.getFingerprint(), actual.getFingerprint());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.getLandmark(i), actual.getLandmark(i));
+            for (int node = 0; node < GRAPH.size(); ++node) {
+                assertEquals(expected.getCostFrom(i, node), actual.getCostFrom(i, node),
+                        0);
+                assertEquals(expected.getCostTo(i, node), actual.getCostTo(i, node), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testLowerBounds() {
+        for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+            for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+                final Landmarks landmarks =
+                        Landmarks.compute(GRAPH, inspector, NB_LANDMARKS, selection);
+                assertTrue(landmarks.size() > 0);
+                for (Node[] pair : RandomGraphs.createPairs(GRAPH, 10, 14)) {
+                    final double[] costs =
+                            RandomGraphs.computeCosts(GRAPH, pair[0], inspector);
+                    for (Node node : GRAPH.getNodes()) {
+                        final float bound =
+                                landmarks.lowerBound(pair[0].getId(), node.getId());
+                        final String message = selection + ", " + inspector + ": "
+                                + pair[0].getId() + " -> " + node.getId();
+                        // An infinite bound proves that there is no path.
+                        assertTrue(message, bound <= costs[node.getId()]
+                                + 1e-3 * Math.max(1, costs[node.getId()]));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        final Landmarks landmarks =
+                Landmarks.compute(GRAPH, ArcInspectorFactory.getAllFilters().get(0),
+                        NB_LANDMARKS, Landmarks.Selection.AVOID);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        landmarks.write(new DataOutputStream(bytes));
+        assertSameLandmarks(landmarks, Landmarks.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    @Test
+    public void testStore() throws IOException {
+        final Path directory = this.folder.getRoot().toPath();
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        final LandmarkStore store =
+                new LandmarkStore(directory, NB_LANDMARKS, Landmarks.Selection.AVOID);
+        final Landmarks landmarks = store.get(GRAPH, inspector);
+        assertSame(landmarks, store.get(GRAPH, inspector));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+
+        // A new store reads the landmarks of the first one.
+        assertSameLandmarks(landmarks,
+                new LandmarkStore(directory, NB_LANDMARKS, Landmarks.Selection.AVOID)
+                        .get(GRAPH, inspector));
+    }
+
+    @Test
+    public void testStoreOtherCosts() throws IOException {
+        final Path directory = this.folder.getRoot().toPath();
+        final LandmarkStore store =
+                new LandmarkStore(directory, NB_LANDMARKS, Landmarks.Selection.AVOID);
+        final ArcInspector original = new EqualScaledInspector(1),
+                doubled = new EqualScaledInspector(2);
+        final Landmarks landmarks = store.get(GRAPH, original);
+
+        // Landmarks of equal inspectors with other costs are not shared, neither in
+        // memory nor on disk.
+        for (LandmarkStore other : new LandmarkStore[] { store, new LandmarkStore(
+                directory, NB_LANDMARKS, Landmarks.Selection.AVOID) }) {
+            final Landmarks scaled = other.get(GRAPH, doubled);
+            assertNotSame(landmarks, scaled);
+            assertEquals(ArcCosts.fingerprint(GRAPH, doubled), scaled.getFingerprint());
+            for (int node = 0; node < GRAPH.size(); ++node) {
+                assertEquals(2 * landmarks.getCostFrom(0, node),
+                        scaled.getCostFrom(0, node),
+                        1e-3 * Math.max(1, scaled.getCostFrom(0, node)));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.insa.graphs.algorithm.PathAssertions.assertPath;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Compare each registered shortest path algorithm with Bellman-Ford, for each arc
+ * inspector, on random graphs. Bellman-Ford reports the length of its path as its cost
+ * and has no solution from a node to itself, so costs are compared with the cost of its
+ * path, and paths from a node to itself must be empty.
+ */
+@RunWith(Parameterized.class)
+public class ShortestPathAlgorithmTest {
+
+    // Graphs of the queries, and number of queries on each graph.
+    private static final List<Graph> GRAPHS = List.of(
+            RandomGraphs.createGraph(20, 15, 1), RandomGraphs.createGraph(25, 20, 2),
+            RandomGraphs.createGraph(12, 30, 3));
+    private static final int NB_QUERIES = 30;
+
+    // Cost of the paths found by Bellman-Ford (infinite if there is none), by graph,
+    // inspector and query (shared by all the algorithms).
+    private static final Map<String, Double> EXPECTED = new ConcurrentHashMap<>();
+
+    @Parameters(name = "{0}, {1}")
+    public static Collection<Object[]> data() {
+        final List<Object[]> data = new ArrayList<>();
+        for (String name : AlgorithmFactory
+                .getAlgorithmNames(ShortestPathAlgorithm.class)) {
+            if (AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class,
+                    name) == BellmanFordAlgorithm.class) {
+                continue;
+            }
+            for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+                data.add(new Object[] { name, inspector });
+            }
+        }
+        return data;
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public ArcInspector inspector;
+
+    private static double getPathCost(ShortestPathData data, Path path) {
+        double cost = 0;
+        for (Arc arc : path.getArcs()) {
+            cost += data.getCost(arc);
+        }
+        return cost;
+    }
+
+    private ShortestPathSolution run(ShortestPathData data) throws Exception {
+        return ((ShortestPathAlgorithm) AlgorithmFactory.createAlgorithm(
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class,
+                        this.name),
+                data)).run();
+    }
+
+    @Test
+    public void testSameSolutionsAsBellmanFord() throws Exception {
+        for (int g = 0; g < GRAPHS.size(); ++g) {
+            final Graph graph = GRAPHS.get(g);
+            final List<Node[]> pairs = RandomGraphs.createPairs(graph, NB_QUERIES, g);
+            for (int q = 0; q < pairs.size(); ++q) {
+                final Node origin = pairs.get(q)[0], destination = pairs.get(q)[1];
+                final ShortestPathData data = new ShortestPathData(graph, origin,
+                        destination, this.inspector);
+                final double expected = origin == destination ? 0
+                        : EXPECTED.computeIfAbsent(g + "/" + this.inspector + "/" + q,
+                                key -> {
+                                    final ShortestPathSolution solution =
+                                            new BellmanFordAlgorithm(data).run();
+                                    return solution.isFeasible()
+                                            ? getPathCost(data, solution.getPath())
+                                            : Double.POSITIVE_INFINITY;
+                                });
+                final ShortestPathSolution actual = run(data);
+
+                final String message = graph.getMapId() + ": " + origin.getId() + " -> "
+                        + destination.getId();
+                assertEquals(message, Double.isFinite(expected), actual.isFeasible());
+                if (!actual.isFeasible()) {
+                    continue;
+                }
+                assertCost(message, expected, actual.getCost());
+
+                // The path goes from the origin to the destination using allowed arcs,
+                // and its cost is the cost of the solution.
+                assertPath(message, actual.getPath(), origin, destination,
+                        this.inspector, expected);
+            }
+        }
+    }
+
+}
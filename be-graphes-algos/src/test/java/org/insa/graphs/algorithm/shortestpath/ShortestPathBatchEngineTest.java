@@ -0,0 +1,92 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+public class ShortestPathBatchEngineTest {
+
+    // Graph of the queries, and number of queries per inspector.
+    private static final Graph GRAPH = RandomGraphs.createGraph(25, 20, 7);
+    private static final int NB_QUERIES = 40;
+
+    private static void testEngine(Class<? extends ShortestPathAlgorithm> algorithm) {
+        try (ShortestPathBatchEngine engine =
+                new ShortestPathBatchEngine(GRAPH, algorithm, 4)) {
+            final List<Node[]> pairs = RandomGraphs.createPairs(GRAPH, NB_QUERIES, 7);
+            long nbQueries = 0, nbInfeasible = 0;
+            for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+                final List<ShortestPathData> queries = new ArrayList<>();
+                for (Node[] pair : pairs) {
+                    queries.add(engine.createQuery(pair[0], pair[1], inspector));
+                }
+                final List<ShortestPathSolution> solutions =
+                        engine.runAll(queries.stream());
+                assertEquals(queries.size(), solutions.size());
+
+                for (int q = 0; q < queries.size(); ++q) {
+                    final ShortestPathData query = queries.get(q);
+                    final ShortestPathSolution solution = solutions.get(q);
+                    final Node origin = query.getOrigin(),
+                            destination = query.getDestination();
+                    final String message = algorithm.getSimpleName() + ", " + inspector
+                            + ": " + origin.getId() + " -> " + destination.getId();
+                    assertTrue(message, solution.getInputData() == query);
+
+                    final double cost = origin == destination ? 0
+                            : RandomGraphs.computeCosts(GRAPH, origin,
+                                    inspector)[destination.getId()];
+                    assertEquals(message, Double.isFinite(cost), solution.isFeasible());
+                    if (solution.isFeasible()) {
+                        assertCost(message, cost, solution.getCost());
+                    }
+                    else {
+                        ++nbInfeasible;
+                    }
+                    ++nbQueries;
+                }
+            }
+
+            final ShortestPathBatchEngine.Statistics statistics =
+                    engine.getStatistics();
+            assertEquals(nbQueries, statistics.getNumberOfQueries());
+            assertEquals(nbInfeasible, statistics.getNumberOfInfeasibleQueries());
+            assertTrue(statistics.getMinimumLatency()
+                    .compareTo(statistics.getMaximumLatency()) <= 0);
+
+            engine.resetStatistics();
+            assertEquals(0, engine.getStatistics().getNumberOfQueries());
+        }
+    }
+
+    @Test
+    public void testDijkstra() {
+        testEngine(DijkstraAlgorithm.class);
+    }
+
+    @Test
+    public void testBidirectionalAStar() {
+        testEngine(BidirectionalAStarAlgorithm.class);
+    }
+
+    @Test
+    public void testALT() {
+        testEngine(ALTAlgorithm.class);
+    }
+
+    @Test
+    public void testContractionHierarchy() {
+        testEngine(ContractionHierarchyAlgorithm.class);
+    }
+
+}
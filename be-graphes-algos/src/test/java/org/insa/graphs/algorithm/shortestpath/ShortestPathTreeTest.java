@@ -0,0 +1,162 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.insa.graphs.algorithm.PathAssertions.assertCost;
+import static org.insa.graphs.algorithm.PathAssertions.assertPath;
+import static org.insa.graphs.algorithm.PathAssertions.getTolerance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.junit.Test;
+
+public class ShortestPathTreeTest {
+
+    // Graph of the trees, and origins of the trees.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 4);
+    private static final int[] ORIGINS = { 0, 57, 210, 399 };
+
+    /*
+     * Function to compute the median of the finite costs, used as a bound cutting the
+     * trees in two
+     */
+    private static double getMedianCost(double[] costs) {
+        final double[] finite =
+                Arrays.stream(costs).filter(Double::isFinite).sorted().toArray();
+        return finite[finite.length / 2];
+    }
+
+    @Test
+    public void testFullTree() {
+        final ShortestPathTree tree = new ShortestPathTree(GRAPH);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (int id : ORIGINS) {
+                final Node origin = GRAPH.get(id);
+                final double[] expected =
+                        RandomGraphs.computeCosts(GRAPH, origin, inspector);
+                tree.compute(origin, inspector, Double.POSITIVE_INFINITY);
+                assertFalse(tree.isTruncated());
+                assertEquals(origin, tree.getNode(0));
+
+                for (Node node : GRAPH.getNodes()) {
+                    final double cost = expected[node.getId()];
+                    assertEquals(Double.isFinite(cost), tree.contains(node));
+                    if (!tree.contains(node)) {
+                        assertEquals(null, tree.getPath(node));
+                        continue;
+                    }
+                    final int index = tree.indexOf(node);
+                    assertCost(null, cost, tree.getCost(index));
+                    if (index > 0) {
+                        final Arc arc = tree.getArc(index);
+                        assertEquals(node, arc.getDestination());
+                        assertEquals(tree.getNode(tree.getParent(index)),
+                                arc.getOrigin());
+                    }
+
+                    assertPath(null, tree.getPath(node), origin, node, inspector, cost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBoundedTree() {
+        final ShortestPathTree tree = new ShortestPathTree(GRAPH);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (int id : ORIGINS) {
+                final Node origin = GRAPH.get(id);
+                final double[] expected =
+                        RandomGraphs.computeCosts(GRAPH, origin, inspector);
+                final double maximumCost = getMedianCost(expected);
+                tree.compute(origin, inspector, maximumCost);
+                for (Node node : GRAPH.getNodes()) {
+                    final double cost = expected[node.getId()];
+                    if (Math.abs(cost - maximumCost) > getTolerance(cost)) {
+                        assertEquals(cost < maximumCost, tree.contains(node));
+                    }
+                }
+                assertTrue(tree.isTruncated());
+
+                // A bound on the number of nodes keeps the closest ones.
+                final int size = tree.size() / 2 + 1;
+                tree.compute(origin, inspector, Double.POSITIVE_INFINITY, size);
+                assertEquals(size, tree.size());
+                for (int index = 1; index < size; ++index) {
+                    assertTrue(tree.getCost(index - 1) <= tree.getCost(index));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIsochrone() {
+        final Isochrone isochrone = new Isochrone(GRAPH);
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            for (int id : ORIGINS) {
+                final Node origin = GRAPH.get(id);
+                final double maximumCost = getMedianCost(
+                        RandomGraphs.computeCosts(GRAPH, origin, inspector));
+                isochrone.compute(origin, inspector, maximumCost);
+                final ShortestPathTree tree = isochrone.getTree();
+
+                // Boundary arcs leave the tree, and cannot be traveled within the cost.
+                final Set<Arc> boundary = new HashSet<>();
+                for (int index = 0; index < isochrone
+                        .getNumberOfBoundaryArcs(); ++index) {
+                    final Arc arc = isochrone.getBoundaryArc(index);
+                    assertTrue(boundary.add(arc));
+                    assertTrue(inspector.isAllowed(arc));
+                    assertTrue(tree.contains(arc.getOrigin()));
+                    assertFalse(tree.contains(arc.getDestination()));
+                    assertTrue(tree.getCost(tree.indexOf(arc.getOrigin())) + inspector
+                            .getCost(arc) > maximumCost - getTolerance(maximumCost));
+                    assertOnArc(arc, isochrone.getBoundaryPoint(index));
+                }
+
+                // All the allowed arcs leaving the tree are boundary arcs.
+                for (int index = 0; index < tree.size(); ++index) {
+                    for (Arc arc : tree.getNode(index).getSuccessors()) {
+                        if (inspector.isAllowed(arc)
+                                && !tree.contains(arc.getDestination())) {
+                            assertTrue(boundary.contains(arc));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Function to check that a point is in the bounding box of the points of an arc
+     */
+    private static void assertOnArc(Arc arc, Point point) {
+        final List<Point> points = arc.getPoints();
+        float minLongitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY;
+        float minLatitude = Float.POSITIVE_INFINITY,
+                maxLatitude = Float.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minLongitude = Math.min(minLongitude, p.getLongitude());
+            maxLongitude = Math.max(maxLongitude, p.getLongitude());
+            minLatitude = Math.min(minLatitude, p.getLatitude());
+            maxLatitude = Math.max(maxLatitude, p.getLatitude());
+        }
+        assertTrue(point.getLongitude() >= minLongitude - 1e-5
+                && point.getLongitude() <= maxLongitude + 1e-5);
+        assertTrue(point.getLatitude() >= minLatitude - 1e-5
+                && point.getLatitude() <= maxLatitude + 1e-5);
+    }
+
+}
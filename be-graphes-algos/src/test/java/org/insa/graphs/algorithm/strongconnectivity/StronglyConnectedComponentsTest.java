@@ -0,0 +1,83 @@
+package org.insa.graphs.algorithm.strongconnectivity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.Test;
+
+public class StronglyConnectedComponentsTest {
+
+    // Graph of the components, and nodes whose reachability is checked.
+    private static final Graph GRAPH = RandomGraphs.createGraph(20, 20, 8);
+    private static final int NB_ORIGINS = 40;
+
+    @Test
+    public void testReachability() {
+        final List<Node> origins = new ArrayList<>();
+        for (Node[] pair : RandomGraphs.createPairs(GRAPH, NB_ORIGINS, 8)) {
+            origins.add(pair[1]);
+        }
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            final StronglyConnectedComponents components =
+                    StronglyConnectedComponents.compute(GRAPH, inspector);
+            final double[][] costs = new double[origins.size()][];
+            for (int i = 0; i < origins.size(); ++i) {
+                costs[i] = RandomGraphs.computeCosts(GRAPH, origins.get(i), inspector);
+            }
+
+            for (int i = 0; i < origins.size(); ++i) {
+                final Node origin = origins.get(i);
+                // A node said to be unreachable is not reachable.
+                for (Node node : GRAPH.getNodes()) {
+                    if (components.isUnreachable(origin, node)) {
+                        assertTrue(
+                                inspector + ": " + origin.getId() + " -> "
+                                        + node.getId(),
+                                Double.isInfinite(costs[i][node.getId()]));
+                    }
+                }
+                // Two nodes are in the same component iff each one reaches the other.
+                for (int j = 0; j < origins.size(); ++j) {
+                    final Node other = origins.get(j);
+                    assertEquals(
+                            inspector + ": " + origin.getId() + " <-> " + other.getId(),
+                            Double.isFinite(costs[i][other.getId()])
+                                    && Double.isFinite(costs[j][origin.getId()]),
+                            components.isStronglyConnected(origin, other));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComponentIds() {
+        for (ArcInspector inspector : ArcInspectorFactory.getAllFilters()) {
+            final StronglyConnectedComponents components =
+                    StronglyConnectedComponents.compute(GRAPH, inspector);
+            final int[] ids = components.getComponentIds();
+            assertEquals(GRAPH.size(), ids.length);
+            for (Node node : GRAPH.getNodes()) {
+                assertEquals(ids[node.getId()], components.getComponent(node));
+                assertTrue(ids[node.getId()] >= 0
+                        && ids[node.getId()] < components.getNumberOfComponents());
+            }
+        }
+    }
+
+    @Test
+    public void testGetSameComponents() {
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        assertSame(StronglyConnectedComponents.get(GRAPH, inspector),
+                StronglyConnectedComponents.get(GRAPH, inspector));
+    }
+
+}
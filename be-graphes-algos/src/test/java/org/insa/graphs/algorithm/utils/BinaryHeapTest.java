@@ -2,8 +2,8 @@ package org.insa.graphs.algorithm.utils;
 
 public class BinaryHeapTest extends PriorityQueueTest {
 
-    
-    /** 
+
+    /**
      * @return PriorityQueue<MutableInteger>
      */
     @Override
@@ -0,0 +1,125 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedBinaryHeapTest extends PriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new IndexedBinaryHeap<>();
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(
+            PriorityQueue<MutableInteger> queue) {
+        return new IndexedBinaryHeap<>((IndexedBinaryHeap<MutableInteger>) queue);
+    }
+
+    /**
+     * Element with a fixed index and a mutable key, as the labels of a search.
+     */
+    private static class Item implements Comparable<Item> {
+
+        private final int index;
+        private int key;
+
+        public Item(int index, int key) {
+            this.index = index;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            return Integer.compare(this.key, other.key);
+        }
+
+    }
+
+    private static IndexedBinaryHeap<Item> createIndexedQueue(int capacity) {
+        return new IndexedBinaryHeap<>(capacity, item -> item.index);
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testIndexerDecreaseKeyNotFound() {
+        final IndexedBinaryHeap<Item> heap = createIndexedQueue(10);
+        final Item item = new Item(3, 5);
+        heap.insert(item);
+        heap.deleteMin();
+        item.key = 1;
+        heap.decreaseKey(item);
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testIndexerRemoveOtherReference() {
+        // Elements are identified by reference, even if they have the same index.
+        final IndexedBinaryHeap<Item> heap = createIndexedQueue(10);
+        heap.insert(new Item(3, 5));
+        heap.remove(new Item(3, 5));
+    }
+
+    @Test
+    public void testIndexerOutOfRange() {
+        final IndexedBinaryHeap<Item> heap = createIndexedQueue(10);
+        assertFalse(heap.contains(new Item(10, 0)));
+        assertFalse(heap.contains(new Item(-1, 0)));
+    }
+
+    @Test
+    public void testIndexerRandomOperations() {
+        // Compare against an array of keys (null meaning not in the heap).
+        final int capacity = 200;
+        final Random random = new Random(capacity);
+        final Item[] items = new Item[capacity];
+        final IndexedBinaryHeap<Item> heap = createIndexedQueue(capacity);
+        int size = 0;
+
+        for (int op = 0; op < 20000; ++op) {
+            final int index = random.nextInt(capacity);
+            final int action = random.nextInt(4);
+            if (items[index] == null) {
+                items[index] = new Item(index, random.nextInt(1000));
+                heap.insert(items[index]);
+                size++;
+            }
+            else if (action == 0) {
+                heap.remove(items[index]);
+                assertFalse(heap.contains(items[index]));
+                items[index] = null;
+                size--;
+            }
+            else if (action == 1) {
+                items[index].key -= random.nextInt(100);
+                heap.decreaseKey(items[index]);
+            }
+            else if (action == 2) {
+                int min = Integer.MAX_VALUE;
+                for (Item item : items) {
+                    if (item != null) {
+                        min = Math.min(min, item.key);
+                    }
+                }
+                final Item item = heap.deleteMin();
+                assertEquals(min, item.key);
+                assertTrue(items[item.index] == item);
+                items[item.index] = null;
+                size--;
+            }
+            assertEquals(size, heap.size());
+        }
+
+        // Remaining elements come out in order.
+        int previous = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            final Item item = heap.deleteMin();
+            assertTrue(previous <= item.key);
+            previous = item.key;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class IndexedDaryHeapTest {
+
+    @Parameters
+    public static Collection<Object> data() {
+        return Arrays.asList(2, 4, 8);
+    }
+
+    @Parameter
+    public int arity;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArity() {
+        new IndexedDaryHeap(10, arity + 1);
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmptyDeleteMin() {
+        new IndexedDaryHeap(10, arity).deleteMin();
+    }
+
+    @Test
+    public void testInsertDeleteMin() {
+        final float[] values = { 8, 1, 6, 3, 4, 5, 9, 2, 7, 0, 12, 11, 10 };
+        IndexedDaryHeap heap = new IndexedDaryHeap(values.length, arity);
+        for (int i = 0; i < values.length; ++i) {
+            heap.insert(i, values[i]);
+            assertEquals(i + 1, heap.size());
+        }
+        float[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        for (float value : sorted) {
+            assertEquals(value, heap.findMinKey(), 0);
+            int id = heap.deleteMin();
+            assertEquals(value, values[id], 0);
+            assertFalse(heap.contains(id));
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testDecreaseKeyNotFound() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(10, arity);
+        heap.insert(3, 1);
+        heap.deleteMin();
+        heap.decreaseKey(3, 0);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        // Compare against a plain array of keys (NaN meaning not in the heap).
+        final int capacity = 200;
+        final Random random = new Random(arity);
+        final float[] reference = new float[capacity];
+        Arrays.fill(reference, Float.NaN);
+        IndexedDaryHeap heap = new IndexedDaryHeap(capacity, arity);
+
+        for (int round = 0; round < 3; ++round) {
+            for (int op = 0; op < 5000; ++op) {
+                final int id = random.nextInt(capacity);
+                final int action = random.nextInt(4);
+                if (action == 0 && !Float.isNaN(reference[id])) {
+                    heap.remove(id);
+                    reference[id] = Float.NaN;
+                }
+                else if (action == 1 && !heap.isEmpty()) {
+                    final float min = heap.findMinKey();
+                    final int minId = heap.deleteMin();
+                    assertEquals(reference[minId], min, 0);
+                    for (float value : reference) {
+                        assertFalse(value < min);
+                    }
+                    reference[minId] = Float.NaN;
+                }
+                else {
+                    final float key = random.nextInt(1000);
+                    if (Float.isNaN(reference[id]) || key < reference[id]) {
+                        heap.insertOrDecreaseKey(id, key);
+                        reference[id] = key;
+                    }
+                }
+                assertEquals(!Float.isNaN(reference[id]), heap.contains(id));
+            }
+            int size = 0;
+            for (float value : reference) {
+                size += Float.isNaN(value) ? 0 : 1;
+            }
+            assertEquals(size, heap.size());
+
+            heap.clear();
+            Arrays.fill(reference, Float.NaN);
+            assertTrue(heap.isEmpty());
+            for (int id = 0; id < capacity; ++id) {
+                assertFalse(heap.contains(id));
+            }
+        }
+    }
+
+}
@@ -311,7 +311,8 @@ public abstract class PriorityQueueTest {
         Assume.assumeFalse(queue.isEmpty());
         int min = Collections.min(Arrays.asList(parameters.data)).get();
         for (MutableInteger mi : parameters.data) {
-            // Update value before removing it. This is what happens when updating a Dijkstra label before updating it.
+            // Update value before removing it. This is what happens when updating a
+            // Dijkstra label before updating it.
             mi.set(--min);
             queue.remove(mi);
             assertEquals(parameters.data.length - 1, queue.size());
@@ -321,4 +322,36 @@ public abstract class PriorityQueueTest {
         }
     }
 
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeFalse(queue.isEmpty());
+        int min = Collections.min(Arrays.asList(parameters.data)).get();
+        for (MutableInteger mi : parameters.data) {
+            // Decrease the value in place, as Dijkstra does when it finds a better
+            // label.
+            mi.set(--min);
+            queue.decreaseKey(mi);
+            assertEquals(parameters.data.length, queue.size());
+            assertEquals(min, queue.findMin().get());
+        }
+        int size = parameters.data.length;
+        for (int i = parameters.data.length - 1; i >= 0; --i) {
+            assertEquals(parameters.data[i], queue.deleteMin());
+            assertEquals(--size, queue.size());
+        }
+    }
+
+    @Test
+    public void testDecreaseKeyNotFound() {
+        Assume.assumeFalse(queue.isEmpty());
+        MutableInteger min = queue.deleteMin();
+        try {
+            queue.decreaseKey(min);
+            fail("Expected exception " + ElementNotFoundException.class.getName());
+        }
+        catch (ElementNotFoundException e) {
+            assertEquals(min, e.getElement());
+        }
+    }
+
 }
@@ -0,0 +1,57 @@
+package org.insa.graphs.algorithm.weakconnectivity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class UnionFindWeaklyConnectedComponentsAlgorithmTest {
+
+    // Pool with several threads, so that components are merged concurrently.
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void closeAll() {
+        POOL.shutdown();
+    }
+
+    private static void assertSameComponents(Graph graph) {
+        final WeaklyConnectedComponentsData data =
+                new WeaklyConnectedComponentsData(graph);
+        final WeaklyConnectedComponentsSolution expected =
+                new WeaklyConnectedComponentsAlgorithm(data).run();
+        final WeaklyConnectedComponentsSolution actual =
+                new UnionFindWeaklyConnectedComponentsAlgorithm(data, POOL).run();
+        assertEquals(expected.getNumberOfComponents(), actual.getNumberOfComponents());
+        assertArrayEquals(expected.getComponentIds(), actual.getComponentIds());
+    }
+
+    @Test
+    public void testRandomGraphs() {
+        for (long seed = 10; seed < 15; ++seed) {
+            assertSameComponents(RandomGraphs.createGraph(30, 20, seed));
+        }
+    }
+
+    @Test
+    public void testIsolatedNodes() {
+        // A random graph followed by isolated nodes, each one being a component.
+        final Graph random = RandomGraphs.createGraph(10, 10, 15);
+        final List<Node> nodes = new ArrayList<>(random.getNodes());
+        for (int i = 0; i < 5; ++i) {
+            nodes.add(new Node(nodes.size(), new Point(2, 44 + i * 0.01f)));
+        }
+        assertSameComponents(
+                new Graph("isolated", "isolated", nodes, random.getGraphInformation()));
+    }
+
+}
@@ -6,12 +6,14 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.BufferedInputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -24,6 +26,8 @@ import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -35,6 +39,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
+import javax.swing.JTextField;
 import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
@@ -44,9 +49,13 @@ import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 
 import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
 import org.insa.graphs.algorithm.carpooling.CarPoolingAlgorithm;
 import org.insa.graphs.algorithm.packageswitch.PackageSwitchAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.Isochrone;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
@@ -61,16 +70,20 @@ import org.insa.graphs.gui.drawing.Drawing;
 import org.insa.graphs.gui.drawing.GraphPalette;
 import org.insa.graphs.gui.drawing.components.BasicDrawing;
 import org.insa.graphs.gui.drawing.components.MapViewDrawing;
+import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
 import org.insa.graphs.gui.observers.ShortestPathGraphicObserver;
 import org.insa.graphs.gui.observers.WeaklyConnectedComponentGraphicObserver;
+import org.insa.graphs.gui.utils.ColorUtils;
 import org.insa.graphs.gui.utils.FileUtils;
 import org.insa.graphs.gui.utils.FileUtils.FolderType;
+import org.insa.graphs.gui.utils.IsochroneUtils;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
 import org.insa.graphs.model.io.GraphReader;
 import org.insa.graphs.model.io.MapMismatchException;
+import org.insa.graphs.model.io.MappedFileInput;
 
 public class MainWindow extends JFrame {
 
@@ -113,9 +126,20 @@ public class MainWindow extends JFrame {
     // Path panel
     private final PathsPanel pathPanel;
 
+    // Overlay of the last isochrone (null if none is drawn).
+    private PointSetOverlay isochroneOverlay = null;
+
     // List of items that cannot be used without a graph
     private final ArrayList<JMenuItem> graphLockItems = new ArrayList<JMenuItem>();
 
+    // Map loading options.
+    private final JCheckBoxMenuItem mappedLoadingItem =
+            new JCheckBoxMenuItem("Memory-map map files");
+    private final JCheckBoxMenuItem parallelLoadingItem =
+            new JCheckBoxMenuItem("Decode arcs in parallel");
+    private final JCheckBoxMenuItem packedLoadingItem =
+            new JCheckBoxMenuItem("Pack arc geometry");
+
     // Label containing the map ID of the current graph.
     private JLabel graphInfoPanel;
 
@@ -307,17 +331,35 @@ public class MainWindow extends JFrame {
 
                     // Note: Don't use a try-resources block since loadGraph is
                     // asynchronous.
-                    final DataInputStream stream;
-                    try {
-                        stream = new DataInputStream(new BufferedInputStream(
-                                new FileInputStream(chooser.getSelectedFile())));
+                    DataInput input = null;
+                    if (mappedLoadingItem.isSelected()) {
+                        try {
+                            input = new MappedFileInput(
+                                    chooser.getSelectedFile().toPath());
+                        }
+                        catch (IOException e1) {
+                            // Fall back to a buffered stream.
+                            printStream.println("Cannot map the selected file, "
+                                    + "reading it as a stream: " + e1.getMessage());
+                        }
                     }
-                    catch (IOException e1) {
-                        JOptionPane.showMessageDialog(MainWindow.this,
-                                "Cannot open the selected file.");
-                        return;
+                    if (input == null) {
+                        try {
+                            input = new DataInputStream(new BufferedInputStream(
+                                    new FileInputStream(chooser.getSelectedFile())));
+                        }
+                        catch (IOException e1) {
+                            JOptionPane.showMessageDialog(MainWindow.this,
+                                    "Cannot open the selected file.");
+                            return;
+                        }
+                    }
+                    final BinaryGraphReader reader =
+                            new BinaryGraphReader(input, parallelLoadingItem.isSelected());
+                    if (packedLoadingItem.isSelected()) {
+                        reader.enablePackedGeometry();
                     }
-                    loadGraph(new BinaryGraphReader(stream));
+                    loadGraph(reader);
                 }
             }
         };
@@ -437,6 +479,7 @@ public class MainWindow extends JFrame {
      * Notify all listeners that a new graph has been loaded.
      */
     private void notifyNewGraphLoaded() {
+        this.isochroneOverlay = null;
         for (GraphChangeListener listener : graphChangeListeneres) {
             listener.newGraphLoaded(graph);
         }
@@ -449,6 +492,7 @@ public class MainWindow extends JFrame {
      * @param newDrawing
      */
     private void notifyDrawingLoaded(Drawing oldDrawing, Drawing newDrawing) {
+        this.isochroneOverlay = null;
         for (DrawingChangeListener listener : drawingChangeListeners) {
             listener.onDrawingLoaded(oldDrawing, newDrawing);
         }
@@ -463,6 +507,78 @@ public class MainWindow extends JFrame {
         }
     }
 
+    /**
+     * Ask for an origin, a mode and a maximum cost, and draw the corresponding
+     * isochrone, replacing the previous one.
+     */
+    private void showIsochroneDialog() {
+        JTextField originField = new JTextField(8);
+        JComboBox<ArcInspector> filterSelect = new JComboBox<>(
+                ArcInspectorFactory.getAllFilters().toArray(new ArcInspector[0]));
+        JTextField costField = new JTextField(8);
+
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Origin (node ID): "));
+        panel.add(originField);
+        panel.add(new JLabel("Mode: "));
+        panel.add(filterSelect);
+        panel.add(new JLabel("Maximum cost (seconds or meters): "));
+        panel.add(costField);
+
+        if (JOptionPane.showConfirmDialog(this, panel, "Isochrone",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        int originId = -1;
+        double cost = -1;
+        try {
+            originId = Integer.parseInt(originField.getText().trim());
+            cost = Double.parseDouble(costField.getText().trim());
+        }
+        catch (NumberFormatException exception) {
+            // Reported below.
+        }
+        if (originId < 0 || originId >= graph.size() || !(cost >= 0)) {
+            JOptionPane.showMessageDialog(this,
+                    "The origin must be a node of the graph and the maximum cost must be "
+                            + "a positive number.",
+                    "Invalid isochrone", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        final int origin = originId;
+        final double maximumCost = cost;
+        final ArcInspector inspector = (ArcInspector) filterSelect.getSelectedItem();
+
+        launchThread(new Runnable() {
+            @Override
+            public void run() {
+                final Isochrone isochrone = new Isochrone(graph)
+                        .compute(graph.get(origin), inspector, maximumCost);
+
+                // The overlay is replaced on the event dispatch thread, like the other
+                // changes of the drawing state.
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isochroneOverlay != null) {
+                            isochroneOverlay.delete();
+                        }
+                        isochroneOverlay = IsochroneUtils.draw(drawing, isochrone,
+                                ColorUtils.getColor(2));
+                        printStream.println("Isochrone of node #" + origin + " within "
+                                + maximumCost
+                                + (inspector.getMode() == Mode.TIME ? " s" : " m") + ": "
+                                + isochrone.getTree().size() + " reachable nodes, "
+                                + isochrone.getNumberOfBoundaryArcs()
+                                + " boundary arcs.");
+                    }
+                });
+            }
+        });
+    }
+
     /**
      * Draw the stored graph on the drawing.
      */
@@ -700,11 +816,20 @@ public class MainWindow extends JFrame {
             }
         });
 
+        // Map loading options, applied to the next map opened.
+        JMenu loadingMenu = new JMenu("Map loading");
+        parallelLoadingItem.setToolTipText("Only applies to memory-mapped map files.");
+        loadingMenu.add(mappedLoadingItem);
+        loadingMenu.add(parallelLoadingItem);
+        loadingMenu.add(packedLoadingItem);
+
         // Build the first menu.
         JMenu fileMenu = new JMenu("File");
         fileMenu.add(openMapItem);
         fileMenu.add(openPathItem);
         fileMenu.addSeparator();
+        fileMenu.add(loadingMenu);
+        fileMenu.addSeparator();
         fileMenu.add(closeItem);
 
         // Second menu
@@ -791,11 +916,23 @@ public class MainWindow extends JFrame {
         graphLockItems.add(cpItem);
         graphLockItems.add(psItem);
 
+        // Isochrone
+        JMenuItem isochroneItem = new JMenuItem("Isochrone...");
+        isochroneItem.addActionListener(baf.createBlockingAction(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showIsochroneDialog();
+            }
+        }));
+        graphLockItems.add(isochroneItem);
+
         algoMenu.add(wccItem);
         algoMenu.addSeparator();
         algoMenu.add(spItem);
         algoMenu.add(cpItem);
         algoMenu.add(psItem);
+        algoMenu.addSeparator();
+        algoMenu.add(isochroneItem);
 
         // Create the menu bar.
         JMenuBar menuBar = new JMenuBar();
@@ -37,6 +37,7 @@ import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
+import org.insa.graphs.model.PointCursor;
 import org.insa.graphs.model.GraphStatistics.BoundingBox;
 
 /**
@@ -390,6 +391,9 @@ public class BasicDrawing extends JPanel implements Drawing {
     private Image graphImage = null;
     private Graphics2D graphGraphics = null;
 
+    // Cursor reused to draw the points of the arcs.
+    private final PointCursor arcCursor = new PointCursor();
+
     // List of image for markers
     private BasicOverlays overlays = new BasicOverlays();
 
@@ -581,25 +585,22 @@ public class BasicDrawing extends JPanel implements Drawing {
      *        current settings.
      */
     protected void drawArc(Arc arc, GraphPalette palette, boolean repaint) {
-        List<Point> pts = arc.getPoints();
-        if (!pts.isEmpty()) {
+        final PointCursor cursor = arc.getPoints(this.arcCursor);
+        if (cursor.next()) {
             if (palette != null) {
                 this.graphGraphics.setColor(palette.getColorForArc(arc));
                 this.graphGraphics
                         .setStroke(new BasicStroke(palette.getWidthForArc(arc)));
             }
-            Iterator<Point> it1 = pts.iterator();
-            Point prev = it1.next();
-            while (it1.hasNext()) {
-                Point curr = it1.next();
-
-                int x1 = projection.longitudeToPixelX(prev.getLongitude());
-                int x2 = projection.longitudeToPixelX(curr.getLongitude());
-                int y1 = projection.latitudeToPixelY(prev.getLatitude());
-                int y2 = projection.latitudeToPixelY(curr.getLatitude());
+            int x1 = projection.longitudeToPixelX(cursor.getLongitude());
+            int y1 = projection.latitudeToPixelY(cursor.getLatitude());
+            while (cursor.next()) {
+                int x2 = projection.longitudeToPixelX(cursor.getLongitude());
+                int y2 = projection.latitudeToPixelY(cursor.getLatitude());
 
                 graphGraphics.drawLine(x1, y1, x2, y2);
-                prev = curr;
+                x1 = x2;
+                y1 = y2;
             }
         }
         if (repaint) {
@@ -712,12 +713,13 @@ public class BasicDrawing extends JPanel implements Drawing {
         List<Point> points = new ArrayList<Point>();
         if (!path.isEmpty()) {
             points.add(path.getOrigin().getPoint());
+            final PointCursor cursor = new PointCursor();
             for (Arc arc : path.getArcs()) {
-                Iterator<Point> itPoint = arc.getPoints().iterator();
+                arc.getPoints(cursor);
                 // Discard origin each time
-                itPoint.next();
-                while (itPoint.hasNext()) {
-                    points.add(itPoint.next());
+                cursor.next();
+                while (cursor.next()) {
+                    points.add(new Point(cursor.getLongitude(), cursor.getLatitude()));
                 }
             }
         }
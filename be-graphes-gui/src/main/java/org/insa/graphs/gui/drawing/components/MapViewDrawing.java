@@ -27,6 +27,7 @@ import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
+import org.insa.graphs.model.PointCursor;
 import org.mapsforge.core.graphics.GraphicFactory;
 import org.mapsforge.core.model.BoundingBox;
 import org.mapsforge.core.model.LatLong;
@@ -494,11 +495,15 @@ public class MapViewDrawing extends MapView implements Drawing {
     @Override
     public PathOverlay drawPath(Path path, Color color, boolean markers) {
         PolylineAutoScaling line = new PolylineAutoScaling(1, color);
-        ArrayList<Point> points = new ArrayList<>(path.getArcs().size() * 4);
+        ArrayList<LatLong> latlongs = new ArrayList<>(path.getArcs().size() * 4);
+        final PointCursor cursor = new PointCursor();
         for (Arc arc : path.getArcs()) {
-            points.addAll(arc.getPoints());
+            arc.getPoints(cursor);
+            while (cursor.next()) {
+                latlongs.add(new LatLong(cursor.getLatitude(), cursor.getLongitude()));
+            }
         }
-        line.addAll(points);
+        line.getLatLongs().addAll(latlongs);
         PathOverlay overlay = null;
         if (markers) {
             MarkerAutoScaling origin =
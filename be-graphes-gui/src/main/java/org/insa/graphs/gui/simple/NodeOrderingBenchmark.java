@@ -0,0 +1,119 @@
+package org.insa.graphs.gui.simple;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.MappedFileInput;
+
+/**
+ * <p>
+ * Benchmark of the renumbering of the nodes of a graph (see {@link NodeOrdering}):
+ * the same random Dijkstra queries are run on the graph in file order and renumbered
+ * with each strategy.
+ * </p>
+ * <p>
+ * Cache misses cannot be counted from Java, so the locality of each numbering is
+ * measured by the mean gap between the IDs of the ends of the arcs and by the share
+ * of arcs whose ends are in the same block of 16 nodes (i.e. whose {@code float}
+ * labels are in the same 64-byte cache line), together with the time of the queries.
+ * </p>
+ * <p>
+ * Usage: {@code NodeOrderingBenchmark <map file> [number of queries]}.
+ * </p>
+ */
+public class NodeOrderingBenchmark {
+
+    // Number of nodes whose float labels fit in a cache line.
+    private static final int NODES_PER_LINE = 16;
+
+    /* Function to print the locality of the arcs of a graph and the time of the
+     * queries on it
+     * @param name the name of the numbering
+     * @param graph the graph
+     * @param queries the external IDs of the origin and destination of each query
+     * @param inspector the arc inspector of the queries
+    */
+    private static void run(String name, Graph graph, int[][] queries,
+            ArcInspector inspector) {
+        long nbArcs = 0, gaps = 0, sameLine = 0;
+        for (Node node : graph.getNodes()) {
+            for (Arc arc : node.getSuccessors()) {
+                final int destination = arc.getDestination().getId();
+                nbArcs++;
+                gaps += Math.abs(destination - node.getId());
+                if (destination / NODES_PER_LINE == node.getId() / NODES_PER_LINE) {
+                    sameLine++;
+                }
+            }
+        }
+
+        // First run to warm up the JIT and the workspaces, second run measured.
+        double cost = 0;
+        long elapsed = 0;
+        for (int run = 0; run < 2; ++run) {
+            cost = 0;
+            final long start = System.nanoTime();
+            for (int[] query : queries) {
+                final ShortestPathData data = new ShortestPathData(graph,
+                        graph.getByExternalId(query[0]), graph.getByExternalId(query[1]),
+                        inspector);
+                final double queryCost =
+                        new PrimitiveDijkstraAlgorithm(data).run().getCost();
+                cost += Double.isInfinite(queryCost) ? 0 : queryCost;
+            }
+            elapsed = System.nanoTime() - start;
+        }
+
+        System.out.printf("%-14s mean gap = %10.1f, same line = %5.1f%%, "
+                + "%8.3f ms/query (total cost %.1f)%n", name,
+                (double) gaps / Math.max(1, nbArcs),
+                100.0 * sameLine / Math.max(1, nbArcs), elapsed / 1e6 / queries.length,
+                cost);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: NodeOrderingBenchmark <map file> [queries]");
+            return;
+        }
+        final int nbQueries = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        final Graph graph;
+        try (BinaryGraphReader reader =
+                new BinaryGraphReader(new MappedFileInput(Paths.get(args[0])))) {
+            reader.enablePackedGeometry();
+            graph = reader.read();
+        }
+
+        // Same queries (by external ID) for all the numberings.
+        final Random random = new Random(42);
+        final int[][] queries = new int[nbQueries][];
+        for (int i = 0; i < nbQueries; ++i) {
+            queries[i] = new int[] { random.nextInt(graph.size()),
+                    random.nextInt(graph.size()) };
+        }
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+
+        System.out.printf("%s: %d nodes, %d queries%n", graph.getMapName(), graph.size(),
+                nbQueries);
+        run("file order", graph, queries, inspector);
+        for (NodeOrdering.Strategy strategy : NodeOrdering.Strategy.values()) {
+            final long start = System.nanoTime();
+            final Graph ordered = NodeOrdering.compute(graph, strategy).apply(graph);
+            System.out.printf("%-14s renumbered in %.1f ms%n", strategy,
+                    (System.nanoTime() - start) / 1e6);
+            run(strategy.toString(), ordered, queries, inspector);
+        }
+    }
+
+}
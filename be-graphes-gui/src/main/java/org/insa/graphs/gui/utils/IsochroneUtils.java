@@ -0,0 +1,38 @@
+package org.insa.graphs.gui.utils;
+
+import java.awt.Color;
+
+import org.insa.graphs.algorithm.shortestpath.Isochrone;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathTree;
+import org.insa.graphs.gui.drawing.Drawing;
+import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+
+public class IsochroneUtils {
+
+    // Width of the points of the reachable nodes and of the boundary.
+    private static final int NODE_WIDTH = 2, BOUNDARY_WIDTH = 5;
+
+    /**
+     * Draw the given isochrone as a new point set overlay: reachable nodes as small
+     * points of a lighter color, and boundary points as larger points.
+     *
+     * @param drawing Drawing to draw the isochrone on.
+     * @param isochrone Isochrone to draw.
+     * @param color Color of the boundary points.
+     * @return The new overlay.
+     */
+    public static PointSetOverlay draw(Drawing drawing, Isochrone isochrone, Color color) {
+        final PointSetOverlay overlay = drawing.createPointSetOverlay();
+        final ShortestPathTree tree = isochrone.getTree();
+        overlay.setWidthAndColor(NODE_WIDTH, color.brighter());
+        for (int index = 0; index < tree.size(); ++index) {
+            overlay.addPoint(tree.getNode(index).getPoint());
+        }
+        overlay.setWidthAndColor(BOUNDARY_WIDTH, color);
+        for (int index = 0; index < isochrone.getNumberOfBoundaryArcs(); ++index) {
+            overlay.addPoint(isochrone.getBoundaryPoint(index));
+        }
+        return overlay;
+    }
+
+}
@@ -1,7 +1,9 @@
 package org.insa.graphs.model;
 
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Map;
 
 /**
  * <p>
@@ -12,6 +14,27 @@ import java.util.EnumSet;
  * EnumSet to query restrictions.
  * </p>
  * <p>
+ * Restrictions are stored in a single {@code long}, packed as in binary graph files: 4
+ * bits per slot, the first slot (lowest bits) being {@link AccessMode#FOOT}, followed
+ * by an unused slot, {@link AccessMode#BICYCLE}, {@link AccessMode#SMALL_MOTORCYCLE},
+ * {@link AccessMode#AGRICULTURAL}, {@link AccessMode#MOTORCYCLE},
+ * {@link AccessMode#MOTORCAR}, {@link AccessMode#HEAVY_GOODS}, an unused slot and
+ * {@link AccessMode#PUBLIC_TRANSPORT}. The 4 bits of a mode are the code of its
+ * restriction: 0 for {@link AccessRestriction#FORBIDDEN}, 1 for
+ * {@link AccessRestriction#ALLOWED}, 2 for {@link AccessRestriction#PRIVATE}, 3 for
+ * {@link AccessRestriction#DESTINATION}, 4 for {@link AccessRestriction#DELIVERY}, 5
+ * for {@link AccessRestriction#CUSTOMERS}, 6 for {@link AccessRestriction#FORESTRY},
+ * any other value for {@link AccessRestriction#UNKNOWN}.
+ * </p>
+ * <p>
+ * Queries are bitwise: a set of restrictions is converted to a mask with one bit per
+ * code ({@link #getRestrictionMask(EnumSet)}), and a set of modes to a mask with one
+ * bit per mode ({@link #getModeMask(EnumSet)}). These masks can be computed once and
+ * given to {@link #isAllowedForAny(AccessMode, int)} and
+ * {@link #isAllowedForAll(int, int)}, so that checking an access neither allocates nor
+ * hashes anything.
+ * </p>
+ * <p>
  * To each transport is associated at most one restriction per road (no restriction
  * corresponds to {@link AccessRestriction#UNKNOWN} but a road can have different
  * restrictions for different modes.
@@ -145,26 +168,121 @@ public class AccessRestrictions {
 
     }
 
-    // Map mode -> restriction
-    private final EnumMap<AccessMode, AccessRestriction> restrictions;
+    // Position (in bits) of the code of each mode in the packed value, by ordinal.
+    private static final int[] SHIFTS = { 0, 8, 12, 16, 20, 24, 28, 36 };
+
+    // Restriction of each code, and code of each restriction (by ordinal).
+    private static final AccessRestriction[] RESTRICTIONS = new AccessRestriction[16];
+    private static final int[] CODES = new int[AccessRestriction.values().length];
+
+    static {
+        final AccessRestriction[] coded = { AccessRestriction.FORBIDDEN,
+                AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
+                AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
+                AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
+        Arrays.fill(RESTRICTIONS, AccessRestriction.UNKNOWN);
+        CODES[AccessRestriction.UNKNOWN.ordinal()] = 0xf;
+        for (int code = 0; code < coded.length; ++code) {
+            RESTRICTIONS[code] = coded[code];
+            CODES[coded[code].ordinal()] = code;
+        }
+    }
+
+    /**
+     * Packed value with an unknown restriction for all modes.
+     */
+    public static final long UNKNOWN = -1L;
+
+    // Packed restrictions.
+    private final long packed;
 
     /**
      * Create new AccessRestrictions instances with unknown restrictions.
      */
     public AccessRestrictions() {
-        this.restrictions = new EnumMap<>(AccessMode.class);
-        for (AccessMode mode : AccessMode.values()) {
-            this.restrictions.put(mode, AccessRestriction.UNKNOWN);
-        }
+        this(UNKNOWN);
+    }
+
+    /**
+     * Create a new AccessRestrictions instances with the given packed restrictions.
+     *
+     * @param packed Restrictions, packed as described in {@link AccessRestrictions}.
+     */
+    public AccessRestrictions(long packed) {
+        this.packed = packed;
     }
 
     /**
      * Create a new AccessRestrictions instances with the given restrictions.
      *
-     * @param restrictions Map of restrictions for this instance of AccessRestrictions.
+     * @param restrictions Map of restrictions for this instance of AccessRestrictions
+     *        (modes not in the map have an unknown restriction).
      */
     public AccessRestrictions(EnumMap<AccessMode, AccessRestriction> restrictions) {
-        this.restrictions = restrictions;
+        long packed = UNKNOWN;
+        for (Map.Entry<AccessMode, AccessRestriction> entry : restrictions.entrySet()) {
+            if (entry.getValue() != null) {
+                final int shift = SHIFTS[entry.getKey().ordinal()];
+                packed = (packed & ~(0xfL << shift))
+                        | ((long) CODES[entry.getValue().ordinal()] << shift);
+            }
+        }
+        this.packed = packed;
+    }
+
+    /**
+     * @param restrictions Set of restrictions.
+     * @return Mask of the codes of the given restrictions, to use with
+     *         {@link #isAllowedForAny(AccessMode, int)}.
+     */
+    public static int getRestrictionMask(EnumSet<AccessRestriction> restrictions) {
+        int mask = 0;
+        for (int code = 0; code < RESTRICTIONS.length; ++code) {
+            if (restrictions.contains(RESTRICTIONS[code])) {
+                mask |= 1 << code;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param modes Set of modes.
+     * @return Mask of the given modes, to use with {@link #isAllowedForAll(int, int)}.
+     */
+    public static int getModeMask(EnumSet<AccessMode> modes) {
+        int mask = 0;
+        for (AccessMode mode : AccessMode.values()) {
+            if (modes.contains(mode)) {
+                mask |= 1 << mode.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return Packed restrictions, as described in {@link AccessRestrictions}.
+     */
+    public long getPackedValue() {
+        return this.packed;
+    }
+
+    /**
+     * @return A new map containing the restriction of each mode.
+     */
+    public EnumMap<AccessMode, AccessRestriction> toMap() {
+        final EnumMap<AccessMode, AccessRestriction> map =
+                new EnumMap<>(AccessMode.class);
+        for (AccessMode mode : AccessMode.values()) {
+            map.put(mode, getRestrictionFor(mode));
+        }
+        return map;
+    }
+
+    /**
+     * Retrieve the code of the restriction of the given mode.
+     */
+    private int getCode(int mode) {
+        return (int) (this.packed >>> SHIFTS[mode]) & 0xf;
     }
 
     /**
@@ -174,7 +292,21 @@ public class AccessRestrictions {
      * @return Restriction for the given mode.
      */
     public AccessRestriction getRestrictionFor(AccessMode mode) {
-        return restrictions.getOrDefault(mode, AccessRestriction.UNKNOWN);
+        return RESTRICTIONS[getCode(mode.ordinal())];
+    }
+
+    /**
+     * Check if the restriction associated with the given mode is one of the given
+     * restrictions.
+     *
+     * @param mode Mode for which to check the restrictions.
+     * @param restrictionMask Mask of the queried restrictions for the mode (see
+     *        {@link #getRestrictionMask(EnumSet)}).
+     * @return {@code true} if the restriction of the given mode is one of the given
+     *         restrictions.
+     */
+    public boolean isAllowedForAny(AccessMode mode, int restrictionMask) {
+        return (restrictionMask & (1 << getCode(mode.ordinal()))) != 0;
     }
 
     /**
@@ -200,7 +332,27 @@ public class AccessRestrictions {
      *         given restriction.
      */
     public boolean isAllowedFor(AccessMode mode, AccessRestriction restriction) {
-        return getRestrictionFor(mode).equals(restriction);
+        return getRestrictionFor(mode) == restriction;
+    }
+
+    /**
+     * Check if the restriction associated to each given mode is one of the
+     * restrictions. The restriction may not be the same for all modes.
+     *
+     * @param modeMask Mask of the modes to check (see {@link #getModeMask(EnumSet)}).
+     * @param restrictionMask Mask of the wanted restrictions for the modes (see
+     *        {@link #getRestrictionMask(EnumSet)}).
+     * @return {@code true} if all the given modes are allowed for any of the given
+     *         restrictions.
+     */
+    public boolean isAllowedForAll(int modeMask, int restrictionMask) {
+        for (int modes = modeMask; modes != 0; modes &= modes - 1) {
+            final int code = getCode(Integer.numberOfTrailingZeros(modes));
+            if ((restrictionMask & (1 << code)) == 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -214,6 +366,6 @@ public class AccessRestrictions {
      */
     public boolean areAllAllowedForAny(EnumSet<AccessMode> modes,
             EnumSet<AccessRestriction> restrictions) {
-        return modes.stream().allMatch(mode -> isAllowedForAny(mode, restrictions));
+        return isAllowedForAll(getModeMask(modes), getRestrictionMask(restrictions));
     }
 }
@@ -39,7 +39,9 @@ public abstract class Arc {
      * @return Time (in seconds) required to travel this arc at the given speed (in
      *         kilometers-per-hour).
      */
-    public double getTravelTime(double speed) {//gets the travel time for ONE ARC, not the whole path(for the whole path it'll be implemented in Path.)
+    public double getTravelTime(double speed) {// gets the travel time for ONE ARC, not
+                                               // the whole path(for the whole path
+                                               // it'll be implemented in Path.)
         return getLength() * 3600.0 / (speed * 1000.0);
     }
 
@@ -63,4 +65,16 @@ public abstract class Arc {
      * @return Points representing segments of this arc.
      */
     public abstract List<Point> getPoints();
+
+    /**
+     * Position the given cursor before the first point of this arc, to iterate the
+     * points of this arc without creating any object (unlike {@link #getPoints()} for
+     * arcs whose points are stored as a {@link PackedPolyline}).
+     *
+     * @param cursor Cursor to reuse.
+     * @return The given cursor.
+     */
+    public PointCursor getPoints(PointCursor cursor) {
+        return cursor.reset(getPoints(), false);
+    }
 }
@@ -22,6 +22,13 @@ class ArcBackward extends Arc {
         this.originalArc = originalArc;
     }
 
+    /**
+     * @return Original arc corresponding to this backward arc.
+     */
+    Arc getOriginalArc() {
+        return this.originalArc;
+    }
+
     @Override
     public Node getOrigin() {
         return this.originalArc.getDestination();
@@ -50,4 +57,9 @@ class ArcBackward extends Arc {
         return pts;
     }
 
+    @Override
+    public PointCursor getPoints(PointCursor cursor) {
+        return this.originalArc.getPoints(cursor).reverse();
+    }
+
 }
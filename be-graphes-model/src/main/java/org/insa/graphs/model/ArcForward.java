@@ -18,8 +18,9 @@ class ArcForward extends Arc {
     // Road information.
     private final RoadInformation info;
 
-    // Segments.
+    // Segments, either as a list or as a packed polyline (the other one is null).
     private final List<Point> points;
+    private final PackedPolyline polyline;
 
     /**
      * Create a new ArcForward with the given attributes.
@@ -32,11 +33,28 @@ class ArcForward extends Arc {
      */
     protected ArcForward(Node origin, Node dest, float length,
             RoadInformation roadInformation, List<Point> points) {
+        this(origin, dest, length, roadInformation, points, null);
+    }
+
+    /**
+     * Create a new ArcForward with the given attributes, and points given either as a
+     * list or as a packed polyline.
+     *
+     * @param origin Origin of this arc.
+     * @param dest Destination of this arc.
+     * @param length Length of this arc (in meters).
+     * @param roadInformation Road information for this arc.
+     * @param points Points representing this arc, or null if polyline is not null.
+     * @param polyline Packed points representing this arc, or null.
+     */
+    ArcForward(Node origin, Node dest, float length, RoadInformation roadInformation,
+            List<Point> points, PackedPolyline polyline) {
         this.origin = origin;
         this.destination = dest;
         this.length = length;
         this.info = roadInformation;
         this.points = points;
+        this.polyline = polyline;
     }
 
     @Override
@@ -61,7 +79,33 @@ class ArcForward extends Arc {
 
     @Override
     public List<Point> getPoints() {
+        if (polyline != null) {
+            return polyline.asList();
+        }
         return Collections.unmodifiableList(points);
     }
 
+    /**
+     * @return Packed points of this arc, or null if they are stored as a list.
+     */
+    PackedPolyline getPolyline() {
+        return polyline;
+    }
+
+    /**
+     * @return List of points of this arc as given when creating it (e.g. a
+     *         {@link LazyPointList}), or null if they are stored as a packed polyline.
+     */
+    List<Point> getPointList() {
+        return points;
+    }
+
+    @Override
+    public PointCursor getPoints(PointCursor cursor) {
+        if (polyline != null) {
+            return cursor.reset(polyline, false);
+        }
+        return cursor.reset(points, false);
+    }
+
 }
@@ -0,0 +1,975 @@
+package org.insa.graphs.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * Immutable <b>compressed sparse row</b> (CSR) representation of a graph.
+ * </p>
+ * <p>
+ * Instead of one {@link Node} object per node and one {@link Arc} object per arc, a CSR
+ * graph stores the graph in a few flat arrays: the outgoing arcs of node {@code u} are
+ * the arcs {@code getFirstArc(u) <= arc < getEndArc(u)}, and each arc is described by
+ * its target node, its length and the index of its {@link RoadInformation} descriptor.
+ * Iterating over the successors of a node is thus a sequential scan of these arrays.
+ * </p>
+ * <p>
+ * Arcs are numbered in the same order as the successors of the nodes of the
+ * corresponding {@link Graph}, i.e. arc {@code getFirstArc(u) + i} corresponds to
+ * {@code graph.get(u).getSuccessors().get(i)}. Both arcs of a two-way road are stored
+ * (as in {@link Graph}), and each one knows the index of the other (its twin). The
+ * intermediate points of a road are stored once, on one of its arcs.
+ * </p>
+ * <p>
+ * These arrays are read through a {@link CsrStorage}, which either holds them in memory
+ * or reads them from a file without copying them (see
+ * {@link #fromStorage(String, String, GraphStatistics, CsrStorage)}).
+ * </p>
+ * <p>
+ * {@link #getArc(int)} and {@link #toGraph()} adapt this representation to the existing
+ * {@link Arc}-based code. A CSR graph created from a {@link Graph} (see
+ * {@link #fromGraph(Graph)}) keeps references to the original arcs, while a CSR graph
+ * built directly (e.g. by a graph reader, see {@link Builder}) creates nodes and arcs
+ * only when they are accessed.
+ * </p>
+ */
+public final class CsrGraph {
+
+    /**
+     * <p>
+     * Builder for CSR graphs, which takes roads in the order they appear in a graph
+     * file (as {@link Node#linkNodes(Node, Node, float, RoadInformation, ArrayList)}
+     * would).
+     * </p>
+     * <p>
+     * All nodes must be added before the first road.
+     * </p>
+     */
+    public static final class Builder {
+
+        // Nodes.
+        private int nbNodes;
+        private float[] longitudes, latitudes;
+
+        // Descriptors.
+        private final List<RoadInformation> descriptors = new ArrayList<>();
+
+        // Roads, in insertion order.
+        private int nbRoads;
+        private int[] roadOrigins, roadDestinations, roadDescriptors;
+        private float[] roadLengths;
+
+        // Intermediate points of the roads (from origin to destination).
+        private int[] roadPointOffsets;
+        private int nbPoints;
+        private float[] pointLongitudes, pointLatitudes;
+
+        /**
+         * Create a new builder.
+         *
+         * @param expectedNodes Expected number of nodes.
+         * @param expectedRoads Expected number of roads.
+         */
+        public Builder(int expectedNodes, int expectedRoads) {
+            this.longitudes = new float[Math.max(expectedNodes, 1)];
+            this.latitudes = new float[Math.max(expectedNodes, 1)];
+            this.roadOrigins = new int[Math.max(expectedRoads, 1)];
+            this.roadDestinations = new int[Math.max(expectedRoads, 1)];
+            this.roadDescriptors = new int[Math.max(expectedRoads, 1)];
+            this.roadLengths = new float[Math.max(expectedRoads, 1)];
+            this.roadPointOffsets = new int[Math.max(expectedRoads, 1) + 1];
+            this.pointLongitudes = new float[Math.max(expectedRoads, 1)];
+            this.pointLatitudes = new float[Math.max(expectedRoads, 1)];
+        }
+
+        /**
+         * Add a node. Nodes are numbered in insertion order, starting from 0.
+         *
+         * @param longitude Longitude of the node.
+         * @param latitude Latitude of the node.
+         * @return ID of the new node.
+         */
+        public int addNode(float longitude, float latitude) {
+            if (this.nbNodes == this.longitudes.length) {
+                this.longitudes = Arrays.copyOf(this.longitudes, this.nbNodes * 2);
+                this.latitudes = Arrays.copyOf(this.latitudes, this.nbNodes * 2);
+            }
+            this.longitudes[this.nbNodes] = longitude;
+            this.latitudes[this.nbNodes] = latitude;
+            return this.nbNodes++;
+        }
+
+        /**
+         * Add a descriptor. Descriptors are numbered in insertion order, starting from
+         * 0.
+         *
+         * @param roadInformation Descriptor to add.
+         * @return Index of the new descriptor.
+         */
+        public int addDescriptor(RoadInformation roadInformation) {
+            this.descriptors.add(roadInformation);
+            return this.descriptors.size() - 1;
+        }
+
+        /**
+         * Add a road between two nodes, which results in one arc (one-way road) or two
+         * arcs (two-way road).
+         *
+         * @param origin ID of the origin node.
+         * @param destination ID of the destination node.
+         * @param length Length of the road (in meters).
+         * @param descriptor Index of the descriptor of the road.
+         * @param longitudes Longitudes of the intermediate points of the road, from
+         *        origin to destination.
+         * @param latitudes Latitudes of the intermediate points of the road.
+         * @param nbPoints Number of intermediate points.
+         */
+        public void addRoad(int origin, int destination, float length, int descriptor,
+                float[] longitudes, float[] latitudes, int nbPoints) {
+            if (this.nbRoads == this.roadOrigins.length) {
+                final int capacity = this.nbRoads * 2;
+                this.roadOrigins = Arrays.copyOf(this.roadOrigins, capacity);
+                this.roadDestinations = Arrays.copyOf(this.roadDestinations, capacity);
+                this.roadDescriptors = Arrays.copyOf(this.roadDescriptors, capacity);
+                this.roadLengths = Arrays.copyOf(this.roadLengths, capacity);
+                this.roadPointOffsets =
+                        Arrays.copyOf(this.roadPointOffsets, capacity + 1);
+            }
+            if (this.nbPoints + nbPoints > this.pointLongitudes.length) {
+                final int capacity = Math.max(this.nbPoints + nbPoints,
+                        this.pointLongitudes.length * 2);
+                this.pointLongitudes = Arrays.copyOf(this.pointLongitudes, capacity);
+                this.pointLatitudes = Arrays.copyOf(this.pointLatitudes, capacity);
+            }
+            System.arraycopy(longitudes, 0, this.pointLongitudes, this.nbPoints,
+                    nbPoints);
+            System.arraycopy(latitudes, 0, this.pointLatitudes, this.nbPoints,
+                    nbPoints);
+            this.nbPoints += nbPoints;
+
+            this.roadOrigins[this.nbRoads] = origin;
+            this.roadDestinations[this.nbRoads] = destination;
+            this.roadDescriptors[this.nbRoads] = descriptor;
+            this.roadLengths[this.nbRoads] = length;
+            this.roadPointOffsets[++this.nbRoads] = this.nbPoints;
+        }
+
+        /**
+         * Build the CSR graph.
+         *
+         * @param mapId ID of the map corresponding to the graph.
+         * @param mapName Name of the map corresponding to the graph.
+         * @param graphStatistics Information for the graph.
+         * @return The new CSR graph.
+         */
+        public CsrGraph build(String mapId, String mapName,
+                GraphStatistics graphStatistics) {
+            return build(mapId, mapName, graphStatistics, null);
+        }
+
+        /**
+         * Build the CSR graph of a renumbered graph, see {@link NodeOrdering}.
+         *
+         * @param mapId ID of the map corresponding to the graph.
+         * @param mapName Name of the map corresponding to the graph.
+         * @param graphStatistics Information for the graph.
+         * @param nodeOrdering Ordering of the nodes of the graph, or null if the nodes
+         *        are in file order.
+         * @return The new CSR graph.
+         */
+        CsrGraph build(String mapId, String mapName, GraphStatistics graphStatistics,
+                NodeOrdering nodeOrdering) {
+            final RoadInformation[] infos =
+                    this.descriptors.toArray(new RoadInformation[0]);
+
+            // Count the outgoing arcs of each node.
+            final int[] offsets = new int[this.nbNodes + 1];
+            int nbArcs = 0;
+            for (int road = 0; road < this.nbRoads; ++road) {
+                offsets[this.roadOrigins[road] + 1]++;
+                nbArcs++;
+                if (!infos[this.roadDescriptors[road]].isOneWay()) {
+                    offsets[this.roadDestinations[road] + 1]++;
+                    nbArcs++;
+                }
+            }
+            for (int node = 0; node < this.nbNodes; ++node) {
+                offsets[node + 1] += offsets[node];
+            }
+
+            // Place the arcs, in the order linkNodes would add them to the nodes.
+            final int[] cursors = Arrays.copyOf(offsets, this.nbNodes);
+            final int[] targets = new int[nbArcs];
+            final float[] lengths = new float[nbArcs];
+            final int[] descs = new int[nbArcs];
+            final int[] twins = new int[nbArcs];
+            final int[] roadArcs = new int[this.nbRoads];
+            final int[] pointOffsets = new int[nbArcs + 1];
+            for (int road = 0; road < this.nbRoads; ++road) {
+                final int origin = this.roadOrigins[road];
+                final int destination = this.roadDestinations[road];
+                final int arc = cursors[origin]++;
+                targets[arc] = destination;
+                lengths[arc] = this.roadLengths[road];
+                descs[arc] = this.roadDescriptors[road];
+                twins[arc] = -1;
+                roadArcs[road] = arc;
+                if (!infos[this.roadDescriptors[road]].isOneWay()) {
+                    final int twin = cursors[destination]++;
+                    targets[twin] = origin;
+                    lengths[twin] = this.roadLengths[road];
+                    descs[twin] = this.roadDescriptors[road];
+                    twins[arc] = twin;
+                    twins[twin] = arc;
+                    if (origin >= destination) {
+                        roadArcs[road] = twin;
+                    }
+                }
+                pointOffsets[roadArcs[road] + 1] =
+                        this.roadPointOffsets[road + 1] - this.roadPointOffsets[road];
+            }
+            for (int arc = 0; arc < nbArcs; ++arc) {
+                pointOffsets[arc + 1] += pointOffsets[arc];
+            }
+
+            // Copy the intermediate points, reversed if the arc holding them goes from
+            // destination to origin.
+            final float[] pointLongitudes = new float[this.nbPoints];
+            final float[] pointLatitudes = new float[this.nbPoints];
+            for (int road = 0; road < this.nbRoads; ++road) {
+                final int from = this.roadPointOffsets[road];
+                final int count = this.roadPointOffsets[road + 1] - from;
+                final int to = pointOffsets[roadArcs[road]];
+                final boolean reversed =
+                        this.roadOrigins[road] >= this.roadDestinations[road]
+                                && twins[roadArcs[road]] != -1;
+                for (int i = 0; i < count; ++i) {
+                    final int j = reversed ? to + count - 1 - i : to + i;
+                    pointLongitudes[j] = this.pointLongitudes[from + i];
+                    pointLatitudes[j] = this.pointLatitudes[from + i];
+                }
+            }
+
+            return new CsrGraph(mapId, mapName, graphStatistics,
+                    new ArrayStorage(Arrays.copyOf(this.longitudes, this.nbNodes),
+                            Arrays.copyOf(this.latitudes, this.nbNodes), offsets,
+                            targets, lengths, descs, infos, twins, pointOffsets,
+                            pointLongitudes, pointLatitudes),
+                    null, null, nodeOrdering);
+        }
+    }
+
+    /**
+     * Create a CSR graph corresponding to the given graph. The new CSR graph keeps
+     * references to the nodes and arcs of the given graph, which are returned by
+     * {@link #getArc(int)} and {@link #toGraph()}.
+     *
+     * @param graph Graph to convert.
+     * @return CSR representation of the given graph.
+     */
+    public static CsrGraph fromGraph(Graph graph) {
+        final int nbNodes = graph.size();
+        final int[] offsets = new int[nbNodes + 1];
+        for (Node node : graph.getNodes()) {
+            offsets[node.getId() + 1] = node.getNumberOfSuccessors();
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+        final int nbArcs = offsets[nbNodes];
+
+        final float[] longitudes = new float[nbNodes];
+        final float[] latitudes = new float[nbNodes];
+        final int[] targets = new int[nbArcs];
+        final float[] lengths = new float[nbArcs];
+        final int[] descs = new int[nbArcs];
+        final int[] twins = new int[nbArcs];
+        final int[] pointOffsets = new int[nbArcs + 1];
+        final Arc[] arcs = new Arc[nbArcs];
+
+        // Number the arcs and the descriptors.
+        final Map<Arc, Integer> arcIndices = new IdentityHashMap<>(nbArcs);
+        final Map<RoadInformation, Integer> descIndices = new IdentityHashMap<>();
+        final List<RoadInformation> infos = new ArrayList<>();
+        for (Node node : graph.getNodes()) {
+            // Nodes without position (e.g. in tests) are stored at (NaN, NaN).
+            final Point point = node.getPoint();
+            longitudes[node.getId()] = point == null ? Float.NaN : point.getLongitude();
+            latitudes[node.getId()] = point == null ? Float.NaN : point.getLatitude();
+            int arc = offsets[node.getId()];
+            for (Arc successor : node.getSuccessors()) {
+                arcs[arc] = successor;
+                arcIndices.put(successor, arc);
+                targets[arc] = successor.getDestination().getId();
+                lengths[arc] = successor.getLength();
+                descs[arc] = descIndices.computeIfAbsent(successor.getRoadInformation(),
+                        info -> {
+                            infos.add(info);
+                            return infos.size() - 1;
+                        });
+                twins[arc] = -1;
+                ++arc;
+            }
+        }
+
+        // Find the twins and count the intermediate points of the arcs holding them.
+        int nbPoints = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (arcs[arc] instanceof ArcBackward) {
+                final Integer twin =
+                        arcIndices.get(((ArcBackward) arcs[arc]).getOriginalArc());
+                if (twin != null) {
+                    twins[arc] = twin;
+                    twins[twin] = arc;
+                }
+            }
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (twins[arc] == -1 || arcs[arc] instanceof ArcForward) {
+                nbPoints += Math.max(arcs[arc].getPoints().size() - 2, 0);
+            }
+            pointOffsets[arc + 1] = nbPoints;
+        }
+
+        final float[] pointLongitudes = new float[nbPoints];
+        final float[] pointLatitudes = new float[nbPoints];
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (pointOffsets[arc + 1] > pointOffsets[arc]) {
+                final List<Point> points = arcs[arc].getPoints();
+                for (int i = 1; i < points.size() - 1; ++i) {
+                    pointLongitudes[pointOffsets[arc] + i - 1] =
+                            points.get(i).getLongitude();
+                    pointLatitudes[pointOffsets[arc] + i - 1] =
+                            points.get(i).getLatitude();
+                }
+            }
+        }
+
+        return new CsrGraph(graph.getMapId(), graph.getMapName(),
+                graph.getGraphInformation(),
+                new ArrayStorage(longitudes, latitudes, offsets, targets, lengths,
+                        descs, infos.toArray(new RoadInformation[0]), twins,
+                        pointOffsets, pointLongitudes, pointLatitudes),
+                graph, arcs, graph.getNodeOrdering());
+    }
+
+    /**
+     * Create a CSR graph reading its nodes, arcs and descriptors from the given storage
+     * (e.g. a memory-mapped file, see {@link org.insa.graphs.model.io.MappedGraph}),
+     * without copying them.
+     *
+     * @param mapId ID of the map corresponding to the graph.
+     * @param mapName Name of the map corresponding to the graph.
+     * @param graphStatistics Information for the graph.
+     * @param storage Storage of the graph.
+     * @return The new CSR graph.
+     */
+    public static CsrGraph fromStorage(String mapId, String mapName,
+            GraphStatistics graphStatistics, CsrStorage storage) {
+        return new CsrGraph(mapId, mapName, graphStatistics, storage, null, null, null);
+    }
+
+    /**
+     * Storage of a CSR graph in arrays.
+     */
+    private static final class ArrayStorage implements CsrStorage {
+
+        // Position of the nodes.
+        private final float[] longitudes, latitudes;
+
+        // Outgoing arcs of node u are the arcs offsets[u] <= arc < offsets[u + 1].
+        private final int[] offsets;
+
+        // Target node, length, descriptor index and twin (reverse arc of a two-way
+        // road, or -1) of each arc.
+        private final int[] targets;
+        private final float[] lengths;
+        private final int[] descriptors;
+        private final int[] twins;
+
+        // Descriptors.
+        private final RoadInformation[] roadInformations;
+
+        // Intermediate points of each arc are the points pointOffsets[arc] <= i <
+        // pointOffsets[arc + 1] (empty for arcs whose twin holds the points of the
+        // road,
+        // in the direction of the twin).
+        private final int[] pointOffsets;
+        private final float[] pointLongitudes, pointLatitudes;
+
+        ArrayStorage(float[] longitudes, float[] latitudes, int[] offsets,
+                int[] targets, float[] lengths, int[] descriptors,
+                RoadInformation[] roadInformations, int[] twins, int[] pointOffsets,
+                float[] pointLongitudes, float[] pointLatitudes) {
+            this.longitudes = longitudes;
+            this.latitudes = latitudes;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.lengths = lengths;
+            this.descriptors = descriptors;
+            this.roadInformations = roadInformations;
+            this.twins = twins;
+            this.pointOffsets = pointOffsets;
+            this.pointLongitudes = pointLongitudes;
+            this.pointLatitudes = pointLatitudes;
+        }
+
+        @Override
+        public int size() {
+            return this.longitudes.length;
+        }
+
+        @Override
+        public int getNumberOfArcs() {
+            return this.targets.length;
+        }
+
+        @Override
+        public float getLongitude(int node) {
+            return this.longitudes[node];
+        }
+
+        @Override
+        public float getLatitude(int node) {
+            return this.latitudes[node];
+        }
+
+        @Override
+        public int getFirstArc(int node) {
+            return this.offsets[node];
+        }
+
+        @Override
+        public int getEndArc(int node) {
+            return this.offsets[node + 1];
+        }
+
+        @Override
+        public int getTarget(int arc) {
+            return this.targets[arc];
+        }
+
+        @Override
+        public float getLength(int arc) {
+            return this.lengths[arc];
+        }
+
+        @Override
+        public int getDescriptorIndex(int arc) {
+            return this.descriptors[arc];
+        }
+
+        @Override
+        public int getTwin(int arc) {
+            return this.twins[arc];
+        }
+
+        @Override
+        public int getNumberOfDescriptors() {
+            return this.roadInformations.length;
+        }
+
+        @Override
+        public RoadInformation getDescriptor(int index) {
+            return this.roadInformations[index];
+        }
+
+        /**
+         * @return Index of the arc holding the intermediate points of the given arc
+         *         (the arc itself or its twin).
+         */
+        private int getPointHolder(int arc) {
+            final int twin = this.twins[arc];
+            return twin != -1 && this.pointOffsets[arc + 1] == this.pointOffsets[arc]
+                    ? twin
+                    : arc;
+        }
+
+        @Override
+        public int getNumberOfIntermediatePoints(int arc) {
+            final int holder = getPointHolder(arc);
+            return this.pointOffsets[holder + 1] - this.pointOffsets[holder];
+        }
+
+        @Override
+        public float getIntermediateLongitude(int arc, int index) {
+            return this.pointLongitudes[intermediatePointIndex(arc, index)];
+        }
+
+        @Override
+        public float getIntermediateLatitude(int arc, int index) {
+            return this.pointLatitudes[intermediatePointIndex(arc, index)];
+        }
+
+        /**
+         * @return Index in the point arrays of the given intermediate point of the
+         *         given arc.
+         */
+        private int intermediatePointIndex(int arc, int index) {
+            final int holder = getPointHolder(arc);
+            if (holder == arc) {
+                return this.pointOffsets[arc] + index;
+            }
+            // Points are stored in the direction of the twin.
+            return this.pointOffsets[holder + 1] - 1 - index;
+        }
+
+    }
+
+    // Map identifier and name.
+    private final String mapId, mapName;
+
+    // Graph information of this graph.
+    private final GraphStatistics graphStatistics;
+
+    // Nodes, arcs and descriptors of this graph.
+    private final CsrStorage storage;
+
+    // Object graph corresponding to this graph, created on demand if this graph was
+    // not created from a Graph, and arcs of that graph (null if this graph was not
+    // created from a Graph, arcs being then created on demand).
+    private volatile Graph graph;
+    private final Arc[] arcs;
+
+    // Arcs created on demand if this graph was not created from a Graph, created along
+    // with the object graph (before it is published).
+    private AtomicReferenceArray<Arc> createdArcs;
+
+    // Incoming arcs of node v are the arcs incomingArcs[i] for incomingOffsets[v] <= i
+    // < incomingOffsets[v + 1], created on demand.
+    private volatile int[] incomingOffsets;
+    private volatile int[] incomingArcs;
+
+    // Origin of the arc incomingArcs[i], created along with the index.
+    private volatile int[] incomingOrigins;
+
+    // Ordering of the nodes if this graph was renumbered, null if nodes are in file
+    // order.
+    private final NodeOrdering nodeOrdering;
+
+    private CsrGraph(String mapId, String mapName, GraphStatistics graphStatistics,
+            CsrStorage storage, Graph graph, Arc[] arcs, NodeOrdering nodeOrdering) {
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.graphStatistics = graphStatistics;
+        this.storage = storage;
+        this.graph = graph;
+        this.arcs = arcs;
+        this.nodeOrdering = nodeOrdering;
+    }
+
+    /**
+     * @return ID of the map associated with this graph.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Name of the map associated with this graph.
+     */
+    public String getMapName() {
+        return this.mapName;
+    }
+
+    /**
+     * @return The GraphStatistics instance associated with this graph.
+     */
+    public GraphStatistics getGraphInformation() {
+        return this.graphStatistics;
+    }
+
+    /**
+     * @return Ordering of the nodes of this graph if it was renumbered, or null if its
+     *         nodes are in file order.
+     * @see NodeOrdering#apply(CsrGraph)
+     */
+    public NodeOrdering getNodeOrdering() {
+        return this.nodeOrdering;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return this.storage.size();
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getNumberOfArcs() {
+        return this.storage.getNumberOfArcs();
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index of the first outgoing arc of the node.
+     */
+    public int getFirstArc(int node) {
+        return this.storage.getFirstArc(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index following the last outgoing arc of the node.
+     */
+    public int getEndArc(int node) {
+        return this.storage.getEndArc(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Number of outgoing arcs of the node.
+     */
+    public int getNumberOfSuccessors(int node) {
+        return this.storage.getEndArc(node) - this.storage.getFirstArc(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Longitude of the node.
+     */
+    public float getLongitude(int node) {
+        return this.storage.getLongitude(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Latitude of the node.
+     */
+    public float getLatitude(int node) {
+        return this.storage.getLatitude(node);
+    }
+
+    /**
+     * Find the origin of the given arc, in <i>O(log n)</i>.
+     *
+     * @param arc Index of an arc.
+     * @return ID of the origin node of the arc.
+     */
+    public int getOrigin(int arc) {
+        // Last node whose first arc is not after the given arc.
+        int low = 0, high = size() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (this.storage.getFirstArc(middle) <= arc) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return ID of the target node of the arc.
+     */
+    public int getTarget(int arc) {
+        return this.storage.getTarget(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Length of the arc, in meters.
+     */
+    public float getLength(int arc) {
+        return this.storage.getLength(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the descriptor of the arc.
+     */
+    public int getDescriptorIndex(int arc) {
+        return this.storage.getDescriptorIndex(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Road information of the arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.storage.getDescriptor(this.storage.getDescriptorIndex(arc));
+    }
+
+    /**
+     * @return Number of distinct descriptors in this graph.
+     */
+    public int getNumberOfDescriptors() {
+        return this.storage.getNumberOfDescriptors();
+    }
+
+    /**
+     * @param index Index of a descriptor.
+     * @return Descriptor with the given index.
+     */
+    public RoadInformation getDescriptor(int index) {
+        return this.storage.getDescriptor(index);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the reverse arc of the same two-way road, or -1 if the arc is a
+     *         one-way road.
+     */
+    public int getTwin(int arc) {
+        return this.storage.getTwin(arc);
+    }
+
+    /**
+     * Create the index of the incoming arcs of each node, if it does not exist yet.
+     * Incoming arcs of a node are sorted by increasing arc index.
+     */
+    private void ensureIncomingArcs() {
+        if (this.incomingArcs != null) {
+            return;
+        }
+        synchronized (this) {
+            if (this.incomingArcs != null) {
+                return;
+            }
+            final int[] offsets = new int[size() + 1];
+            for (int arc = 0; arc < getNumberOfArcs(); ++arc) {
+                offsets[getTarget(arc) + 1]++;
+            }
+            for (int node = 0; node < size(); ++node) {
+                offsets[node + 1] += offsets[node];
+            }
+            final int[] next = Arrays.copyOf(offsets, size());
+            final int[] arcs = new int[getNumberOfArcs()];
+            final int[] origins = new int[getNumberOfArcs()];
+            for (int node = 0; node < size(); ++node) {
+                for (int arc = getFirstArc(node); arc < getEndArc(node); ++arc) {
+                    final int i = next[getTarget(arc)]++;
+                    arcs[i] = arc;
+                    origins[i] = node;
+                }
+            }
+            this.incomingOffsets = offsets;
+            this.incomingOrigins = origins;
+            this.incomingArcs = arcs;
+        }
+    }
+
+    /**
+     * <p>
+     * Retrieve the position of the first incoming arc of the given node in the index of
+     * incoming arcs, e.g. to iterate the predecessors of a node:
+     * </p>
+     *
+     * <pre>
+     * for (int i = csr.getFirstIncomingArc(v); i &lt; csr.getEndIncomingArc(v); ++i) {
+     *     final int arc = csr.getIncomingArc(i);
+     *     final int predecessor = csr.getIncomingOrigin(i);
+     * }
+     * </pre>
+     * <p>
+     * The index is created on the first call to one of the methods related to incoming
+     * arcs (in <i>O(V + E)</i>), and shared by all the following ones.
+     * </p>
+     *
+     * @param node ID of a node.
+     * @return Position of the first incoming arc of the node.
+     */
+    public int getFirstIncomingArc(int node) {
+        ensureIncomingArcs();
+        return this.incomingOffsets[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position following the last incoming arc of the node.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getEndIncomingArc(int node) {
+        ensureIncomingArcs();
+        return this.incomingOffsets[node + 1];
+    }
+
+    /**
+     * @param i Position in the index of incoming arcs.
+     * @return Index of the arc at the given position.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingArc(int i) {
+        ensureIncomingArcs();
+        return this.incomingArcs[i];
+    }
+
+    /**
+     * @param i Position in the index of incoming arcs.
+     * @return ID of the origin of the arc at the given position, in <i>O(1)</i>.
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingOrigin(int i) {
+        ensureIncomingArcs();
+        return this.incomingOrigins[i];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return true if a {@link Graph} represents this arc as an {@link ArcForward},
+     *         i.e. if it is a one-way road or the arc of its road from the node with
+     *         the lowest ID.
+     */
+    private boolean isForward(int arc) {
+        final int twin = getTwin(arc);
+        return twin == -1 || getTarget(twin) < getTarget(arc)
+                || (getTarget(twin) == getTarget(arc) && twin < arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Points of the arc, from its origin to its target.
+     */
+    public List<Point> getPoints(int arc) {
+        final int twin = getTwin(arc);
+        final int origin = twin != -1 ? getTarget(twin) : getOrigin(arc);
+        final int target = getTarget(arc);
+        final int nbPoints = this.storage.getNumberOfIntermediatePoints(arc);
+
+        final ArrayList<Point> points = new ArrayList<>(nbPoints + 2);
+        points.add(new Point(getLongitude(origin), getLatitude(origin)));
+        for (int i = 0; i < nbPoints; ++i) {
+            points.add(new Point(this.storage.getIntermediateLongitude(arc, i),
+                    this.storage.getIntermediateLatitude(arc, i)));
+        }
+        points.add(new Point(getLongitude(target), getLatitude(target)));
+        return points;
+    }
+
+    /**
+     * Retrieve the {@link Arc} object corresponding to the given arc index. If this
+     * graph was not created from a {@link Graph}, the arc is created between the nodes
+     * of {@link #toGraph()} on the first call and then reused, so that only the arcs
+     * actually used (e.g. the arcs of a path) are created.
+     *
+     * @param arc Index of an arc.
+     * @return Arc object corresponding to the arc.
+     */
+    public Arc getArc(int arc) {
+        if (this.arcs != null) {
+            return this.arcs[arc];
+        }
+        final Graph graph = toGraph();
+        final Arc created = this.createdArcs.get(arc);
+        if (created != null) {
+            return created;
+        }
+        final int twin = getTwin(arc);
+        final Arc result;
+        if (!isForward(arc)) {
+            result = new ArcBackward(getArc(twin));
+        }
+        else {
+            final int origin = twin != -1 ? getTarget(twin) : getOrigin(arc);
+            result = new ArcForward(graph.get(origin), graph.get(getTarget(arc)),
+                    getLength(arc), getRoadInformation(arc), getPoints(arc));
+        }
+        this.createdArcs.compareAndSet(arc, null, result);
+        return this.createdArcs.get(arc);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Outgoing arcs of the node (unmodifiable list), see {@link #getArc(int)}.
+     */
+    List<Arc> getSuccessors(int node) {
+        final int first = getFirstArc(node);
+        final int size = getEndArc(node) - first;
+        return new AbstractList<Arc>() {
+
+            @Override
+            public Arc get(int index) {
+                Objects.checkIndex(index, size);
+                return getArc(first + index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * <p>
+     * Retrieve the object graph corresponding to this graph, creating it on the first
+     * call if this graph was not created from a {@link Graph}. The successors of each
+     * node of the returned graph are in the same order as the arcs of this graph.
+     * </p>
+     * <p>
+     * The object graph of a graph not created from a {@link Graph} does not copy this
+     * graph: each node and each arc is created on first access (see
+     * {@link #getArc(int)}).
+     * </p>
+     *
+     * @return Object graph corresponding to this graph.
+     */
+    public Graph toGraph() {
+        Graph graph = this.graph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = this.graph;
+                if (graph == null) {
+                    graph = createGraph();
+                    this.graph = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Create the object graph corresponding to this graph, whose nodes and arcs are
+     * created on first access.
+     *
+     * @return The new graph.
+     */
+    private Graph createGraph() {
+        final AtomicReferenceArray<Node> nodes = new AtomicReferenceArray<>(size());
+        this.createdArcs = new AtomicReferenceArray<>(getNumberOfArcs());
+        final List<Node> nodeList = new AbstractList<Node>() {
+
+            @Override
+            public Node get(int index) {
+                final Node node = nodes.get(index);
+                if (node != null) {
+                    return node;
+                }
+                nodes.compareAndSet(index, null,
+                        new Node(index,
+                                new Point(getLongitude(index), getLatitude(index)),
+                                CsrGraph.this));
+                return nodes.get(index);
+            }
+
+            @Override
+            public int size() {
+                return nodes.length();
+            }
+        };
+        final Graph graph = new Graph(this.mapId, this.mapName, nodeList,
+                this.graphStatistics, this.nodeOrdering);
+        graph.setCsrGraph(this);
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[id=%s, name=%s, #nodes=%d, #arcs=%d]",
+                getClass().getCanonicalName(), getMapId(), getMapName(), size(),
+                getNumberOfArcs());
+    }
+
+}
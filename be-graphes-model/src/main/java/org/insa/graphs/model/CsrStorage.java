@@ -0,0 +1,107 @@
+package org.insa.graphs.model;
+
+/**
+ * <p>
+ * Read access to the nodes, arcs and descriptors of a {@link CsrGraph}, wherever they
+ * are stored (e.g. in arrays, or in a memory-mapped file, see
+ * {@link org.insa.graphs.model.io.MappedGraph}).
+ * </p>
+ * <p>
+ * Nodes and arcs are numbered as in {@link CsrGraph}: the outgoing arcs of node
+ * {@code u} are the arcs {@code getFirstArc(u) <= arc < getEndArc(u)}.
+ * </p>
+ */
+public interface CsrStorage {
+
+    /**
+     * @return Number of nodes.
+     */
+    public int size();
+
+    /**
+     * @return Number of arcs.
+     */
+    public int getNumberOfArcs();
+
+    /**
+     * @param node ID of a node.
+     * @return Longitude of the node.
+     */
+    public float getLongitude(int node);
+
+    /**
+     * @param node ID of a node.
+     * @return Latitude of the node.
+     */
+    public float getLatitude(int node);
+
+    /**
+     * @param node ID of a node.
+     * @return Index of the first outgoing arc of the node.
+     */
+    public int getFirstArc(int node);
+
+    /**
+     * @param node ID of a node.
+     * @return Index following the last outgoing arc of the node.
+     */
+    public int getEndArc(int node);
+
+    /**
+     * @param arc Index of an arc.
+     * @return ID of the target node of the arc.
+     */
+    public int getTarget(int arc);
+
+    /**
+     * @param arc Index of an arc.
+     * @return Length of the arc, in meters.
+     */
+    public float getLength(int arc);
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the descriptor of the arc.
+     */
+    public int getDescriptorIndex(int arc);
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the reverse arc of the same two-way road, or -1 if the arc is a
+     *         one-way road.
+     */
+    public int getTwin(int arc);
+
+    /**
+     * @return Number of distinct descriptors.
+     */
+    public int getNumberOfDescriptors();
+
+    /**
+     * @param index Index of a descriptor.
+     * @return Descriptor with the given index.
+     */
+    public RoadInformation getDescriptor(int index);
+
+    /**
+     * @param arc Index of an arc.
+     * @return Number of intermediate points of the arc (excluding its origin and
+     *         target).
+     */
+    public int getNumberOfIntermediatePoints(int arc);
+
+    /**
+     * @param arc Index of an arc.
+     * @param index Index of an intermediate point, from the origin of the arc.
+     * @return Longitude of the intermediate point.
+     */
+    public float getIntermediateLongitude(int arc, int index);
+
+    /**
+     * @param arc Index of an arc.
+     * @param index Index of an intermediate point, from the origin of the arc.
+     * @return Latitude of the intermediate point.
+     */
+    public float getIntermediateLatitude(int arc, int index);
+
+}
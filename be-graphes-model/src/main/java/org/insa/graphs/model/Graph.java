@@ -1,8 +1,10 @@
 package org.insa.graphs.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * <p>
@@ -27,6 +29,12 @@ public final class Graph {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Ordering of the nodes, or null if nodes are numbered as in the file.
+    private final NodeOrdering nodeOrdering;
+
+    // CSR representation of this graph, created on demand.
+    private volatile CsrGraph csrGraph;
+
     /**
      * Create a new graph with the given ID, name, nodes and information.
      *
@@ -37,10 +45,29 @@ public final class Graph {
      */
     public Graph(String mapId, String mapName, List<Node> nodes,
             GraphStatistics graphStatistics) {
+        this(mapId, mapName, nodes, graphStatistics, null);
+    }
+
+    /**
+     * Create a new graph with the given ID, name, nodes and information, whose nodes
+     * are numbered according to the given ordering.
+     *
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param nodes List of nodes for this graph.
+     * @param graphStatistics Information for this graph.
+     * @param nodeOrdering Ordering of the nodes, or null if nodes are numbered as in
+     *        the file of the map.
+     * @see NodeOrdering#apply(Graph)
+     */
+    public Graph(String mapId, String mapName, List<Node> nodes,
+            GraphStatistics graphStatistics, NodeOrdering nodeOrdering) {
         this.mapId = mapId;
         this.mapName = mapName;
-        this.nodes = Collections.unmodifiableList(nodes);// normal node but but unmodifiable
+        this.nodes = Collections.unmodifiableList(nodes);// normal node but but
+                                                         // unmodifiable
         this.graphStatistics = graphStatistics;
+        this.nodeOrdering = nodeOrdering;
     }
 
     /**
@@ -60,6 +87,37 @@ public final class Graph {
         return this.nodes.get(id);
     }
 
+    /**
+     * Fetch the node with the given external ID, i.e. its ID in the file of the map,
+     * which is its ID unless nodes have been renumbered. Complexity: O(1).
+     *
+     * @param externalId External ID of the node to fetch.
+     * @return Node with the given external ID.
+     * @see NodeOrdering
+     */
+    public Node getByExternalId(int externalId) {
+        return this.nodeOrdering == null ? get(externalId)
+                : get(this.nodeOrdering.getInternalId(externalId));
+    }
+
+    /**
+     * @param node Node of this graph.
+     * @return External ID of the node, i.e. its ID in the file of the map.
+     * @see NodeOrdering
+     */
+    public int getExternalId(Node node) {
+        return this.nodeOrdering == null ? node.getId()
+                : this.nodeOrdering.getExternalId(node.getId());
+    }
+
+    /**
+     * @return Ordering of the nodes of this graph, or null if nodes are numbered as in
+     *         the file of the map.
+     */
+    public NodeOrdering getNodeOrdering() {
+        return this.nodeOrdering;
+    }
+
     /**
      * @return Number of nodes in this graph.
      */
@@ -75,6 +133,86 @@ public final class Graph {
         return this.nodes;
     }
 
+    /**
+     * Retrieve the compressed sparse row representation of this graph, creating it on
+     * the first call. Since graphs are immutable, the same instance is returned by all
+     * the subsequent calls.
+     *
+     * @return CSR representation of this graph.
+     * @see CsrGraph#fromGraph(Graph)
+     */
+    public CsrGraph getCsrGraph() {
+        CsrGraph csrGraph = this.csrGraph;
+        if (csrGraph == null) {
+            synchronized (this) {
+                csrGraph = this.csrGraph;
+                if (csrGraph == null) {
+                    csrGraph = CsrGraph.fromGraph(this);
+                    this.csrGraph = csrGraph;
+                }
+            }
+        }
+        return csrGraph;
+    }
+
+    /**
+     * Set the CSR representation of this graph, when this graph has been created from
+     * it.
+     *
+     * @param csrGraph CSR representation of this graph.
+     */
+    void setCsrGraph(CsrGraph csrGraph) {
+        this.csrGraph = csrGraph;
+    }
+
+    /**
+     * <p>
+     * Retrieve the incoming arcs of the given node, i.e. the arcs of this graph whose
+     * destination is the given node, ordered by origin.
+     * </p>
+     * <p>
+     * Unlike {@link #transpose()}, this does not copy the graph: the returned arcs are
+     * the arcs of this graph (with their original direction), retrieved from the index
+     * of incoming arcs of the {@link CsrGraph} of this graph (see
+     * {@link CsrGraph#getFirstIncomingArc(int)}), created on the first call in <i>O(V +
+     * E)</i>. Backward searches should iterate these arcs from their destination to
+     * their origin, or use the index of the {@link CsrGraph} directly.
+     * </p>
+     *
+     * @param node Node of this graph.
+     * @return List of incoming arcs of the node (unmodifiable list).
+     */
+    public List<Arc> getPredecessors(Node node) {
+        final CsrGraph csr = getCsrGraph();
+        final int first = csr.getFirstIncomingArc(node.getId());
+        final int size = csr.getEndIncomingArc(node.getId()) - first;
+        return new AbstractList<Arc>() {
+
+            @Override
+            public Arc get(int index) {
+                Objects.checkIndex(index, size);
+                return csr.getArc(csr.getIncomingArc(first + index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+        };
+    }
+
+    /**
+     * @param node Node of this graph.
+     * @return Number of incoming arcs of the node.
+     * @see #getPredecessors(Node)
+     */
+    public int getNumberOfPredecessors(Node node) {
+        final CsrGraph csr = getCsrGraph();
+        return csr.getEndIncomingArc(node.getId())
+                - csr.getFirstIncomingArc(node.getId());
+    }
+
     /**
      * @return ID of the map associated with this graph.
      */
@@ -90,24 +228,33 @@ public final class Graph {
     }
 
     /**
-     * @return Transpose graph of this graph. (i.e., reverse the direction of all arcs) i.e transposition of the matrix describing the graph
+     * @return Transpose graph of this graph. (i.e., reverse the direction of all arcs)
+     *         i.e transposition of the matrix describing the graph
+     * @see #getPredecessors(Node) to search backward without copying the graph.
      */
     public Graph transpose() {
         final ArrayList<Node> trNodes = new ArrayList<>(nodes.size());
-        for (Node node : nodes) { // Create a list of trNodes which is a copy of nodes 
-            trNodes.add(new Node(node.getId(), node.getPoint()));// Node(int id, Point point) with point being the location of the node 
+        for (Node node : nodes) { // Create a list of trNodes which is a copy of nodes
+            trNodes.add(new Node(node.getId(), node.getPoint()));// Node(int id, Point
+                                                                 // point) with point
+                                                                 // being the location
+                                                                 // of the node
         }
         for (Node node : nodes) { // Iterate over the nodes of the original graph
-            final Node orig = trNodes.get(node.getId()); // Get the actual node from the transposed graph
-            for (Arc arc : node.getSuccessors()) { // Iterate over the successors of the node
-                if (arc.getRoadInformation().isOneWay()) { // if our arc is one way (i.e., not a two way road) 
+            final Node orig = trNodes.get(node.getId()); // Get the actual node from the
+                                                         // transposed graph
+            for (Arc arc : node.getSuccessors()) { // Iterate over the successors of the
+                                                   // node
+                if (arc.getRoadInformation().isOneWay()) { // if our arc is one way
+                                                           // (i.e., not a two way road)
                     final Node dest = trNodes.get(arc.getDestination().getId());
-                    // Create a new ArcBackward with the original node as the origin and the destination as the destination
+                    // Create a new ArcBackward with the original node as the origin and
+                    // the destination as the destination
                     dest.addSuccessor(
                             new ArcBackward(new ArcForward(orig, dest, arc.getLength(),
                                     arc.getRoadInformation(), arc.getPoints())));
-                } 
-                else if (arc instanceof ArcForward) { // if our arc is not one way 
+                }
+                else if (arc instanceof ArcForward) { // if our arc is not one way
                     final Node dest = trNodes.get(arc.getDestination().getId());
                     Arc newArc = new ArcForward(orig, dest, arc.getLength(),
                             arc.getRoadInformation(), arc.getPoints());
@@ -116,7 +263,7 @@ public final class Graph {
                 }
             }
         }
-        return new Graph("R/" + mapId, mapName, trNodes, graphStatistics);
+        return new Graph("R/" + mapId, mapName, trNodes, graphStatistics, nodeOrdering);
     }
 
     @Override
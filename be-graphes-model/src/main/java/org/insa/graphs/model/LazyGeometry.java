@@ -0,0 +1,91 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Source of arc geometries that are decoded on demand instead of being kept in memory.
+ * </p>
+ * <p>
+ * The points of an arc are identified by the position of their encoded form in the
+ * source (e.g. an offset in a graph file) and are wrapped in a {@link LazyPointList},
+ * which only decodes them when they are accessed. Decoded geometries are kept in a
+ * bounded least-recently-used cache shared by all the arcs of the source.
+ * </p>
+ */
+public abstract class LazyGeometry {
+
+    // Decoded geometries, indexed by position and in access order.
+    private final LinkedHashMap<Long, List<Point>> cache;
+
+    /**
+     * Create a new lazy geometry source.
+     *
+     * @param cacheSize Maximum number of decoded geometries to keep in memory.
+     */
+    protected LazyGeometry(final int cacheSize) {
+        this.cache = new LinkedHashMap<Long, List<Point>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Point>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Decode the intermediate points of an arc.
+     *
+     * @param position Position of the encoded points in the source.
+     * @param nbPoints Number of intermediate points.
+     * @param origin First point of the arc, from which the encoded points may be
+     *        relative.
+     * @param points List to which the decoded points must be added.
+     */
+    protected abstract void decode(long position, int nbPoints, Point origin,
+            List<Point> points);
+
+    /**
+     * Retrieve the points of an arc, decoding them if they are not in the cache.
+     *
+     * @param position Position of the encoded intermediate points in the source.
+     * @param nbPoints Number of intermediate points.
+     * @param origin First point of the arc.
+     * @param destination Last point of the arc.
+     * @return Points of the arc, from origin to destination (unmodifiable).
+     */
+    synchronized List<Point> getPoints(long position, int nbPoints, Point origin,
+            Point destination) {
+        List<Point> points = this.cache.get(position);
+        if (points == null) {
+            final ArrayList<Point> decoded = new ArrayList<>(nbPoints + 2);
+            decoded.add(origin);
+            decode(position, nbPoints, origin, decoded);
+            decoded.add(destination);
+            points = decoded;
+            this.cache.put(position, points);
+        }
+        return points;
+    }
+
+    /**
+     * Create a lazy list of points for the arc whose intermediate points are encoded at
+     * the given position.
+     *
+     * @param position Position of the encoded intermediate points in the source.
+     * @param nbPoints Number of intermediate points.
+     * @param origin First point of the arc.
+     * @param destination Last point of the arc.
+     * @return Lazy list of points of the arc, from origin to destination.
+     */
+    public LazyPointList createPointList(long position, int nbPoints, Point origin,
+            Point destination) {
+        return new LazyPointList(this, position, nbPoints, origin, destination, false);
+    }
+
+}
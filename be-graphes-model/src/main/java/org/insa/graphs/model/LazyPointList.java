@@ -0,0 +1,68 @@
+package org.insa.graphs.model;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Unmodifiable list of the points of an arc whose intermediate points are only decoded,
+ * by a {@link LazyGeometry}, when they are accessed. Its size is known without decoding
+ * anything.
+ */
+public final class LazyPointList extends AbstractList<Point> {
+
+    // Source of the points.
+    private final LazyGeometry geometry;
+
+    // Position and number of the encoded intermediate points.
+    private final long position;
+    private final int nbPoints;
+
+    // First and last points, in encoding order.
+    private final Point origin, destination;
+
+    // true if this list is in the reverse order of the encoding.
+    private final boolean reversed;
+
+    LazyPointList(LazyGeometry geometry, long position, int nbPoints, Point origin,
+            Point destination, boolean reversed) {
+        this.geometry = geometry;
+        this.position = position;
+        this.nbPoints = nbPoints;
+        this.origin = origin;
+        this.destination = destination;
+        this.reversed = reversed;
+    }
+
+    /**
+     * @return A lazy list containing the points of this list in reverse order.
+     */
+    public LazyPointList reverse() {
+        return new LazyPointList(this.geometry, this.position, this.nbPoints,
+                this.origin, this.destination, !this.reversed);
+    }
+
+    @Override
+    public int size() {
+        return this.nbPoints + 2;
+    }
+
+    @Override
+    public Point get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        final int encodedIndex = this.reversed ? size() - 1 - index : index;
+
+        // The end points do not need any decoding.
+        if (encodedIndex == 0) {
+            return this.origin;
+        }
+        if (encodedIndex == size() - 1) {
+            return this.destination;
+        }
+        final List<Point> points = this.geometry.getPoints(this.position, this.nbPoints,
+                this.origin, this.destination);
+        return points.get(encodedIndex);
+    }
+
+}
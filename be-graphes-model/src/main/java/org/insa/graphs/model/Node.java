@@ -37,22 +37,78 @@ public final class Node {
      */
     public static Arc linkNodes(Node origin, Node destination, float length,
             RoadInformation roadInformation, ArrayList<Point> points) {
+        return linkNodes(origin, destination, length, roadInformation,
+                (List<Point>) points);
+    }
+
+    /**
+     * Link the two given nodes with one or two arcs, as
+     * {@link #linkNodes(Node, Node, float, RoadInformation, ArrayList)}, using any list
+     * of points. When the points must be reversed, a {@link LazyPointList} is replaced
+     * by a reversed view (so that its points are not decoded), and any other list is
+     * reversed in place.
+     *
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param points Points for the arc.
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, List<Point> points) {
+        return linkNodes(origin, destination, length, roadInformation, points, null);
+    }
+
+    /**
+     * Link the two given nodes with one or two arcs, as
+     * {@link #linkNodes(Node, Node, float, RoadInformation, ArrayList)}, with points
+     * stored as a packed polyline.
+     *
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param polyline Points for the arc.
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodesPacked(Node origin, Node destination, float length,
+            RoadInformation roadInformation, PackedPolyline polyline) {
+        return linkNodes(origin, destination, length, roadInformation, null, polyline);
+    }
+
+    /**
+     * Link the two given nodes, with points given either as a list or as a packed
+     * polyline (the other one being null).
+     */
+    private static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, List<Point> points,
+            PackedPolyline polyline) {
         Arc arc = null;
         if (roadInformation.isOneWay()) {
-            arc = new ArcForward(origin, destination, length, roadInformation, points);
+            arc = new ArcForward(origin, destination, length, roadInformation, points,
+                    polyline);
             origin.addSuccessor(arc);
         }
         else {
             Arc d2o; // Destination to Origin
-            if (origin.getId() < destination.getId()) { 
+            if (origin.getId() < destination.getId()) {
                 arc = new ArcForward(origin, destination, length, roadInformation,
-                        points);
+                        points, polyline);
                 d2o = new ArcBackward(arc);
             }
             else {
-                Collections.reverse(points);
+                if (polyline != null) {
+                    polyline = polyline.reverse();
+                }
+                else if (points instanceof LazyPointList) {
+                    points = ((LazyPointList) points).reverse();
+                }
+                else {
+                    Collections.reverse(points);
+                }
                 d2o = new ArcForward(destination, origin, length, roadInformation,
-                        points);
+                        points, polyline);
                 arc = new ArcBackward(d2o);
             }
             origin.addSuccessor(arc);
@@ -67,9 +123,12 @@ public final class Node {
     // Point of this graph.
     private final Point point;
 
-    // Successors.
+    // Successors, or null if the successors are read from a CSR graph.
     private final ArrayList<Arc> successors;
 
+    // CSR graph holding the successors of this node, or null.
+    private final CsrGraph csrGraph;
+
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
      * empty list of successors.
@@ -81,6 +140,23 @@ public final class Node {
         this.id = id;
         this.point = point;
         this.successors = new ArrayList<Arc>();
+        this.csrGraph = null;
+    }
+
+    /**
+     * Create a new Node with the given ID corresponding to the given Point, whose
+     * successors are the outgoing arcs of the node with the same ID in the given CSR
+     * graph (see {@link CsrGraph#toGraph()}).
+     *
+     * @param id ID of the node.
+     * @param point Position of the node.
+     * @param csrGraph CSR graph holding the successors of the node.
+     */
+    Node(int id, Point point, CsrGraph csrGraph) {
+        this.id = id;
+        this.point = point;
+        this.successors = null;
+        this.csrGraph = csrGraph;
     }
 
     /**
@@ -103,6 +179,9 @@ public final class Node {
      * @return Number of successors of this node.
      */
     public int getNumberOfSuccessors() {
+        if (this.csrGraph != null) {
+            return this.csrGraph.getNumberOfSuccessors(this.id);
+        }
         return this.successors.size();
     }
 
@@ -110,7 +189,7 @@ public final class Node {
      * @return true if this node has at least one successor.
      */
     public boolean hasSuccessors() {
-        return !this.successors.isEmpty();
+        return getNumberOfSuccessors() > 0;
     }
 
     /**
@@ -118,6 +197,9 @@ public final class Node {
      * @see Collections#unmodifiableList(List)
      */
     public List<Arc> getSuccessors() {
+        if (this.csrGraph != null) {
+            return this.csrGraph.getSuccessors(this.id);
+        }
         return Collections.unmodifiableList(this.successors);
     }
 
@@ -0,0 +1,361 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Renumbering of the nodes of a graph, used to store nodes that are close to each other
+ * (in space or in the graph) close to each other in memory, i.e. in the arrays indexed
+ * by node ID of the graph and of the algorithms.
+ * </p>
+ * <p>
+ * The ID of a node in the file the graph was read from is its <i>external ID</i>, and
+ * its ID in the renumbered graph is its <i>internal ID</i>. A renumbered graph (see
+ * {@link #apply(Graph)} and {@link #apply(CsrGraph)}) keeps its ordering, so that nodes
+ * can still be identified by their external IDs (e.g. in path files, see
+ * {@link Graph#getExternalId(Node)} and {@link Graph#getByExternalId(int)}).
+ * </p>
+ */
+public final class NodeOrdering {
+
+    /**
+     * Enum specifying how nodes are ordered.
+     */
+    public enum Strategy {
+
+        /**
+         * Order of the nodes along a Hilbert curve covering the bounding box of the
+         * nodes, so that nodes close in space are close in memory.
+         */
+        HILBERT,
+
+        /**
+         * Order in which a breadth-first search (ignoring the direction of the arcs)
+         * reaches the nodes, so that neighbors are close in memory.
+         */
+        BREADTH_FIRST
+    }
+
+    // Number of bits of each coordinate on the Hilbert curve.
+    private static final int HILBERT_BITS = 16;
+
+    // Internal ID of each node indexed by external ID, and conversely.
+    private final int[] internalIds;
+    private final int[] externalIds;
+
+    private NodeOrdering(int[] externalIds) {
+        this.externalIds = externalIds;
+        this.internalIds = new int[externalIds.length];
+        for (int id = 0; id < externalIds.length; ++id) {
+            this.internalIds[externalIds[id]] = id;
+        }
+    }
+
+    /**
+     * Compute an ordering of the nodes of the given graph.
+     *
+     * @param graph Graph whose nodes should be ordered.
+     * @param strategy How nodes should be ordered.
+     * @return Ordering of the nodes of the graph.
+     */
+    public static NodeOrdering compute(Graph graph, Strategy strategy) {
+        switch (strategy) {
+            case HILBERT:
+                final float[] longitudes = new float[graph.size()];
+                final float[] latitudes = new float[graph.size()];
+                for (Node node : graph.getNodes()) {
+                    longitudes[node.getId()] = node.getPoint().getLongitude();
+                    latitudes[node.getId()] = node.getPoint().getLatitude();
+                }
+                return new NodeOrdering(hilbertOrder(longitudes, latitudes));
+            case BREADTH_FIRST:
+                return new NodeOrdering(breadthFirstOrder(graph.getCsrGraph()));
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + strategy);
+    }
+
+    /**
+     * Compute an ordering of the nodes of the given CSR graph, without creating its
+     * object graph. The ordering is the same as for the corresponding {@link Graph}.
+     *
+     * @param csr Graph whose nodes should be ordered.
+     * @param strategy How nodes should be ordered.
+     * @return Ordering of the nodes of the graph.
+     */
+    public static NodeOrdering compute(CsrGraph csr, Strategy strategy) {
+        switch (strategy) {
+            case HILBERT:
+                final float[] longitudes = new float[csr.size()];
+                final float[] latitudes = new float[csr.size()];
+                for (int node = 0; node < csr.size(); ++node) {
+                    longitudes[node] = csr.getLongitude(node);
+                    latitudes[node] = csr.getLatitude(node);
+                }
+                return new NodeOrdering(hilbertOrder(longitudes, latitudes));
+            case BREADTH_FIRST:
+                return new NodeOrdering(breadthFirstOrder(csr));
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + strategy);
+    }
+
+    /*
+     * Function to order the nodes of a graph along a Hilbert curve
+     *
+     * @param longitudes the longitude of each node
+     *
+     * @param latitudes the latitude of each node
+     *
+     * @return the IDs of the nodes in order
+     */
+    private static int[] hilbertOrder(float[] longitudes, float[] latitudes) {
+        final int nbNodes = longitudes.length;
+        float minLongitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY;
+        float minLatitude = Float.POSITIVE_INFINITY,
+                maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int id = 0; id < nbNodes; ++id) {
+            minLongitude = Math.min(minLongitude, longitudes[id]);
+            maxLongitude = Math.max(maxLongitude, longitudes[id]);
+            minLatitude = Math.min(minLatitude, latitudes[id]);
+            maxLatitude = Math.max(maxLatitude, latitudes[id]);
+        }
+        final int side = 1 << HILBERT_BITS;
+        final double scaleX = (side - 1) / Math.max(maxLongitude - minLongitude, 1e-9);
+        final double scaleY = (side - 1) / Math.max(maxLatitude - minLatitude, 1e-9);
+
+        // Index on the curve (2 * HILBERT_BITS bits) followed by the ID of the node (31
+        // bits), so that sorting the keys sorts the nodes by index, then by ID.
+        final long[] keys = new long[nbNodes];
+        for (int id = 0; id < nbNodes; ++id) {
+            final int x = (int) ((longitudes[id] - minLongitude) * scaleX);
+            final int y = (int) ((latitudes[id] - minLatitude) * scaleY);
+            keys[id] = (hilbertIndex(side, x, y) << 31) | id;
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[nbNodes];
+        for (int i = 0; i < nbNodes; ++i) {
+            order[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    /*
+     * Function to compute the index of a cell on a Hilbert curve
+     *
+     * @param side the side of the grid covered by the curve (a power of 2)
+     *
+     * @param x the column of the cell
+     *
+     * @param y the row of the cell
+     *
+     * @return the index of the cell along the curve
+     */
+    private static long hilbertIndex(int side, int x, int y) {
+        long index = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            final int rx = (x & s) > 0 ? 1 : 0;
+            final int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so that the curve is continuous.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                final int tmp = x;
+                x = y;
+                y = tmp;
+            }
+        }
+        return index;
+    }
+
+    /*
+     * Function to order the nodes of a graph by breadth-first searches ignoring the
+     * direction of the arcs, started from the unreached node with the smallest ID
+     *
+     * @param csr the graph
+     *
+     * @return the IDs of the nodes in order
+     */
+    private static int[] breadthFirstOrder(CsrGraph csr) {
+        final int nbNodes = csr.size();
+        final int[] order = new int[nbNodes];
+        final boolean[] reached = new boolean[nbNodes];
+        int head = 0, tail = 0;
+        for (int root = 0; root < nbNodes; ++root) {
+            if (reached[root]) {
+                continue;
+            }
+            reached[root] = true;
+            order[tail++] = root;
+            while (head < tail) {
+                final int node = order[head++];
+                for (int e = csr.getFirstArc(node),
+                        end = csr.getEndArc(node); e < end; ++e) {
+                    final int next = csr.getTarget(e);
+                    if (!reached[next]) {
+                        reached[next] = true;
+                        order[tail++] = next;
+                    }
+                }
+                for (int i = csr.getFirstIncomingArc(node),
+                        end = csr.getEndIncomingArc(node); i < end; ++i) {
+                    final int next = csr.getIncomingOrigin(i);
+                    if (!reached[next]) {
+                        reached[next] = true;
+                        order[tail++] = next;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return Number of nodes.
+     */
+    public int size() {
+        return this.externalIds.length;
+    }
+
+    /**
+     * @param externalId External ID of a node.
+     * @return Internal ID of the node.
+     */
+    public int getInternalId(int externalId) {
+        return this.internalIds[externalId];
+    }
+
+    /**
+     * @param internalId Internal ID of a node.
+     * @return External ID of the node.
+     */
+    public int getExternalId(int internalId) {
+        return this.externalIds[internalId];
+    }
+
+    /**
+     * <p>
+     * Create a copy of the given graph whose nodes are numbered according to this
+     * ordering, i.e. node {@code i} of the new graph is the node
+     * {@code getExternalId(i)} of the given graph.
+     * </p>
+     * <p>
+     * The new graph has the same map ID, nodes positions, arcs (lengths, road
+     * information and points, which are shared and not copied when they are lazy or
+     * packed) and statistics as the given graph, but the successors of a node may not
+     * be in the same order.
+     * </p>
+     *
+     * @param graph Graph as read from a file (i.e. not renumbered nor transposed).
+     * @return Renumbered graph.
+     * @throws IllegalArgumentException if the graph does not have the same number of
+     *         nodes as this ordering, or has already been renumbered.
+     */
+    public Graph apply(Graph graph) {
+        if (graph.size() != size() || graph.getNodeOrdering() != null) {
+            throw new IllegalArgumentException(
+                    "Graph is not in file order or does not match the ordering.");
+        }
+        final ArrayList<Node> nodes = new ArrayList<>(size());
+        for (int id = 0; id < size(); ++id) {
+            nodes.add(new Node(id, graph.get(this.externalIds[id]).getPoint()));
+        }
+
+        // Each road is created again from its forward arc (the one holding its data).
+        for (int id = 0; id < size(); ++id) {
+            final Node origin = nodes.get(id);
+            for (Arc arc : graph.get(this.externalIds[id]).getSuccessors()) {
+                if (!(arc instanceof ArcForward)) {
+                    continue;
+                }
+                final ArcForward forward = (ArcForward) arc;
+                final Node destination =
+                        nodes.get(this.internalIds[arc.getDestination().getId()]);
+                if (forward.getPolyline() != null) {
+                    Node.linkNodesPacked(origin, destination, arc.getLength(),
+                            arc.getRoadInformation(), forward.getPolyline());
+                }
+                else {
+                    // Lazy lists are reversed as views, other lists may be reversed in
+                    // place and must not be shared with the original graph.
+                    List<Point> points = forward.getPointList();
+                    if (!(points instanceof LazyPointList)) {
+                        points = new ArrayList<>(points);
+                    }
+                    Node.linkNodes(origin, destination, arc.getLength(),
+                            arc.getRoadInformation(), points);
+                }
+            }
+        }
+        return new Graph(graph.getMapId(), graph.getMapName(), nodes,
+                graph.getGraphInformation(), this);
+    }
+
+    /**
+     * <p>
+     * Create a copy of the given CSR graph whose nodes are numbered according to this
+     * ordering, i.e. node {@code i} of the new graph is the node
+     * {@code getExternalId(i)} of the given graph, without creating any {@link Node} or
+     * {@link Arc} object.
+     * </p>
+     * <p>
+     * The new graph has the same map ID, nodes positions, roads and statistics as the
+     * given graph, but the arcs of a node may not be in the same order. Its object
+     * graph (see {@link CsrGraph#toGraph()}) keeps this ordering.
+     * </p>
+     *
+     * @param csr CSR graph as read from a file (i.e. not renumbered).
+     * @return Renumbered CSR graph.
+     * @throws IllegalArgumentException if the graph does not have the same number of
+     *         nodes as this ordering, or has already been renumbered.
+     */
+    public CsrGraph apply(CsrGraph csr) {
+        if (csr.size() != size() || csr.getNodeOrdering() != null) {
+            throw new IllegalArgumentException(
+                    "Graph is not in file order or does not match the ordering.");
+        }
+        final CsrGraph.Builder builder =
+                new CsrGraph.Builder(size(), csr.getNumberOfArcs());
+        for (int id = 0; id < size(); ++id) {
+            builder.addNode(csr.getLongitude(this.externalIds[id]),
+                    csr.getLatitude(this.externalIds[id]));
+        }
+        for (int d = 0; d < csr.getNumberOfDescriptors(); ++d) {
+            builder.addDescriptor(csr.getDescriptor(d));
+        }
+
+        // Each road is added once, from the first of its arcs.
+        float[] longitudes = new float[16], latitudes = new float[16];
+        for (int id = 0; id < size(); ++id) {
+            final int node = this.externalIds[id];
+            for (int e = csr.getFirstArc(node),
+                    end = csr.getEndArc(node); e < end; ++e) {
+                final int twin = csr.getTwin(e);
+                if (twin != -1 && twin < e) {
+                    continue;
+                }
+                final List<Point> points = csr.getPoints(e);
+                final int nbPoints = points.size() - 2;
+                if (nbPoints > longitudes.length) {
+                    longitudes = new float[nbPoints];
+                    latitudes = new float[nbPoints];
+                }
+                for (int i = 0; i < nbPoints; ++i) {
+                    longitudes[i] = points.get(i + 1).getLongitude();
+                    latitudes[i] = points.get(i + 1).getLatitude();
+                }
+                builder.addRoad(id, this.internalIds[csr.getTarget(e)],
+                        csr.getLength(e), csr.getDescriptorIndex(e), longitudes,
+                        latitudes, nbPoints);
+            }
+        }
+        return builder.build(csr.getMapId(), csr.getMapName(),
+                csr.getGraphInformation(), this);
+    }
+
+}
@@ -0,0 +1,244 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Compact and immutable representation of the points of an arc, stored in a single
+ * array of integers instead of a list of {@link Point} objects.
+ * </p>
+ * <p>
+ * The first point is stored as two raw floats, and each following point as the
+ * difference with the previous one, using the same encoding as graph files: two 16-bits
+ * deltas (in units of 1/200000 degree) packed in one integer. Points that cannot be
+ * reached exactly from the previous one with such deltas (e.g. far away points or the
+ * destination node of an arc) are stored as an escape value followed by two raw floats,
+ * so that the decoded points are always identical to the encoded ones.
+ * </p>
+ * <p>
+ * Points are read through a {@link PointCursor}, which does not allocate anything, or
+ * through a list created by {@link #asList()}.
+ * </p>
+ */
+public final class PackedPolyline {
+
+    // Value marking a point stored as two raw floats (both deltas are
+    // Short.MIN_VALUE, which is never used as a delta).
+    static final int ESCAPE = 0x80008000;
+
+    // Scale of the deltas (same as in graph files).
+    private static final float DELTA_SCALE = 2.0e5f;
+
+    // Empty polyline.
+    private static final PackedPolyline EMPTY = new PackedPolyline(new int[0], 0);
+
+    // Encoded points.
+    private final int[] data;
+
+    // Number of points.
+    private final int size;
+
+    /**
+     * Builder of packed polylines, which encodes the points one by one starting from
+     * the first one.
+     */
+    public static final class Builder {
+
+        // Encoded points.
+        private int[] data;
+        private int length;
+
+        // Number of points, and last point added.
+        private int size;
+        private float lastLongitude, lastLatitude;
+
+        /**
+         * Create a new builder for a polyline starting at the given point.
+         *
+         * @param longitude Longitude of the first point.
+         * @param latitude Latitude of the first point.
+         * @param expectedSize Expected number of points (including the first one).
+         */
+        public Builder(float longitude, float latitude, int expectedSize) {
+            this.data = new int[Math.max(expectedSize + 1, 4)];
+            this.data[0] = Float.floatToRawIntBits(longitude);
+            this.data[1] = Float.floatToRawIntBits(latitude);
+            this.length = 2;
+            this.size = 1;
+            this.lastLongitude = longitude;
+            this.lastLatitude = latitude;
+        }
+
+        /**
+         * Ensure that the given number of integers can be appended to the data.
+         *
+         * @param count Number of integers to append.
+         */
+        private void ensureCapacity(int count) {
+            if (this.length + count > this.data.length) {
+                this.data = Arrays.copyOf(this.data,
+                        Math.max(2 * this.data.length, this.length + count));
+            }
+        }
+
+        /**
+         * Add a point given by its difference with the previous one, as stored in graph
+         * files. The new point is computed exactly as when reading a graph file.
+         *
+         * @param dlon Difference of longitude (in units of 1/200000 degree).
+         * @param dlat Difference of latitude (in units of 1/200000 degree).
+         * @return This builder.
+         */
+        public Builder addDelta(short dlon, short dlat) {
+            final float longitude = this.lastLongitude + dlon / DELTA_SCALE;
+            final float latitude = this.lastLatitude + dlat / DELTA_SCALE;
+            if (dlon == Short.MIN_VALUE || dlat == Short.MIN_VALUE) {
+                return addRaw(longitude, latitude);
+            }
+            ensureCapacity(1);
+            this.data[this.length++] = (dlon << 16) | (dlat & 0xffff);
+            this.size++;
+            this.lastLongitude = longitude;
+            this.lastLatitude = latitude;
+            return this;
+        }
+
+        /**
+         * Add the given point, encoded as a delta if possible.
+         *
+         * @param longitude Longitude of the point.
+         * @param latitude Latitude of the point.
+         * @return This builder.
+         */
+        public Builder add(float longitude, float latitude) {
+            final long dlon =
+                    Math.round(((double) longitude - this.lastLongitude) * DELTA_SCALE);
+            final long dlat =
+                    Math.round(((double) latitude - this.lastLatitude) * DELTA_SCALE);
+            if (dlon > Short.MIN_VALUE && dlon <= Short.MAX_VALUE
+                    && dlat > Short.MIN_VALUE && dlat <= Short.MAX_VALUE
+                    && sameFloat(this.lastLongitude + (short) dlon / DELTA_SCALE,
+                            longitude)
+                    && sameFloat(this.lastLatitude + (short) dlat / DELTA_SCALE,
+                            latitude)) {
+                return addDelta((short) dlon, (short) dlat);
+            }
+            return addRaw(longitude, latitude);
+        }
+
+        /**
+         * Add the given point, encoded as an escape value and two raw floats.
+         *
+         * @param longitude Longitude of the point.
+         * @param latitude Latitude of the point.
+         * @return This builder.
+         */
+        private Builder addRaw(float longitude, float latitude) {
+            ensureCapacity(3);
+            this.data[this.length++] = ESCAPE;
+            this.data[this.length++] = Float.floatToRawIntBits(longitude);
+            this.data[this.length++] = Float.floatToRawIntBits(latitude);
+            this.size++;
+            this.lastLongitude = longitude;
+            this.lastLatitude = latitude;
+            return this;
+        }
+
+        /**
+         * @return A new polyline containing the points added to this builder.
+         */
+        public PackedPolyline build() {
+            return new PackedPolyline(Arrays.copyOf(this.data, this.length), this.size);
+        }
+
+    }
+
+    /**
+     * Check if the two given floats are identical, bit for bit.
+     */
+    private static boolean sameFloat(float a, float b) {
+        return Float.floatToRawIntBits(a) == Float.floatToRawIntBits(b);
+    }
+
+    /**
+     * Create a packed polyline containing the given points.
+     *
+     * @param points Points of the polyline.
+     * @return A new packed polyline with the same points.
+     */
+    public static PackedPolyline of(List<Point> points) {
+        if (points.isEmpty()) {
+            return EMPTY;
+        }
+        final Point first = points.get(0);
+        final Builder builder =
+                new Builder(first.getLongitude(), first.getLatitude(), points.size());
+        for (Point point : points.subList(1, points.size())) {
+            builder.add(point.getLongitude(), point.getLatitude());
+        }
+        return builder.build();
+    }
+
+    private PackedPolyline(int[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * @return Encoded points of this polyline.
+     */
+    int[] getData() {
+        return this.data;
+    }
+
+    /**
+     * @return Number of points of this polyline.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if this polyline does not contain any point.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return A new polyline containing the points of this polyline in reverse order.
+     */
+    public PackedPolyline reverse() {
+        if (this.size == 0) {
+            return this;
+        }
+        final PointCursor cursor = new PointCursor().reset(this, true);
+        cursor.next();
+        final Builder builder =
+                new Builder(cursor.getLongitude(), cursor.getLatitude(), this.size);
+        while (cursor.next()) {
+            builder.add(cursor.getLongitude(), cursor.getLatitude());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decode the points of this polyline into a new list. This creates one
+     * {@link Point} per point of the polyline, use a {@link PointCursor} to iterate the
+     * points without allocation.
+     *
+     * @return Unmodifiable list of the points of this polyline.
+     */
+    public List<Point> asList() {
+        final ArrayList<Point> points = new ArrayList<>(this.size);
+        final PointCursor cursor = new PointCursor().reset(this, false);
+        while (cursor.next()) {
+            points.add(new Point(cursor.getLongitude(), cursor.getLatitude()));
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+}
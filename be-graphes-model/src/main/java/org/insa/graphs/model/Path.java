@@ -27,35 +27,41 @@ public class Path {
      * @throws IllegalArgumentException If the list of nodes is not valid, i.e. two
      *         consecutive nodes in the list are not connected in the graph.
      */
-    public static Path createFastestPathFromNodes(Graph graph, List<Node> nodes)//? algo implentation?
+    public static Path createFastestPathFromNodes(Graph graph, List<Node> nodes)// ?
+                                                                                // algo
+                                                                                // implentation?
             throws IllegalArgumentException {
-        List<Arc> arcs = new ArrayList<Arc>(); //ShortestPath between nodes
+        List<Arc> arcs = new ArrayList<Arc>(); // ShortestPath between nodes
 
         // Avoids trap construction
-        if (nodes.size() == 1){
+        if (nodes.size() == 1) {
             return new Path(graph, nodes.get(0));
         }
 
-        //Iterate through the list of nodes
-        for(int i = 0; i < nodes.size()-1; i++) {
+        // Iterate through the list of nodes
+        for (int i = 0; i < nodes.size() - 1; i++) {
             Node currentNode = nodes.get(i);
-            Node nextNode = nodes.get(i+1);
-            List<Arc> successorsList = currentNode.getSuccessors();       
-
-            double currentFastestLength = (float)Double.POSITIVE_INFINITY;
-            Arc currentFastestArc = null; //we know nothing about the arcs yet
-
-            // Iterate through the arcs (successors) 
-            for(int j = 0; j < successorsList.size(); j++) { // Same thing as currentNode.getNumberOfSuccessors();
-                if(successorsList.get(j).getDestination() == nodes.get(i+1) && successorsList.get(j).getMinimumTravelTime() < currentFastestLength) {
+            Node nextNode = nodes.get(i + 1);
+            List<Arc> successorsList = currentNode.getSuccessors();
+
+            double currentFastestLength = (float) Double.POSITIVE_INFINITY;
+            Arc currentFastestArc = null; // we know nothing about the arcs yet
+
+            // Iterate through the arcs (successors)
+            for (int j = 0; j < successorsList.size(); j++) { // Same thing as
+                                                              // currentNode.getNumberOfSuccessors();
+                if (successorsList.get(j).getDestination() == nodes.get(i + 1)
+                        && successorsList.get(j)
+                                .getMinimumTravelTime() < currentFastestLength) {
                     currentFastestLength = successorsList.get(j).getMinimumTravelTime();
                     currentFastestArc = successorsList.get(j);
                 }
             }
-            
+
             // Exception if two nodes aren't connected
-            if(currentFastestLength == (float)Double.POSITIVE_INFINITY){
-                throw new IllegalArgumentException("Invalid list of nodes: not all nodes are connected");
+            if (currentFastestLength == (float) Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException(
+                        "Invalid list of nodes: not all nodes are connected");
             }
 
             arcs.add(currentFastestArc);
@@ -73,35 +79,40 @@ public class Path {
      * @throws IllegalArgumentException If the list of nodes is not valid, i.e. two
      *         consecutive nodes in the list are not connected in the graph.
      */
-    public static Path createShortestPathFromNodes(Graph graph, List<Node> nodes)//? algo implentation?
-            throws IllegalArgumentException {        
-        List<Arc> arcs = new ArrayList<Arc>(); //ShortestPath between nodes
-        
+    public static Path createShortestPathFromNodes(Graph graph, List<Node> nodes)// ?
+                                                                                 // algo
+                                                                                 // implentation?
+            throws IllegalArgumentException {
+        List<Arc> arcs = new ArrayList<Arc>(); // ShortestPath between nodes
+
         // Avoids trap construction
-        if (nodes.size() == 1){
+        if (nodes.size() == 1) {
             return new Path(graph, nodes.get(0));
         }
 
-        //Iterate through the list of nodes
-        for(int i = 0; i < nodes.size()-1; i++) {
+        // Iterate through the list of nodes
+        for (int i = 0; i < nodes.size() - 1; i++) {
             Node currentNode = nodes.get(i);
-            Node nextNode = nodes.get(i+1);
-            List<Arc> successorsList = currentNode.getSuccessors();       
+            Node nextNode = nodes.get(i + 1);
+            List<Arc> successorsList = currentNode.getSuccessors();
 
-            float currentShortestLength = (float)Double.POSITIVE_INFINITY;
-            Arc currentShortestArc = null; //we know nothing about the arcs yet
+            float currentShortestLength = (float) Double.POSITIVE_INFINITY;
+            Arc currentShortestArc = null; // we know nothing about the arcs yet
 
-            // Iterate through the arcs (successors) 
-            for(int j = 0; j < successorsList.size(); j++) { // Same thing as currentNode.getNumberOfSuccessors();
-                if(successorsList.get(j).getDestination() == nodes.get(i+1) && successorsList.get(j).getLength() < currentShortestLength) {
+            // Iterate through the arcs (successors)
+            for (int j = 0; j < successorsList.size(); j++) { // Same thing as
+                                                              // currentNode.getNumberOfSuccessors();
+                if (successorsList.get(j).getDestination() == nodes.get(i + 1)
+                        && successorsList.get(j).getLength() < currentShortestLength) {
                     currentShortestLength = successorsList.get(j).getLength();
                     currentShortestArc = successorsList.get(j);
                 }
             }
-            
+
             // Exception if two nodes aren't connected
-            if(currentShortestLength == (float)Double.POSITIVE_INFINITY){
-                throw new IllegalArgumentException("Invalid list of nodes: not all nodes are connected");
+            if (currentShortestLength == (float) Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException(
+                        "Invalid list of nodes: not all nodes are connected");
             }
 
             arcs.add(currentShortestArc);
@@ -244,12 +255,15 @@ public class Path {
      */
     public boolean isValid() {
         // chemin vide
-        if (this.isEmpty()) return true;
+        if (this.isEmpty())
+            return true;
 
         // un seul noeud, aucun arc
-        if (this.arcs.isEmpty()) return this.origin != null;
+        if (this.arcs.isEmpty())
+            return this.origin != null;
         // le chemin a des arcs vérifier que le premier arc part bien de l'origine
-        if (!arcs.get(0).getOrigin().equals(this.origin)) return false;
+        if (!arcs.get(0).getOrigin().equals(this.origin))
+            return false;
 
         // Vérifier que chaque arc se suit correctement
         for (int i = 0; i < arcs.size() - 1; i++) {
@@ -268,8 +282,9 @@ public class Path {
     public float getLength() {
         float length = 0;
         if (!this.isEmpty()) { // if the path is not empty (to avoid null length)
-            for(Arc arc : this.arcs) {
-                length += arc.getLength(); // add the length of each arc to the total length
+            for (Arc arc : this.arcs) {
+                length += arc.getLength(); // add the length of each arc to the total
+                                           // length
             }
         }
         return length;
@@ -285,8 +300,9 @@ public class Path {
     public double getTravelTime(double speed) {
         float time = 0;
         if (!this.isEmpty()) { // if the path is not empty (to avoid null length)
-            for(Arc arc : this.arcs) {
-                time += arc.getTravelTime(speed); // add the speed of each arc to the total speed
+            for (Arc arc : this.arcs) {
+                time += arc.getTravelTime(speed); // add the speed of each arc to the
+                                                  // total speed
             }
         }
         return time;
@@ -301,8 +317,9 @@ public class Path {
     public double getMinimumTravelTime() {
         float time = 0;
         if (!this.isEmpty()) { // if the path is not empty (to avoid null length)
-            for(Arc arc : this.arcs) {
-                time += arc.getMinimumTravelTime(); // add the maximum speed of each arc to the total speed
+            for (Arc arc : this.arcs) {
+                time += arc.getMinimumTravelTime(); // add the maximum speed of each arc
+                                                    // to the total speed
             }
         }
         return time;
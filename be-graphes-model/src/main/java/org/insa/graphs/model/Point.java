@@ -10,6 +10,12 @@ public final class Point {
      */
     public static final double EARTH_RADIUS = 6378137.0;
 
+    /**
+     * Margin (in meters) subtracted from {@link #lowerBoundDistance(Point, Point)},
+     * larger than the absolute error of {@link #distance(Point, Point)}.
+     */
+    public static final double DISTANCE_ERROR = 0.5;
+
     /**
      * Compute the distance in meters between the two given points.
      *
@@ -18,12 +24,28 @@ public final class Point {
      * @return Distance between the two given points (in meters).
      */
     public static double distance(Point p1, Point p2) {
-        double sinLat = Math.sin(Math.toRadians(p1.getLatitude()))
-                * Math.sin(Math.toRadians(p2.getLatitude()));
-        double cosLat = Math.cos(Math.toRadians(p1.getLatitude()))
-                * Math.cos(Math.toRadians(p2.getLatitude()));
-        double cosLong =
-                Math.cos(Math.toRadians(p2.getLongitude() - p1.getLongitude()));
+        return distance(p1.getLongitude(), p1.getLatitude(), p2.getLongitude(),
+                p2.getLatitude());
+    }
+
+    /**
+     * Compute the distance in meters between the two given positions, e.g. positions
+     * read from a {@link PointCursor}, without creating any point.
+     *
+     * @param longitude1 Longitude of the first position.
+     * @param latitude1 Latitude of the first position.
+     * @param longitude2 Longitude of the second position.
+     * @param latitude2 Latitude of the second position.
+     * @return Distance between the two given positions (in meters).
+     * @see #distance(Point, Point)
+     */
+    public static double distance(float longitude1, float latitude1, float longitude2,
+            float latitude2) {
+        double sinLat = Math.sin(Math.toRadians(latitude1))
+                * Math.sin(Math.toRadians(latitude2));
+        double cosLat = Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2));
+        double cosLong = Math.cos(Math.toRadians(longitude2 - longitude1));
 
         double koef = sinLat + cosLat * cosLong;
 
@@ -37,6 +59,50 @@ public final class Point {
         return (EARTH_RADIUS * Math.acos(koef));
     }
 
+    /**
+     * <p>
+     * Compute a cheap lower bound of {@link #distance(Point, Point)} between the two
+     * given points, using a single cosine and a square root instead of the four
+     * trigonometric calls of the exact distance.
+     * </p>
+     * <p>
+     * The bound is an equirectangular approximation of the chord between the two
+     * points: sines of the half-differences are replaced by their (smaller) third-order
+     * Taylor expansion, and the cosine of each latitude by the cosine of the latitude
+     * closest to a pole. A chord is never longer than the corresponding arc.
+     * </p>
+     * <p>
+     * {@link #distance(Point, Point)} computes an arc cosine close to 1, so it has an
+     * absolute error of up to about 0.15 meter (it returns 0 for points closer than
+     * that). The bound is lowered by {@link #DISTANCE_ERROR} to account for it, so that
+     * it never exceeds the result of {@link #distance(Point, Point)}, which makes it
+     * suitable as an admissible heuristic.
+     * </p>
+     *
+     * @param p1 First point.
+     * @param p2 Second point.
+     * @return Lower bound of the distance between the two given points (in meters).
+     */
+    public static double lowerBoundDistance(Point p1, Point p2) {
+        double halfLat =
+                Math.toRadians(Math.abs(p2.getLatitude() - p1.getLatitude())) / 2;
+        double dLong = Math.abs(p2.getLongitude() - p1.getLongitude());
+        double halfLong = Math.toRadians(dLong > 180 ? 360 - dLong : dLong) / 2;
+        double maxLat =
+                Math.max(Math.abs(p1.getLatitude()), Math.abs(p2.getLatitude()));
+        double cosLat = Math.cos(Math.toRadians(Math.min(maxLat, 90)));
+
+        // x - x^3/6 <= sin(x) for x in [0, pi/2].
+        double sinHalfLat = halfLat * (1 - halfLat * halfLat / 6);
+        double sinHalfLong = halfLong * (1 - halfLong * halfLong / 6);
+        double chord = Math.sqrt(
+                sinHalfLat * sinHalfLat + cosLat * cosLat * sinHalfLong * sinHalfLong);
+
+        // Small relative margin to absorb rounding errors of both computations, and
+        // absolute margin for the error of distance() on short distances.
+        return Math.max(0, 0.999 * 2 * EARTH_RADIUS * chord - DISTANCE_ERROR);
+    }
+
     // Longitude and latitude of the point.
     private final float longitude, latitude;
 
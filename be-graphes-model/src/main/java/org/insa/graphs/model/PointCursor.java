@@ -0,0 +1,181 @@
+package org.insa.graphs.model;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Reusable cursor over the points of an arc, stored either as a {@link PackedPolyline}
+ * or as a list of points.
+ * </p>
+ * <p>
+ * A cursor is positioned before the first point by one of the {@code reset} methods (or
+ * by {@link Arc#getPoints(PointCursor)}), then each call to {@link #next()} moves to
+ * the next point, whose coordinates are given by {@link #getLongitude()} and
+ * {@link #getLatitude()}. A cursor can be reused for any number of arcs, and does not
+ * create any object except when iterating a packed polyline in reverse order for the
+ * first time (or a longer one than before).
+ * </p>
+ */
+public final class PointCursor {
+
+    // Packed polyline or list of points being iterated (only one of them is not null).
+    private int[] data;
+    private List<Point> points;
+
+    // Number of points, and number of points already returned.
+    private int size;
+    private int index;
+
+    // Position of the next encoded point in data.
+    private int offset;
+
+    // true if the points are iterated in reverse order.
+    private boolean reversed;
+
+    // Coordinates of a packed polyline iterated in reverse order.
+    private float[] coordinates = new float[0];
+
+    // Current point.
+    private float longitude, latitude;
+
+    /**
+     * Position this cursor before the first point of the given polyline.
+     *
+     * @param polyline Polyline to iterate.
+     * @param reversed true to iterate the points from last to first.
+     * @return This cursor.
+     */
+    public PointCursor reset(PackedPolyline polyline, boolean reversed) {
+        this.data = polyline.getData();
+        this.points = null;
+        this.size = polyline.size();
+        this.index = 0;
+        this.offset = 0;
+        this.reversed = reversed;
+        if (reversed) {
+            decodeAll();
+        }
+        return this;
+    }
+
+    /**
+     * Position this cursor before the first point of the given list.
+     *
+     * @param points Points to iterate.
+     * @param reversed true to iterate the points from last to first.
+     * @return This cursor.
+     */
+    public PointCursor reset(List<Point> points, boolean reversed) {
+        this.data = null;
+        this.points = points;
+        this.size = points.size();
+        this.index = 0;
+        this.reversed = reversed;
+        return this;
+    }
+
+    /**
+     * Position this cursor before the first point of the reverse sequence of points,
+     * e.g. to iterate the points of a backward arc.
+     *
+     * @return This cursor.
+     */
+    public PointCursor reverse() {
+        this.index = 0;
+        this.offset = 0;
+        this.reversed = !this.reversed;
+        if (this.reversed && this.data != null) {
+            decodeAll();
+        }
+        return this;
+    }
+
+    /**
+     * Decode all the points of the current packed polyline, since deltas can only be
+     * decoded forward, so that they can be iterated in reverse order.
+     */
+    private void decodeAll() {
+        if (this.coordinates.length < 2 * this.size) {
+            this.coordinates = new float[2 * this.size];
+        }
+        for (int i = 0; i < this.size; ++i) {
+            decodeNext(i);
+            this.coordinates[2 * i] = this.longitude;
+            this.coordinates[2 * i + 1] = this.latitude;
+        }
+    }
+
+    /**
+     * Decode the point at the given index of the packed data, which must be the one
+     * following the previously decoded point.
+     *
+     * @param i Index of the point to decode.
+     */
+    private void decodeNext(int i) {
+        if (i == 0) {
+            this.longitude = Float.intBitsToFloat(this.data[0]);
+            this.latitude = Float.intBitsToFloat(this.data[1]);
+            this.offset = 2;
+        }
+        else {
+            final int value = this.data[this.offset++];
+            if (value == PackedPolyline.ESCAPE) {
+                this.longitude = Float.intBitsToFloat(this.data[this.offset++]);
+                this.latitude = Float.intBitsToFloat(this.data[this.offset++]);
+            }
+            else {
+                this.longitude = this.longitude + ((short) (value >> 16)) / 2.0e5f;
+                this.latitude = this.latitude + ((short) value) / 2.0e5f;
+            }
+        }
+    }
+
+    /**
+     * @return Number of points iterated by this cursor.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Move to the next point.
+     *
+     * @return true if there was a next point, false if all the points have been
+     *         iterated.
+     */
+    public boolean next() {
+        if (this.index == this.size) {
+            return false;
+        }
+        final int i = this.reversed ? this.size - 1 - this.index : this.index;
+        if (this.points != null) {
+            final Point point = this.points.get(i);
+            this.longitude = point.getLongitude();
+            this.latitude = point.getLatitude();
+        }
+        else if (this.reversed) {
+            this.longitude = this.coordinates[2 * i];
+            this.latitude = this.coordinates[2 * i + 1];
+        }
+        else {
+            decodeNext(i);
+        }
+        this.index++;
+        return true;
+    }
+
+    /**
+     * @return Longitude of the current point.
+     */
+    public float getLongitude() {
+        return this.longitude;
+    }
+
+    /**
+     * @return Latitude of the current point.
+     */
+    public float getLatitude() {
+        return this.latitude;
+    }
+
+}
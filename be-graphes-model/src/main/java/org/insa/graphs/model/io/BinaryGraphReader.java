@@ -1,19 +1,24 @@
 package org.insa.graphs.model.io;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.insa.graphs.model.AccessRestrictions;
-import org.insa.graphs.model.AccessRestrictions.AccessMode;
-import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
 import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.LazyGeometry;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
+import org.insa.graphs.model.PackedPolyline;
 import org.insa.graphs.model.Point;
 import org.insa.graphs.model.RoadInformation;
 import org.insa.graphs.model.RoadInformation.RoadType;
@@ -30,9 +35,26 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     // Length of the map id field (in bytes)
     protected static final int MAP_ID_FIELD_LENGTH = 32;
 
+    // Number of chunks the arc section is split into for each thread of the common
+    // pool when decoding arcs in parallel, and minimum number of arcs of a chunk.
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MINIMUM_CHUNK_SIZE = 64;
+
     // List of observers
     protected final List<GraphReaderObserver> observers = new ArrayList<>();
 
+    // true if the arcs should be decoded in parallel.
+    private final boolean parallel;
+
+    // Source of the points of the arcs when they are decoded lazily, or null.
+    private LazyGeometry lazyGeometry = null;
+
+    // true if the points of the arcs should be stored as packed polylines.
+    private boolean packedGeometry = false;
+
+    // How the nodes of the graph should be renumbered, or null to keep file order.
+    private NodeOrdering.Strategy nodeOrdering = null;
+
     /**
      * Parse the given long value into a new instance of AccessRestrictions.
      *
@@ -40,47 +62,10 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
      * @return New instance of access restrictions parsed from the given value.
      */
     protected static AccessRestrictions toAccessInformation(final long access) {
-
-        // See the following for more information:
+        // The packed value of the file is the representation used by
+        // AccessRestrictions, see the following for more information:
         // https://github.com/Holt59/OSM2Graph/blob/master/src/main/org/laas/osm2graph/model/AccessData.java
-
-        // The order of values inside this array is VERY IMPORTANT: For allRestrictions,
-        // the order correspond to the 4 bits value (i.e. FORBIDDEN is 0 or PRIVATE is
-        // 2) - UKNOWN is not included because value above 6 (FORESTRY) are all
-        // considered unknown.
-        final AccessRestriction[] allRestrictions =
-                new AccessRestriction[] { AccessRestriction.FORBIDDEN,
-                        AccessRestriction.ALLOWED, AccessRestriction.PRIVATE,
-                        AccessRestriction.DESTINATION, AccessRestriction.DELIVERY,
-                        AccessRestriction.CUSTOMERS, AccessRestriction.FORESTRY };
-
-        // The order of values inside this array is VERY IMPORTANT: The order is such
-        // that each 4-bits group of the long value is processed in the correct order,
-        // i.e. FOOT is processed first (4 lowest bits), and so on.
-        final AccessMode[] allModes = new AccessMode[] { AccessMode.FOOT, null,
-                AccessMode.BICYCLE, AccessMode.SMALL_MOTORCYCLE,
-                AccessMode.AGRICULTURAL, AccessMode.MOTORCYCLE, AccessMode.MOTORCAR,
-                AccessMode.HEAVY_GOODS, null, AccessMode.PUBLIC_TRANSPORT };
-
-        // fill maps...
-        final EnumMap<AccessMode, AccessRestriction> restrictions =
-                new EnumMap<>(AccessMode.class);
-        long copyAccess = access;
-        for (AccessMode mode : allModes) {
-            if (mode == null) {
-                continue; // filling cells
-            }
-            int value = (int) (copyAccess & 0xf);
-            if (value < allRestrictions.length) {
-                restrictions.put(mode, allRestrictions[value]);
-            }
-            else {
-                restrictions.put(mode, AccessRestriction.UNKNOWN);
-            }
-            copyAccess = copyAccess >> 4;
-        }
-
-        return new AccessRestrictions(restrictions);
+        return new AccessRestrictions(access);
     }
 
     /**
@@ -133,12 +118,101 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     }
 
     /**
-     * Create a new BinaryGraphReader that read from the given input stream.
+     * Create a new BinaryGraphReader that read from the given input.
+     *
+     * @param dis Input to read from (e.g. a {@link java.io.DataInputStream} or a
+     *        {@link MappedFileInput}).
+     */
+    public BinaryGraphReader(DataInput dis) {
+        this(dis, false);
+    }
+
+    /**
+     * <p>
+     * Create a new BinaryGraphReader that read from the given input, possibly decoding
+     * the arcs in parallel.
+     * </p>
+     * <p>
+     * In parallel mode, the arc section is read directly from the mapped file: a cheap
+     * sequential pass splits it into chunks of records (reading only the number of
+     * segments of each record), the chunks are decoded in parallel on the common
+     * fork-join pool, and the nodes are linked in file order, each chunk as soon as it
+     * has been decoded. Observers receive the same events as in sequential mode, in the
+     * same order.
+     * </p>
+     * <p>
+     * Parallel mode requires a {@link MappedFileInput}: arcs are read sequentially from
+     * any other input.
+     * </p>
      *
-     * @param dis Input stream to read from.
+     * @param dis Input to read from (e.g. a {@link java.io.DataInputStream} or a
+     *        {@link MappedFileInput}).
+     * @param parallel true to decode the arcs in parallel.
      */
-    public BinaryGraphReader(DataInputStream dis) {
+    public BinaryGraphReader(DataInput dis, boolean parallel) {
         super(MAGIC_NUMBER, VERSION, dis);
+        this.parallel = parallel;
+    }
+
+    /**
+     * <p>
+     * Only record the position of the segments of each arc while reading the graph, and
+     * decode them when the points of the arc are accessed (e.g. when the arc is drawn
+     * or a path is exported). Decoded points are kept in a cache of the given size,
+     * shared by all the arcs of the graph.
+     * </p>
+     * <p>
+     * This mode requires the reader to read from a {@link MappedFileInput}, which must
+     * not be unmapped while the graph is used. The arcs are always read sequentially in
+     * this mode, even if the reader has been created in parallel mode.
+     * </p>
+     *
+     * @param cacheSize Maximum number of decoded arc geometries to keep in memory.
+     * @throws IllegalStateException if this reader does not read from a
+     *         {@link MappedFileInput}, or if packed geometry has been enabled.
+     */
+    public void enableLazyGeometry(int cacheSize) {
+        if (!(dis instanceof MappedFileInput)) {
+            throw new IllegalStateException(
+                    "Lazy geometry requires a memory-mapped input.");
+        }
+        if (this.packedGeometry) {
+            throw new IllegalStateException(
+                    "Packed geometry has already been enabled.");
+        }
+        this.lazyGeometry = new MappedGeometry((MappedFileInput) dis, cacheSize);
+    }
+
+    /**
+     * Store the points of each arc as a {@link PackedPolyline}, built directly from the
+     * deltas of the file, instead of a list of {@link Point}. The points of the arcs
+     * are the same, but use several times less memory.
+     *
+     * @throws IllegalStateException if lazy geometry has been enabled.
+     */
+    public void enablePackedGeometry() {
+        if (this.lazyGeometry != null) {
+            throw new IllegalStateException("Lazy geometry has already been enabled.");
+        }
+        this.packedGeometry = true;
+    }
+
+    /**
+     * <p>
+     * Renumber the nodes of the graph once it has been read, so that nodes that are
+     * close to each other are stored close to each other in memory (see
+     * {@link NodeOrdering}). Nodes keep their ID in the file as external ID, which is
+     * used to read and write paths.
+     * </p>
+     * <p>
+     * Observers are notified of the nodes and arcs as read from the file, i.e. before
+     * renumbering. This applies to both {@link #read()} and {@link #readCsrGraph()}.
+     * </p>
+     *
+     * @param strategy How nodes should be ordered.
+     */
+    public void enableNodeOrdering(NodeOrdering.Strategy strategy) {
+        this.nodeOrdering = strategy;
     }
 
     @Override
@@ -149,90 +223,357 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     @Override
     public Graph read() throws IOException {
 
-        // Read and check magic number and file version.
-        checkMagicNumberOrThrow(dis.readInt());
-        checkVersionOrThrow(dis.readInt());
+        final Header header = readHeader();
+        final NodeSection nodeSection = readNodes(header.nbNodes);
+        final int nbNodes = header.nbNodes;
+        final int[] nbSuccessors = nodeSection.nbSuccessors;
+        final int nbTotalSuccessors = nodeSection.nbArcs;
 
-        // Read map id.
-        final String mapId;
-        final String mapName;
+        // Create nodes.
+        final ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            final Node aNode = new Node(node, new Point(nodeSection.longitudes[node],
+                    nodeSection.latitudes[node]));
+            nodes.add(aNode);
+            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+        }
 
-        if (getCurrentVersion() < 6) {
-            mapId = "0x" + Integer.toHexString(dis.readInt());
-            mapName = ""; // No map name for older versions.
+        final RoadInformation[] descs = readDescriptors(header.nbDesc);
+
+        // Read successors and convert to arcs.
+        float maxLength = 0;
+        int nbOneWayRoad = 0;
+        observers.forEach(
+                (observer) -> observer.notifyStartReadingArcs(nbTotalSuccessors));
+        if (this.parallel && this.lazyGeometry == null
+                && dis instanceof MappedFileInput) {
+            final List<Future<ArcChunk>> decoding = new ArrayList<>();
+            for (ArcChunk chunk : splitArcSection(nbSuccessors, nbTotalSuccessors)) {
+                decoding.add(ForkJoinPool.commonPool()
+                        .submit(() -> decodeChunk(chunk, nodes, nbSuccessors)));
+            }
+
+            // Link the nodes in file order, each chunk as soon as it is decoded.
+            for (int c = 0; c < decoding.size(); ++c) {
+                final ArcChunk chunk = awaitChunk(decoding.set(c, null));
+                int i = 0;
+                for (int node = chunk.firstNode; node < chunk.endNode; ++node) {
+                    for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++i) {
+                        maxLength = Math.max(chunk.fileLengths[i], maxLength);
+
+                        final RoadInformation info = descs[chunk.descriptors[i]];
+                        final Node orig = nodes.get(node);
+                        final Node dest = nodes.get(chunk.destinations[i]);
+
+                        // Add successor to initial arc.
+                        final Arc arc = chunk.polylines[i] != null
+                                ? Node.linkNodesPacked(orig, dest, chunk.lengths[i],
+                                        info, chunk.polylines[i])
+                                : Node.linkNodes(orig, dest, chunk.lengths[i], info,
+                                        chunk.points[i]);
+                        if (info.isOneWay()) {
+                            nbOneWayRoad++;
+                        }
+                        observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+                    }
+                }
+            }
         }
         else {
-            mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
-            mapName = dis.readUTF();
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+
+                    // Read target node number.
+                    final int destNode = this.read24bits();
+
+                    // Read information number.
+                    final int descrNum = this.read24bits();
+
+                    // Length of the arc.
+                    float length = readArcLength(dis);
+                    maxLength = Math.max(length, maxLength);
+
+                    length = Math.max(length,
+                            (float) Point.distance(nodes.get(node).getPoint(),
+                                    nodes.get(destNode).getPoint()));
+
+                    // Number of segments.
+                    final int nbSegments = dis.readUnsignedShort();
+
+                    // Chain of points corresponding to the segments.
+                    List<Point> points = null;
+                    PackedPolyline polyline = null;
+                    if (this.lazyGeometry != null) {
+                        // Only record where the segments are, and skip them.
+                        final long position = ((MappedFileInput) dis).position();
+                        dis.skipBytes(4 * nbSegments);
+                        points = this.lazyGeometry.createPointList(position, nbSegments,
+                                nodes.get(node).getPoint(),
+                                nodes.get(destNode).getPoint());
+                    }
+                    else if (this.packedGeometry) {
+                        final Point origPoint = nodes.get(node).getPoint();
+                        final PackedPolyline.Builder builder =
+                                new PackedPolyline.Builder(origPoint.getLongitude(),
+                                        origPoint.getLatitude(), nbSegments + 2);
+                        for (int seg = 0; seg < nbSegments; ++seg) {
+                            builder.addDelta(dis.readShort(), dis.readShort());
+                        }
+                        final Point destPoint = nodes.get(destNode).getPoint();
+                        polyline = builder
+                                .add(destPoint.getLongitude(), destPoint.getLatitude())
+                                .build();
+                    }
+                    else {
+                        points = new ArrayList<Point>(nbSegments + 2);
+                        points.add(nodes.get(node).getPoint());
+
+                        for (int seg = 0; seg < nbSegments; ++seg) {
+                            Point lastPoint = points.get(points.size() - 1);
+
+                            float dlon = (dis.readShort()) / 2.0e5f;
+                            float dlat = (dis.readShort()) / 2.0e5f;
+
+                            points.add(new Point(lastPoint.getLongitude() + dlon,
+                                    lastPoint.getLatitude() + dlat));
+                        }
+
+                        points.add(nodes.get(destNode).getPoint());
+                    }
+
+                    final RoadInformation info = descs[descrNum];
+                    final Node orig = nodes.get(node);
+                    final Node dest = nodes.get(destNode);
+
+                    // Add successor to initial arc.
+                    final Arc arc = polyline != null
+                            ? Node.linkNodesPacked(orig, dest, length, info, polyline)
+                            : Node.linkNodes(orig, dest, length, info, points);
+                    if (info.isOneWay()) {
+                        nbOneWayRoad++;
+                    }
+                    observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+                }
+            }
         }
 
-        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+        // Check format.
+        checkByteOrThrow(253);
 
-        // Number of descriptors and nodes.
-        final int nbDesc = dis.readInt();
-        final int nbNodes = dis.readInt();
+        observers.forEach((observer) -> observer.notifyEndReading());
 
-        // Number of successors for each nodes.
-        final int[] nbSuccessors = new int[nbNodes];
-        int nbTotalSuccessors = 0;
+        final Graph graph = new Graph(header.mapId, header.mapName, nodes,
+                createStatistics(nodeSection, descs, nbOneWayRoad, maxLength));
+        if (this.nodeOrdering == null) {
+            return graph;
+        }
+        return NodeOrdering.compute(graph, this.nodeOrdering).apply(graph);
+    }
 
-        // Construct an array list with initial capacity of nbNodes.
-        final ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+    /**
+     * Chunk of consecutive arc records of the arc section (the records of a range of
+     * origin nodes), decoded in file order.
+     */
+    private static final class ArcChunk {
+
+        // Position of the first record in the file, and range of origin nodes.
+        final long position;
+        final int firstNode, endNode;
+
+        // Destination and descriptor of each arc.
+        final int[] destinations, descriptors;
+
+        // Length of each arc as read from the file, and length after correction.
+        final float[] fileLengths, lengths;
+
+        // Points of each arc, as lists or as packed polylines.
+        final ArrayList<Point>[] points;
+        final PackedPolyline[] polylines;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ArcChunk(long position, int firstNode, int endNode, int nbArcs) {
+            this.position = position;
+            this.firstNode = firstNode;
+            this.endNode = endNode;
+            this.destinations = new int[nbArcs];
+            this.descriptors = new int[nbArcs];
+            this.fileLengths = new float[nbArcs];
+            this.lengths = new float[nbArcs];
+            this.points = new ArrayList[nbArcs];
+            this.polylines = new PackedPolyline[nbArcs];
+        }
+    }
 
-        // Read nodes.
-        float minLongitude = Float.POSITIVE_INFINITY,
-                minLatitude = Float.POSITIVE_INFINITY,
-                maxLongitude = Float.NEGATIVE_INFINITY,
-                maxLatitude = Float.NEGATIVE_INFINITY;
-        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
-        for (int node = 0; node < nbNodes; ++node) {
-            // Read longitude / latitude.
-            final float longitude = ((float) dis.readInt()) / 1E6f;
-            final float latitude = ((float) dis.readInt()) / 1E6f;
+    /**
+     * Split the arc section into chunks of records, moving the (memory-mapped) input to
+     * the end of the section. Only the number of segments of each record is read.
+     *
+     * @param nbSuccessors Number of arc records of each node.
+     * @param nbArcs Total number of arc records.
+     * @return The chunks of the arc section, in file order.
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    private List<ArcChunk> splitArcSection(int[] nbSuccessors, int nbArcs)
+            throws IOException {
+        final MappedFileInput input = (MappedFileInput) dis;
+        final int headerSize = getCurrentVersion() < 8 ? 10 : 12;
+        final int chunkSize = Math.max(MINIMUM_CHUNK_SIZE,
+                nbArcs / (CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism()));
+
+        final List<ArcChunk> chunks = new ArrayList<>();
+        long position = input.position();
+        int firstNode = 0, nbChunkArcs = 0;
+        for (int node = 0; node < nbSuccessors.length; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+                input.skipBytes(headerSize - 2);
+                input.skipBytes(4 * input.readUnsignedShort());
+            }
+            nbChunkArcs += nbSuccessors[node];
+            if (nbChunkArcs >= chunkSize || node == nbSuccessors.length - 1) {
+                chunks.add(new ArcChunk(position, firstNode, node + 1, nbChunkArcs));
+                position = input.position();
+                firstNode = node + 1;
+                nbChunkArcs = 0;
+            }
+        }
+        return chunks;
+    }
 
-            // Update minimum / maximum.
-            minLongitude = Math.min(longitude, minLongitude);
-            minLatitude = Math.min(latitude, minLatitude);
-            maxLongitude = Math.max(longitude, maxLongitude);
-            maxLatitude = Math.max(latitude, maxLatitude);
+    /**
+     * Decode the records of the given chunk, reading them directly from the mapped file
+     * through a duplicate of the input of this reader.
+     *
+     * @param chunk Chunk to decode.
+     * @param nodes Nodes of the graph.
+     * @param nbSuccessors Number of arc records of each node.
+     * @return The given chunk, decoded.
+     * @throws IOException if an error occurs while reading from the file.
+     */
+    private ArcChunk decodeChunk(ArcChunk chunk, List<Node> nodes, int[] nbSuccessors)
+            throws IOException {
+        final MappedFileInput input = ((MappedFileInput) dis).duplicate();
+        input.seek(chunk.position);
+        int i = 0;
+        for (int node = chunk.firstNode; node < chunk.endNode; ++node) {
+            final Point origPoint = nodes.get(node).getPoint();
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ, ++i) {
+                final int destNode = input.readUnsigned24bits();
+                chunk.destinations[i] = destNode;
+                chunk.descriptors[i] = input.readUnsigned24bits();
+                final float length = readArcLength(input);
+                chunk.fileLengths[i] = length;
+
+                final Point destPoint = nodes.get(destNode).getPoint();
+                chunk.lengths[i] =
+                        Math.max(length, (float) Point.distance(origPoint, destPoint));
+
+                final int nbSegments = input.readUnsignedShort();
+                if (this.packedGeometry) {
+                    final PackedPolyline.Builder builder =
+                            new PackedPolyline.Builder(origPoint.getLongitude(),
+                                    origPoint.getLatitude(), nbSegments + 2);
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        builder.addDelta(input.readShort(), input.readShort());
+                    }
+                    chunk.polylines[i] = builder
+                            .add(destPoint.getLongitude(), destPoint.getLatitude())
+                            .build();
+                    continue;
+                }
+                final ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
+                points.add(origPoint);
+                for (int seg = 0; seg < nbSegments; ++seg) {
+                    Point lastPoint = points.get(points.size() - 1);
 
-            // Update information.
-            nbSuccessors[node] = dis.readUnsignedByte();
-            nbTotalSuccessors += nbSuccessors[node];
+                    float dlon = (input.readShort()) / 2.0e5f;
+                    float dlat = (input.readShort()) / 2.0e5f;
 
-            // Create node.
-            final Node aNode = new Node(node, new Point(longitude, latitude));
-            nodes.add(aNode);
-            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+                    points.add(new Point(lastPoint.getLongitude() + dlon,
+                            lastPoint.getLatitude() + dlat));
+                }
+                points.add(destPoint);
+                chunk.points[i] = points;
+            }
         }
+        return chunk;
+    }
 
-        // Check format.
-        checkByteOrThrow(255);
+    /**
+     * Wait for the decoding of a chunk of the arc section.
+     *
+     * @param decoding Decoding of the chunk.
+     * @return The decoded chunk.
+     * @throws IOException if an error occurred while decoding the chunk.
+     */
+    private static ArcChunk awaitChunk(Future<ArcChunk> decoding) throws IOException {
+        try {
+            return decoding.get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
 
-        // Read descriptors.
-        final RoadInformation[] descs = new RoadInformation[nbDesc];
+    /**
+     * <p>
+     * Read a graph directly into its compressed sparse row representation, without
+     * creating any {@link Node} or {@link Arc} object.
+     * </p>
+     * <p>
+     * Observers are notified of the start and end of each section, but not of each node
+     * and arc read, since there are no such objects.
+     * </p>
+     * <p>
+     * Nodes are renumbered if {@link #enableNodeOrdering(NodeOrdering.Strategy)} was
+     * called, still without creating {@link Node} or {@link Arc} objects.
+     * </p>
+     *
+     * @return The graph read, as a CSR graph.
+     * @throws IOException if an exception occurs while reading the graph.
+     * @see CsrGraph#toGraph()
+     */
+    public CsrGraph readCsrGraph() throws IOException {
 
-        // Read
-        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
-        int maxSpeed = 0;
-        for (int descr = 0; descr < nbDesc; ++descr) {
-            final RoadInformation roadinf = readRoadInformation();
-            descs[descr] = roadinf;
-            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        final Header header = readHeader();
+        final NodeSection nodeSection = readNodes(header.nbNodes);
+        final int nbNodes = header.nbNodes;
+        final int[] nbSuccessors = nodeSection.nbSuccessors;
+        final float[] longitudes = nodeSection.longitudes;
+        final float[] latitudes = nodeSection.latitudes;
 
-            // Update max speed
-            maxSpeed = Math.max(roadinf.getMaximumSpeed(), maxSpeed);
+        final CsrGraph.Builder builder =
+                new CsrGraph.Builder(nbNodes, nodeSection.nbArcs);
+        for (int node = 0; node < nbNodes; ++node) {
+            builder.addNode(longitudes[node], latitudes[node]);
         }
 
-        // Check format.
-        checkByteOrThrow(254);
+        final RoadInformation[] descs = readDescriptors(header.nbDesc);
+        for (RoadInformation roadinf : descs) {
+            builder.addDescriptor(roadinf);
+        }
 
-        // Read successors and convert to arcs.
+        // Read successors, the intermediate points of each arc are decoded into these
+        // (reused) arrays.
         float maxLength = 0;
-        final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
+        float[] pointLongitudes = new float[16];
+        float[] pointLatitudes = new float[16];
         observers.forEach(
-                (observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
+                (observer) -> observer.notifyStartReadingArcs(nodeSection.nbArcs));
         for (int node = 0; node < nbNodes; ++node) {
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
 
@@ -243,48 +584,33 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 final int descrNum = this.read24bits();
 
                 // Length of the arc.
-                float length;
-                if (getCurrentVersion() < 8) {
-                    length = dis.readUnsignedShort();
-                }
-                else {
-                    length = dis.readInt() / 1000.0f;
-                }
+                float length = readArcLength(dis);
                 maxLength = Math.max(length, maxLength);
 
-                length = Math.max(length,
-                        (float) Point.distance(nodes.get(node).getPoint(),
-                                nodes.get(destNode).getPoint()));
+                length = Math.max(length, (float) Point.distance(longitudes[node],
+                        latitudes[node], longitudes[destNode], latitudes[destNode]));
 
                 // Number of segments.
                 final int nbSegments = dis.readUnsignedShort();
+                if (nbSegments > pointLongitudes.length) {
+                    pointLongitudes = new float[nbSegments];
+                    pointLatitudes = new float[nbSegments];
+                }
 
                 // Chain of points corresponding to the segments.
-                final ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
-
+                float lastLongitude = longitudes[node], lastLatitude = latitudes[node];
                 for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
-
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
-
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
+                    lastLongitude += (dis.readShort()) / 2.0e5f;
+                    lastLatitude += (dis.readShort()) / 2.0e5f;
+                    pointLongitudes[seg] = lastLongitude;
+                    pointLatitudes[seg] = lastLatitude;
                 }
 
-                points.add(nodes.get(destNode).getPoint());
-
-                final RoadInformation info = descs[descrNum];
-                final Node orig = nodes.get(node);
-                final Node dest = nodes.get(destNode);
-
-                // Add successor to initial arc.
-                final Arc arc = Node.linkNodes(orig, dest, length, info, points);
-                if (info.isOneWay()) {
+                builder.addRoad(node, destNode, length, descrNum, pointLongitudes,
+                        pointLatitudes, nbSegments);
+                if (descs[descrNum].isOneWay()) {
                     nbOneWayRoad++;
                 }
-                observers.forEach((observer) -> observer.notifyNewArcRead(arc));
             }
         }
 
@@ -293,12 +619,182 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
         observers.forEach((observer) -> observer.notifyEndReading());
 
-        return new Graph(mapId, mapName, nodes,
-                new GraphStatistics(
-                        new BoundingBox(new Point(minLongitude, maxLatitude),
-                                new Point(maxLongitude, minLatitude)),
-                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed,
-                        maxLength));
+        final CsrGraph csrGraph = builder.build(header.mapId, header.mapName,
+                createStatistics(nodeSection, descs, nbOneWayRoad, maxLength));
+        if (this.nodeOrdering == null) {
+            return csrGraph;
+        }
+        return NodeOrdering.compute(csrGraph, this.nodeOrdering).apply(csrGraph);
+    }
+
+    /**
+     * Header of a graph file.
+     */
+    private static final class Header {
+
+        // Map identifier and name.
+        final String mapId, mapName;
+
+        // Number of descriptors and nodes.
+        final int nbDesc, nbNodes;
+
+        Header(String mapId, String mapName, int nbDesc, int nbNodes) {
+            this.mapId = mapId;
+            this.mapName = mapName;
+            this.nbDesc = nbDesc;
+            this.nbNodes = nbNodes;
+        }
+    }
+
+    /**
+     * Node section of a graph file.
+     */
+    private static final class NodeSection {
+
+        // Position and number of successors of each node.
+        final float[] longitudes, latitudes;
+        final int[] nbSuccessors;
+
+        // Total number of arc records.
+        int nbArcs = 0;
+
+        // Bounds of the positions of the nodes.
+        float minLongitude = Float.POSITIVE_INFINITY,
+                minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY,
+                maxLatitude = Float.NEGATIVE_INFINITY;
+
+        NodeSection(int nbNodes) {
+            this.longitudes = new float[nbNodes];
+            this.latitudes = new float[nbNodes];
+            this.nbSuccessors = new int[nbNodes];
+        }
+    }
+
+    /**
+     * Read and check the magic number and version of the file, then read the map ID and
+     * name and the number of descriptors and nodes.
+     *
+     * @return The header of the file.
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    private Header readHeader() throws IOException {
+
+        // Read and check magic number and file version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read map id.
+        final String mapId;
+        final String mapName;
+
+        if (getCurrentVersion() < 6) {
+            mapId = "0x" + Integer.toHexString(dis.readInt());
+            mapName = ""; // No map name for older versions.
+        }
+        else {
+            mapId = readFixedLengthString(MAP_ID_FIELD_LENGTH, "UTF-8");
+            mapName = dis.readUTF();
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        final int nbDesc = dis.readInt();
+        final int nbNodes = dis.readInt();
+
+        return new Header(mapId, mapName, nbDesc, nbNodes);
+    }
+
+    /**
+     * Read the node section of the file, without creating any {@link Node}.
+     *
+     * @param nbNodes Number of nodes.
+     * @return The positions and numbers of successors of the nodes.
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    private NodeSection readNodes(int nbNodes) throws IOException {
+        final NodeSection section = new NodeSection(nbNodes);
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        for (int node = 0; node < nbNodes; ++node) {
+            // Read longitude / latitude.
+            final float longitude = ((float) dis.readInt()) / 1E6f;
+            final float latitude = ((float) dis.readInt()) / 1E6f;
+            section.longitudes[node] = longitude;
+            section.latitudes[node] = latitude;
+
+            // Update minimum / maximum.
+            section.minLongitude = Math.min(longitude, section.minLongitude);
+            section.minLatitude = Math.min(latitude, section.minLatitude);
+            section.maxLongitude = Math.max(longitude, section.maxLongitude);
+            section.maxLatitude = Math.max(latitude, section.maxLatitude);
+
+            // Update information.
+            section.nbSuccessors[node] = dis.readUnsignedByte();
+            section.nbArcs += section.nbSuccessors[node];
+        }
+
+        // Check format.
+        checkByteOrThrow(255);
+
+        return section;
+    }
+
+    /**
+     * Read the descriptor section of the file.
+     *
+     * @param nbDesc Number of descriptors.
+     * @return The descriptors, in file order.
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    private RoadInformation[] readDescriptors(int nbDesc) throws IOException {
+        final RoadInformation[] descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation();
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        }
+
+        // Check format.
+        checkByteOrThrow(254);
+
+        return descs;
+    }
+
+    /**
+     * Read the length of an arc, as stored by the current version of the format.
+     *
+     * @param input Input to read from (the input of this reader, or a duplicate of it).
+     * @return Length of the arc (in meters), as read from the file.
+     * @throws IOException if an error occurs while reading from the stream.
+     */
+    private float readArcLength(DataInput input) throws IOException {
+        if (getCurrentVersion() < 8) {
+            return input.readUnsignedShort();
+        }
+        return input.readInt() / 1000.0f;
+    }
+
+    /**
+     * Create the statistics of a graph read from the file.
+     *
+     * @param nodes Node section of the file.
+     * @param descs Descriptors of the file.
+     * @param nbOneWayRoad Number of arcs of one-way roads.
+     * @param maxLength Maximum length of an arc, as read from the file.
+     * @return Statistics of the graph.
+     */
+    private static GraphStatistics createStatistics(NodeSection nodes,
+            RoadInformation[] descs, int nbOneWayRoad, float maxLength) {
+        int maxSpeed = 0;
+        for (RoadInformation roadinf : descs) {
+            maxSpeed = Math.max(roadinf.getMaximumSpeed(), maxSpeed);
+        }
+        return new GraphStatistics(
+                new BoundingBox(new Point(nodes.minLongitude, nodes.maxLatitude),
+                        new Point(nodes.maxLongitude, nodes.minLatitude)),
+                nbOneWayRoad, nodes.nbArcs - nbOneWayRoad, maxSpeed, maxLength);
     }
 
     /**
@@ -1,6 +1,6 @@
 package org.insa.graphs.model.io;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
 import java.util.ArrayList;
 
@@ -18,11 +18,12 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
     protected static final int MAGIC_NUMBER = 0xdecafe;
 
     /**
-     * Create a new BinaryPathReader that read from the given input stream.
+     * Create a new BinaryPathReader that read from the given input.
      *
-     * @param dis Input stream to read from.
+     * @param dis Input to read from (e.g. a {@link java.io.DataInputStream} or a
+     *        {@link MappedFileInput}).
      */
-    public BinaryPathReader(DataInputStream dis) {
+    public BinaryPathReader(DataInput dis) {
         super(MAGIC_NUMBER, VERSION, dis);
     }
 
@@ -59,7 +60,8 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
     }
 
     /**
-     * Read a node from the input stream and returns it.
+     * Read a node from the input stream and returns it. Nodes are identified by their
+     * ID in the file of the map, see {@link Graph#getByExternalId(int)}.
      *
      * @param graph Graph containing the nodes.
      * @return The next node in the input stream.
@@ -67,7 +69,7 @@ public class BinaryPathReader extends BinaryReader implements PathReader {
      * @throws IndexOutOfBoundsException if the node is not in the graph.
      */
     protected Node readNode(Graph graph) throws IOException {
-        return graph.get(dis.readInt());
+        return graph.getByExternalId(dis.readInt());
     }
 
 }
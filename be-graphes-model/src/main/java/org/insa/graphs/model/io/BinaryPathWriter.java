@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.util.Arrays;
 
 import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 
 /**
@@ -36,14 +37,16 @@ public class BinaryPathWriter extends BinaryWriter implements PathWriter {
         // Write number of arcs
         dos.writeInt(path.getArcs().size() + 1);
 
-        // Write origin / destination.
-        dos.writeInt(path.getOrigin().getId());
-        dos.writeInt(path.getDestination().getId());
+        // Write origin / destination (nodes are identified by their ID in the file of
+        // the map, even if the graph has been renumbered).
+        final Graph graph = path.getGraph();
+        dos.writeInt(graph.getExternalId(path.getOrigin()));
+        dos.writeInt(graph.getExternalId(path.getDestination()));
 
         // Write nodes.
-        dos.writeInt(path.getOrigin().getId());
+        dos.writeInt(graph.getExternalId(path.getOrigin()));
         for (Arc arc : path.getArcs()) {
-            dos.writeInt(arc.getDestination().getId());
+            dos.writeInt(graph.getExternalId(arc.getDestination()));
         }
 
         dos.flush();
@@ -1,7 +1,7 @@
 package org.insa.graphs.model.io;
 
 import java.io.Closeable;
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
 
 /**
@@ -14,8 +14,8 @@ public abstract class BinaryReader implements Closeable {
     private int curVersion;
     private final int magicNumber;
 
-    // InputStream
-    protected final DataInputStream dis;
+    // Input from which to read (e.g. a DataInputStream or a MappedFileInput).
+    protected final DataInput dis;
 
     /**
      * Create a new BinaryReader that reads from the given stream and that expected the
@@ -23,9 +23,10 @@ public abstract class BinaryReader implements Closeable {
      *
      * @param magicNumber Magic number of files to be read.
      * @param minVersion Minimum version of files to be read.
-     * @param dis Input stream from which to read.
+     * @param dis Input from which to read, closed with this reader if it is
+     *        {@link Closeable}.
      */
-    protected BinaryReader(int magicNumber, int minVersion, DataInputStream dis) {
+    protected BinaryReader(int magicNumber, int minVersion, DataInput dis) {
         this.magicNumber = magicNumber;
         this.minVersion = minVersion;
         this.dis = dis;
@@ -33,7 +34,9 @@ public abstract class BinaryReader implements Closeable {
 
     @Override
     public void close() throws IOException {
-        this.dis.close();
+        if (this.dis instanceof Closeable) {
+            ((Closeable) this.dis).close();
+        }
     }
 
     /**
@@ -97,7 +100,7 @@ public abstract class BinaryReader implements Closeable {
     protected String readFixedLengthString(int length, String charset)
             throws IOException {
         byte[] bytes = new byte[length];
-        this.dis.read(bytes);
+        this.dis.readFully(bytes);
         return new String(bytes, "UTF-8").trim();
     }
 
@@ -109,6 +112,9 @@ public abstract class BinaryReader implements Closeable {
      * @throws IOException if an error occurs while reading from the stream.
      */
     protected int read24bits() throws IOException {
+        if (dis instanceof MappedFileInput) {
+            return ((MappedFileInput) dis).readUnsigned24bits();
+        }
         int x = dis.readUnsignedShort();
         return (x << 8) | dis.readUnsignedByte();
     }
@@ -0,0 +1,309 @@
+package org.insa.graphs.model.io;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Implementation of {@link DataInput} that reads a file through memory-mapped buffers,
+ * to be used by {@link BinaryReader} instead of a {@link DataInputStream}.
+ * </p>
+ * <p>
+ * Values are decoded from the mapped buffers using absolute offsets, without any
+ * intermediate copy or synchronization. Files larger than 2 GB are mapped as several
+ * chunks; values that span two chunks are decoded byte by byte.
+ * </p>
+ */
+public class MappedFileInput implements DataInput, Closeable {
+
+    /**
+     * Default size of the mapped chunks (1 GB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    // File channel.
+    private final FileChannel channel;
+
+    // Size of the file.
+    private final long size;
+
+    // Mapped chunks of the file, and size of each chunk (except the last one).
+    private final ByteBuffer[] chunks;
+    private final int chunkSize;
+
+    // Current chunk, offset of this chunk in the file, and offset in this chunk.
+    private ByteBuffer chunk;
+    private long chunkStart;
+    private int offset;
+
+    /**
+     * Map the given file for reading.
+     *
+     * @param file File to read.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public MappedFileInput(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Map the given file for reading, using chunks of the given size.
+     *
+     * @param file File to read.
+     * @param chunkSize Size of the mapped chunks (in bytes).
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public MappedFileInput(Path file, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = this.channel.size();
+            this.chunkSize = chunkSize;
+            this.chunks = new ByteBuffer[(int) Math
+                    .max((this.size + chunkSize - 1) / chunkSize, 1)];
+            for (int i = 0; i < this.chunks.length; ++i) {
+                final long start = (long) i * chunkSize;
+                this.chunks[i] = this.channel.map(MapMode.READ_ONLY, start,
+                        Math.min(chunkSize, this.size - start));
+            }
+        }
+        catch (IOException | RuntimeException exception) {
+            this.channel.close();
+            throw exception;
+        }
+        this.chunk = this.chunks[0];
+        this.chunkStart = 0;
+        this.offset = 0;
+    }
+
+    /**
+     * Create a new input over the same file, sharing the mapped buffers of this one but
+     * with its own position (initially 0).
+     *
+     * @param input Input to duplicate.
+     */
+    private MappedFileInput(MappedFileInput input) {
+        this.channel = input.channel;
+        this.size = input.size;
+        this.chunkSize = input.chunkSize;
+        this.chunks = new ByteBuffer[input.chunks.length];
+        for (int i = 0; i < this.chunks.length; ++i) {
+            this.chunks[i] = input.chunks[i].duplicate();
+        }
+        this.chunk = this.chunks[0];
+        this.chunkStart = 0;
+        this.offset = 0;
+    }
+
+    /**
+     * Create a new input over the same file, with its own position, e.g. to read from
+     * another thread. Mapped buffers remain readable after the file has been closed.
+     *
+     * @return A new input over the same file.
+     */
+    public MappedFileInput duplicate() {
+        return new MappedFileInput(this);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * @return Size of the file (in bytes).
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * @return Current position in the file.
+     */
+    public long position() {
+        return this.chunkStart + this.offset;
+    }
+
+    /**
+     * Move to the given position in the file.
+     *
+     * @param position New position.
+     */
+    public void seek(long position) {
+        if (position < 0 || position > this.size) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        final int index =
+                (int) Math.min(position / this.chunkSize, this.chunks.length - 1);
+        this.chunk = this.chunks[index];
+        this.chunkStart = (long) index * this.chunkSize;
+        this.offset = (int) (position - this.chunkStart);
+    }
+
+    /**
+     * Check that the given number of bytes remain in the current chunk, moving to the
+     * next chunk if the current one is exhausted.
+     *
+     * @param length Number of bytes to read.
+     * @return true if the bytes can be read from the current chunk, false if they span
+     *         two chunks.
+     * @throws EOFException if there are not enough bytes left in the file.
+     */
+    private boolean ensure(int length) throws EOFException {
+        if (position() + length > this.size) {
+            throw new EOFException();
+        }
+        if (this.offset == this.chunk.limit()) {
+            seek(position());
+        }
+        return this.offset + length <= this.chunk.limit();
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        if (position() + len > this.size) {
+            throw new EOFException();
+        }
+        while (len > 0) {
+            ensure(0);
+            final int count = Math.min(len, this.chunk.limit() - this.offset);
+            this.chunk.get(this.offset, b, off, count);
+            this.offset += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        final int skipped = (int) Math.max(Math.min(n, this.size - position()), 0);
+        seek(position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        ensure(1);
+        return this.chunk.get(this.offset++);
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xff;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        if (ensure(2)) {
+            final short value = this.chunk.getShort(this.offset);
+            this.offset += 2;
+            return value;
+        }
+        return (short) ((readUnsignedByte() << 8) | readUnsignedByte());
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xffff;
+    }
+
+    /**
+     * Read a 24-bits unsigned integer in big-endian order.
+     *
+     * @return Value read.
+     * @throws IOException if there are not enough bytes left.
+     */
+    public int readUnsigned24bits() throws IOException {
+        if (ensure(3)) {
+            final int value = ((this.chunk.getShort(this.offset) & 0xffff) << 8)
+                    | (this.chunk.get(this.offset + 2) & 0xff);
+            this.offset += 3;
+            return value;
+        }
+        return (readUnsignedShort() << 8) | readUnsignedByte();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return (char) readUnsignedShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        if (ensure(4)) {
+            final int value = this.chunk.getInt(this.offset);
+            this.offset += 4;
+            return value;
+        }
+        return (readUnsignedShort() << 16) | readUnsignedShort();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        if (ensure(8)) {
+            final long value = this.chunk.getLong(this.offset);
+            this.offset += 8;
+            return value;
+        }
+        return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (position() == this.size) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder();
+        while (position() < this.size) {
+            final int c = readUnsignedByte();
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (position() < this.size && ensure(1)
+                        && this.chunk.get(this.offset) == '\n') {
+                    this.offset++;
+                }
+                break;
+            }
+            builder.append((char) c);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.insa.graphs.model.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.insa.graphs.model.LazyGeometry;
+import org.insa.graphs.model.Point;
+
+/**
+ * Lazy geometry that decodes the segments of arcs from a mapped graph file, using the
+ * same encoding as {@link BinaryGraphReader}.
+ */
+class MappedGeometry extends LazyGeometry {
+
+    // Input used to decode the segments (independent from the reader's one).
+    private final MappedFileInput input;
+
+    /**
+     * Create a new lazy geometry reading from the given input.
+     *
+     * @param input Input of the graph file.
+     * @param cacheSize Maximum number of decoded geometries to keep in memory.
+     */
+    MappedGeometry(MappedFileInput input, int cacheSize) {
+        super(cacheSize);
+        this.input = input.duplicate();
+    }
+
+    @Override
+    protected void decode(long position, int nbPoints, Point origin,
+            List<Point> points) {
+        try {
+            this.input.seek(position);
+            Point lastPoint = origin;
+            for (int seg = 0; seg < nbPoints; ++seg) {
+                float dlon = (this.input.readShort()) / 2.0e5f;
+                float dlat = (this.input.readShort()) / 2.0e5f;
+                lastPoint = new Point(lastPoint.getLongitude() + dlon,
+                        lastPoint.getLatitude() + dlat);
+                points.add(lastPoint);
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+}
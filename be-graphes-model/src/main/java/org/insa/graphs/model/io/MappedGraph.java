@@ -0,0 +1,488 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.CsrStorage;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Read-only graph stored off-heap in a memory-mapped file written by
+ * {@link MappedGraphWriter}.
+ * </p>
+ * <p>
+ * Opening a mapped graph only reads its header and metadata: node, arc and geometry
+ * records are read directly from the mapped file when accessed, without creating any
+ * object, and are loaded lazily by the operating system. Since the file is mapped
+ * read-only, several processes opening the same file share the same pages of the page
+ * cache.
+ * </p>
+ * <p>
+ * Nodes and arcs are numbered as in {@link org.insa.graphs.model.CsrGraph}: the
+ * outgoing arcs of node {@code u} are the arcs
+ * {@code getFirstArc(u) <= arc < getEndArc(u)}. Each section of the file is mapped
+ * separately and must be smaller than 2 GB, but the file itself may be larger.
+ * </p>
+ * <p>
+ * Algorithms run on the {@link CsrGraph} view of a mapped graph (see
+ * {@link #getCsrGraph()}), which reads the records of the file through the
+ * {@link CsrStorage} interface instead of copying them.
+ * </p>
+ */
+public final class MappedGraph implements Closeable, CsrStorage {
+
+    /**
+     * Open the mapped graph stored in the given file.
+     *
+     * @param file File to open.
+     * @return The mapped graph.
+     * @throws IOException if the file cannot be opened or is not a valid mapped graph
+     *         file.
+     */
+    public static MappedGraph open(Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedGraph(channel);
+        }
+        catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    // File channel.
+    private final FileChannel channel;
+
+    // Map identifier and name, and statistics.
+    private final String mapId, mapName;
+    private final GraphStatistics graphStatistics;
+
+    // Number of nodes and arcs.
+    private final int nbNodes, nbArcs;
+
+    // Sections of the file (see MappedGraphWriter), nodes are stored as interleaved
+    // longitude / latitude pairs, and so are points.
+    private final FloatBuffer nodes;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final FloatBuffer lengths;
+    private final IntBuffer descriptors;
+    private final IntBuffer twins;
+    private final IntBuffer pointOffsets;
+    private final FloatBuffer points;
+
+    // Descriptors.
+    private final RoadInformation[] roadInformations;
+
+    // CSR view of this graph, created on demand.
+    private volatile CsrGraph csrGraph;
+
+    private MappedGraph(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        // Header.
+        if (channel.size() < MappedGraphWriter.HEADER_SIZE) {
+            throw new BadFormatException();
+        }
+        final ByteBuffer header =
+                channel.map(MapMode.READ_ONLY, 0, MappedGraphWriter.HEADER_SIZE);
+        final int magicNumber = header.getInt();
+        if (magicNumber != MappedGraphWriter.MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber,
+                    MappedGraphWriter.MAGIC_NUMBER);
+        }
+        final int version = header.getInt();
+        if (version != MappedGraphWriter.VERSION) {
+            throw new BadVersionException(version, MappedGraphWriter.VERSION);
+        }
+        this.nbNodes = header.getInt();
+        this.nbArcs = header.getInt();
+        final int nbPoints = header.getInt();
+        final int nbDesc = header.getInt();
+        final long metadataOffset = header.getLong();
+
+        // Sections.
+        long position = MappedGraphWriter.HEADER_SIZE;
+        this.nodes = map(position, 8L * nbNodes).asFloatBuffer();
+        position += 8L * nbNodes;
+        this.offsets = map(position, 4L * (nbNodes + 1)).asIntBuffer();
+        position += 4L * (nbNodes + 1);
+        this.targets = map(position, 4L * nbArcs).asIntBuffer();
+        position += 4L * nbArcs;
+        this.lengths = map(position, 4L * nbArcs).asFloatBuffer();
+        position += 4L * nbArcs;
+        this.descriptors = map(position, 4L * nbArcs).asIntBuffer();
+        position += 4L * nbArcs;
+        this.twins = map(position, 4L * nbArcs).asIntBuffer();
+        position += 4L * nbArcs;
+        this.pointOffsets = map(position, 4L * (nbArcs + 1)).asIntBuffer();
+        position += 4L * (nbArcs + 1);
+        this.points = map(position, 8L * nbPoints).asFloatBuffer();
+        position += 8L * nbPoints;
+        if (position != metadataOffset) {
+            throw new BadFormatException();
+        }
+
+        // Metadata.
+        final long metadataSize = channel.size() - metadataOffset;
+        if (metadataSize < 0 || metadataSize > Integer.MAX_VALUE) {
+            throw new BadFormatException();
+        }
+        final byte[] metadata = new byte[(int) metadataSize];
+        map(metadataOffset, metadataSize).get(metadata);
+        final DataInputStream dis =
+                new DataInputStream(new ByteArrayInputStream(metadata));
+        final byte[] mapIdBytes = new byte[MappedGraphWriter.MAP_ID_FIELD_LENGTH];
+        dis.readFully(mapIdBytes);
+        this.mapId = new String(mapIdBytes, "UTF-8").trim();
+        this.mapName = dis.readUTF();
+        this.graphStatistics = readGraphStatistics(dis);
+        this.roadInformations = new RoadInformation[nbDesc];
+        for (int desc = 0; desc < nbDesc; ++desc) {
+            this.roadInformations[desc] = readRoadInformation(dis);
+        }
+    }
+
+    /**
+     * Map a read-only section of the file.
+     *
+     * @param position Position of the section in the file.
+     * @param size Size of the section.
+     * @return Buffer corresponding to the section.
+     * @throws IOException if the section cannot be mapped.
+     */
+    private ByteBuffer map(long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE || position + size > this.channel.size()) {
+            throw new BadFormatException();
+        }
+        return this.channel.map(MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Read graph statistics written by {@link MappedGraphWriter}.
+     */
+    private static GraphStatistics readGraphStatistics(DataInputStream dis)
+            throws IOException {
+        if (!dis.readBoolean()) {
+            return null;
+        }
+        final Point topLeft = new Point(dis.readFloat(), dis.readFloat());
+        final Point bottomRight = new Point(dis.readFloat(), dis.readFloat());
+        return new GraphStatistics(new BoundingBox(topLeft, bottomRight), dis.readInt(),
+                dis.readInt(), dis.readInt(), dis.readFloat());
+    }
+
+    /**
+     * Read a road information written by {@link MappedGraphWriter}.
+     */
+    private static RoadInformation readRoadInformation(DataInputStream dis)
+            throws IOException {
+        final RoadType type = RoadType.values()[dis.readUnsignedByte()];
+        final boolean oneWay = dis.readBoolean();
+        final int maxSpeed = dis.readInt();
+        AccessRestrictions access = null;
+        if (dis.readBoolean()) {
+            final EnumMap<AccessMode, AccessRestriction> restrictions =
+                    new EnumMap<>(AccessMode.class);
+            for (AccessMode mode : AccessMode.values()) {
+                restrictions.put(mode,
+                        AccessRestriction.values()[dis.readUnsignedByte()]);
+            }
+            access = new AccessRestrictions(restrictions);
+        }
+        final String name = dis.readBoolean() ? dis.readUTF() : null;
+        return new RoadInformation(type, access, oneWay, maxSpeed, name);
+    }
+
+    /**
+     * Close the file backing this graph. The mapped sections remain valid until they
+     * are garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * @return ID of the map associated with this graph.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Name of the map associated with this graph.
+     */
+    public String getMapName() {
+        return this.mapName;
+    }
+
+    /**
+     * @return The GraphStatistics instance associated with this graph.
+     */
+    public GraphStatistics getGraphInformation() {
+        return this.graphStatistics;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    @Override
+    public int size() {
+        return this.nbNodes;
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    @Override
+    public int getNumberOfArcs() {
+        return this.nbArcs;
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Longitude of the node.
+     */
+    @Override
+    public float getLongitude(int node) {
+        return this.nodes.get(2 * node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Latitude of the node.
+     */
+    @Override
+    public float getLatitude(int node) {
+        return this.nodes.get(2 * node + 1);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Position of the node.
+     */
+    public Point getPoint(int node) {
+        return new Point(getLongitude(node), getLatitude(node));
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index of the first outgoing arc of the node.
+     */
+    @Override
+    public int getFirstArc(int node) {
+        return this.offsets.get(node);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Index following the last outgoing arc of the node.
+     */
+    @Override
+    public int getEndArc(int node) {
+        return this.offsets.get(node + 1);
+    }
+
+    /**
+     * @param node ID of a node.
+     * @return Number of outgoing arcs of the node.
+     */
+    public int getNumberOfSuccessors(int node) {
+        return getEndArc(node) - getFirstArc(node);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return ID of the target node of the arc.
+     */
+    @Override
+    public int getTarget(int arc) {
+        return this.targets.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Length of the arc, in meters.
+     */
+    @Override
+    public float getLength(int arc) {
+        return this.lengths.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the descriptor of the arc.
+     */
+    @Override
+    public int getDescriptorIndex(int arc) {
+        return this.descriptors.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Road information of the arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.roadInformations[getDescriptorIndex(arc)];
+    }
+
+    /**
+     * @return Number of distinct descriptors in this graph.
+     */
+    @Override
+    public int getNumberOfDescriptors() {
+        return this.roadInformations.length;
+    }
+
+    /**
+     * @param index Index of a descriptor.
+     * @return Descriptor with the given index.
+     */
+    @Override
+    public RoadInformation getDescriptor(int index) {
+        return this.roadInformations[index];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the reverse arc of the same two-way road, or -1 if the arc is a
+     *         one-way road.
+     */
+    @Override
+    public int getTwin(int arc) {
+        return this.twins.get(arc);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Index of the arc whose geometry section holds the intermediate points of
+     *         the given arc (the arc itself or its twin).
+     */
+    private int getPointHolder(int arc) {
+        final int twin = getTwin(arc);
+        return twin != -1
+                && this.pointOffsets.get(arc + 1) == this.pointOffsets.get(arc) ? twin
+                        : arc;
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @return Number of intermediate points of the arc (excluding its origin and
+     *         target).
+     */
+    @Override
+    public int getNumberOfIntermediatePoints(int arc) {
+        final int holder = getPointHolder(arc);
+        return this.pointOffsets.get(holder + 1) - this.pointOffsets.get(holder);
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @param index Index of an intermediate point, from the origin of the arc.
+     * @return Longitude of the intermediate point.
+     */
+    @Override
+    public float getIntermediateLongitude(int arc, int index) {
+        return this.points.get(2 * intermediatePointIndex(arc, index));
+    }
+
+    /**
+     * @param arc Index of an arc.
+     * @param index Index of an intermediate point, from the origin of the arc.
+     * @return Latitude of the intermediate point.
+     */
+    @Override
+    public float getIntermediateLatitude(int arc, int index) {
+        return this.points.get(2 * intermediatePointIndex(arc, index) + 1);
+    }
+
+    /**
+     * @return Index in the point section of the given intermediate point of the given
+     *         arc.
+     */
+    private int intermediatePointIndex(int arc, int index) {
+        final int holder = getPointHolder(arc);
+        final int from = this.pointOffsets.get(holder);
+        if (holder == arc) {
+            return from + index;
+        }
+        // Points are stored in the direction of the twin.
+        return this.pointOffsets.get(holder + 1) - 1 - index;
+    }
+
+    /**
+     * Create the points of the given arc. Prefer
+     * {@link #getIntermediateLongitude(int, int)} and
+     * {@link #getIntermediateLatitude(int, int)} to avoid creating objects.
+     *
+     * @param arc Index of an arc.
+     * @param origin ID of the origin node of the arc.
+     * @return Points of the arc, from its origin to its target.
+     */
+    public List<Point> getPoints(int arc, int origin) {
+        final int nbPoints = getNumberOfIntermediatePoints(arc);
+        final List<Point> points = new ArrayList<>(nbPoints + 2);
+        points.add(getPoint(origin));
+        for (int i = 0; i < nbPoints; ++i) {
+            points.add(new Point(getIntermediateLongitude(arc, i),
+                    getIntermediateLatitude(arc, i)));
+        }
+        points.add(getPoint(getTarget(arc)));
+        return points;
+    }
+
+    /**
+     * Retrieve the CSR representation of this graph, which the algorithms can run on,
+     * creating it on the first call. Nodes and arcs are numbered as in this graph, and
+     * are read from the mapped file by the CSR graph, without copying them.
+     * {@link org.insa.graphs.model.Node} and {@link org.insa.graphs.model.Arc} objects
+     * are only created on demand (see {@link CsrGraph#toGraph()} and
+     * {@link CsrGraph#getArc(int)}).
+     *
+     * @return CSR representation of this graph.
+     */
+    public CsrGraph getCsrGraph() {
+        CsrGraph csr = this.csrGraph;
+        if (csr == null) {
+            synchronized (this) {
+                csr = this.csrGraph;
+                if (csr == null) {
+                    csr = CsrGraph.fromStorage(this.mapId, this.mapName,
+                            this.graphStatistics, this);
+                    this.csrGraph = csr;
+                }
+            }
+        }
+        return csr;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[id=%s, name=%s, #nodes=%d, #arcs=%d]",
+                getClass().getCanonicalName(), getMapId(), getMapName(), size(),
+                getNumberOfArcs());
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Writer for the memory-mapped graph format read by {@link MappedGraph}.
+ * </p>
+ * <p>
+ * A mapped graph file starts with a fixed-size header, followed by one section per
+ * array of the {@link CsrGraph} representation of the graph (nodes, offsets, targets,
+ * lengths, descriptor indices, twins, point offsets and points), and ends with the
+ * metadata (map ID and name, statistics and descriptors). All values are stored in
+ * big-endian order, and every section starts on a multiple of 4 bytes so that it can be
+ * read through an {@link java.nio.IntBuffer} or a {@link java.nio.FloatBuffer}.
+ * </p>
+ */
+public class MappedGraphWriter extends BinaryWriter {
+
+    // Magic number and version of mapped graph files.
+    protected static final int MAGIC_NUMBER = 0x4D475246;
+    protected static final int VERSION = 1;
+
+    // Size of the header (in bytes).
+    protected static final int HEADER_SIZE = 64;
+
+    // Length of the map id field (in bytes).
+    protected static final int MAP_ID_FIELD_LENGTH = 32;
+
+    /**
+     * Create a new MappedGraphWriter that writes to the given output stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public MappedGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given graph.
+     *
+     * @param graph Graph to write.
+     * @throws IOException if an error occurs while writing the graph.
+     */
+    public void writeGraph(Graph graph) throws IOException {
+        writeGraph(graph.getCsrGraph());
+    }
+
+    /**
+     * Write the given graph.
+     *
+     * @param graph CSR graph to write.
+     * @throws IOException if an error occurs while writing the graph.
+     */
+    public void writeGraph(CsrGraph graph) throws IOException {
+        final int nbNodes = graph.size();
+        final int nbArcs = graph.getNumberOfArcs();
+
+        // Intermediate points are stored on the first arc of each road.
+        final int[] nbPoints = new int[nbArcs];
+        long nbTotalPoints = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            final int twin = graph.getTwin(arc);
+            if (twin == -1 || arc < twin) {
+                nbPoints[arc] = graph.getPoints(arc).size() - 2;
+                nbTotalPoints += nbPoints[arc];
+            }
+        }
+        if (nbTotalPoints > Integer.MAX_VALUE / 2) {
+            throw new IOException("Too many points to write a mapped graph.");
+        }
+
+        final long metadataOffset = HEADER_SIZE + 8L * nbNodes + 4L * (nbNodes + 1)
+                + 16L * nbArcs + 4L * (nbArcs + 1) + 8L * nbTotalPoints;
+
+        // Header.
+        dos.writeInt(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+        dos.writeInt(nbNodes);
+        dos.writeInt(nbArcs);
+        dos.writeInt((int) nbTotalPoints);
+        dos.writeInt(graph.getNumberOfDescriptors());
+        dos.writeLong(metadataOffset);
+        dos.write(new byte[HEADER_SIZE - 32]);
+
+        // Nodes.
+        for (int node = 0; node < nbNodes; ++node) {
+            dos.writeFloat(graph.getLongitude(node));
+            dos.writeFloat(graph.getLatitude(node));
+        }
+        for (int node = 0; node <= nbNodes; ++node) {
+            dos.writeInt(node < nbNodes ? graph.getFirstArc(node) : nbArcs);
+        }
+
+        // Arcs.
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(graph.getTarget(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeFloat(graph.getLength(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(graph.getDescriptorIndex(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(graph.getTwin(arc));
+        }
+
+        // Geometry.
+        int pointOffset = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(pointOffset);
+            pointOffset += nbPoints[arc];
+        }
+        dos.writeInt(pointOffset);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (nbPoints[arc] > 0) {
+                final List<Point> points = graph.getPoints(arc);
+                for (Point point : points.subList(1, points.size() - 1)) {
+                    dos.writeFloat(point.getLongitude());
+                    dos.writeFloat(point.getLatitude());
+                }
+            }
+        }
+
+        // Metadata.
+        dos.write(Arrays.copyOf(graph.getMapId().getBytes(StandardCharsets.UTF_8),
+                MAP_ID_FIELD_LENGTH));
+        dos.writeUTF(graph.getMapName());
+        writeGraphStatistics(graph.getGraphInformation());
+        for (int desc = 0; desc < graph.getNumberOfDescriptors(); ++desc) {
+            writeRoadInformation(graph.getDescriptor(desc));
+        }
+
+        dos.flush();
+    }
+
+    /**
+     * Write the given graph statistics, which may be null.
+     *
+     * @param statistics Statistics to write.
+     * @throws IOException if an error occurs while writing.
+     */
+    private void writeGraphStatistics(GraphStatistics statistics) throws IOException {
+        dos.writeBoolean(statistics != null);
+        if (statistics != null) {
+            final Point topLeft = statistics.getBoundingBox().getTopLeftPoint();
+            final Point bottomRight = statistics.getBoundingBox().getBottomRightPoint();
+            dos.writeFloat(topLeft.getLongitude());
+            dos.writeFloat(topLeft.getLatitude());
+            dos.writeFloat(bottomRight.getLongitude());
+            dos.writeFloat(bottomRight.getLatitude());
+            dos.writeInt(statistics.getOneWayRoadCount());
+            dos.writeInt(statistics.getTwoWaysRoadCount());
+            dos.writeInt(statistics.getMaximumSpeed());
+            dos.writeFloat(statistics.getMaximumLength());
+        }
+    }
+
+    /**
+     * Write the given road information.
+     *
+     * @param info Road information to write.
+     * @throws IOException if an error occurs while writing.
+     */
+    private void writeRoadInformation(RoadInformation info) throws IOException {
+        dos.writeByte(info.getType().ordinal());
+        dos.writeBoolean(info.isOneWay());
+        dos.writeInt(info.getMaximumSpeed());
+        final AccessRestrictions access = info.getAccessRestrictions();
+        dos.writeBoolean(access != null);
+        if (access != null) {
+            for (AccessMode mode : AccessMode.values()) {
+                dos.writeByte(access.getRestrictionFor(mode).ordinal());
+            }
+        }
+        dos.writeBoolean(info.getName() != null);
+        if (info.getName() != null) {
+            dos.writeUTF(info.getName());
+        }
+    }
+
+}
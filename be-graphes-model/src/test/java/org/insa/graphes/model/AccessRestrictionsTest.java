@@ -0,0 +1,132 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.junit.Test;
+
+public class AccessRestrictionsTest {
+
+    @Test
+    public void testUnknownByDefault() {
+        AccessRestrictions access = new AccessRestrictions();
+        for (AccessMode mode : AccessMode.values()) {
+            assertEquals(AccessRestriction.UNKNOWN, access.getRestrictionFor(mode));
+        }
+    }
+
+    @Test
+    public void testPackedValue() {
+        // FOOT allowed (1), BICYCLE private (2, third slot), MOTORCAR forbidden (0,
+        // seventh slot), PUBLIC_TRANSPORT delivery (4, tenth slot), others unknown.
+        long packed = -1L;
+        packed = (packed & ~0xfL) | 0x1L;
+        packed = (packed & ~(0xfL << 8)) | (0x2L << 8);
+        packed = packed & ~(0xfL << 24);
+        packed = (packed & ~(0xfL << 36)) | (0x4L << 36);
+        AccessRestrictions access = new AccessRestrictions(packed);
+        assertEquals(AccessRestriction.ALLOWED,
+                access.getRestrictionFor(AccessMode.FOOT));
+        assertEquals(AccessRestriction.PRIVATE,
+                access.getRestrictionFor(AccessMode.BICYCLE));
+        assertEquals(AccessRestriction.FORBIDDEN,
+                access.getRestrictionFor(AccessMode.MOTORCAR));
+        assertEquals(AccessRestriction.DELIVERY,
+                access.getRestrictionFor(AccessMode.PUBLIC_TRANSPORT));
+        assertEquals(AccessRestriction.UNKNOWN,
+                access.getRestrictionFor(AccessMode.HEAVY_GOODS));
+        assertEquals(packed, access.getPackedValue());
+    }
+
+    @Test
+    public void testMapRoundTrip() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            EnumMap<AccessMode, AccessRestriction> map =
+                    new EnumMap<>(AccessMode.class);
+            for (AccessMode mode : AccessMode.values()) {
+                map.put(mode, AccessRestriction.values()[random
+                        .nextInt(AccessRestriction.values().length)]);
+            }
+            AccessRestrictions access = new AccessRestrictions(map);
+            assertEquals(map, access.toMap());
+            assertEquals(map, new AccessRestrictions(access.getPackedValue()).toMap());
+        }
+    }
+
+    @Test
+    public void testMissingModesAreUnknown() {
+        EnumMap<AccessMode, AccessRestriction> map = new EnumMap<>(AccessMode.class);
+        map.put(AccessMode.MOTORCAR, AccessRestriction.ALLOWED);
+        AccessRestrictions access = new AccessRestrictions(map);
+        assertEquals(AccessRestriction.ALLOWED,
+                access.getRestrictionFor(AccessMode.MOTORCAR));
+        assertEquals(AccessRestriction.UNKNOWN,
+                access.getRestrictionFor(AccessMode.FOOT));
+    }
+
+    @Test
+    public void testMasksMatchEnumSets() {
+        Random random = new Random(42);
+        AccessRestriction[] restrictions = AccessRestriction.values();
+        AccessMode[] modes = AccessMode.values();
+        for (int i = 0; i < 1000; ++i) {
+            EnumMap<AccessMode, AccessRestriction> map =
+                    new EnumMap<>(AccessMode.class);
+            for (AccessMode mode : modes) {
+                map.put(mode, restrictions[random.nextInt(restrictions.length)]);
+            }
+            AccessRestrictions access = new AccessRestrictions(map);
+
+            EnumSet<AccessRestriction> allowed =
+                    EnumSet.noneOf(AccessRestriction.class);
+            for (AccessRestriction restriction : restrictions) {
+                if (random.nextBoolean()) {
+                    allowed.add(restriction);
+                }
+            }
+            EnumSet<AccessMode> queried = EnumSet.noneOf(AccessMode.class);
+            for (AccessMode mode : modes) {
+                if (random.nextInt(4) == 0) {
+                    queried.add(mode);
+                }
+            }
+
+            int restrictionMask = AccessRestrictions.getRestrictionMask(allowed);
+            for (AccessMode mode : modes) {
+                assertEquals(allowed.contains(map.get(mode)),
+                        access.isAllowedForAny(mode, restrictionMask));
+                assertEquals(allowed.contains(map.get(mode)),
+                        access.isAllowedForAny(mode, allowed));
+            }
+            boolean expected =
+                    queried.stream().allMatch(m -> allowed.contains(map.get(m)));
+            assertEquals(expected, access.isAllowedForAll(
+                    AccessRestrictions.getModeMask(queried), restrictionMask));
+            assertEquals(expected, access.areAllAllowedForAny(queried, allowed));
+        }
+    }
+
+    @Test
+    public void testUnknownCodes() {
+        // Codes above 6 are all unknown.
+        AccessRestrictions access = new AccessRestrictions(0x9L);
+        int unknown = AccessRestrictions
+                .getRestrictionMask(EnumSet.of(AccessRestriction.UNKNOWN));
+        assertEquals(AccessRestriction.UNKNOWN,
+                access.getRestrictionFor(AccessMode.FOOT));
+        assertTrue(access.isAllowedForAny(AccessMode.FOOT, unknown));
+        assertFalse(access.isAllowedForAny(AccessMode.FOOT,
+                AccessRestrictions.getRestrictionMask(
+                        EnumSet.complementOf(EnumSet.of(AccessRestriction.UNKNOWN)))));
+    }
+
+}
@@ -0,0 +1,386 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.NodeOrdering;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.BinaryPathReader;
+import org.insa.graphs.model.io.BinaryPathWriter;
+import org.insa.graphs.model.io.GraphReaderObserver;
+import org.insa.graphs.model.io.MappedFileInput;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryGraphReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Content of a randomly generated graph file.
+    private static byte[] content;
+
+    /**
+     * Observer that records the events it receives as strings.
+     */
+    private static class RecordingObserver implements GraphReaderObserver {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void notifyStartReading(String mapId) {
+            events.add("start " + mapId);
+        }
+
+        @Override
+        public void notifyEndReading() {
+            events.add("end");
+        }
+
+        @Override
+        public void notifyStartReadingNodes(int nNodes) {
+            events.add("nodes " + nNodes);
+        }
+
+        @Override
+        public void notifyNewNodeRead(Node node) {
+            events.add("node " + node.getId());
+        }
+
+        @Override
+        public void notifyStartReadingDescriptors(int nDesc) {
+            events.add("descriptors " + nDesc);
+        }
+
+        @Override
+        public void notifyNewDescriptorRead(RoadInformation desc) {
+            events.add("descriptor " + desc.getName());
+        }
+
+        @Override
+        public void notifyStartReadingArcs(int nArcs) {
+            events.add("arcs " + nArcs);
+        }
+
+        @Override
+        public void notifyNewArcRead(Arc arc) {
+            events.add("arc " + arc.getOrigin().getId() + " "
+                    + arc.getDestination().getId() + " " + arc.getLength());
+        }
+    }
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        final Random random = new Random(1);
+        final int nbNodes = 200, nbDesc = 5;
+        final int[] nbSuccessors = new int[nbNodes];
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeInt(0x208BC3B3);
+        dos.writeInt(8);
+        dos.write(Arrays.copyOf("0x42".getBytes(StandardCharsets.UTF_8), 32));
+        dos.writeUTF("Random map");
+        dos.writeInt(nbDesc);
+        dos.writeInt(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            nbSuccessors[node] = random.nextInt(5);
+            dos.writeInt(1000000 + random.nextInt(100000));
+            dos.writeInt(43000000 + random.nextInt(100000));
+            dos.writeByte(nbSuccessors[node]);
+        }
+        dos.writeByte(255);
+        for (int desc = 0; desc < nbDesc; ++desc) {
+            dos.writeByte('a' + desc);
+            dos.writeByte((desc % 2 == 0 ? 0x80 : 0) | (10 + desc));
+            dos.writeLong(random.nextLong());
+            dos.writeUTF("road " + desc);
+        }
+        dos.writeByte(254);
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+                final int dest = random.nextInt(nbNodes);
+                dos.writeShort(dest >> 8);
+                dos.writeByte(dest & 0xff);
+                final int desc = random.nextInt(nbDesc);
+                dos.writeShort(desc >> 8);
+                dos.writeByte(desc & 0xff);
+                dos.writeInt(random.nextInt(10000000));
+                final int nbSegments = random.nextInt(20);
+                dos.writeShort(nbSegments);
+                for (int seg = 0; seg < nbSegments; ++seg) {
+                    dos.writeShort(random.nextInt(2000) - 1000);
+                    dos.writeShort(random.nextInt(2000) - 1000);
+                }
+            }
+        }
+        dos.writeByte(253);
+        dos.close();
+        content = bytes.toByteArray();
+    }
+
+    private static BinaryGraphReader createReader(boolean parallel) {
+        return new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(content)), parallel);
+    }
+
+    // Parallel mode requires a memory-mapped input.
+    private BinaryGraphReader createMappedReader(boolean parallel) throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), content);
+        return new BinaryGraphReader(new MappedFileInput(file.toPath()), parallel);
+    }
+
+    private static void assertSamePoints(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(),
+                    0);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 0);
+        }
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getMaximumLength(),
+                actual.getGraphInformation().getMaximumLength(), 0);
+        assertEquals(expected.getGraphInformation().getOneWayRoadCount(),
+                actual.getGraphInformation().getOneWayRoadCount());
+        for (int node = 0; node < expected.size(); ++node) {
+            final List<Arc> expectedArcs = expected.get(node).getSuccessors();
+            final List<Arc> actualArcs = actual.get(node).getSuccessors();
+            assertEquals(expectedArcs.size(), actualArcs.size());
+            for (int i = 0; i < expectedArcs.size(); ++i) {
+                final Arc expectedArc = expectedArcs.get(i),
+                        actualArc = actualArcs.get(i);
+                assertEquals(expectedArc.getDestination().getId(),
+                        actualArc.getDestination().getId());
+                assertEquals(expectedArc.getLength(), actualArc.getLength(), 0);
+                assertEquals(expectedArc.getRoadInformation().getName(),
+                        actualArc.getRoadInformation().getName());
+                assertSamePoints(expectedArc.getPoints(), actualArc.getPoints());
+            }
+        }
+    }
+
+    /**
+     * Check that the given graph is the expected graph renumbered according to its
+     * ordering (successors may be in a different order).
+     */
+    private static void assertRenumberedGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.size(), actual.size());
+        for (Node node : actual.getNodes()) {
+            final int externalId = actual.getExternalId(node);
+            assertEquals(node, actual.getByExternalId(externalId));
+            final Node original = expected.get(externalId);
+            assertEquals(original.getPoint().getLongitude(),
+                    node.getPoint().getLongitude(), 0);
+            assertEquals(original.getPoint().getLatitude(),
+                    node.getPoint().getLatitude(), 0);
+
+            final List<Arc> expectedArcs = new ArrayList<>(original.getSuccessors());
+            final List<Arc> actualArcs = new ArrayList<>(node.getSuccessors());
+            expectedArcs.sort(
+                    Comparator.comparingInt((Arc arc) -> arc.getDestination().getId())
+                            .thenComparingDouble(Arc::getLength));
+            actualArcs.sort(Comparator
+                    .comparingInt(
+                            (Arc arc) -> actual.getExternalId(arc.getDestination()))
+                    .thenComparingDouble(Arc::getLength));
+            assertEquals(expectedArcs.size(), actualArcs.size());
+            for (int i = 0; i < expectedArcs.size(); ++i) {
+                final Arc expectedArc = expectedArcs.get(i),
+                        actualArc = actualArcs.get(i);
+                assertEquals(expectedArc.getDestination().getId(),
+                        actual.getExternalId(actualArc.getDestination()));
+                assertEquals(expectedArc.getLength(), actualArc.getLength(), 0);
+                assertEquals(expectedArc.getRoadInformation().getName(),
+                        actualArc.getRoadInformation().getName());
+                assertSamePoints(expectedArc.getPoints(), actualArc.getPoints());
+            }
+        }
+    }
+
+    @Test
+    public void testParallelRead() throws IOException {
+        final RecordingObserver sequentialEvents = new RecordingObserver();
+        final BinaryGraphReader sequentialReader = createReader(false);
+        sequentialReader.addObserver(sequentialEvents);
+        final Graph sequential = sequentialReader.read();
+
+        final RecordingObserver parallelEvents = new RecordingObserver();
+        try (BinaryGraphReader parallelReader = createMappedReader(true)) {
+            parallelReader.addObserver(parallelEvents);
+            final Graph parallel = parallelReader.read();
+            assertSameGraph(sequential, parallel);
+        }
+        assertEquals(sequentialEvents.events, parallelEvents.events);
+    }
+
+    @Test
+    public void testMappedFileInput() throws IOException {
+        final File file = folder.newFile("random.mapgr");
+        Files.write(file.toPath(), content);
+        final Graph expected = createReader(false).read();
+        // Small chunks so that many values span two chunks.
+        for (int chunkSize : new int[] { 7, 4096,
+                MappedFileInput.DEFAULT_CHUNK_SIZE }) {
+            for (boolean parallel : new boolean[] { false, true }) {
+                try (BinaryGraphReader reader = new BinaryGraphReader(
+                        new MappedFileInput(file.toPath(), chunkSize), parallel)) {
+                    assertSameGraph(expected, reader.read());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLazyGeometry() throws IOException {
+        final File file = folder.newFile("lazy.mapgr");
+        Files.write(file.toPath(), content);
+        final Graph expected = createReader(false).read();
+        try (BinaryGraphReader reader =
+                new BinaryGraphReader(new MappedFileInput(file.toPath()), true)) {
+            // Small cache so that geometries are evicted and decoded again.
+            reader.enableLazyGeometry(4);
+            final Graph graph = reader.read();
+            assertSameGraph(expected, graph);
+            assertSameGraph(expected, graph);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLazyGeometryWithoutMapping() {
+        createReader(false).enableLazyGeometry(4);
+    }
+
+    @Test
+    public void testPackedGeometry() throws IOException {
+        final Graph expected = createReader(false).read();
+        for (boolean parallel : new boolean[] { false, true }) {
+            try (BinaryGraphReader reader = createMappedReader(parallel)) {
+                reader.enablePackedGeometry();
+                assertSameGraph(expected, reader.read());
+            }
+        }
+    }
+
+    @Test
+    public void testReadCsrGraph() throws IOException {
+        final Graph graph = createReader(false).read();
+        final CsrGraph csrGraph = createReader(false).readCsrGraph();
+        assertEquals(graph.getMapId(), csrGraph.getMapId());
+        assertSameGraph(graph, csrGraph.toGraph());
+    }
+
+    @Test
+    public void testNodeOrdering() throws IOException {
+        final File file = folder.newFile("ordered.mapgr");
+        Files.write(file.toPath(), content);
+        final Graph expected = createReader(false).read();
+        for (NodeOrdering.Strategy strategy : NodeOrdering.Strategy.values()) {
+            for (int geometry = 0; geometry < 3; ++geometry) {
+                try (BinaryGraphReader reader = new BinaryGraphReader(
+                        new MappedFileInput(file.toPath()), true)) {
+                    if (geometry == 1) {
+                        reader.enablePackedGeometry();
+                    }
+                    else if (geometry == 2) {
+                        reader.enableLazyGeometry(4);
+                    }
+                    reader.enableNodeOrdering(strategy);
+                    final Graph graph = reader.read();
+                    assertNotEquals(null, graph.getNodeOrdering());
+                    assertRenumberedGraph(expected, graph);
+                    assertRenumberedGraph(expected, graph);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadCsrGraphWithNodeOrdering() throws IOException {
+        final Graph expected = createReader(false).read();
+        for (NodeOrdering.Strategy strategy : NodeOrdering.Strategy.values()) {
+            final BinaryGraphReader graphReader = createReader(false);
+            graphReader.enableNodeOrdering(strategy);
+            final Graph graph = graphReader.read();
+            final BinaryGraphReader csrReader = createReader(false);
+            csrReader.enableNodeOrdering(strategy);
+            final CsrGraph csrGraph = csrReader.readCsrGraph();
+
+            // Nodes are numbered as with read(), and keep their external IDs.
+            assertNotEquals(null, csrGraph.getNodeOrdering());
+            for (int id = 0; id < graph.size(); ++id) {
+                assertEquals(graph.getNodeOrdering().getExternalId(id),
+                        csrGraph.getNodeOrdering().getExternalId(id));
+            }
+            assertRenumberedGraph(expected, csrGraph.toGraph());
+        }
+    }
+
+    @Test
+    public void testPathWithNodeOrdering() throws IOException {
+        final Graph expected = createReader(false).read();
+        final BinaryGraphReader reader = createReader(false);
+        reader.enableNodeOrdering(NodeOrdering.Strategy.HILBERT);
+        final Graph graph = reader.read();
+
+        // Path following the first successor of each node, until a node without
+        // successors or 10 arcs.
+        final List<Arc> arcs = new ArrayList<>();
+        Node node = graph.get(0);
+        while (arcs.size() < 10 && node.hasSuccessors()) {
+            arcs.add(node.getSuccessors().get(0));
+            node = arcs.get(arcs.size() - 1).getDestination();
+        }
+        final Path path =
+                arcs.isEmpty() ? new Path(graph, graph.get(0)) : new Path(graph, arcs);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryPathWriter(new DataOutputStream(bytes)).writePath(path);
+
+        // Paths are written with the IDs of the file, so they can be read with both
+        // graphs.
+        for (Graph target : new Graph[] { graph, expected }) {
+            final Path read = new BinaryPathReader(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+                    .readPath(target);
+            assertEquals(graph.getExternalId(path.getOrigin()),
+                    target.getExternalId(read.getOrigin()));
+            assertEquals(path.getArcs().size(), read.getArcs().size());
+            for (int i = 0; i < path.getArcs().size(); ++i) {
+                assertEquals(
+                        graph.getExternalId(path.getArcs().get(i).getDestination()),
+                        target.getExternalId(read.getArcs().get(i).getDestination()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+    // Random graph, built once as a Graph and once using a CSR builder.
+    private static Graph graph;
+    private static CsrGraph builtGraph;
+
+    @BeforeClass
+    public static void initAll() {
+        final Random random = new Random(42);
+        final int nbNodes = 50;
+
+        final RoadInformation[] infos = new RoadInformation[] {
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 50, "a"),
+                new RoadInformation(RoadType.MOTORWAY, null, true, 130, "b"),
+                new RoadInformation(RoadType.RESIDENTIAL, null, false, 30, "c") };
+
+        final CsrGraph.Builder builder = new CsrGraph.Builder(nbNodes, 1);
+        final Node[] nodes = new Node[nbNodes];
+        for (int i = 0; i < nbNodes; ++i) {
+            final float longitude = 1 + random.nextFloat(),
+                    latitude = 43 + random.nextFloat();
+            nodes[i] = new Node(i, new Point(longitude, latitude));
+            builder.addNode(longitude, latitude);
+        }
+        for (RoadInformation info : infos) {
+            builder.addDescriptor(info);
+        }
+
+        // Roads (including self-loops and parallel roads) with random intermediate
+        // points.
+        for (int road = 0; road < 300; ++road) {
+            final int origin = random.nextInt(nbNodes);
+            final int destination = road % 50 == 0 ? origin : random.nextInt(nbNodes);
+            final int descriptor = random.nextInt(infos.length);
+            final float length = random.nextInt(1000);
+            final int nbPoints = random.nextInt(4);
+            final float[] longitudes = new float[nbPoints],
+                    latitudes = new float[nbPoints];
+            final ArrayList<Point> points = new ArrayList<>();
+            points.add(nodes[origin].getPoint());
+            for (int i = 0; i < nbPoints; ++i) {
+                longitudes[i] = 1 + random.nextFloat();
+                latitudes[i] = 43 + random.nextFloat();
+                points.add(new Point(longitudes[i], latitudes[i]));
+            }
+            points.add(nodes[destination].getPoint());
+            Node.linkNodes(nodes[origin], nodes[destination], length, infos[descriptor],
+                    points);
+            builder.addRoad(origin, destination, length, descriptor, longitudes,
+                    latitudes, nbPoints);
+        }
+
+        graph = new Graph("ID", "", List.of(nodes), null);
+        builtGraph = builder.build("ID", "", null);
+    }
+
+    private static void assertSamePoints(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(),
+                    0);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 0);
+        }
+    }
+
+    /**
+     * Check that the given CSR graph has the same arcs as the given graph, in the same
+     * order.
+     */
+    private static void assertSameArcs(Graph graph, CsrGraph csrGraph) {
+        assertEquals(graph.size(), csrGraph.size());
+        for (Node node : graph.getNodes()) {
+            final List<Arc> successors = node.getSuccessors();
+            assertEquals(successors.size(),
+                    csrGraph.getNumberOfSuccessors(node.getId()));
+            for (int i = 0; i < successors.size(); ++i) {
+                final Arc arc = successors.get(i);
+                final int index = csrGraph.getFirstArc(node.getId()) + i;
+                assertEquals(node.getId(), csrGraph.getOrigin(index));
+                assertEquals(arc.getDestination().getId(), csrGraph.getTarget(index));
+                assertEquals(arc.getLength(), csrGraph.getLength(index), 0);
+                assertSame(arc.getRoadInformation(),
+                        csrGraph.getRoadInformation(index));
+                assertSamePoints(arc.getPoints(), csrGraph.getPoints(index));
+                final int twin = csrGraph.getTwin(index);
+                if (arc.getRoadInformation().isOneWay()) {
+                    assertEquals(-1, twin);
+                }
+                else {
+                    assertEquals(index, csrGraph.getTwin(twin));
+                    assertEquals(node.getId(), csrGraph.getTarget(twin));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromGraph() {
+        final CsrGraph csrGraph = CsrGraph.fromGraph(graph);
+        assertSameArcs(graph, csrGraph);
+        assertEquals(3, csrGraph.getNumberOfDescriptors());
+        assertSame(graph, csrGraph.toGraph());
+        for (int arc = 0; arc < csrGraph.getNumberOfArcs(); ++arc) {
+            final Arc expected = graph.get(csrGraph.getOrigin(arc)).getSuccessors()
+                    .get(arc - csrGraph.getFirstArc(csrGraph.getOrigin(arc)));
+            assertSame(expected, csrGraph.getArc(arc));
+        }
+    }
+
+    @Test
+    public void testGetCsrGraph() {
+        assertSame(graph.getCsrGraph(), graph.getCsrGraph());
+    }
+
+    @Test
+    public void testBuilder() {
+        assertSameArcs(graph, builtGraph);
+    }
+
+    @Test
+    public void testToGraph() {
+        final Graph materialized = builtGraph.toGraph();
+        assertSame(materialized, builtGraph.toGraph());
+        assertSame(builtGraph, materialized.getCsrGraph());
+        assertSameArcs(materialized, builtGraph);
+        for (Node node : materialized.getNodes()) {
+            // Nodes and arcs are created once.
+            assertSame(node, materialized.get(node.getId()));
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                final Arc arc = node.getSuccessors().get(i);
+                assertSame(arc, node.getSuccessors().get(i));
+                assertSame(arc,
+                        builtGraph.getArc(builtGraph.getFirstArc(node.getId()) + i));
+                assertSame(node, arc.getOrigin());
+                assertSame(materialized.get(arc.getDestination().getId()),
+                        arc.getDestination());
+                final List<Point> points = arc.getPoints();
+                final List<Point> expected =
+                        builtGraph.getPoints(builtGraph.getFirstArc(node.getId()) + i);
+                assertEquals(expected.size(), points.size());
+                for (int j = 0; j < points.size(); ++j) {
+                    assertEquals(expected.get(j).getLongitude(),
+                            points.get(j).getLongitude(), 0);
+                    assertEquals(expected.get(j).getLatitude(),
+                            points.get(j).getLatitude(), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncomingArcs() {
+        int nbIncomingArcs = 0;
+        for (int node = 0; node < builtGraph.size(); ++node) {
+            int previous = -1;
+            for (int i = builtGraph.getFirstIncomingArc(node); i < builtGraph
+                    .getEndIncomingArc(node); ++i) {
+                final int arc = builtGraph.getIncomingArc(i);
+                assertEquals(node, builtGraph.getTarget(arc));
+                assertTrue(arc > previous);
+                previous = arc;
+                nbIncomingArcs++;
+            }
+        }
+        assertEquals(builtGraph.getNumberOfArcs(), nbIncomingArcs);
+    }
+
+}
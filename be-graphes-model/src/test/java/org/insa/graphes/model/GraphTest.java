@@ -1,6 +1,7 @@
 package org.insa.graphes.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -115,4 +116,27 @@ public class GraphTest {
         assertEquals(1, getArcsBetween(transpose.get(4), transpose.get(3)).size());
 
     }
+
+    @Test
+    public void testPredecessors() {
+        Graph transpose = graph.transpose();
+        for (Node node : graph.getNodes()) {
+            List<Arc> predecessors = graph.getPredecessors(node);
+            assertEquals(transpose.get(node.getId()).getNumberOfSuccessors(),
+                    predecessors.size());
+            assertEquals(predecessors.size(), graph.getNumberOfPredecessors(node));
+            for (Node other : graph.getNodes()) {
+                int nbArcs = 0;
+                for (Arc arc : predecessors) {
+                    assertEquals(node, arc.getDestination());
+                    if (arc.getOrigin().equals(other)) {
+                        assertTrue(getArcsBetween(other, node).contains(arc));
+                        nbArcs++;
+                    }
+                }
+                assertEquals(getArcsBetween(transpose.get(node.getId()),
+                        transpose.get(other.getId())).size(), nbArcs);
+            }
+        }
+    }
 }
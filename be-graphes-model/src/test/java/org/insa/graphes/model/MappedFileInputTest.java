@@ -0,0 +1,89 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.insa.graphs.model.io.MappedFileInput;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedFileInputTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // File containing one value of each type.
+    private File file;
+
+    @Before
+    public void initAll() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bytes)) {
+            dos.writeByte(-3);
+            dos.writeShort(-1234);
+            dos.writeShort(0xfedc);
+            dos.writeByte(0x12);
+            dos.writeShort(0x3456);
+            dos.writeInt(-123456789);
+            dos.writeLong(0x0123456789abcdefL);
+            dos.writeFloat(3.14f);
+            dos.writeDouble(-2.5e100);
+            dos.writeUTF("Toulouse — Ramonville");
+            dos.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+        }
+        file = folder.newFile("values.bin");
+        Files.write(file.toPath(), bytes.toByteArray());
+    }
+
+    @Test
+    public void testReadValues() throws IOException {
+        // Every chunk size from 1 byte, so that each value spans chunks at some point.
+        for (int chunkSize = 1; chunkSize <= 64; ++chunkSize) {
+            try (MappedFileInput input =
+                    new MappedFileInput(file.toPath(), chunkSize)) {
+                assertEquals(-3, input.readByte());
+                assertEquals(-1234, input.readShort());
+                assertEquals(0xfedc, input.readUnsignedShort());
+                assertEquals(0x123456, input.readUnsigned24bits());
+                assertEquals(-123456789, input.readInt());
+                assertEquals(0x0123456789abcdefL, input.readLong());
+                assertEquals(3.14f, input.readFloat(), 0);
+                assertEquals(-2.5e100, input.readDouble(), 0);
+                assertEquals("Toulouse — Ramonville", input.readUTF());
+                assertEquals(2, input.skipBytes(2));
+                final byte[] bytes = new byte[8];
+                input.readFully(bytes);
+                assertArrayEquals(new byte[] { 3, 4, 5, 6, 7, 8, 9, 10 }, bytes);
+                assertEquals(input.size(), input.position());
+            }
+        }
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        try (MappedFileInput input = new MappedFileInput(file.toPath(), 5)) {
+            input.seek(8);
+            assertEquals(-123456789, input.readInt());
+            input.seek(0);
+            assertEquals(-3, input.readByte());
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testEndOfFile() throws IOException {
+        try (MappedFileInput input = new MappedFileInput(file.toPath(), 3)) {
+            input.seek(input.size() - 2);
+            input.readInt();
+        }
+    }
+
+}
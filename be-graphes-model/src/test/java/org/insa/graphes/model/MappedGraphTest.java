@@ -0,0 +1,222 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CsrGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.MappedGraph;
+import org.insa.graphs.model.io.MappedGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedGraphTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    // Random graph, and the file it has been written to.
+    private static Graph graph;
+    private static File file;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        final Random random = new Random(7);
+        final int nbNodes = 40;
+
+        final EnumMap<AccessMode, AccessRestriction> restrictions =
+                new EnumMap<>(AccessMode.class);
+        for (AccessMode mode : AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.values()[mode.ordinal()
+                    % AccessRestriction.values().length]);
+        }
+        final RoadInformation[] infos = new RoadInformation[] {
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 50, null),
+                new RoadInformation(RoadType.MOTORWAY,
+                        new AccessRestrictions(restrictions), true, 130, "A61"),
+                new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                        false, 30, "Rue de Metz") };
+
+        final Node[] nodes = new Node[nbNodes];
+        for (int i = 0; i < nbNodes; ++i) {
+            nodes[i] = new Node(i,
+                    new Point(1 + random.nextFloat(), 43 + random.nextFloat()));
+        }
+        for (int road = 0; road < 200; ++road) {
+            final int origin = random.nextInt(nbNodes);
+            final int destination = random.nextInt(nbNodes);
+            final ArrayList<Point> points = new ArrayList<>();
+            points.add(nodes[origin].getPoint());
+            for (int i = random.nextInt(4); i > 0; --i) {
+                points.add(new Point(1 + random.nextFloat(), 43 + random.nextFloat()));
+            }
+            points.add(nodes[destination].getPoint());
+            Node.linkNodes(nodes[origin], nodes[destination], random.nextInt(1000),
+                    infos[random.nextInt(infos.length)], points);
+        }
+        graph = new Graph("0x1234", "Random", List.of(nodes), new GraphStatistics(
+                new BoundingBox(new Point(1, 44), new Point(2, 43)), 12, 34, 130, 999));
+
+        file = folder.newFile("graph.mapgr2");
+        try (MappedGraphWriter writer = new MappedGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file))))) {
+            writer.writeGraph(graph);
+        }
+    }
+
+    @Test
+    public void testMetadata() throws IOException {
+        try (MappedGraph mapped = MappedGraph.open(file.toPath())) {
+            assertEquals(graph.getMapId(), mapped.getMapId());
+            assertEquals(graph.getMapName(), mapped.getMapName());
+            final GraphStatistics statistics = mapped.getGraphInformation();
+            assertEquals(12, statistics.getOneWayRoadCount());
+            assertEquals(34, statistics.getTwoWaysRoadCount());
+            assertEquals(130, statistics.getMaximumSpeed());
+            assertEquals(999, statistics.getMaximumLength(), 0);
+            assertEquals(44,
+                    statistics.getBoundingBox().getTopLeftPoint().getLatitude(), 0);
+        }
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        final CsrGraph csrGraph = graph.getCsrGraph();
+        try (MappedGraph mapped = MappedGraph.open(file.toPath())) {
+            assertEquals(csrGraph.size(), mapped.size());
+            assertEquals(csrGraph.getNumberOfArcs(), mapped.getNumberOfArcs());
+            for (int node = 0; node < csrGraph.size(); ++node) {
+                assertEquals(csrGraph.getLongitude(node), mapped.getLongitude(node), 0);
+                assertEquals(csrGraph.getLatitude(node), mapped.getLatitude(node), 0);
+                assertEquals(csrGraph.getFirstArc(node), mapped.getFirstArc(node));
+                assertEquals(csrGraph.getEndArc(node), mapped.getEndArc(node));
+                for (int arc = mapped.getFirstArc(node); arc < mapped
+                        .getEndArc(node); ++arc) {
+                    assertEquals(csrGraph.getTarget(arc), mapped.getTarget(arc));
+                    assertEquals(csrGraph.getLength(arc), mapped.getLength(arc), 0);
+                    assertEquals(csrGraph.getTwin(arc), mapped.getTwin(arc));
+
+                    final RoadInformation expected = csrGraph.getRoadInformation(arc);
+                    final RoadInformation actual = mapped.getRoadInformation(arc);
+                    assertEquals(expected.getType(), actual.getType());
+                    assertEquals(expected.isOneWay(), actual.isOneWay());
+                    assertEquals(expected.getMaximumSpeed(), actual.getMaximumSpeed());
+                    assertEquals(expected.getName(), actual.getName());
+                    for (AccessMode mode : AccessMode.values()) {
+                        assertEquals(
+                                expected.getAccessRestrictions() == null ? null
+                                        : expected.getAccessRestrictions()
+                                                .getRestrictionFor(mode),
+                                actual.getAccessRestrictions() == null ? null
+                                        : actual.getAccessRestrictions()
+                                                .getRestrictionFor(mode));
+                    }
+
+                    final List<Point> points = csrGraph.getPoints(arc);
+                    assertEquals(points.size() - 2,
+                            mapped.getNumberOfIntermediatePoints(arc));
+                    final List<Point> mappedPoints = mapped.getPoints(arc, node);
+                    for (int i = 0; i < points.size(); ++i) {
+                        assertEquals(points.get(i).getLongitude(),
+                                mappedPoints.get(i).getLongitude(), 0);
+                        assertEquals(points.get(i).getLatitude(),
+                                mappedPoints.get(i).getLatitude(), 0);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertPointsEquals(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(),
+                    0);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 0);
+        }
+    }
+
+    @Test
+    public void testCsrGraph() throws IOException {
+        final CsrGraph expected = graph.getCsrGraph();
+        try (MappedGraph mapped = MappedGraph.open(file.toPath())) {
+            final CsrGraph csrGraph = mapped.getCsrGraph();
+            assertEquals(graph.getMapId(), csrGraph.getMapId());
+            assertEquals(expected.size(), csrGraph.size());
+            assertEquals(expected.getNumberOfArcs(), csrGraph.getNumberOfArcs());
+            for (int node = 0; node < expected.size(); ++node) {
+                assertEquals(expected.getLongitude(node), csrGraph.getLongitude(node),
+                        0);
+                assertEquals(expected.getFirstArc(node), csrGraph.getFirstArc(node));
+                assertEquals(expected.getEndArc(node), csrGraph.getEndArc(node));
+            }
+            for (int arc = 0; arc < expected.getNumberOfArcs(); ++arc) {
+                assertEquals(expected.getTarget(arc), csrGraph.getTarget(arc));
+                assertEquals(expected.getLength(arc), csrGraph.getLength(arc), 0);
+                assertEquals(expected.getTwin(arc), csrGraph.getTwin(arc));
+                assertEquals(expected.getRoadInformation(arc).getMaximumSpeed(),
+                        csrGraph.getRoadInformation(arc).getMaximumSpeed());
+                assertPointsEquals(expected.getPoints(arc), csrGraph.getPoints(arc));
+
+                // Arc objects are created on demand, with the same points.
+                assertEquals(expected.getArc(arc).getOrigin().getId(),
+                        csrGraph.getArc(arc).getOrigin().getId());
+                assertPointsEquals(expected.getArc(arc).getPoints(),
+                        csrGraph.getArc(arc).getPoints());
+            }
+        }
+    }
+
+    @Test
+    public void testToGraph() throws IOException {
+        try (MappedGraph mapped = MappedGraph.open(file.toPath())) {
+            final Graph mappedGraph = mapped.getCsrGraph().toGraph();
+            assertEquals(graph.size(), mappedGraph.size());
+            for (Node node : graph.getNodes()) {
+                final List<Arc> expected = node.getSuccessors();
+                final List<Arc> actual = mappedGraph.get(node.getId()).getSuccessors();
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); ++i) {
+                    assertEquals(expected.get(i).getDestination().getId(),
+                            actual.get(i).getDestination().getId());
+                    assertEquals(expected.get(i).getLength(), actual.get(i).getLength(),
+                            0);
+                    assertPointsEquals(expected.get(i).getPoints(),
+                            actual.get(i).getPoints());
+                }
+            }
+        }
+    }
+
+    @Test(expected = BadMagicNumberException.class)
+    public void testBadMagicNumber() throws IOException {
+        final File other = folder.newFile("other.mapgr2");
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(other))) {
+            dos.write(new byte[128]);
+        }
+        MappedGraph.open(other.toPath()).close();
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedPolyline;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.PointCursor;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.Test;
+
+public class PackedPolylineTest {
+
+    /**
+     * Create a random polyline with mostly close points, and a few far away ones.
+     */
+    private static List<Point> createPoints(Random random, int size) {
+        final List<Point> points = new ArrayList<>();
+        float lon = 1 + random.nextFloat(), lat = 43 + random.nextFloat();
+        for (int i = 0; i < size; ++i) {
+            if (i % 7 == 6) {
+                lon = random.nextFloat() * 360 - 180;
+                lat = random.nextFloat() * 170 - 85;
+            }
+            else {
+                lon += (random.nextInt(2000) - 1000) / 2.0e5f;
+                lat += (random.nextInt(2000) - 1000) / 2.0e5f;
+            }
+            points.add(new Point(lon, lat));
+        }
+        return points;
+    }
+
+    private static void assertSamePoints(List<Point> expected, PointCursor cursor) {
+        assertEquals(expected.size(), cursor.size());
+        for (Point point : expected) {
+            assertTrue(cursor.next());
+            assertEquals(point.getLongitude(), cursor.getLongitude(), 0);
+            assertEquals(point.getLatitude(), cursor.getLatitude(), 0);
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testEmpty() {
+        final PackedPolyline polyline = PackedPolyline.of(Collections.emptyList());
+        assertTrue(polyline.isEmpty());
+        assertTrue(polyline.asList().isEmpty());
+        assertFalse(new PointCursor().reset(polyline, false).next());
+        assertFalse(new PointCursor().reset(polyline, true).next());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final Random random = new Random(3);
+        final PointCursor cursor = new PointCursor();
+        for (int size = 1; size < 50; ++size) {
+            final List<Point> points = createPoints(random, size);
+            final PackedPolyline polyline = PackedPolyline.of(points);
+            assertEquals(size, polyline.size());
+            assertSamePoints(points, new PointCursor().reset(polyline.asList(), false));
+            assertSamePoints(points, cursor.reset(polyline, false));
+
+            final List<Point> reversed = new ArrayList<>(points);
+            Collections.reverse(reversed);
+            assertSamePoints(reversed, cursor.reset(polyline, true));
+            assertSamePoints(reversed, cursor.reset(polyline, false).reverse());
+            assertSamePoints(reversed, cursor.reset(polyline.reverse(), false));
+        }
+    }
+
+    @Test
+    public void testDeltas() {
+        // Deltas as read from a graph file, including the unused Short.MIN_VALUE.
+        final short[] deltas = new short[] { 12, -7, Short.MAX_VALUE, Short.MIN_VALUE,
+                0, 0, -1000, 999 };
+        final PackedPolyline.Builder builder =
+                new PackedPolyline.Builder(1.5f, 43.5f, 5);
+        final List<Point> points = new ArrayList<>();
+        points.add(new Point(1.5f, 43.5f));
+        for (int i = 0; i < deltas.length; i += 2) {
+            builder.addDelta(deltas[i], deltas[i + 1]);
+            final Point last = points.get(points.size() - 1);
+            points.add(new Point(last.getLongitude() + deltas[i] / 2.0e5f,
+                    last.getLatitude() + deltas[i + 1] / 2.0e5f));
+        }
+        assertSamePoints(points, new PointCursor().reset(builder.build(), false));
+    }
+
+    @Test
+    public void testArcs() {
+        final Random random = new Random(5);
+        final RoadInformation info =
+                new RoadInformation(RoadType.UNCLASSIFIED, null, false, 50, null);
+        final Node n0 = new Node(0, new Point(1, 43)),
+                n1 = new Node(1, new Point(2, 44));
+        final List<Point> points = createPoints(random, 12);
+        final Arc forward =
+                Node.linkNodesPacked(n0, n1, 10, info, PackedPolyline.of(points));
+        final Arc backward =
+                Node.linkNodesPacked(n1, n0, 10, info, PackedPolyline.of(points));
+
+        final PointCursor cursor = new PointCursor();
+        assertSamePoints(points, new PointCursor().reset(forward.getPoints(), false));
+        assertSamePoints(points, forward.getPoints(cursor));
+        assertSamePoints(points, backward.getPoints(cursor));
+
+        final List<Point> reversed = new ArrayList<>(points);
+        Collections.reverse(reversed);
+        assertSamePoints(reversed, n1.getSuccessors().get(0).getPoints(cursor));
+        assertSamePoints(reversed, n0.getSuccessors().get(1).getPoints(cursor));
+        assertSamePoints(reversed,
+                new PointCursor().reset(n0.getSuccessors().get(1).getPoints(), false));
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.insa.graphs.model.Point;
+import org.junit.Test;
+
+public class PointTest {
+
+    @Test
+    public void testDistanceOfCoordinates() {
+        Point p1 = new Point(1.4437f, 43.6042f), p2 = new Point(1.5632f, 43.5571f);
+        assertEquals(Point.distance(p1, p2), Point.distance(p1.getLongitude(),
+                p1.getLatitude(), p2.getLongitude(), p2.getLatitude()), 0);
+    }
+
+    @Test
+    public void testLowerBoundDistanceSamePoint() {
+        Point point = new Point(1.4437f, 43.6042f);
+        assertEquals(0, Point.lowerBoundDistance(point, point), 0);
+    }
+
+    @Test
+    public void testLowerBoundDistanceIsClose() {
+        // Two points about 10 km apart in Toulouse: the bound should be tight.
+        Point p1 = new Point(1.4437f, 43.6042f), p2 = new Point(1.5632f, 43.5571f);
+        double distance = Point.distance(p1, p2);
+        double bound = Point.lowerBoundDistance(p1, p2);
+        assertTrue(bound <= distance);
+        assertTrue(bound >= 0.99 * distance);
+    }
+
+    @Test
+    public void testLowerBoundDistanceIsAdmissible() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; ++i) {
+            Point p1 = new Point(random.nextFloat() * 360 - 180,
+                    random.nextFloat() * 170 - 85);
+            // Mostly short distances, as between the nodes of a road graph, but also
+            // some very long ones.
+            float scale = i % 10 == 0 ? 180 : 0.5f;
+            Point p2 = new Point(
+                    p1.getLongitude() + (random.nextFloat() - 0.5f) * scale,
+                    Math.max(-85, Math.min(85,
+                            p1.getLatitude() + (random.nextFloat() - 0.5f) * scale)));
+            assertTrue(Point.lowerBoundDistance(p1, p2) <= Point.distance(p1, p2));
+        }
+    }
+
+    @Test
+    public void testLowerBoundDistanceIsAdmissibleOnShortDistances() {
+        // distance() loses precision on points a few centimeters to a few meters apart,
+        // e.g. the ends of very short arcs.
+        Random random = new Random(43);
+        for (int i = 0; i < 100000; ++i) {
+            Point p1 = new Point(random.nextFloat() * 360 - 180,
+                    random.nextFloat() * 170 - 85);
+            float scale = (float) Math.pow(10, -7 + 3 * random.nextFloat());
+            Point p2 =
+                    new Point(p1.getLongitude() + (random.nextFloat() - 0.5f) * scale,
+                            p1.getLatitude() + (random.nextFloat() - 0.5f) * scale);
+            assertTrue(Point.lowerBoundDistance(p1, p2) <= Point.distance(p1, p2));
+        }
+    }
+
+}